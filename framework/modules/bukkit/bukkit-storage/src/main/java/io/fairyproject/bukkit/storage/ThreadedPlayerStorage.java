@@ -25,6 +25,7 @@
 package io.fairyproject.bukkit.storage;
 
 import com.google.common.collect.Lists;
+import io.fairyproject.AsyncRepository;
 import io.fairyproject.StorageService;
 import io.fairyproject.bukkit.listener.events.Events;
 import io.fairyproject.bukkit.util.JavaPluginUtil;
@@ -32,10 +33,12 @@ import io.fairyproject.container.Autowired;
 import io.fairyproject.container.ContainerContext;
 import io.fairyproject.container.DependsOn;
 import io.fairyproject.container.PostInitialize;
+import io.fairyproject.container.PreDestroy;
 import io.fairyproject.log.Log;
 import io.fairyproject.scheduler.Schedulers;
 import io.fairyproject.storage.DataClosable;
 import io.fairyproject.storage.PlayerStorage;
+import io.fairyproject.storage.WriteBehindQueue;
 import io.fairyproject.util.AsyncUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -153,6 +156,16 @@ public abstract class ThreadedPlayerStorage<T> implements PlayerStorage<T> {
 
     @Override
     public CompletableFuture<T> save(UUID uuid, T t) {
+        final WriteBehindQueue<T, UUID> writeBehindQueue = this.storageConfiguration.getWriteBehindQueue();
+        if (writeBehindQueue != null) {
+            return writeBehindQueue.save(uuid, t);
+        }
+
+        final AsyncRepository<T, UUID> asyncRepository = this.storageConfiguration.getAsyncRepository();
+        if (asyncRepository != null) {
+            return asyncRepository.save(t);
+        }
+
         return Schedulers.IO.schedule(() -> {
             this.storageConfiguration.saveAsync(uuid, t);
             return t;
@@ -190,6 +203,18 @@ public abstract class ThreadedPlayerStorage<T> implements PlayerStorage<T> {
         registerPlayerQuit();
     }
 
+    @PreDestroy
+    public final void onPreDestroyStorage() {
+        if (this.storageConfiguration == null) {
+            return;
+        }
+
+        final WriteBehindQueue<T, UUID> writeBehindQueue = this.storageConfiguration.getWriteBehindQueue();
+        if (writeBehindQueue != null) {
+            writeBehindQueue.flush();
+        }
+    }
+
     private void registerPlayerQuit() {
         Events.subscribe(PlayerQuitEvent.class)
                 .priority(EventPriority.MONITOR)
@@ -24,7 +24,10 @@
 
 package io.fairyproject.bukkit.storage;
 
+import io.fairyproject.AsyncRepository;
+import io.fairyproject.storage.WriteBehindQueue;
 import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 
@@ -49,4 +52,26 @@ public interface ThreadedPlayerStorageConfiguration<T> {
 
     boolean shouldUnloadOnQuit(Player player);
 
+    /**
+     * get the write-behind queue saves should be merged and batched through,
+     * if null, every save is written on its own with {@link #saveAsync(UUID, Object)}
+     *
+     * @return the write-behind queue
+     */
+    @Nullable
+    default WriteBehindQueue<T, UUID> getWriteBehindQueue() {
+        return null;
+    }
+
+    /**
+     * get the async repository saves should be written through without blocking a scheduler thread,
+     * if null, saves are written with {@link #saveAsync(UUID, Object)} on {@link io.fairyproject.scheduler.Schedulers#IO}
+     *
+     * @return the async repository
+     */
+    @Nullable
+    default AsyncRepository<T, UUID> getAsyncRepository() {
+        return null;
+    }
+
 }
@@ -24,11 +24,16 @@
 
 package io.fairyproject.bukkit.storage;
 
+import io.fairyproject.AsyncRepository;
 import io.fairyproject.Repository;
+import io.fairyproject.storage.WriteBehindQueue;
 
 import java.util.UUID;
 
 public abstract class ThreadedPlayerStorageConfigurationRepository<T> implements ThreadedPlayerStorageConfiguration<T> {
+
+    private volatile WriteBehindQueue<T, UUID> writeBehindQueue;
+
     @Override
     public final String getName() {
         return this.getRepository().getRepoId();
@@ -36,6 +41,15 @@ public abstract class ThreadedPlayerStorageConfigurationRepository<T> implements
 
     @Override
     public final T loadAsync(UUID uuid, String name) {
+        // a save that is still queued is newer than what the repository holds
+        final WriteBehindQueue<T, UUID> writeBehindQueue = this.getWriteBehindQueue();
+        if (writeBehindQueue != null) {
+            final T pending = writeBehindQueue.getPending(uuid);
+            if (pending != null) {
+                return pending;
+            }
+        }
+
         return this.getRepository().findById(uuid).orElseGet(() -> this.create(uuid, name));
     }
 
@@ -44,6 +58,49 @@ public abstract class ThreadedPlayerStorageConfigurationRepository<T> implements
         this.getRepository().save(t);
     }
 
+    @Override
+    public WriteBehindQueue<T, UUID> getWriteBehindQueue() {
+        if (!this.isWriteBehind()) {
+            return null;
+        }
+
+        if (this.writeBehindQueue == null) {
+            synchronized (this) {
+                if (this.writeBehindQueue == null) {
+                    this.writeBehindQueue = new WriteBehindQueue<>(this.getRepository());
+                }
+            }
+        }
+        return this.writeBehindQueue;
+    }
+
+    @Override
+    public AsyncRepository<T, UUID> getAsyncRepository() {
+        if (!this.isAsyncRepository()) {
+            return null;
+        }
+
+        return this.getRepository().async();
+    }
+
+    /**
+     * should saves be written through {@link Repository#async()} instead of {@link io.fairyproject.scheduler.Schedulers#IO}
+     *
+     * @return is async repository
+     */
+    public boolean isAsyncRepository() {
+        return false;
+    }
+
+    /**
+     * should saves be merged and written in batches through a {@link WriteBehindQueue}
+     *
+     * @return is write-behind
+     */
+    public boolean isWriteBehind() {
+        return false;
+    }
+
     public abstract T create(UUID uuid, String name);
 
     public abstract Repository<T, UUID> getRepository();
@@ -25,16 +25,9 @@
 package io.fairyproject.bukkit.visual;
 
 import com.cryptomorin.xseries.XMaterial;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import io.fairyproject.bukkit.listener.RegisterAsListener;
 import io.fairyproject.bukkit.listener.events.Events;
 import io.fairyproject.bukkit.nms.BukkitNMSManager;
-import io.fairyproject.bukkit.util.CoordXZ;
-import io.fairyproject.bukkit.util.CoordinatePair;
 import io.fairyproject.bukkit.visual.event.PreHandleVisualClaimEvent;
 import io.fairyproject.bukkit.visual.event.PreHandleVisualEvent;
 import io.fairyproject.bukkit.visual.sender.VisualBlockSender;
@@ -49,6 +42,8 @@ import io.fairyproject.plugin.Plugin;
 import io.fairyproject.plugin.PluginListenerAdapter;
 import io.fairyproject.plugin.PluginManager;
 import io.fairyproject.scheduler.response.TaskResponse;
+import io.fairyproject.util.collection.LongObjectMap;
+import io.fairyproject.util.collection.RectangleIndex;
 import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -59,8 +54,8 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.util.Vector;
-import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -71,9 +66,9 @@ import java.util.function.Predicate;
 @RegisterAsListener
 public class VisualBlockService implements Listener {
 
-    private final Table<UUID, VisualPosition, VisualBlock> table = HashBasedTable.create();
-    private final LoadingCache<CoordinatePair, Optional<VisualBlockClaim>> claimCache;
-    private final Table<CoordinatePair, CoordXZ, VisualBlockClaim> claimPositionTable;
+    // the visual blocks of each player by packed position, every map is guarded by itself
+    private final Map<UUID, LongObjectMap<VisualBlock>> blocks = new ConcurrentHashMap<>();
+    private final Map<String, RectangleIndex<VisualBlockClaim>> claims = new ConcurrentHashMap<>();
     private final Queue<VisualTask> visualTasks = new ConcurrentLinkedQueue<>();
     private final Map<Plugin, List<VisualBlockGenerator>> dynamicVisualGenerator = new ConcurrentHashMap<>();
     private final BukkitNMSManager nmsManager;
@@ -88,21 +83,6 @@ public class VisualBlockService implements Listener {
     public VisualBlockService(BukkitNMSManager nmsManager, MCSchedulerProvider mcSchedulerProvider) {
         this.nmsManager = nmsManager;
         this.mcSchedulerProvider = mcSchedulerProvider;
-        this.claimPositionTable = HashBasedTable.create();
-        this.claimCache = CacheBuilder.newBuilder()
-                .maximumSize(8000)
-                .build(new CacheLoader<CoordinatePair, Optional<VisualBlockClaim>>() {
-                    @Override
-                    public Optional<VisualBlockClaim> load(@NotNull CoordinatePair key) {
-                        final int chunkX = key.getX() >> 4;
-                        final int chunkZ = key.getZ() >> 4;
-                        final int posX = key.getX() % 16;
-                        final int posZ = key.getZ() % 16;
-                        synchronized (claimPositionTable) {
-                            return Optional.ofNullable(claimPositionTable.get(new CoordinatePair(key.getWorldName(), chunkX, chunkZ), new CoordXZ((byte) posX, (byte) posZ)));
-                        }
-                    }
-                });
     }
 
     @PostInitialize
@@ -119,17 +99,17 @@ public class VisualBlockService implements Listener {
 
             final Collection<VisualBlockClaim> claimCache = new HashSet<>();
 
-            for (int x = toX - 7; x < toX + 7; x++) {
-                for (int z = toZ - 7; z < toZ + 7; z++) {
-                    final VisualBlockClaim color = getClaimAt(location.getWorld(), x, z);
-                    PreHandleVisualClaimEvent claimEvent = new PreHandleVisualClaimEvent(player, color);
+            final RectangleIndex<VisualBlockClaim> index = this.claims.get(location.getWorld().getName());
+            if (index != null) {
+                index.forEachIntersecting(toX - 7, toZ - 7, toX + 6, toZ + 6, claim -> {
+                    PreHandleVisualClaimEvent claimEvent = new PreHandleVisualClaimEvent(player, claim);
 
                     Events.call(claimEvent);
 
-                    if (color != null && !claimEvent.isCancelled()) {
-                        claimCache.add(color);
+                    if (!claimEvent.isCancelled()) {
+                        claimCache.add(claim);
                     }
-                }
+                });
             }
 
             if (!claimCache.isEmpty()) {
@@ -178,6 +158,11 @@ public class VisualBlockService implements Listener {
         handlePositionChanged(event.getPlayer(), event.getTo());
     }
 
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        this.blocks.remove(event.getPlayer().getUniqueId());
+    }
+
     public void registerGenerator(VisualBlockGenerator blockGenerator) {
         Plugin plugin = PluginManager.INSTANCE.getPluginByClass(blockGenerator.getClass());
 
@@ -197,45 +182,18 @@ public class VisualBlockService implements Listener {
     }
 
     public void cacheClaim(VisualBlockClaim claim) {
-        final World world = claim.getWorld();
-        final int minX = Math.min(claim.getMaxX(), claim.getMinX());
-        final int maxX = Math.max(claim.getMaxX(), claim.getMinX());
-        final int minZ = Math.min(claim.getMaxZ(), claim.getMinZ());
-        final int maxZ = Math.max(claim.getMaxZ(), claim.getMinZ());
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                final CoordinatePair worldPosition = new CoordinatePair(world, x, z);
-                final CoordinatePair chunkPair = new CoordinatePair(world, x >> 4, z >> 4);
-                final CoordXZ chunkPosition = new CoordXZ((byte) (x % 16), (byte) (z % 16));
-                synchronized (claimPositionTable) {
-                    claimPositionTable.put(chunkPair, chunkPosition, claim);
-                }
-                claimCache.invalidate(worldPosition);
-            }
-        }
+        this.claims.computeIfAbsent(claim.getWorld().getName(), world -> new RectangleIndex<>())
+                .put(claim, claim.getMinX(), claim.getMinZ(), claim.getMaxX(), claim.getMaxZ());
     }
 
     public void removeClaim(VisualBlockClaim claim) {
-        final World world = claim.getWorld();
-        final int minX = Math.min(claim.getMaxX(), claim.getMinX());
-        final int maxX = Math.max(claim.getMaxX(), claim.getMinX());
-        final int minZ = Math.min(claim.getMaxZ(), claim.getMinZ());
-        final int maxZ = Math.max(claim.getMaxZ(), claim.getMinZ());
-        for (int x = minX; x <= maxX; x++) {
-            for (int z = minZ; z <= maxZ; z++) {
-                final CoordinatePair worldPosition = new CoordinatePair(world, x, z);
-                final CoordinatePair chunkPair = new CoordinatePair(world, x >> 4, z >> 4);
-                final CoordXZ chunkPosition = new CoordXZ((byte) (x % 16), (byte) (z % 16));
-                synchronized (claimPositionTable) {
-                    claimPositionTable.remove(chunkPair, chunkPosition);
-                }
-                claimCache.invalidate(worldPosition);
-            }
-        }
+        final RectangleIndex<VisualBlockClaim> index = this.claims.get(claim.getWorld().getName());
+        if (index != null)
+            index.remove(claim);
     }
 
     public void clearAll(final Player player, final boolean send) {
-        table.rowMap().remove(player.getUniqueId());
+        this.blocks.remove(player.getUniqueId());
         this.visualBlockSender.clearFakeBlocks(player, send);
     }
 
@@ -245,16 +203,15 @@ public class VisualBlockService implements Listener {
 
     public void clearVisualType(final Player player, final VisualType visualType, final Predicate<VisualBlock> predicate, final boolean send) {
         final List<BlockPosition> removeFromClient = new ArrayList<>();
-        synchronized (table) {
-            final Map<VisualPosition, VisualBlock> currentBlocks = table.row(player.getUniqueId());
-            for (final Map.Entry<VisualPosition, VisualBlock> entry : new ArrayList<>(currentBlocks.entrySet())) {
-                final VisualPosition blockPosition = entry.getKey();
-                final VisualBlock visualBlock = entry.getValue();
-                final VisualType blockVisualType = visualBlock.getVisualType();
-                if (blockVisualType.equals(visualType) && (predicate == null || predicate.test(visualBlock))) {
-                    removeFromClient.add(blockPosition);
-                    currentBlocks.remove(blockPosition);
-                }
+        final LongObjectMap<VisualBlock> currentBlocks = this.blocks.get(player.getUniqueId());
+        if (currentBlocks != null) {
+            synchronized (currentBlocks) {
+                currentBlocks.removeIf((key, visualBlock) -> {
+                    if (!visualBlock.getVisualType().equals(visualType) || (predicate != null && !predicate.test(visualBlock)))
+                        return false;
+                    removeFromClient.add(visualBlock.getLocation());
+                    return true;
+                });
             }
         }
         this.visualBlockSender.send(player, Collections.emptyMap(), removeFromClient, send);
@@ -263,12 +220,13 @@ public class VisualBlockService implements Listener {
     public Map<BlockPosition, XMaterial> addVisualType(final Player player, final Collection<VisualPosition> locations, final boolean send) {
         final Map<BlockPosition, XMaterial> sendToClient = new HashMap<>();
         this.removeBlockFromSolid(player, locations);
-        synchronized (table) {
+        final LongObjectMap<VisualBlock> currentBlocks = this.blocksOf(player);
+        synchronized (currentBlocks) {
             for (VisualPosition blockPosition : locations) {
                 VisualType visualType = blockPosition.getType();
                 XMaterial material = visualType.generate(player, blockPosition);
                 sendToClient.put(blockPosition, material);
-                table.put(player.getUniqueId(), blockPosition, new VisualBlock(visualType, material, blockPosition));
+                currentBlocks.put(blockPosition.asLong(), new VisualBlock(visualType, material, blockPosition));
             }
         }
         this.visualBlockSender.send(player, sendToClient, Collections.emptyList(), send);
@@ -279,36 +237,52 @@ public class VisualBlockService implements Listener {
         final Map<BlockPosition, XMaterial> sendToClient = new HashMap<>();
         final List<BlockPosition> removeFromClient = new ArrayList<>();
         this.removeBlockFromSolid(player, locations);
-        synchronized (table) {
-            final Map<VisualPosition, VisualBlock> currentBlocks = table.row(player.getUniqueId());
-            for (final Map.Entry<VisualPosition, VisualBlock> entry : new ArrayList<>(currentBlocks.entrySet())) {
-                final VisualPosition blockPosition = entry.getKey();
-                final VisualBlock visualBlock = entry.getValue();
-                final VisualType blockVisualType = visualBlock.getVisualType();
-                if (blockVisualType.equals(blockPosition.getType())) {
-                    if (!locations.remove(blockPosition)) {
-                        removeFromClient.add(blockPosition);
-                        currentBlocks.remove(blockPosition);
-                    }
-                }
-            }
-            for (VisualPosition blockPosition : locations) {
+
+        final LongObjectMap<VisualPosition> positions = new LongObjectMap<>(locations.size());
+        for (VisualPosition blockPosition : locations) {
+            positions.put(blockPosition.asLong(), blockPosition);
+        }
+
+        final LongObjectMap<VisualBlock> currentBlocks = this.blocksOf(player);
+        synchronized (currentBlocks) {
+            currentBlocks.removeIf((key, visualBlock) -> {
+                if (positions.containsKey(key))
+                    return false;
+                removeFromClient.add(visualBlock.getLocation());
+                return true;
+            });
+            positions.forEach((key, blockPosition) -> {
                 VisualType visualType = blockPosition.getType();
+                VisualBlock current = currentBlocks.get(key);
+                // already shown
+                if (current != null && current.getVisualType().equals(visualType))
+                    return;
+
                 XMaterial material = visualType.generate(player, blockPosition);
                 sendToClient.put(blockPosition, material);
-                table.put(player.getUniqueId(), blockPosition, new VisualBlock(visualType, material, blockPosition));
-            }
+                currentBlocks.put(key, new VisualBlock(visualType, material, blockPosition));
+            });
         }
         this.visualBlockSender.send(player, sendToClient, removeFromClient, send);
         return sendToClient;
     }
 
     public boolean isVisualBlock(Player player, int x, int y, int z) {
-        return table.contains(player.getUniqueId(), new VisualPosition(x, y, z, player.getWorld().getName(), null));
+        return this.getVisualBlock(player, x, y, z) != null;
     }
 
     public VisualBlock getVisualBlock(Player player, int x, int y, int z) {
-        return table.get(player.getUniqueId(), new VisualPosition(x, y, z, player.getWorld().getName(), null));
+        final LongObjectMap<VisualBlock> currentBlocks = this.blocks.get(player.getUniqueId());
+        if (currentBlocks == null)
+            return null;
+
+        synchronized (currentBlocks) {
+            return currentBlocks.get(BlockPosition.asLong(x, y, z));
+        }
+    }
+
+    private LongObjectMap<VisualBlock> blocksOf(Player player) {
+        return this.blocks.computeIfAbsent(player.getUniqueId(), uuid -> new LongObjectMap<>());
     }
 
     private void removeBlockFromSolid(Player player, Collection<VisualPosition> locations) {
@@ -327,22 +301,20 @@ public class VisualBlockService implements Listener {
     }
 
     public VisualBlockClaim getClaimAt(final World world, final int x, final int z) {
-        try {
-            return claimCache.get(new CoordinatePair(world, x, z)).orElse(null);
-        } catch (final Exception exception) {
-            exception.printStackTrace();
-            final int chunkX = x >> 4;
-            final int chunkZ = z >> 4;
-            final byte posX = (byte) (x % 16);
-            final byte posZ = (byte) (z % 16);
-            synchronized (claimPositionTable) {
-                return claimPositionTable.get(new CoordinatePair(world, chunkX, chunkZ), new CoordXZ(posX, posZ));
-            }
-        }
+        final RectangleIndex<VisualBlockClaim> index = this.claims.get(world.getName());
+        return index != null ? index.get(x, z) : null;
+    }
+
+    /**
+     * Get the claims intersecting the area, the bounds are inclusive.
+     */
+    public Collection<VisualBlockClaim> getClaimsIn(final World world, final int minX, final int minZ, final int maxX, final int maxZ) {
+        final RectangleIndex<VisualBlockClaim> index = this.claims.get(world.getName());
+        return index != null ? index.getIntersecting(minX, minZ, maxX, maxZ) : Collections.emptyList();
     }
 
     public void handlePositionChanged(final Player player, final Location location) {
-        if (this.claimPositionTable.isEmpty() && this.dynamicVisualGenerator.isEmpty()) {
+        if (this.hasNoClaim() && this.dynamicVisualGenerator.isEmpty()) {
             return;
         }
 
@@ -365,6 +337,14 @@ public class VisualBlockService implements Listener {
         }
     }
 
+    private boolean hasNoClaim() {
+        for (RectangleIndex<VisualBlockClaim> index : this.claims.values()) {
+            if (!index.isEmpty())
+                return false;
+        }
+        return true;
+    }
+
     public List<Vector> getEdges(VisualBlockClaim claim) {
         final int minX = Math.min(claim.getMinX(), claim.getMaxX());
         final int maxX = Math.max(claim.getMinX(), claim.getMaxX());
@@ -28,19 +28,18 @@ import com.cryptomorin.xseries.XMaterial;
 import com.github.retrooper.packetevents.util.Vector3i;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBlockChange;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerMultiBlockChange;
-import com.google.common.collect.HashMultimap;
 import io.fairyproject.Fairy;
 import io.fairyproject.bukkit.nms.BukkitNMSManager;
 import io.fairyproject.bukkit.visual.VisualBlock;
 import io.fairyproject.bukkit.visual.sender.impl.BukkitVisualData;
 import io.fairyproject.bukkit.visual.sender.impl.NewVisualData;
 import io.fairyproject.bukkit.visual.sender.impl.OldVisualData;
-import io.fairyproject.bukkit.visual.util.BlockPositionData;
 import io.fairyproject.data.MetaKey;
 import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.data.MCMetadata;
 import io.fairyproject.mc.protocol.MCProtocol;
 import io.fairyproject.mc.util.BlockPosition;
+import io.fairyproject.util.collection.LongObjectMap;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
@@ -62,7 +61,8 @@ public class VisualBlockSender {
 
     public void send(Player player, Map<BlockPosition, XMaterial> blockMap, List<BlockPosition> replace, boolean send) {
         VisualContainer visualContainer = MCMetadata.provide(player).computeIfAbsent(fakeBlocksMetadataKey, VisualContainer::new);
-        HashMultimap<BlockPosition, BlockPositionData> map = HashMultimap.create();
+        // the changed blocks of each chunk section, by packed section position
+        LongObjectMap<List<WrapperPlayServerMultiBlockChange.EncodedBlock>> sections = new LongObjectMap<>();
 
         for (final Map.Entry<BlockPosition, XMaterial> entry : blockMap.entrySet()) {
             final BlockPosition blockPosition = entry.getKey();
@@ -72,54 +72,44 @@ public class VisualBlockSender {
             }
             final XMaterial previous = visualContainer.put(blockPosition, materialData);
             if (send && previous != materialData) {
-                final int x = blockPosition.getX();
-                final int y = blockPosition.getY();
-                final int z = blockPosition.getZ();
-                final int chunkX = x >> 4;
-                final int chunkY = y >> 4;
-                final int chunkZ = z >> 4;
-                final int posX = x - (chunkX << 4);
-                final int posZ = z - (chunkZ << 4);
-                map.put(new BlockPosition(chunkX, chunkY, chunkZ), new BlockPositionData(new BlockPosition(posX, y, posZ), materialData));
+                this.addToSection(sections, blockPosition, materialData);
             }
         }
         for (final BlockPosition blockPosition : replace) {
-            if (visualContainer.remove(blockPosition) != null) {
-                final int x2 = blockPosition.getX();
-                final int y2 = blockPosition.getY();
-                final int z2 = blockPosition.getZ();
+            if (visualContainer.remove(blockPosition) != null && send) {
                 final org.bukkit.block.Block blockData = player.getWorld().getBlockAt(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
                 final Material type = blockData.getType();
-                final int chunkX2 = x2 >> 4;
-                final int chunkY2 = y2 >> 4;
-                final int chunkZ2 = z2 >> 4;
-                final int posX2 = x2 - (chunkX2 << 4);
-                final int posZ2 = z2 - (chunkZ2 << 4);
-                map.put(new BlockPosition(chunkX2, chunkY2, chunkZ2), new BlockPositionData(new BlockPosition(posX2, y2, posZ2), XMaterial.matchXMaterial(type)));
+                this.addToSection(sections, blockPosition, XMaterial.matchXMaterial(type));
             }
         }
 
-        MCPlayer mcPlayer = MCPlayer.from(player);
-        if (send) {
-            for (final Map.Entry<BlockPosition, Collection<BlockPositionData>> entry2 : map.asMap().entrySet()) {
-                final BlockPosition chunkPosition = entry2.getKey();
-                final Collection<BlockPositionData> blocks = entry2.getValue();
-
-                WrapperPlayServerMultiBlockChange.EncodedBlock[] encodedBlocks = new WrapperPlayServerMultiBlockChange.EncodedBlock[blocks.size()];
+        if (!send || sections.isEmpty())
+            return;
 
-                int i = 0;
-                for (BlockPositionData positionData : blocks) {
-                    BlockPosition b = positionData.getBlockPosition();
-                    XMaterial materialData = positionData.getMaterial();
+        MCPlayer mcPlayer = MCPlayer.from(player);
+        sections.forEach((section, blocks) -> {
+            Vector3i chunkPosition = new Vector3i(BlockPosition.getX(section), BlockPosition.getY(section), BlockPosition.getZ(section));
+            WrapperPlayServerMultiBlockChange.EncodedBlock[] encodedBlocks = blocks.toArray(new WrapperPlayServerMultiBlockChange.EncodedBlock[0]);
 
-                    encodedBlocks[i] = new WrapperPlayServerMultiBlockChange.EncodedBlock(getIdByMaterial(materialData), b.getX(), b.getY(), b.getZ());
-                    i++;
-                }
+            WrapperPlayServerMultiBlockChange packet = new WrapperPlayServerMultiBlockChange(chunkPosition, false, encodedBlocks);
+            MCProtocol.sendPacket(mcPlayer, packet);
+        });
+    }
 
-                WrapperPlayServerMultiBlockChange packet = new WrapperPlayServerMultiBlockChange(new Vector3i(chunkPosition.getX(), chunkPosition.getY(), chunkPosition.getZ()), false, encodedBlocks);
-                MCProtocol.sendPacket(mcPlayer, packet);
-            }
+    private void addToSection(LongObjectMap<List<WrapperPlayServerMultiBlockChange.EncodedBlock>> sections, BlockPosition blockPosition, XMaterial material) {
+        final int x = blockPosition.getX();
+        final int y = blockPosition.getY();
+        final int z = blockPosition.getZ();
+        final int chunkX = x >> 4;
+        final int chunkZ = z >> 4;
+        final long section = BlockPosition.asLong(chunkX, y >> 4, chunkZ);
+
+        List<WrapperPlayServerMultiBlockChange.EncodedBlock> blocks = sections.get(section);
+        if (blocks == null) {
+            blocks = new ArrayList<>();
+            sections.put(section, blocks);
         }
+        blocks.add(new WrapperPlayServerMultiBlockChange.EncodedBlock(getIdByMaterial(material), x - (chunkX << 4), y, z - (chunkZ << 4)));
     }
 
     public void sendBlock(Player player, VisualBlock block) {
@@ -135,7 +125,7 @@ public class VisualBlockSender {
             return;
 
         if (send) {
-            send(player, Collections.emptyMap(), new ArrayList<>(visualContainer.keySet()), true);
+            send(player, Collections.emptyMap(), visualContainer.positions(), true);
         } else {
             visualContainer.clear();
         }
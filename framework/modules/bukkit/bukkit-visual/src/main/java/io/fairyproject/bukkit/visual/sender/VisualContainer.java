@@ -26,8 +26,202 @@ package io.fairyproject.bukkit.visual.sender;
 
 import com.cryptomorin.xseries.XMaterial;
 import io.fairyproject.mc.util.BlockPosition;
+import io.fairyproject.util.collection.LongObjectMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The materials of the blocks faked to a player, by packed position.
+ * <p>
+ * Still usable as a {@link ConcurrentMap}, its views iterate over a snapshot taken when the iterator is created.
+ */
+public class VisualContainer extends AbstractMap<BlockPosition, XMaterial> implements ConcurrentMap<BlockPosition, XMaterial> {
+
+    private final LongObjectMap<XMaterial> materials = new LongObjectMap<>();
+    private Set<Entry<BlockPosition, XMaterial>> entrySet;
+
+    @Nullable
+    public synchronized XMaterial get(BlockPosition position) {
+        return this.materials.get(position.asLong());
+    }
+
+    @Nullable
+    @Override
+    public XMaterial get(Object key) {
+        return key instanceof BlockPosition ? this.get((BlockPosition) key) : null;
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        return key instanceof BlockPosition && this.materials.containsKey(((BlockPosition) key).asLong());
+    }
+
+    @Nullable
+    @Override
+    public synchronized XMaterial put(BlockPosition position, XMaterial material) {
+        return this.materials.put(position.asLong(), material);
+    }
+
+    @Nullable
+    public synchronized XMaterial remove(BlockPosition position) {
+        return this.materials.remove(position.asLong());
+    }
+
+    @Nullable
+    @Override
+    public XMaterial remove(Object key) {
+        return key instanceof BlockPosition ? this.remove((BlockPosition) key) : null;
+    }
+
+    @Nullable
+    @Override
+    public synchronized XMaterial putIfAbsent(@NotNull BlockPosition position, XMaterial material) {
+        final XMaterial previous = this.materials.get(position.asLong());
+        if (previous == null) {
+            this.materials.put(position.asLong(), material);
+        }
+        return previous;
+    }
+
+    @Override
+    public synchronized boolean remove(@NotNull Object key, Object value) {
+        if (!(key instanceof BlockPosition) || value == null || !value.equals(this.get(key)))
+            return false;
+        this.materials.remove(((BlockPosition) key).asLong());
+        return true;
+    }
+
+    @Override
+    public synchronized boolean replace(@NotNull BlockPosition position, @NotNull XMaterial oldMaterial, @NotNull XMaterial newMaterial) {
+        if (!oldMaterial.equals(this.materials.get(position.asLong())))
+            return false;
+        this.materials.put(position.asLong(), newMaterial);
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public synchronized XMaterial replace(@NotNull BlockPosition position, @NotNull XMaterial material) {
+        if (!this.materials.containsKey(position.asLong()))
+            return null;
+        return this.materials.put(position.asLong(), material);
+    }
+
+    public synchronized List<BlockPosition> positions() {
+        final List<BlockPosition> positions = new ArrayList<>(this.materials.size());
+        this.materials.forEach((key, material) -> positions.add(BlockPosition.of(key)));
+        return positions;
+    }
+
+    @Override
+    public synchronized int size() {
+        return this.materials.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return this.materials.isEmpty();
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.materials.clear();
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<BlockPosition, XMaterial>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new EntrySet();
+        }
+        return this.entrySet;
+    }
+
+    private synchronized List<Entry<BlockPosition, XMaterial>> entries() {
+        final List<Entry<BlockPosition, XMaterial>> entries = new ArrayList<>(this.materials.size());
+        this.materials.forEach((key, material) -> entries.add(new ContainerEntry(BlockPosition.of(key), material)));
+        return entries;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<BlockPosition, XMaterial>> {
+
+        @NotNull
+        @Override
+        public Iterator<Entry<BlockPosition, XMaterial>> iterator() {
+            final Iterator<Entry<BlockPosition, XMaterial>> iterator = entries().iterator();
+            return new Iterator<Entry<BlockPosition, XMaterial>>() {
+                private Entry<BlockPosition, XMaterial> last;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Entry<BlockPosition, XMaterial> next() {
+                    return this.last = iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    if (this.last == null)
+                        throw new IllegalStateException();
+                    VisualContainer.this.remove(this.last.getKey(), this.last.getValue());
+                    this.last = null;
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            final XMaterial material = VisualContainer.this.get(entry.getKey());
+            return material != null && material.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            return VisualContainer.this.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public int size() {
+            return VisualContainer.this.size();
+        }
+
+        @Override
+        public void clear() {
+            VisualContainer.this.clear();
+        }
+    }
+
+    private class ContainerEntry extends SimpleEntry<BlockPosition, XMaterial> {
+
+        private ContainerEntry(BlockPosition position, XMaterial material) {
+            super(position, material);
+        }
+
+        @Override
+        public XMaterial setValue(XMaterial material) {
+            Objects.requireNonNull(material);
+            VisualContainer.this.put(this.getKey(), material);
+            return super.setValue(material);
+        }
+    }
 
-public class VisualContainer extends ConcurrentHashMap<BlockPosition, XMaterial> {
 }
@@ -0,0 +1,148 @@
+package io.fairyproject.mysql.pojo.info;
+
+import io.fairyproject.mysql.pojo.Property;
+import io.fairyproject.mysql.pojo.statement.StandardSqlStatementBuilder;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.persistence.Id;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class StandardPojoInfoBenchmark {
+
+    public static final int rows = 50_000;
+
+    public static class Row {
+        @Id
+        private long id;
+        private String name;
+        private int level;
+        private double balance;
+        private boolean online;
+        private String server;
+    }
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        private StandardSqlStatementBuilder builder;
+        private StandardPojoInfo pojoInfo;
+        private SimpleResultSet resultSet;
+        private Row[] pojos;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            builder = new StandardSqlStatementBuilder();
+            pojoInfo = builder.getPojoInfo(Row.class);
+
+            resultSet = new SimpleResultSet();
+            resultSet.setAutoClose(false);
+            resultSet.addColumn("ID", Types.BIGINT, 19, 0);
+            resultSet.addColumn("NAME", Types.VARCHAR, 255, 0);
+            resultSet.addColumn("LEVEL", Types.INTEGER, 10, 0);
+            resultSet.addColumn("BALANCE", Types.DOUBLE, 17, 0);
+            resultSet.addColumn("ONLINE", Types.BOOLEAN, 1, 0);
+            resultSet.addColumn("SERVER", Types.VARCHAR, 255, 0);
+
+            pojos = new Row[rows];
+            for (int i = 0; i < rows; i++) {
+                resultSet.addRow((long) i, "player" + i, i % 100, i * 1.5D, i % 2 == 0, "lobby-" + (i % 8));
+
+                Row row = new Row();
+                row.id = i;
+                row.name = "player" + i;
+                row.level = i % 100;
+                row.balance = i * 1.5D;
+                row.online = i % 2 == 0;
+                row.server = "lobby-" + (i % 8);
+                pojos[i] = row;
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void readReflective(State state, Blackhole blackhole) throws Exception {
+        SimpleResultSet rs = state.resultSet;
+        rs.beforeFirst();
+
+        ResultSetMetaData metaData = rs.getMetaData();
+        int colCount = metaData.getColumnCount();
+        while (rs.next()) {
+            Row row = Row.class.getDeclaredConstructor().newInstance();
+            for (int i = 1; i <= colCount; i++) {
+                String colName = metaData.getColumnLabel(i);
+                Object colValue = state.builder.convertValue(rs.getObject(i), metaData.getColumnTypeName(i));
+
+                Property property = state.pojoInfo.getPropertyMap().get(colName.toUpperCase());
+                if (property != null) {
+                    property.getField().set(row, colValue);
+                }
+            }
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void readRowMapper(State state, Blackhole blackhole) throws SQLException {
+        SimpleResultSet rs = state.resultSet;
+        rs.beforeFirst();
+
+        PojoRowMapper rowMapper = state.pojoInfo.rowMapper(rs.getMetaData());
+        while (rs.next()) {
+            blackhole.consume(rowMapper.map(rs, state.builder));
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void bindReflective(State state, Blackhole blackhole) throws Exception {
+        String[] columns = state.pojoInfo.getInsertColumnNames();
+        for (Row row : state.pojos) {
+            Object[] args = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                args[i] = state.pojoInfo.getPropertyMap().get(columns[i].toUpperCase()).getField().get(row);
+            }
+            blackhole.consume(args);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void bindAccessor(State state, Blackhole blackhole) {
+        for (Row row : state.pojos) {
+            blackhole.consume(state.builder.getInsertArgs(null, row));
+        }
+    }
+
+    public static void main(Object[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(StandardPojoInfoBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
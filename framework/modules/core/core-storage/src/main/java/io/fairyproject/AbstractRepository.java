@@ -24,7 +24,11 @@
 
 package io.fairyproject;
 
+import io.fairyproject.pojo.PojoEx;
+import io.fairyproject.pojo.PojoMapper;
+import io.fairyproject.pojo.PojoProperty;
 import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
 
@@ -34,6 +38,9 @@ public abstract class AbstractRepository<T, I extends Serializable, R extends Re
     protected Class<T> type;
     @Getter
     protected final String repoId;
+    private volatile PojoProperty primaryKeyProperty;
+    private volatile boolean primaryKeyResolved;
+    private volatile AsyncRepository<T, I> async;
 
     public AbstractRepository(R repositoryProvider, Class<T> type, String repoId) {
         this.repositoryProvider = repositoryProvider;
@@ -45,4 +52,54 @@ public abstract class AbstractRepository<T, I extends Serializable, R extends Re
     public Class<T> type() {
         return this.type;
     }
+
+    @Override
+    public AsyncRepository<T, I> async() {
+        if (this.async == null) {
+            // resolve the executor on each task, the provider replaces it when it's rebuilt
+            this.async = new ExecutorAsyncRepository<>(this, runnable -> this.repositoryProvider.getAsyncExecutor().execute(runnable));
+        }
+        return this.async;
+    }
+
+    /**
+     * get the key the given pojo should be ordered by on {@link RepositoryLanes},
+     * which is the primary key if it can be resolved, otherwise the pojo itself.
+     *
+     * @param pojo the pojo
+     * @return the lane key
+     */
+    protected Object laneKey(Object pojo) {
+        final Object id = this.idOf(pojo);
+        return id != null ? id : pojo;
+    }
+
+    /**
+     * get the primary key of the given pojo.
+     *
+     * @param pojo the pojo
+     * @return the primary key, or null if it couldn't be resolved
+     */
+    @Override
+    @Nullable
+    public Object idOf(Object pojo) {
+        final PojoProperty property = this.primaryKeyProperty();
+        return property != null ? property.get(pojo) : null;
+    }
+
+    private PojoProperty primaryKeyProperty() {
+        if (!this.primaryKeyResolved) {
+            PojoProperty property = null;
+            try {
+                final PojoMapper<T> pojoMapper = PojoMapper.createDatabase(this.type);
+                pojoMapper.init();
+                property = pojoMapper.getOrNull(PojoEx.PRIMARY_KEY);
+            } catch (Throwable ignored) {
+                // not a mappable pojo, fallback to pojo identity
+            }
+            this.primaryKeyProperty = property;
+            this.primaryKeyResolved = true;
+        }
+        return this.primaryKeyProperty;
+    }
 }
@@ -25,9 +25,20 @@
 package io.fairyproject;
 
 
+import io.fairyproject.log.Log;
+import io.fairyproject.util.FairyThreadFactory;
+import lombok.Getter;
+import lombok.Setter;
+
 import java.io.Serializable;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class AbstractRepositoryProvider implements RepositoryProvider {
@@ -35,24 +46,113 @@ public abstract class AbstractRepositoryProvider implements RepositoryProvider {
     private final String id;
     private final Set<Repository<?, ?>> repositories;
     private final ReentrantLock lock;
+    @Getter
+    private RepositoryConcurrency concurrency;
+    @Getter
+    private volatile RepositoryLanes lanes;
+    @Getter
+    @Setter
+    private boolean virtualThreads;
+    private volatile ExecutorService asyncExecutor;
+    // set once the provider is closed, until it's built again
+    private volatile boolean asyncExecutorShutdown;
 
     public AbstractRepositoryProvider(String id) {
         this.id = id;
         this.repositories = ConcurrentHashMap.newKeySet();
         this.lock = new ReentrantLock();
+        this.concurrency = RepositoryConcurrency.GLOBAL;
+        this.lanes = new RepositoryLanes(this.concurrency, this.lock, 1);
     }
 
     @Override
     public final void build() {
-        this.lock.lock();
+        this.lanes.exclusive(() -> {
+            this.build0();
+            this.lanes = new RepositoryLanes(this.concurrency, this.lock, this.parallelism());
+            // recreated on next use with the new pool size
+            this.shutdownAsyncExecutor();
+            this.asyncExecutorShutdown = false;
+            this.repositories.forEach(Repository::init);
+        });
+    }
 
-        this.build0();
-        this.repositories.forEach(Repository::init);
+    public abstract void build0();
 
-        this.lock.unlock();
+    /**
+     * The amount of operations the provider can run at the same time, usually the size of the connection pool.
+     * Only used by {@link RepositoryConcurrency#STRIPED}.
+     *
+     * @return the parallelism
+     */
+    protected int parallelism() {
+        return 1;
     }
 
-    public abstract void build0();
+    @Override
+    public void setConcurrency(RepositoryConcurrency concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public RepositoryLaneStats getLaneStats() {
+        return this.lanes.snapshot();
+    }
+
+    @Override
+    public ExecutorService getAsyncExecutor() {
+        ExecutorService executor = this.asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.asyncExecutor;
+                if (executor == null) {
+                    if (this.asyncExecutorShutdown) {
+                        throw new RejectedExecutionException("Repository provider " + this.id + " is closed.");
+                    }
+                    executor = this.createAsyncExecutor();
+                    this.asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Shutdown the async executor, tasks that are already queued still run.
+     * No executor is created afterwards until the provider is built again, so async operations fail instead of leaking threads.
+     */
+    protected void shutdownAsyncExecutor() {
+        final ExecutorService executor;
+        synchronized (this) {
+            executor = this.asyncExecutor;
+            this.asyncExecutor = null;
+            this.asyncExecutorShutdown = true;
+        }
+
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private ExecutorService createAsyncExecutor() {
+        if (this.virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                Log.warn("Virtual threads are not supported on Java " + System.getProperty("java.version") + ", falling back to platform threads for repository provider " + this.id + ".");
+            }
+        }
+
+        final int threads = Math.max(1, this.parallelism());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), FairyThreadFactory.builder()
+                .name("Fairy Repository " + this.id + " - <id>")
+                .daemon(true)
+                .priority(Thread.NORM_PRIORITY)
+                .uncaughtExceptionHandler((thread, throwable) -> Log.error("Exception occurred in repository thread", throwable))
+                .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
     @Override
     public String id() {
@@ -0,0 +1,37 @@
+package io.fairyproject;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking companion of a {@link Repository}, get it with {@link Repository#async()}.
+ * <p>
+ * Database backed repositories run the operations on the dedicated executor of their {@link RepositoryProvider},
+ * which is sized to the connection pool, so callers don't have to hop onto a scheduler thread for each query.
+ * The JDBC and Mongo drivers underneath still block, an operation holds one thread of that executor while it runs.
+ *
+ * @param <T> the pojo type
+ * @param <I> the id type
+ */
+public interface AsyncRepository<T, I extends Serializable> {
+
+    /**
+     * get the blocking repository this is a view of
+     *
+     * @return the repository
+     */
+    Repository<T, I> sync();
+
+    CompletableFuture<Optional<T>> findById(I id);
+
+    CompletableFuture<Iterable<T>> findAllById(List<I> ids);
+
+    <S extends T> CompletableFuture<S> save(S pojo);
+
+    <S extends T> CompletableFuture<Iterable<S>> saveAll(Iterable<S> pojoIterable);
+
+    CompletableFuture<Void> deleteById(I id);
+
+}
@@ -0,0 +1,354 @@
+package io.fairyproject;
+
+import io.fairyproject.config.RepositoryCacheConfiguration;
+import io.fairyproject.util.exceptionally.SneakyThrowUtil;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through, write-through cache in front of a {@link Repository}.
+ * <p>
+ * {@link #findById(Serializable)} is served from a size and time bounded LRU cache, hits don't take any lock.
+ * Missing ids are only cached when {@link RepositoryCacheConfiguration#isCacheMissing()} is set with a negative ttl,
+ * failed loads are never cached. Concurrent misses on the same id share a single load. Saved pojos replace the cached value,
+ * a failed save, {@link #deleteById(Serializable)} invalidate the id and operations that can't be mapped to ids,
+ * such as {@link #deleteByQuery(String, Object)}, invalidate the whole cache.
+ * <p>
+ * Everything else is passed through to the underlying repository.
+ *
+ * @param <T> the pojo type
+ * @param <I> the id type
+ */
+public class CachedRepository<T, I extends Serializable> implements Repository<T, I> {
+
+    @Getter
+    private final Repository<T, I> delegate;
+    @Getter
+    private final RepositoryCacheConfiguration configuration;
+    private final long expireAfterWriteNanos;
+    private final long missingExpireAfterNanos;
+
+    // guards writes to entries and loading, so an invalidation can't be overwritten by a load that was already running
+    private final Object lock = new Object();
+    private final Map<I, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Map<I, CompletableFuture<Optional<T>>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong accessClock = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachedRepository(Repository<T, I> delegate, RepositoryCacheConfiguration configuration) {
+        this.delegate = delegate;
+        this.configuration = configuration;
+        this.expireAfterWriteNanos = toNanos(configuration.getExpireAfterWriteSeconds());
+        this.missingExpireAfterNanos = configuration.isCacheMissing() && configuration.getMissingExpireAfterSeconds() > 0
+                ? TimeUnit.SECONDS.toNanos(configuration.getMissingExpireAfterSeconds())
+                : 0L;
+    }
+
+    @Override
+    public void init() {
+        this.delegate.init();
+        this.invalidateAll();
+    }
+
+    @Override
+    public Class<T> type() {
+        return this.delegate.type();
+    }
+
+    @Override
+    public String getRepoId() {
+        return this.delegate.getRepoId();
+    }
+
+    @Override
+    public <S extends T> S save(S pojo) {
+        final S saved;
+        try {
+            saved = this.delegate.save(pojo);
+        } catch (Throwable throwable) {
+            // whatever the database holds now, it isn't the pojo
+            this.forget(pojo);
+            throw throwable;
+        }
+        this.write(saved);
+        return saved;
+    }
+
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> pojoIterable) {
+        final Iterable<S> saved;
+        try {
+            saved = this.delegate.saveAll(pojoIterable);
+        } catch (Throwable throwable) {
+            for (S pojo : pojoIterable) {
+                this.forget(pojo);
+            }
+            throw throwable;
+        }
+        for (S pojo : saved) {
+            this.write(pojo);
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(I id) {
+        Entry<T> entry = this.getIfPresent(id);
+        if (entry != null) {
+            this.hits.increment();
+            return Optional.ofNullable(entry.value);
+        }
+        this.misses.increment();
+
+        final CompletableFuture<Optional<T>> future = new CompletableFuture<>();
+        final CompletableFuture<Optional<T>> inFlight = this.loading.putIfAbsent(id, future);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+
+        // another load could have completed between the lookup and claiming the load
+        entry = this.getIfPresent(id);
+        if (entry != null) {
+            this.loading.remove(id, future);
+            future.complete(Optional.ofNullable(entry.value));
+            return future.join();
+        }
+
+        final long start = System.nanoTime();
+        final Optional<T> result;
+        try {
+            result = this.delegate.findById(id);
+        } catch (Throwable throwable) {
+            this.loadFailures.increment();
+            this.loading.remove(id, future);
+            future.completeExceptionally(throwable);
+            return SneakyThrowUtil.sneakyThrow(throwable);
+        }
+        this.loads.increment();
+        this.totalLoadNanos.add(System.nanoTime() - start);
+
+        synchronized (this.lock) {
+            // only cache the result if nothing invalidated the id while it was loading
+            if (this.loading.remove(id, future)) {
+                this.put(id, result.orElse(null));
+            }
+        }
+        future.complete(result);
+        return result;
+    }
+
+    @Override
+    public Object idOf(Object pojo) {
+        return this.delegate.idOf(pojo);
+    }
+
+    @Override
+    public AsyncRepository<T, I> async() {
+        final AsyncRepository<T, I> async = this.delegate.async();
+        if (async instanceof ExecutorAsyncRepository) {
+            return new ExecutorAsyncRepository<>(this, ((ExecutorAsyncRepository<T, I>) async).getExecutor());
+        }
+        return Repository.super.async();
+    }
+
+    @Override
+    public <Q> Optional<T> findByQuery(String query, Q value) {
+        return this.delegate.findByQuery(query, value);
+    }
+
+    @Override
+    public boolean existsById(I id) {
+        return this.findById(id).isPresent();
+    }
+
+    @Override
+    public Iterable<T> findAll() {
+        return this.delegate.findAll();
+    }
+
+    @Override
+    public Iterable<T> findAllById(List<I> ids) {
+        return this.delegate.findAllById(ids);
+    }
+
+    @Override
+    public RepositoryCursor<T> cursor(int fetchSize) {
+        return this.delegate.cursor(fetchSize);
+    }
+
+    @Override
+    public long count() {
+        return this.delegate.count();
+    }
+
+    @Override
+    public void deleteById(I id) {
+        this.delegate.deleteById(id);
+        this.invalidate(id);
+    }
+
+    @Override
+    public <Q> void deleteByQuery(String query, Q value) {
+        this.delegate.deleteByQuery(query, value);
+        this.invalidateAll();
+    }
+
+    @Override
+    public void deleteAll() {
+        this.delegate.deleteAll();
+        this.invalidateAll();
+    }
+
+    /**
+     * Drop the cached value of an id, the next lookup loads it from the repository again.
+     *
+     * @param id the id
+     */
+    public void invalidate(I id) {
+        synchronized (this.lock) {
+            this.entries.remove(id);
+            this.loading.remove(id);
+        }
+    }
+
+    /**
+     * Drop every cached value.
+     */
+    public void invalidateAll() {
+        synchronized (this.lock) {
+            this.entries.clear();
+            this.loading.clear();
+        }
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public RepositoryCacheStats getStats() {
+        return new RepositoryCacheStats(
+                this.size(),
+                this.hits.sum(),
+                this.misses.sum(),
+                this.loads.sum(),
+                this.loadFailures.sum(),
+                this.totalLoadNanos.sum(),
+                this.evictions.sum()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(T pojo) {
+        final Object id = this.delegate.idOf(pojo);
+        if (id == null) {
+            // can't tell which id got written
+            this.invalidateAll();
+            return;
+        }
+
+        synchronized (this.lock) {
+            this.loading.remove(id);
+            this.put((I) id, pojo);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void forget(T pojo) {
+        final Object id = this.delegate.idOf(pojo);
+        if (id == null) {
+            this.invalidateAll();
+        } else {
+            this.invalidate((I) id);
+        }
+    }
+
+    @Nullable
+    private Entry<T> getIfPresent(I id) {
+        final Entry<T> entry = this.entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt != Long.MAX_VALUE && entry.expiresAt - System.nanoTime() <= 0) {
+            if (this.entries.remove(id, entry)) {
+                this.evictions.increment();
+            }
+            return null;
+        }
+        entry.lastAccess = this.accessClock.incrementAndGet();
+        return entry;
+    }
+
+    // must hold the lock
+    private void put(I id, @Nullable T value) {
+        final long expireAfter;
+        if (value == null) {
+            if (this.missingExpireAfterNanos == 0L) {
+                this.entries.remove(id);
+                return;
+            }
+            expireAfter = this.missingExpireAfterNanos;
+        } else {
+            expireAfter = this.expireAfterWriteNanos;
+        }
+
+        this.entries.put(id, new Entry<>(value, expireAfter == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + expireAfter, this.accessClock.incrementAndGet()));
+
+        while (this.entries.size() > this.configuration.getMaximumSize()) {
+            // only runs on loads and saves of a full cache, a scan is cheap next to the load itself
+            Map.Entry<I, Entry<T>> eldest = null;
+            for (Map.Entry<I, Entry<T>> candidate : this.entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastAccess < eldest.getValue().lastAccess) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null || !this.entries.remove(eldest.getKey(), eldest.getValue())) {
+                break;
+            }
+            this.evictions.increment();
+        }
+    }
+
+    private static <T> Optional<T> join(CompletableFuture<Optional<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            return SneakyThrowUtil.sneakyThrow(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private static long toNanos(long seconds) {
+        return seconds <= 0 ? Long.MAX_VALUE : TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    private static class Entry<T> {
+        @Nullable
+        private final T value;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private Entry(@Nullable T value, long expiresAt, long lastAccess) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package io.fairyproject;
+
+import io.fairyproject.scheduler.Schedulers;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link AsyncRepository} that runs the blocking operations of a {@link Repository} on an executor.
+ *
+ * @param <T> the pojo type
+ * @param <I> the id type
+ */
+public class ExecutorAsyncRepository<T, I extends Serializable> implements AsyncRepository<T, I> {
+
+    /**
+     * The executor of repositories without one of their own, runs on {@link Schedulers#IO} so blocking calls
+     * never starve the common pool.
+     */
+    public static final Executor IO = runnable -> Schedulers.IO.schedule(runnable);
+
+    private final Repository<T, I> repository;
+    @Getter
+    private final Executor executor;
+
+    public ExecutorAsyncRepository(Repository<T, I> repository, Executor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    @Override
+    public Repository<T, I> sync() {
+        return this.repository;
+    }
+
+    @Override
+    public CompletableFuture<Optional<T>> findById(I id) {
+        return CompletableFuture.supplyAsync(() -> this.repository.findById(id), this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Iterable<T>> findAllById(List<I> ids) {
+        return CompletableFuture.supplyAsync(() -> this.repository.findAllById(ids), this.executor);
+    }
+
+    @Override
+    public <S extends T> CompletableFuture<S> save(S pojo) {
+        return CompletableFuture.supplyAsync(() -> this.repository.save(pojo), this.executor);
+    }
+
+    @Override
+    public <S extends T> CompletableFuture<Iterable<S>> saveAll(Iterable<S> pojoIterable) {
+        return CompletableFuture.supplyAsync(() -> this.repository.saveAll(pojoIterable), this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteById(I id) {
+        return CompletableFuture.runAsync(() -> this.repository.deleteById(id), this.executor);
+    }
+
+}
@@ -12,7 +12,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -20,6 +22,7 @@ public class InMemoryRepository<T, I extends Serializable> extends AbstractRepos
 
     private Map<I, T> map;
     private PojoMapper<T> pojoMapper;
+    private final AsyncRepository<T, I> async = new InMemoryAsyncRepository();
 
     public InMemoryRepository(InMemoryRepositoryProvider repositoryProvider, Class<T> type, String repoId) {
         super(repositoryProvider, type, repoId);
@@ -105,4 +108,58 @@ public class InMemoryRepository<T, I extends Serializable> extends AbstractRepos
         this.map.put(id, pojo);
         return pojo;
     }
+
+    @Override
+    public AsyncRepository<T, I> async() {
+        return this.async;
+    }
+
+    /**
+     * Nothing in memory blocks, so operations complete on the calling thread.
+     */
+    private class InMemoryAsyncRepository implements AsyncRepository<T, I> {
+
+        @Override
+        public Repository<T, I> sync() {
+            return InMemoryRepository.this;
+        }
+
+        @Override
+        public CompletableFuture<Optional<T>> findById(I id) {
+            return complete(() -> InMemoryRepository.this.findById(id));
+        }
+
+        @Override
+        public CompletableFuture<Iterable<T>> findAllById(List<I> ids) {
+            return complete(() -> InMemoryRepository.this.findAllById(ids));
+        }
+
+        @Override
+        public <S extends T> CompletableFuture<S> save(S pojo) {
+            return complete(() -> InMemoryRepository.this.save(pojo));
+        }
+
+        @Override
+        public <S extends T> CompletableFuture<Iterable<S>> saveAll(Iterable<S> pojoIterable) {
+            return complete(() -> InMemoryRepository.this.saveAll(pojoIterable));
+        }
+
+        @Override
+        public CompletableFuture<Void> deleteById(I id) {
+            return complete(() -> {
+                InMemoryRepository.this.deleteById(id);
+                return null;
+            });
+        }
+
+        private <R> CompletableFuture<R> complete(Supplier<R> supplier) {
+            final CompletableFuture<R> future = new CompletableFuture<>();
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+            return future;
+        }
+    }
 }
@@ -25,10 +25,16 @@
 package io.fairyproject;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
 import io.fairyproject.mongo.AbstractMongoRepositoryProvider;
 import lombok.Getter;
 import org.bson.BsonDocument;
+import org.jetbrains.annotations.Nullable;
 import org.mongojack.JacksonMongoCollection;
 import org.mongojack.internal.MongoJackModule;
 
@@ -53,17 +59,16 @@ public class MongoRepository<T, I extends Serializable> extends AbstractReposito
         this.repositoryProvider.getIOLock().unlock();
     }
 
-    private <T> T supply(Supplier<T> supplier) {
-        this.repositoryProvider.getIOLock().lock();
-        T t = supplier.get();
-        this.repositoryProvider.getIOLock().unlock();
-        return t;
+    private <T> T supply(@Nullable Object laneKey, Supplier<T> supplier) {
+        return this.repositoryProvider.getLanes().supply(laneKey, supplier);
     }
 
-    private void run(Runnable runnable) {
-        this.repositoryProvider.getIOLock().lock();
-        runnable.run();
-        this.repositoryProvider.getIOLock().unlock();
+    private void run(@Nullable Object laneKey, Runnable runnable) {
+        this.repositoryProvider.getLanes().run(laneKey, runnable);
+    }
+
+    private void runOnEveryKey(Runnable runnable) {
+        this.repositoryProvider.getLanes().runOnEveryKey(runnable);
     }
 
     public ObjectMapper objectMapper() {
@@ -74,24 +79,39 @@ public class MongoRepository<T, I extends Serializable> extends AbstractReposito
 
     @Override
     public <S extends T> S save(S pojo) {
-        this.run(() -> this.collection.save(pojo));
+        this.run(this.laneKey(pojo), () -> this.collection.save(pojo));
         return pojo;
     }
 
     @Override
     public <S extends T> Iterable<S> saveAll(Iterable<S> pojoIterable) {
-        this.run(() -> pojoIterable.forEach(pojo -> this.collection.save(pojo)));
+        final List<WriteModel<T>> models = new ArrayList<>();
+        final List<Object> laneKeys = new ArrayList<>();
+        for (S pojo : pojoIterable) {
+            final Object id = this.idOf(pojo);
+            if (id == null) {
+                // no resolvable id, mongojack has to figure it out
+                this.save(pojo);
+                continue;
+            }
+            models.add(new ReplaceOneModel<>(this.collection.createIdQuery(id), pojo, new ReplaceOptions().upsert(true)));
+            laneKeys.add(id);
+        }
+
+        if (!models.isEmpty()) {
+            this.repositoryProvider.getLanes().runAll(laneKeys, () -> this.collection.bulkWrite(models, new BulkWriteOptions().ordered(false)));
+        }
         return pojoIterable;
     }
 
     @Override
     public Optional<T> findById(I id) {
-        return Optional.ofNullable(this.supply(() -> this.collection.findOneById(id)));
+        return Optional.ofNullable(this.supply(id, () -> this.collection.findOneById(id)));
     }
 
     @Override
     public <Q> Optional<T> findByQuery(String query, Q value) {
-        return Optional.ofNullable(this.supply(() -> this.collection.findOne(Filters.eq(query, value))));
+        return Optional.ofNullable(this.supply(null, () -> this.collection.findOne(Filters.eq(query, value))));
     }
 
     @Override
@@ -101,13 +121,13 @@ public class MongoRepository<T, I extends Serializable> extends AbstractReposito
 
     @Override
     public Iterable<T> findAll() {
-        return this.supply(() -> this.collection.find());
+        return this.supply(null, () -> this.collection.find());
     }
 
     @Override
     public Iterable<T> findAllById(List<I> ids) {
         List<T> result = new ArrayList<>();
-        this.run(() -> {
+        this.run(null, () -> {
             for (T t : this.collection.find(this.collection.createIdInQuery(ids))) {
                 result.add(t);
             }
@@ -116,24 +136,45 @@ public class MongoRepository<T, I extends Serializable> extends AbstractReposito
         return result;
     }
 
+    @Override
+    public RepositoryCursor<T> cursor(int fetchSize) {
+        final MongoCursor<T> cursor = this.supply(null, () -> this.collection.find().batchSize(fetchSize).iterator());
+        return new RepositoryCursor<T>() {
+            @Override
+            public void close() {
+                cursor.close();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return cursor.next();
+            }
+        };
+    }
+
     @Override
     public long count() {
-        return this.supply(() -> this.collection.countDocuments());
+        return this.supply(null, () -> this.collection.countDocuments());
     }
 
     @Override
     public void deleteById(I id) {
-        this.run(() -> this.collection.removeById(id));
+        this.run(id, () -> this.collection.removeById(id));
     }
 
     @Override
     public <Q> void deleteByQuery(String query, Q value) {
-        this.run(() -> this.collection.deleteMany(Filters.eq(query, value)));
+        this.runOnEveryKey(() -> this.collection.deleteMany(Filters.eq(query, value)));
     }
 
     @Override
     public void deleteAll() {
-        this.run(() -> this.collection.deleteMany(new BsonDocument()));
+        this.runOnEveryKey(() -> this.collection.deleteMany(new BsonDocument()));
     }
 
     public String queryId() {
@@ -0,0 +1,174 @@
+package io.fairyproject;
+
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Records every call of a {@link Repository} into a {@link ProfilerSite} per operation, named {@code <repoId>#<operation>}.
+ * <p>
+ * {@link StorageService} puts it in front of the repositories built while the {@link Profiler} is enabled,
+ * calls are only sampled while it stays enabled.
+ *
+ * @param <T> the pojo type
+ * @param <I> the id type
+ */
+public class ProfiledRepository<T, I extends Serializable> implements Repository<T, I> {
+
+    @Getter
+    private final Repository<T, I> delegate;
+
+    private final ProfilerSite save;
+    private final ProfilerSite saveAll;
+    private final ProfilerSite findById;
+    private final ProfilerSite findByQuery;
+    private final ProfilerSite existsById;
+    private final ProfilerSite findAll;
+    private final ProfilerSite findAllById;
+    private final ProfilerSite cursor;
+    private final ProfilerSite count;
+    private final ProfilerSite deleteById;
+    private final ProfilerSite deleteByQuery;
+    private final ProfilerSite deleteAll;
+
+    public ProfiledRepository(Repository<T, I> delegate) {
+        this.delegate = delegate;
+
+        final String repoId = delegate.getRepoId();
+        this.save = site(repoId, "save");
+        this.saveAll = site(repoId, "saveAll");
+        this.findById = site(repoId, "findById");
+        this.findByQuery = site(repoId, "findByQuery");
+        this.existsById = site(repoId, "existsById");
+        this.findAll = site(repoId, "findAll");
+        this.findAllById = site(repoId, "findAllById");
+        this.cursor = site(repoId, "cursor");
+        this.count = site(repoId, "count");
+        this.deleteById = site(repoId, "deleteById");
+        this.deleteByQuery = site(repoId, "deleteByQuery");
+        this.deleteAll = site(repoId, "deleteAll");
+    }
+
+    @Override
+    public void init() {
+        this.delegate.init();
+    }
+
+    @Override
+    public Class<T> type() {
+        return this.delegate.type();
+    }
+
+    @Override
+    public String getRepoId() {
+        return this.delegate.getRepoId();
+    }
+
+    @Override
+    public <S extends T> S save(S pojo) {
+        return profile(this.save, () -> this.delegate.save(pojo));
+    }
+
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> pojoIterable) {
+        return profile(this.saveAll, () -> this.delegate.saveAll(pojoIterable));
+    }
+
+    @Override
+    public Optional<T> findById(I id) {
+        return profile(this.findById, () -> this.delegate.findById(id));
+    }
+
+    @Override
+    public <Q> Optional<T> findByQuery(String query, Q value) {
+        return profile(this.findByQuery, () -> this.delegate.findByQuery(query, value));
+    }
+
+    @Override
+    public boolean existsById(I id) {
+        return profile(this.existsById, () -> this.delegate.existsById(id));
+    }
+
+    @Override
+    public Iterable<T> findAll() {
+        return profile(this.findAll, this.delegate::findAll);
+    }
+
+    @Override
+    public Iterable<T> findAllById(List<I> ids) {
+        return profile(this.findAllById, () -> this.delegate.findAllById(ids));
+    }
+
+    @Override
+    public RepositoryCursor<T> cursor(int fetchSize) {
+        // only opening the cursor is sampled, the batches are fetched while it's consumed
+        return profile(this.cursor, () -> this.delegate.cursor(fetchSize));
+    }
+
+    @Override
+    public long count() {
+        return profile(this.count, this.delegate::count);
+    }
+
+    @Override
+    public void deleteById(I id) {
+        final long start = this.deleteById.start();
+        try {
+            this.delegate.deleteById(id);
+        } finally {
+            this.deleteById.stop(start);
+        }
+    }
+
+    @Override
+    public <Q> void deleteByQuery(String query, Q value) {
+        final long start = this.deleteByQuery.start();
+        try {
+            this.delegate.deleteByQuery(query, value);
+        } finally {
+            this.deleteByQuery.stop(start);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        final long start = this.deleteAll.start();
+        try {
+            this.delegate.deleteAll();
+        } finally {
+            this.deleteAll.stop(start);
+        }
+    }
+
+    @Override
+    public Object idOf(Object pojo) {
+        return this.delegate.idOf(pojo);
+    }
+
+    @Override
+    public AsyncRepository<T, I> async() {
+        final AsyncRepository<T, I> async = this.delegate.async();
+        if (async instanceof ExecutorAsyncRepository) {
+            return new ExecutorAsyncRepository<>(this, ((ExecutorAsyncRepository<T, I>) async).getExecutor());
+        }
+        return Repository.super.async();
+    }
+
+    private static ProfilerSite site(String repoId, String operation) {
+        return Profiler.site(Profiler.CATEGORY_REPOSITORY, repoId + "#" + operation);
+    }
+
+    private static <R> R profile(ProfilerSite site, Supplier<R> call) {
+        final long start = site.start();
+        try {
+            return call.get();
+        } finally {
+            site.stop(start);
+        }
+    }
+}
@@ -24,12 +24,20 @@
 
 package io.fairyproject;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface Repository<T, I extends Serializable> {
 
+    /**
+     * The fetch size used by {@link #cursor()} and {@link #stream()}.
+     */
+    int DEFAULT_FETCH_SIZE = 500;
+
     void init();
 
     Class<T> type();
@@ -53,6 +61,47 @@ public interface Repository<T, I extends Serializable> {
 
     Iterable<T> findAllById(List<I> ids);
 
+    /**
+     * Open a cursor over every entity in the repository with {@link #DEFAULT_FETCH_SIZE}.
+     *
+     * @return the cursor, must be closed
+     */
+    default RepositoryCursor<T> cursor() {
+        return this.cursor(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Open a cursor over every entity in the repository.
+     * Unlike {@link #findAll()} the entities are fetched lazily in batches of the given size.
+     *
+     * @param fetchSize the amount of entities to fetch from the database at once
+     * @return the cursor, must be closed
+     */
+    default RepositoryCursor<T> cursor(int fetchSize) {
+        return RepositoryCursor.of(this.findAll());
+    }
+
+    /**
+     * Stream every entity in the repository with {@link #DEFAULT_FETCH_SIZE}.
+     *
+     * @return the stream, must be closed
+     * @see #cursor(int)
+     */
+    default Stream<T> stream() {
+        return this.stream(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Stream every entity in the repository.
+     *
+     * @param fetchSize the amount of entities to fetch from the database at once
+     * @return the stream, must be closed
+     * @see #cursor(int)
+     */
+    default Stream<T> stream(int fetchSize) {
+        return this.cursor(fetchSize).stream();
+    }
+
     long count();
 
     void deleteById(I id);
@@ -60,4 +109,27 @@ public interface Repository<T, I extends Serializable> {
     <Q> void deleteByQuery(String query, Q value);
 
     void deleteAll();
+
+    /**
+     * get the primary key of the given pojo.
+     * Wrapping repositories should pass it through, so caches in front of them can tell which id got written.
+     *
+     * @param pojo the pojo
+     * @return the primary key, or null if it couldn't be resolved
+     */
+    @Nullable
+    default Object idOf(Object pojo) {
+        return null;
+    }
+
+    /**
+     * get the non-blocking view of this repository.
+     * Repositories created by a {@link RepositoryProvider} run it on the executor of the provider,
+     * other implementations run it on {@link ExecutorAsyncRepository#IO}.
+     *
+     * @return the async repository
+     */
+    default AsyncRepository<T, I> async() {
+        return new ExecutorAsyncRepository<>(this, ExecutorAsyncRepository.IO);
+    }
 }
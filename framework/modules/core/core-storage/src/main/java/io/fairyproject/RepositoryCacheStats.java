@@ -0,0 +1,51 @@
+package io.fairyproject;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time snapshot of the hit rate and load times of a {@link CachedRepository}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RepositoryCacheStats {
+
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long loads;
+    private final long loadFailures;
+    private final long totalLoadNanos;
+    private final long evictions;
+
+    public double getHitRate() {
+        final long requests = this.hits + this.misses;
+        if (requests == 0) {
+            return 1.0D;
+        }
+        return (double) this.hits / requests;
+    }
+
+    public long getAverageLoadNanos() {
+        if (this.loads == 0) {
+            return 0;
+        }
+        return this.totalLoadNanos / this.loads;
+    }
+
+    @Override
+    public String toString() {
+        return "RepositoryCacheStats{" +
+                "size=" + size +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", hitRate=" + String.format("%.2f", this.getHitRate()) +
+                ", loads=" + loads +
+                ", loadFailures=" + loadFailures +
+                ", averageLoad=" + TimeUnit.NANOSECONDS.toMicros(this.getAverageLoadNanos()) + "us" +
+                ", evictions=" + evictions +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package io.fairyproject;
+
+/**
+ * How a {@link RepositoryProvider} schedules repository operations onto its connections.
+ */
+public enum RepositoryConcurrency {
+
+    /**
+     * Every operation of every repository on the provider goes through the single provider IO lock.
+     */
+    GLOBAL,
+
+    /**
+     * Operations run in parallel up to the connection pool size of the provider,
+     * operations that target the same id are still executed one after another.
+     */
+    STRIPED
+
+}
@@ -0,0 +1,63 @@
+package io.fairyproject;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A forward only cursor over the entities of a {@link Repository}.
+ * <p>
+ * Entities are fetched from the database in batches as the cursor advances, so walking a large table
+ * only keeps a single batch in memory. The cursor holds database resources until it's closed,
+ * always use it in a try-with-resources block.
+ *
+ * @param <T> the pojo type
+ */
+public interface RepositoryCursor<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Release the database resources held by this cursor.
+     */
+    @Override
+    void close();
+
+    /**
+     * Wrap the remaining entities of this cursor into a sequential stream,
+     * closing the stream closes the cursor.
+     *
+     * @return the stream
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Create a cursor over an iterable that doesn't hold any resources.
+     *
+     * @param iterable the iterable
+     * @return the cursor
+     */
+    static <T> RepositoryCursor<T> of(Iterable<T> iterable) {
+        final Iterator<T> iterator = iterable.iterator();
+        return new RepositoryCursor<T>() {
+            @Override
+            public void close() {
+                // nothing to release
+            }
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+        };
+    }
+
+}
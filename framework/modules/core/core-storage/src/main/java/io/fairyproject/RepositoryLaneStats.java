@@ -0,0 +1,42 @@
+package io.fairyproject;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time snapshot of the contention on {@link RepositoryLanes}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RepositoryLaneStats {
+
+    private final RepositoryConcurrency concurrency;
+    private final int parallelism;
+    private final int queued;
+    private final int active;
+    private final long acquisitions;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    public long getAverageWaitNanos() {
+        if (this.acquisitions == 0) {
+            return 0;
+        }
+        return this.totalWaitNanos / this.acquisitions;
+    }
+
+    @Override
+    public String toString() {
+        return "RepositoryLaneStats{" +
+                "concurrency=" + concurrency +
+                ", parallelism=" + parallelism +
+                ", queued=" + queued +
+                ", active=" + active +
+                ", acquisitions=" + acquisitions +
+                ", averageWait=" + TimeUnit.NANOSECONDS.toMicros(this.getAverageWaitNanos()) + "us" +
+                ", maxWait=" + TimeUnit.NANOSECONDS.toMicros(maxWaitNanos) + "us" +
+                '}';
+    }
+}
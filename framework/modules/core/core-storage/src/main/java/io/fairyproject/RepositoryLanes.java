@@ -0,0 +1,291 @@
+package io.fairyproject;
+
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Schedules repository operations of a {@link RepositoryProvider}.
+ * <p>
+ * In {@link RepositoryConcurrency#GLOBAL} mode every operation takes the provider IO lock.
+ * In {@link RepositoryConcurrency#STRIPED} mode at most {@link #getParallelism()} operations run at once,
+ * and operations with the same key (usually the id of the entity) are serialized through a fair striped lock
+ * so they execute in the order they arrived.
+ * Operations nested in another one on the same thread run within the permit of the outer operation and take the stripes
+ * they don't hold yet. Stripes are always waited for in ascending order, a nested operation that would have to wait for
+ * a stripe below one it already holds fails with an {@link IllegalStateException} instead of risking a deadlock.
+ */
+public class RepositoryLanes {
+
+    private static final int STRIPES = 64;
+    private static final ReentrantLock[] NO_STRIPES = new ReentrantLock[0];
+
+    @Getter
+    private final RepositoryConcurrency concurrency;
+    @Getter
+    private final int parallelism;
+    private final ReentrantLock globalLock;
+    private final Semaphore permits;
+    private final ReentrantLock[] stripes;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public RepositoryLanes(RepositoryConcurrency concurrency, ReentrantLock globalLock, int parallelism) {
+        this.concurrency = concurrency;
+        this.globalLock = globalLock;
+        this.parallelism = concurrency == RepositoryConcurrency.GLOBAL ? 1 : Math.max(1, parallelism);
+        this.permits = new Semaphore(this.parallelism, true);
+        this.stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Run the supplier on a lane.
+     *
+     * @param key      the key operations should be ordered by, or null if it doesn't need ordering
+     * @param supplier the operation
+     * @return the result of the operation
+     */
+    public <R> R supply(@Nullable Object key, Supplier<R> supplier) {
+        final ReentrantLock[] stripes = this.acquire(this.stripesOf(key));
+        try {
+            return supplier.get();
+        } finally {
+            this.release(stripes);
+        }
+    }
+
+    /**
+     * Run the runnable on a lane.
+     *
+     * @param key      the key operations should be ordered by, or null if it doesn't need ordering
+     * @param runnable the operation
+     */
+    public void run(@Nullable Object key, Runnable runnable) {
+        final ReentrantLock[] stripes = this.acquire(this.stripesOf(key));
+        try {
+            runnable.run();
+        } finally {
+            this.release(stripes);
+        }
+    }
+
+    /**
+     * Run the runnable on a lane ordered by every given key, used by batches touching several entities.
+     * The stripes are always taken in the same order so batches can't deadlock each other.
+     *
+     * @param keys     the keys operations should be ordered by, null keys are ignored
+     * @param runnable the operation
+     */
+    public void runAll(Collection<?> keys, Runnable runnable) {
+        final ReentrantLock[] stripes = this.acquire(this.stripesOf(keys));
+        try {
+            runnable.run();
+        } finally {
+            this.release(stripes);
+        }
+    }
+
+    /**
+     * Run the runnable ordered against every key, used by bulk operations that may touch any entity.
+     *
+     * @param runnable the operation
+     */
+    public void runOnEveryKey(Runnable runnable) {
+        final ReentrantLock[] stripes = this.acquire(this.concurrency == RepositoryConcurrency.GLOBAL ? NO_STRIPES : this.stripes);
+        try {
+            runnable.run();
+        } finally {
+            this.release(stripes);
+        }
+    }
+
+    /**
+     * Run the runnable while no other operation is running on any lane.
+     *
+     * @param runnable the operation
+     * @throws IllegalStateException if called from within an operation, it would wait for its own permit
+     */
+    public void exclusive(Runnable runnable) {
+        if (this.depth.get()[0] > 0) {
+            throw new IllegalStateException("Exclusive operations can't be nested in a lane operation");
+        }
+
+        this.globalLock.lock();
+        try {
+            if (this.concurrency == RepositoryConcurrency.GLOBAL) {
+                runnable.run();
+                return;
+            }
+
+            final int[] depth = this.depth.get();
+            this.permits.acquireUninterruptibly(this.parallelism);
+            depth[0]++;
+            try {
+                runnable.run();
+            } finally {
+                depth[0]--;
+                this.permits.release(this.parallelism);
+            }
+        } finally {
+            this.globalLock.unlock();
+        }
+    }
+
+    public RepositoryLaneStats snapshot() {
+        return new RepositoryLaneStats(
+                this.concurrency,
+                this.parallelism,
+                this.queued.get(),
+                this.active.get(),
+                this.acquisitions.sum(),
+                this.totalWaitNanos.sum(),
+                this.maxWaitNanos.get()
+        );
+    }
+
+    private ReentrantLock[] stripesOf(@Nullable Object key) {
+        if (key == null || this.concurrency == RepositoryConcurrency.GLOBAL) {
+            return NO_STRIPES;
+        }
+        return new ReentrantLock[] { this.stripes[index(key)] };
+    }
+
+    private ReentrantLock[] stripesOf(Collection<?> keys) {
+        if (this.concurrency == RepositoryConcurrency.GLOBAL) {
+            return NO_STRIPES;
+        }
+
+        final boolean[] taken = new boolean[STRIPES];
+        int count = 0;
+        for (Object key : keys) {
+            if (key == null)
+                continue;
+            final int index = index(key);
+            if (!taken[index]) {
+                taken[index] = true;
+                count++;
+            }
+        }
+
+        // ascending stripe order
+        final ReentrantLock[] stripes = new ReentrantLock[count];
+        int next = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            if (taken[i]) {
+                stripes[next++] = this.stripes[i];
+            }
+        }
+        return stripes;
+    }
+
+    private ReentrantLock[] acquire(ReentrantLock[] stripes) {
+        final long start = System.nanoTime();
+        final int[] depth = this.depth.get();
+
+        this.queued.incrementAndGet();
+        try {
+            if (this.concurrency == RepositoryConcurrency.GLOBAL) {
+                this.globalLock.lock();
+            } else if (depth[0] == 0) {
+                // the permit comes first, so a thread holding a stripe never waits for anything but its own operation
+                this.permits.acquireUninterruptibly();
+                for (ReentrantLock stripe : stripes) {
+                    stripe.lock();
+                }
+            } else {
+                // nested operations already run within the permit of the outer one
+                this.lockNested(stripes);
+            }
+        } finally {
+            this.queued.decrementAndGet();
+        }
+
+        depth[0]++;
+        this.active.incrementAndGet();
+
+        final long waited = System.nanoTime() - start;
+        this.acquisitions.increment();
+        this.totalWaitNanos.add(waited);
+        this.maxWaitNanos.accumulateAndGet(waited, Math::max);
+        return stripes;
+    }
+
+    private void lockNested(ReentrantLock[] stripes) {
+        int highest = -1;
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            if (this.stripes[i].isHeldByCurrentThread()) {
+                highest = i;
+                break;
+            }
+        }
+
+        int locked = 0;
+        try {
+            for (ReentrantLock stripe : stripes) {
+                final int index = this.indexOf(stripe);
+                if (stripe.isHeldByCurrentThread() || index > highest) {
+                    stripe.lock();
+                } else if (!stripe.tryLock()) {
+                    // waiting for a stripe below one we hold could deadlock against a thread nesting the other way around
+                    throw new IllegalStateException("Nested repository operation would wait for stripe " + index + " while holding stripe " + highest);
+                }
+                locked++;
+                highest = Math.max(highest, index);
+            }
+        } catch (RuntimeException ex) {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+            throw ex;
+        }
+    }
+
+    private int indexOf(ReentrantLock stripe) {
+        for (int i = 0; i < STRIPES; i++) {
+            if (this.stripes[i] == stripe) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not a stripe of these lanes");
+    }
+
+    private void release(ReentrantLock[] stripes) {
+        final int[] depth = this.depth.get();
+
+        depth[0]--;
+        this.active.decrementAndGet();
+        if (this.concurrency == RepositoryConcurrency.GLOBAL) {
+            this.globalLock.unlock();
+            return;
+        }
+
+        if (depth[0] == 0) {
+            this.permits.release();
+        }
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private static int index(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (STRIPES - 1);
+    }
+
+}
@@ -31,6 +31,7 @@ import io.fairyproject.providers.MongoRepositoryProvider;
 import java.io.Serializable;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReentrantLock;
 
 public interface RepositoryProvider extends AutoCloseable {
@@ -78,6 +79,56 @@ public interface RepositoryProvider extends AutoCloseable {
      */
     ReentrantLock getIOLock();
 
+    /**
+     * get the concurrency mode of the provider
+     *
+     * @return the concurrency mode
+     */
+    RepositoryConcurrency getConcurrency();
+
+    /**
+     * set the concurrency mode of the provider, it will be applied on next {@link #build()}
+     *
+     * @param concurrency the concurrency mode
+     */
+    void setConcurrency(RepositoryConcurrency concurrency);
+
+    /**
+     * get the lanes repository operations are scheduled on
+     *
+     * @return the lanes
+     */
+    RepositoryLanes getLanes();
+
+    /**
+     * get a snapshot of queue depth and wait time of repository operations
+     *
+     * @return the stats
+     */
+    RepositoryLaneStats getLaneStats();
+
+    /**
+     * get the executor {@link AsyncRepository} operations of the provider run on,
+     * it's sized to the connection pool unless virtual threads are enabled.
+     *
+     * @return the executor
+     */
+    ExecutorService getAsyncExecutor();
+
+    /**
+     * should the async executor run on virtual threads, requires Java 21 or newer.
+     *
+     * @return is virtual threads
+     */
+    boolean isVirtualThreads();
+
+    /**
+     * set whether the async executor should run on virtual threads, it will be applied on next {@link #build()}
+     *
+     * @param virtualThreads is virtual threads
+     */
+    void setVirtualThreads(boolean virtualThreads);
+
     Map<String, String> getDefaultOptions();
 
     default void verify(Map<String, String> map) {
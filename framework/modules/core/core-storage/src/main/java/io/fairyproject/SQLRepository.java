@@ -24,12 +24,16 @@
 
 package io.fairyproject;
 
+import io.fairyproject.mysql.ImanitySqlException;
 import io.fairyproject.mysql.Session;
 import io.fairyproject.mysql.config.AbstractSqlRepositoryProvider;
 import io.fairyproject.mysql.connection.AbstractConnectionFactory;
 import io.fairyproject.mysql.pojo.Transaction;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -52,60 +56,115 @@ public class SQLRepository<T, I extends Serializable> extends AbstractRepository
     }
 
     public <R> R supplySession(Function<Session, R> sessionConsumer) {
-        R result = null;
+        return this.supplySession(null, sessionConsumer);
+    }
 
-        Transaction transaction = null;
+    public <R> R supplySession(@Nullable Object laneKey, Function<Session, R> sessionConsumer) {
+        return this.repositoryProvider.getLanes().supply(laneKey, () -> this.transactionOrNull(sessionConsumer));
+    }
 
-        this.repositoryProvider.getIOLock().lock();
-        try {
-            transaction = this.getFactory().startTransaction();
+    public void runSession(Consumer<Session> sessionConsumer) {
+        this.runSession(null, sessionConsumer);
+    }
 
-            Session session = this.getFactory().session(transaction);
-            result = sessionConsumer.apply(session);
+    public void runSession(@Nullable Object laneKey, Consumer<Session> sessionConsumer) {
+        this.repositoryProvider.getLanes().run(laneKey, () -> this.transactionOrNull(session -> {
+            sessionConsumer.accept(session);
+            return null;
+        }));
+    }
 
-            transaction.commit();
+    /**
+     * Run a session ordered by the lanes of every given key, for batches touching several entities.
+     * Unlike the other session helpers a failure is rethrown after the rollback, so the writes of the batch can fail.
+     *
+     * @param laneKeys        the keys the session should be ordered by
+     * @param sessionConsumer the session consumer
+     */
+    public void runBatchSession(Collection<?> laneKeys, Consumer<Session> sessionConsumer) {
+        this.repositoryProvider.getLanes().runAll(laneKeys, () -> this.transaction(session -> {
+            sessionConsumer.accept(session);
+            return null;
+        }));
+    }
+
+    /**
+     * Run a session ordered against every key, for bulk operations that may touch any entity.
+     *
+     * @param sessionConsumer the session consumer
+     */
+    public void runSessionOnEveryKey(Consumer<Session> sessionConsumer) {
+        this.repositoryProvider.getLanes().runOnEveryKey(() -> this.transactionOrNull(session -> {
+            sessionConsumer.accept(session);
+            return null;
+        }));
+    }
+
+    // the single entity and query helpers keep printing failures and returning null
+    private <R> R transactionOrNull(Function<Session, R> sessionConsumer) {
+        try {
+            return this.transaction(sessionConsumer);
         } catch (Throwable throwable) {
-            if (transaction != null) {
-                transaction.rollback();
-            }
             throwable.printStackTrace();
-        } finally {
-            this.repositoryProvider.getIOLock().unlock();
+            return null;
         }
-
-        return result;
     }
 
-    public void runSession(Consumer<Session> sessionConsumer) {
+    // failures are rolled back and rethrown, so the futures of batched writes can see them
+    private <R> R transaction(Function<Session, R> sessionConsumer) {
         Transaction transaction = null;
-
-        this.repositoryProvider.getIOLock().lock();
         try {
             transaction = this.getFactory().startTransaction();
 
             Session session = this.getFactory().session(transaction);
-            sessionConsumer.accept(session);
+            R result = sessionConsumer.apply(session);
 
             transaction.commit();
+            return result;
         } catch (Throwable throwable) {
             if (transaction != null) {
-                transaction.rollback();
+                try {
+                    transaction.rollback();
+                } catch (Throwable rollbackThrowable) {
+                    throwable.addSuppressed(rollbackThrowable);
+                }
             }
-            throwable.printStackTrace();
-        } finally {
-            this.repositoryProvider.getIOLock().unlock();
+
+            if (throwable instanceof RuntimeException) {
+                throw (RuntimeException) throwable;
+            }
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+            throw new ImanitySqlException(throwable);
         }
     }
 
     @Override
     public <S extends T> S save(S pojo) {
-        this.runSession(session -> session.upsert(pojo));
+        this.runSession(this.laneKey(pojo), session -> session.upsert(pojo));
         return pojo;
     }
 
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> pojoIterable) {
+        final List<S> pojos = new ArrayList<>();
+        pojoIterable.forEach(pojos::add);
+        if (pojos.isEmpty()) {
+            return pojoIterable;
+        }
+
+        final List<Object> laneKeys = new ArrayList<>(pojos.size());
+        for (S pojo : pojos) {
+            laneKeys.add(this.laneKey(pojo));
+        }
+        this.runBatchSession(laneKeys, session -> session.upsertAll(pojos));
+        return pojoIterable;
+    }
+
     @Override
     public Optional<T> findById(I id) {
-        return Optional.ofNullable(this.supplySession(session -> session.find(this.type(), id)));
+        return Optional.ofNullable(this.supplySession(id, session -> session.find(this.type(), id)));
     }
 
     @Override
@@ -115,7 +174,7 @@ public class SQLRepository<T, I extends Serializable> extends AbstractRepository
 
     @Override
     public boolean existsById(I id) {
-        return this.supplySession(session -> session.find(this.type(), id) != null);
+        return this.supplySession(id, session -> session.find(this.type(), id) != null);
     }
 
     @Override
@@ -128,6 +187,13 @@ public class SQLRepository<T, I extends Serializable> extends AbstractRepository
         return this.supplySession(session -> session.query().byMultipleIds(this.type(), ids).results(this.type()));
     }
 
+    @Override
+    public RepositoryCursor<T> cursor(int fetchSize) {
+        // the cursor borrows its own connection for as long as it's open,
+        // so it doesn't hold a lane while the caller walks through it
+        return this.getFactory().query().cursor(this.type(), fetchSize);
+    }
+
     @Override
     public long count() {
         return this.supplySession(session -> session.query().count(this.type()).first(Long.class));
@@ -135,19 +201,19 @@ public class SQLRepository<T, I extends Serializable> extends AbstractRepository
 
     @Override
     public void deleteById(I id) {
-        this.runSession(session -> session.delete(id));
+        this.runSession(id, session -> session.delete(id));
     }
 
     @Override
     public <Q> void deleteByQuery(String queryName, Q value) {
-        this.runSession(session -> session.query()
+        this.runSessionOnEveryKey(session -> session.query()
                 .whereQuery(queryName, value)
                 .delete());
     }
 
     @Override
     public void deleteAll() {
-        this.runSession(session -> session.query().delete());
+        this.runSessionOnEveryKey(session -> session.query().delete());
     }
 
 
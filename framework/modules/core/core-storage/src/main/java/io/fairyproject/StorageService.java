@@ -25,9 +25,11 @@
 package io.fairyproject;
 
 import io.fairyproject.config.GlobalStorageConfiguration;
+import io.fairyproject.config.RepositoryCacheConfiguration;
 import io.fairyproject.config.StorageConfiguration;
 import io.fairyproject.container.*;
 import io.fairyproject.container.collection.ContainerObjCollector;
+import io.fairyproject.profiler.Profiler;
 import io.fairyproject.providers.inmemory.InMemoryRepositoryProvider;
 import io.fairyproject.util.exceptionally.ThrowingRunnable;
 import lombok.RequiredArgsConstructor;
@@ -46,6 +48,7 @@ public class StorageService {
     private final GlobalStorageConfiguration globalStorageConfiguration;
 
     private final Map<String, RepositoryProvider> repositoryProviders = new ConcurrentHashMap<>();
+    private final Map<String, StorageConfiguration> storageConfigurations = new ConcurrentHashMap<>();
 
     @PreInitialize
     public void onPreInitialize() {
@@ -73,6 +76,7 @@ public class StorageService {
     public void unregisterRepositoryProvider(RepositoryProvider repositoryProvider) {
         ThrowingRunnable.sneaky(repositoryProvider::close).run();
         this.repositoryProviders.remove(repositoryProvider.id());
+        this.storageConfigurations.remove(repositoryProvider.id());
     }
 
     @Nullable
@@ -92,7 +96,12 @@ public class StorageService {
 
         repositoryProvider.verify(configuration.getConfig());
         repositoryProvider.registerOptions(configuration.getConfig());
+        if (configuration.getConcurrency() != null) {
+            repositoryProvider.setConcurrency(configuration.getConcurrency());
+        }
+        repositoryProvider.setVirtualThreads(configuration.isVirtualThreads());
         repositoryProvider.build();
+        this.storageConfigurations.put(configuration.getId(), configuration);
     }
 
     public <E, ID extends Serializable> Repository<E, ID> createRepository(String providerId, String repoId, Class<E> entityType) {
@@ -101,7 +110,19 @@ public class StorageService {
             throw new IllegalStateException(String.format("Repository provider %s does not exists.", providerId));
         }
 
-        return repositoryProvider.buildRepository(entityType, repoId);
+        Repository<E, ID> repository = repositoryProvider.buildRepository(entityType, repoId);
+        final StorageConfiguration configuration = this.storageConfigurations.get(providerId);
+        if (configuration != null && configuration.getCaches() != null) {
+            final RepositoryCacheConfiguration cacheConfiguration = configuration.getCaches().get(repoId);
+            if (cacheConfiguration != null) {
+                repository = new CachedRepository<>(repository, cacheConfiguration);
+            }
+        }
+        // outermost, so cache hits are sampled as well
+        if (Profiler.isEnabled()) {
+            repository = new ProfiledRepository<>(repository);
+        }
+        return repository;
     }
 
     public <E, ID extends Serializable> Repository<E, ID> createRepository(String repoId, Class<E> entityType) {
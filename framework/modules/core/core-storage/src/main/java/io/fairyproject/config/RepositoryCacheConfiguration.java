@@ -0,0 +1,36 @@
+package io.fairyproject.config;
+
+import io.fairyproject.config.annotation.ConfigurationElement;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Cache settings of a single repository, see {@link io.fairyproject.CachedRepository}.
+ */
+@ConfigurationElement
+@Getter
+@AllArgsConstructor
+public class RepositoryCacheConfiguration {
+
+    /**
+     * The maximum amount of ids kept in the cache, least recently used ids are evicted first.
+     */
+    private int maximumSize;
+    /**
+     * Seconds after a load or a save the entity is evicted, 0 to keep it until it's evicted by size.
+     */
+    private long expireAfterWriteSeconds;
+    /**
+     * Whether ids that don't exist in the database should be cached as well, requires {@link #missingExpireAfterSeconds}.
+     */
+    private boolean cacheMissing;
+    /**
+     * Seconds after a missing id is evicted, missing ids are never cached while it's 0.
+     */
+    private long missingExpireAfterSeconds;
+
+    public RepositoryCacheConfiguration() {
+        this(1000, 300, false, 30);
+    }
+
+}
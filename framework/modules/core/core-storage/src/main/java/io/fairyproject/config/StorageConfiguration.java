@@ -25,7 +25,9 @@
 package io.fairyproject.config;
 
 import io.fairyproject.config.annotation.ConfigurationElement;
+import io.fairyproject.config.annotation.ElementType;
 import lombok.Getter;
+import io.fairyproject.RepositoryConcurrency;
 import io.fairyproject.RepositoryType;
 
 import java.util.HashMap;
@@ -37,12 +39,18 @@ public class StorageConfiguration {
 
     private String id;
     private RepositoryType repositoryType;
+    private RepositoryConcurrency concurrency;
+    private boolean virtualThreads;
     private Map<String, String> config;
+    @ElementType(RepositoryCacheConfiguration.class)
+    private Map<String, RepositoryCacheConfiguration> caches;
 
     public StorageConfiguration(String id, RepositoryType type) {
         this.id = id;
         this.repositoryType = type;
+        this.concurrency = RepositoryConcurrency.GLOBAL;
         this.config = new HashMap<>();
+        this.caches = new HashMap<>();
     }
 
     public StorageConfiguration() {
@@ -42,6 +42,7 @@ public abstract class AbstractMongoRepositoryProvider extends AbstractRepository
 
     private MongoClient client;
     private MongoDatabase database;
+    private MongoClientSettings clientSettings;
 
     public AbstractMongoRepositoryProvider(String id) {
         super(id);
@@ -53,14 +54,19 @@ public abstract class AbstractMongoRepositoryProvider extends AbstractRepository
         if (this.client != null) {
             ThrowingRunnable.sneaky(this::close).run();
         }
-        MongoClientSettings clientSettings = this.mongoClientSettings();
-        this.client = MongoClients.create(clientSettings);
+        this.clientSettings = this.mongoClientSettings();
+        this.client = MongoClients.create(this.clientSettings);
         this.database = this.client.getDatabase(this.database());
         this.getIOLock().unlock();
     }
 
     public abstract String database();
 
+    @Override
+    protected int parallelism() {
+        return this.clientSettings != null ? this.clientSettings.getConnectionPoolSettings().getMaxSize() : 1;
+    }
+
     @Override
     public <E, ID extends Serializable> Repository<E, ID> createRepository(Class<E> entityType, String repoId) {
         return new MongoRepository(this, entityType, repoId);
@@ -84,6 +90,7 @@ public abstract class AbstractMongoRepositoryProvider extends AbstractRepository
 
     @Override
     public void close() throws Exception {
+        this.shutdownAsyncExecutor();
         this.client.close();
     }
 }
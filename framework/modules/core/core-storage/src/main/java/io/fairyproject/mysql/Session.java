@@ -128,6 +128,13 @@ public class Session implements AutoCloseable {
         return this.query().upsert(row);
     }
 
+    /**
+     * Upsert multiple rows of the same class in a single batch.
+     */
+    public Query upsertAll(List<?> rows) {
+        return this.query().upsertBatch(rows);
+    }
+
     /**
      * Create a query and specify which table it operates on.
      */
@@ -58,8 +58,14 @@ public abstract class AbstractSqlRepositoryProvider extends AbstractRepositoryPr
         }
     }
 
+    @Override
+    protected int parallelism() {
+        return this.factory != null ? this.factory.maximumConnections() : 1;
+    }
+
     @Override
     public void close() throws Exception {
+        this.shutdownAsyncExecutor();
         if (this.factory != null) {
             this.factory.shutdown();
             this.factory = null;
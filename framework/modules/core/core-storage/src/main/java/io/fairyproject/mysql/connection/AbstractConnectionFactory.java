@@ -49,6 +49,36 @@ public abstract class AbstractConnectionFactory {
 
     public abstract Connection connection() throws SQLException;
 
+    /**
+     * The maximum amount of connections the factory can hand out at the same time.
+     *
+     * @return the maximum amount of connections
+     */
+    public int maximumConnections() {
+        return 1;
+    }
+
+    /**
+     * get a connection a cursor holds until it's closed.
+     * It must not be shared with other queries, as the cursor keeps reading from it while the caller walks through it.
+     *
+     * @return the connection
+     * @throws SQLException if no connection could be opened
+     */
+    public Connection cursorConnection() throws SQLException {
+        return this.connection();
+    }
+
+    /**
+     * get the fetch size to give the driver for a cursor on its own connection.
+     *
+     * @param fetchSize the amount of rows the cursor wants to fetch at once
+     * @return the fetch size
+     */
+    public int cursorFetchSize(int fetchSize) {
+        return Math.max(1, fetchSize);
+    }
+
     public Session session(Transaction transaction) {
         return new Session(this, transaction);
     }
@@ -83,6 +83,16 @@ public class H2ConnectionFactory extends FileConnectionFactory {
         }
     }
 
+    @Override
+    public Connection cursorConnection() throws SQLException {
+        // every other query goes through the shared connection, a cursor reading from it would be closed under its feet
+        final Connection connection = this.driver.connect(this.url(), new Properties());
+        if (connection == null) {
+            throw new SQLException("Unable to get a connection.");
+        }
+        return connection;
+    }
+
     public String url() {
         return "jdbc:h2:" + this.path.toString() + ";mode=MySQL";
     }
@@ -79,6 +79,11 @@ public abstract class HikariConnectionFactory extends AbstractConnectionFactory
         }
     }
 
+    @Override
+    public int maximumConnections() {
+        return this.config.getMaximumPoolSize();
+    }
+
     @Override
     public Connection connection() throws SQLException {
         if (this.dataSource == null) {
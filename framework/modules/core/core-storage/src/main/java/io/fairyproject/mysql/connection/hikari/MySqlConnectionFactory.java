@@ -35,6 +35,13 @@ import java.sql.SQLException;
 import java.util.Enumeration;
 
 public class MySqlConnectionFactory extends HikariConnectionFactory {
+
+    /**
+     * Fetch cursors in batches through server side cursors ({@code useCursorFetch}) instead of streaming them row by row.
+     * It applies to every connection of the pool, which makes connector/j use server side prepared statements for all of them.
+     */
+    public static final boolean USE_CURSOR_FETCH = Boolean.getBoolean("fairy.storage.mysql.use-cursor-fetch");
+
     @Override
     public String defaultPort() {
         return "3306";
@@ -46,6 +53,15 @@ public class MySqlConnectionFactory extends HikariConnectionFactory {
         config.setJdbcUrl("jdbc:mysql://" + address + ":" + port + "/" + databaseName);
         config.setUsername(username);
         config.setPassword(password);
+        if (USE_CURSOR_FETCH) {
+            config.addDataSourceProperty("useCursorFetch", "true");
+        }
+    }
+
+    @Override
+    public int cursorFetchSize(int fetchSize) {
+        // connector/j buffers whole result sets unless it streams them, which is fine as the cursor owns its connection
+        return USE_CURSOR_FETCH ? super.cursorFetchSize(fetchSize) : Integer.MIN_VALUE;
     }
 
     @Override
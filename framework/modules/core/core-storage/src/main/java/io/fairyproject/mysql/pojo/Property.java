@@ -43,6 +43,7 @@ public class Property {
 	private Method writeMethod;
 
 	private Field field;
+	private PropertyAccessor accessor;
 
 	private Class<?> dataType;
 
@@ -0,0 +1,51 @@
+package io.fairyproject.mysql.pojo;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a pojo field through method handles that are resolved once per property,
+ * instead of going through {@link Field#get(Object)} and {@link Field#set(Object, Object)} on every row.
+ * <p>
+ * The handles are adapted to {@code (Object)Object} and {@code (Object,Object)void}, boxing, unboxing
+ * and widening follows the same rules as reflective access.
+ */
+public final class PropertyAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	private PropertyAccessor(MethodHandle getter, MethodHandle setter) {
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	/**
+	 * Create an accessor for an accessible field.
+	 *
+	 * @param field the field
+	 * @return the accessor
+	 * @throws IllegalAccessException if the field isn't accessible
+	 */
+	public static PropertyAccessor of(Field field) throws IllegalAccessException {
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		return new PropertyAccessor(
+				lookup.unreflectGetter(field).asType(GETTER_TYPE),
+				lookup.unreflectSetter(field).asType(SETTER_TYPE)
+		);
+	}
+
+	public Object get(Object pojo) throws Throwable {
+		return (Object) this.getter.invokeExact(pojo);
+	}
+
+	public void set(Object pojo, Object value) throws Throwable {
+		this.setter.invokeExact(pojo, value);
+	}
+
+}
@@ -28,6 +28,7 @@ import lombok.Getter;
 import io.fairyproject.mysql.ImanitySqlException;
 import io.fairyproject.mysql.connection.AbstractConnectionFactory;
 import io.fairyproject.mysql.pojo.info.PojoInfo;
+import io.fairyproject.mysql.pojo.info.PojoRowMapper;
 import io.fairyproject.mysql.pojo.statement.SqlStatementBuilder;
 import io.fairyproject.mysql.util.SQLUtil;
 import org.intellij.lang.annotations.Language;
@@ -263,7 +264,6 @@ public class Query {
 			ResultSet rs = state.executeQuery();
 
 			metaData = rs.getMetaData();
-			int colCount = metaData.getColumnCount();
 
 			if (SQLUtil.isPrimitiveOrString(clazz) || clazz.getPackage().getName().startsWith("java.sql")) {
 				// if the receiver class is a primitive or jdbc type just grab the first column
@@ -275,21 +275,13 @@ public class Query {
 
 			} else {
 				PojoInfo pojoInfo = sqlStatementBuilder.getPojoInfo(clazz);
+				PojoRowMapper rowMapper = pojoInfo.rowMapper(metaData);
 				while (rs.next()) {
-					T row = clazz.getDeclaredConstructor().newInstance();
-
-					for (int i = 1; i <= colCount; i++) {
-						String colName = metaData.getColumnLabel(i);
-						Object colValue = sqlStatementBuilder.convertValue(rs.getObject(i), metaData.getColumnTypeName(i));
-
-						pojoInfo.putValue(row, colName, colValue, true);
-					}
-					out.add(row);
+					out.add((T) rowMapper.map(rs, sqlStatementBuilder));
 				}
 			}
 
-		} catch (InstantiationException | IllegalAccessException | SQLException | IllegalArgumentException
-				| InvocationTargetException | NoSuchMethodException | SecurityException e) {
+		} catch (SQLException | IllegalArgumentException | SecurityException e) {
 			ImanitySqlException dbe = new ImanitySqlException(e);
 			dbe.setSql(sql);
 			throw dbe;
@@ -301,6 +293,69 @@ public class Query {
 		return out;
 	}
 
+	/**
+	 * Execute a "select" query and return a cursor over the results where each row is
+	 * an instance of clazz. Rows are fetched from the database in batches of fetchSize
+	 * while the cursor advances, instead of loading the whole result into a list.
+	 * Unless the query is part of a transaction, the cursor holds its own connection
+	 * until it's closed.
+	 */
+	public <T> SqlCursor<T> cursor(Class<T> clazz, int fetchSize) {
+		if (Map.class.isAssignableFrom(clazz)) {
+			throw new ImanitySqlException("Cursors don't support Map rows, use results() instead.");
+		}
+
+		Transaction localTransaction = null;
+		PreparedStatement state = null;
+
+		try {
+			if (sql == null) {
+				sql = sqlStatementBuilder.getSelectSql(this, clazz);
+			}
+
+			Connection localCon;
+			int localFetchSize;
+			if (transaction == null) {
+				// the cursor outlives this method, so it gets a transaction on a connection of its own
+				// which also keeps postgres from materializing the whole result
+				localTransaction = new Transaction();
+				localTransaction.setConnection(factory.cursorConnection());
+				localCon = localTransaction.getConnection();
+				localFetchSize = factory.cursorFetchSize(fetchSize);
+			} else {
+				localCon = transaction.getConnection();
+				localFetchSize = Math.max(1, fetchSize);
+			}
+
+			state = localCon.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			state.setFetchSize(localFetchSize);
+			loadArgs(state);
+
+			ResultSet rs = state.executeQuery();
+			metaData = rs.getMetaData();
+
+			PojoRowMapper rowMapper = null;
+			if (!SQLUtil.isPrimitiveOrString(clazz) && !clazz.getPackage().getName().startsWith("java.sql")) {
+				rowMapper = sqlStatementBuilder.getPojoInfo(clazz).rowMapper(metaData);
+			}
+
+			return new SqlCursor<>(localTransaction, state, rs, rowMapper, sqlStatementBuilder);
+		} catch (SQLException | RuntimeException e) {
+			close(state);
+			if (localTransaction != null) {
+				try {
+					localTransaction.rollback();
+				} catch (ImanitySqlException ignored) {
+					// the original failure is more interesting
+				}
+			}
+
+			ImanitySqlException dbe = e instanceof ImanitySqlException ? (ImanitySqlException) e : new ImanitySqlException(e);
+			dbe.setSql(sql);
+			throw dbe;
+		}
+	}
+
 	private void loadArgs(PreparedStatement state) throws SQLException {
 		if (args != null) {
 			for (int i = 0; i < args.length; i++) {
@@ -356,6 +411,26 @@ public class Query {
 		return this;
 	}
 
+	/**
+	 * Upsert multiple rows of the same class into a table with a single JDBC batch.
+	 */
+	public Query upsertBatch(List<?> rows) {
+		if (rows.isEmpty()) {
+			return this;
+		}
+
+		sql = sqlStatementBuilder.getUpsertSql(this, rows.get(0));
+
+		List<Object[]> batchArgs = new ArrayList<>(rows.size());
+		for (Object row : rows) {
+			batchArgs.add(sqlStatementBuilder.getUpsertArgs(this, row));
+		}
+
+		executeBatch(batchArgs);
+
+		return this;
+	}
+
 	/**
 	 * Update a row in a table. It will match an existing row based on the primary
 	 * key.
@@ -398,21 +473,7 @@ public class Query {
 				state = localCon.prepareStatement(sql);
 			}
 
-			if (args != null) {
-				for (int i = 0; i < args.length; i++) {
-					Object arg = args[i];
-
-					/*
-					 * The purpose of this is to allow List args to be inserted into JDBC array
-					 * fields. Postgres JDBC drivers do not handle this correctly.
-					 */
-					if (arg != null && List.class.isAssignableFrom(arg.getClass())) {
-						arg = ((List<?>) arg).toArray();
-					}
-
-					state.setObject(i + 1, arg);
-				}
-			}
+			bindArgs(state, args);
 
 			rowsAffected = state.executeUpdate();
 
@@ -432,6 +493,69 @@ public class Query {
 		return this;
 	}
 
+	/**
+	 * Execute the sql command once for every set of arguments in a single JDBC batch.
+	 * The sql should previously have been set with the sql(String) method.
+	 * To see how the command did, call .rowsAffected().
+	 */
+	public Query executeBatch(List<Object[]> batchArgs) {
+
+		Connection con = null;
+		PreparedStatement state = null;
+
+		try {
+
+			Connection localCon;
+			if (transaction == null) {
+				localCon = factory.connection();
+				con = localCon; // con gets closed below if non-null
+			} else {
+				localCon = transaction.getConnection();
+			}
+
+			state = localCon.prepareStatement(sql);
+			for (Object[] batch : batchArgs) {
+				bindArgs(state, batch);
+				state.addBatch();
+			}
+
+			rowsAffected = 0;
+			for (int result : state.executeBatch()) {
+				if (result > 0) {
+					rowsAffected += result;
+				}
+			}
+
+		} catch (SQLException | IllegalArgumentException e) {
+			ImanitySqlException dbe = new ImanitySqlException(e);
+			dbe.setSql(sql);
+			throw dbe;
+		} finally {
+			close(state);
+			close(con);
+		}
+
+		return this;
+	}
+
+	private void bindArgs(PreparedStatement state, Object[] args) throws SQLException {
+		if (args != null) {
+			for (int i = 0; i < args.length; i++) {
+				Object arg = args[i];
+
+				/*
+				 * The purpose of this is to allow List args to be inserted into JDBC array
+				 * fields. Postgres JDBC drivers do not handle this correctly.
+				 */
+				if (arg != null && List.class.isAssignableFrom(arg.getClass())) {
+					arg = ((List<?>) arg).toArray();
+				}
+
+				state.setObject(i + 1, arg);
+			}
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	private void populateGeneratedKeys(PreparedStatement state, Object generatedKeyReceiver,
 			String[] generatedKeyNames) {
@@ -0,0 +1,107 @@
+package io.fairyproject.mysql.pojo;
+
+import io.fairyproject.RepositoryCursor;
+import io.fairyproject.mysql.ImanitySqlException;
+import io.fairyproject.mysql.pojo.info.PojoRowMapper;
+import io.fairyproject.mysql.pojo.statement.SqlStatementBuilder;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+
+/**
+ * A cursor over the rows of a "select" query, created by {@link Query#cursor(Class, int)}.
+ * <p>
+ * Rows are read from the open result set one at a time, the driver fetches them in batches of the fetch size.
+ * The cursor closes itself once the last row has been read, or when {@link #close()} is called.
+ */
+public class SqlCursor<T> implements RepositoryCursor<T> {
+
+	@Nullable
+	private final Transaction transaction;
+	private final PreparedStatement statement;
+	private final ResultSet resultSet;
+	@Nullable
+	private final PojoRowMapper rowMapper;
+	private final SqlStatementBuilder sqlStatementBuilder;
+
+	private boolean fetched;
+	private boolean hasNext;
+	private boolean closed;
+
+	SqlCursor(@Nullable Transaction transaction, PreparedStatement statement, ResultSet resultSet, @Nullable PojoRowMapper rowMapper, SqlStatementBuilder sqlStatementBuilder) {
+		this.transaction = transaction;
+		this.statement = statement;
+		this.resultSet = resultSet;
+		this.rowMapper = rowMapper;
+		this.sqlStatementBuilder = sqlStatementBuilder;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.closed) {
+			return false;
+		}
+
+		if (!this.fetched) {
+			try {
+				this.hasNext = this.resultSet.next();
+			} catch (SQLException e) {
+				this.close();
+				throw new ImanitySqlException(e);
+			}
+			this.fetched = true;
+
+			if (!this.hasNext) {
+				this.close();
+			}
+		}
+		return this.hasNext;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T next() {
+		if (!this.hasNext()) {
+			throw new NoSuchElementException();
+		}
+		this.fetched = false;
+
+		try {
+			if (this.rowMapper != null) {
+				return (T) this.rowMapper.map(this.resultSet, this.sqlStatementBuilder);
+			}
+			return (T) this.resultSet.getObject(1);
+		} catch (SQLException | RuntimeException e) {
+			this.close();
+			throw e instanceof ImanitySqlException ? (ImanitySqlException) e : new ImanitySqlException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		this.hasNext = false;
+
+		close(this.resultSet);
+		close(this.statement);
+		if (this.transaction != null) {
+			// read only, nothing to keep but the connection has to go back to the pool
+			this.transaction.commit();
+		}
+	}
+
+	private static void close(AutoCloseable ac) {
+		try {
+			ac.close();
+		} catch (Exception e) {
+			// bury it
+		}
+	}
+
+}
@@ -26,6 +26,9 @@ package io.fairyproject.mysql.pojo.info;
 
 import io.fairyproject.mysql.pojo.Property;
 
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
 public interface PojoInfo {
 
 	Object getValue(Object pojo, String name);
@@ -44,4 +47,6 @@ public interface PojoInfo {
 
 	Object toReadableValue(Property property, Object value);
 
+	PojoRowMapper rowMapper(ResultSetMetaData metaData) throws SQLException;
+
 }
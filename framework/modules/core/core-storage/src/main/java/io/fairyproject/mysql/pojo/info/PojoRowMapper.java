@@ -0,0 +1,49 @@
+package io.fairyproject.mysql.pojo.info;
+
+import io.fairyproject.mysql.pojo.Property;
+import io.fairyproject.mysql.pojo.statement.SqlStatementBuilder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of a result set into pojos.
+ * <p>
+ * The column to property mapping is resolved once per result set layout by {@link StandardPojoInfo#rowMapper(java.sql.ResultSetMetaData)},
+ * so reading a row is a plain loop over column indexes without any column name lookups.
+ */
+public class PojoRowMapper {
+
+	private final StandardPojoInfo pojoInfo;
+	private final Property[] columns;
+	private final String[] columnTypeNames;
+
+	PojoRowMapper(StandardPojoInfo pojoInfo, Property[] columns, String[] columnTypeNames) {
+		this.pojoInfo = pojoInfo;
+		this.columns = columns;
+		this.columnTypeNames = columnTypeNames;
+	}
+
+	/**
+	 * Read the current row of the result set into a new pojo.
+	 *
+	 * @param resultSet the result set positioned on a row
+	 * @param builder   the statement builder used to convert driver specific values
+	 * @return the pojo
+	 */
+	public Object map(ResultSet resultSet, SqlStatementBuilder builder) throws SQLException {
+		Object row = this.pojoInfo.newInstance();
+
+		for (int i = 0; i < this.columns.length; i++) {
+			Property property = this.columns[i];
+			if (property == null) {
+				continue;
+			}
+
+			Object value = builder.convertValue(resultSet.getObject(i + 1), this.columnTypeNames[i]);
+			this.pojoInfo.putValue(row, property, value);
+		}
+		return row;
+	}
+
+}
@@ -31,19 +31,27 @@ import io.fairyproject.mysql.ColumnOrder;
 import io.fairyproject.mysql.ImanitySqlException;
 import io.fairyproject.mysql.pojo.CustomSerialize;
 import io.fairyproject.mysql.pojo.Property;
+import io.fairyproject.mysql.pojo.PropertyAccessor;
 import io.fairyproject.util.AccessUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import javax.persistence.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("rawtypes")
 @Getter
@@ -53,15 +61,18 @@ public class StandardPojoInfo implements PojoInfo {
 	@Autowired
 	private static SerializerFactory SERIALIZER_FACTORY;
 
+	private final Class<?> type;
 	private Map<String, Property> propertyMap = new LinkedHashMap<>();
 	private String table;
 
 	private String primaryKeyName;
+	private Property primaryKeyProperty;
 	private String generatedColumnName;
 
 	private String insertSql;
 	private int insertSqlArgCount;
 	private String[] insertColumnNames;
+	private Property[] insertProperties;
 
 	private String upsertSql;
 	private int upsertSqlArgCount;
@@ -69,11 +80,19 @@ public class StandardPojoInfo implements PojoInfo {
 
 	private String updateSql;
 	private String[] updateColumnNames;
+	private Property[] updateProperties;
 	private int updateSqlArgCount;
 
 	private String selectColumns;
 
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private volatile MethodHandle constructor;
+	@Getter(AccessLevel.NONE)
+	private final Map<String, PojoRowMapper> rowMappers = new ConcurrentHashMap<>();
+
 	public StandardPojoInfo(Class<?> type) {
+		this.type = type;
 		try {
 
 			if (Map.class.isAssignableFrom(type)) {
@@ -142,6 +161,7 @@ public class StandardPojoInfo implements PojoInfo {
 			Property property = new Property();
 			property.setName(field.getName());
 			property.setField(field);
+			property.setAccessor(PropertyAccessor.of(field));
 
 			CustomSerialize deserializerAnnotation = field.getAnnotation(CustomSerialize.class);
 			if (deserializerAnnotation != null) {
@@ -193,6 +213,7 @@ public class StandardPojoInfo implements PojoInfo {
 		if (annotatedElement.getAnnotation(Id.class) != null) {
 			property.setPrimaryKey(true);
 			setPrimaryKeyName(property.getName());
+			setPrimaryKeyProperty(property);
 		}
 
 		if (annotatedElement.getAnnotation(GeneratedValue.class) != null) {
@@ -243,19 +264,26 @@ public class StandardPojoInfo implements PojoInfo {
 	}
 
 	public Object getValue(Object pojo, String name) {
+		Property prop = getPropertyMap().get(name.toUpperCase());
+		if (prop == null) {
+			throw new ImanitySqlException("No such field: " + name);
+		}
 
-		try {
+		return getValue(pojo, prop);
+	}
 
-			Property prop = getPropertyMap().get(name.toUpperCase());
-			if (prop == null) {
-				throw new ImanitySqlException("No such field: " + name);
-			}
+	public Object getValue(Object pojo, Property prop) {
+
+		try {
 
 			Object value = null;
 
 			if (prop.getReadMethod() != null) {
 				value = prop.getReadMethod().invoke(pojo);
 
+			} else if (prop.getAccessor() != null) {
+				value = prop.getAccessor().get(pojo);
+
 			} else if (prop.getField() != null) {
 				value = prop.getField().get(pojo);
 			}
@@ -285,6 +313,11 @@ public class StandardPojoInfo implements PojoInfo {
 			throw new ImanitySqlException("No such field: " + name);
 		}
 
+		putValue(pojo, prop, value);
+	}
+
+	public void putValue(Object pojo, Property prop, Object value) {
+
 		if (value != null) {
 			if (prop.getSerializer() != null) {
 				value = prop.getSerializer().deserialize(value);
@@ -297,10 +330,20 @@ public class StandardPojoInfo implements PojoInfo {
 		if (prop.getWriteMethod() != null) {
 			try {
 				prop.getWriteMethod().invoke(pojo, value);
-			} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+			} catch (Throwable e) {
 				throw new ImanitySqlException("Could not write value into pojo. Property: " + prop.getName() + " method: "
 						+ prop.getWriteMethod().toString() + " value: " + value + " value class: "
-						+ value.getClass().toString(), e);
+						+ (value != null ? value.getClass().toString() : null), e);
+			}
+			return;
+		}
+
+		if (prop.getAccessor() != null) {
+			try {
+				prop.getAccessor().set(pojo, value);
+			} catch (Throwable e) {
+				throw new ImanitySqlException(
+						"Could not set value into pojo. Field: " + prop.getField().toString() + " value: " + value, e);
 			}
 			return;
 		}
@@ -317,6 +360,56 @@ public class StandardPojoInfo implements PojoInfo {
 
 	}
 
+	/**
+	 * Create a new instance of the pojo through its no-args constructor.
+	 * The constructor is resolved into a method handle on first use.
+	 */
+	public Object newInstance() {
+		MethodHandle constructor = this.constructor;
+		if (constructor == null) {
+			try {
+				Constructor<?> declared = this.type.getDeclaredConstructor();
+				AccessUtil.setAccessible(declared);
+				constructor = MethodHandles.lookup().unreflectConstructor(declared).asType(MethodType.methodType(Object.class));
+			} catch (ReflectiveOperationException e) {
+				throw new ImanitySqlException("Could not resolve the no-args constructor of " + this.type.getName(), e);
+			}
+			this.constructor = constructor;
+		}
+
+		try {
+			return (Object) constructor.invokeExact();
+		} catch (Throwable t) {
+			throw new ImanitySqlException(t);
+		}
+	}
+
+	@Override
+	public PojoRowMapper rowMapper(ResultSetMetaData metaData) throws SQLException {
+		int colCount = metaData.getColumnCount();
+		String[] labels = new String[colCount];
+		String[] typeNames = new String[colCount];
+
+		StringBuilder key = new StringBuilder();
+		for (int i = 0; i < colCount; i++) {
+			labels[i] = metaData.getColumnLabel(i + 1);
+			typeNames[i] = metaData.getColumnTypeName(i + 1);
+			key.append(labels[i]).append(':').append(typeNames[i]).append(',');
+		}
+
+		PojoRowMapper mapper = this.rowMappers.get(key.toString());
+		if (mapper == null) {
+			Property[] columns = new Property[colCount];
+			for (int i = 0; i < colCount; i++) {
+				columns[i] = getPropertyMap().get(labels[i].toUpperCase());
+			}
+
+			mapper = new PojoRowMapper(this, columns, typeNames);
+			this.rowMappers.put(key.toString(), mapper);
+		}
+		return mapper;
+	}
+
 	/**
 	 * Convert a string to an enum const of the appropriate class.
 	 */
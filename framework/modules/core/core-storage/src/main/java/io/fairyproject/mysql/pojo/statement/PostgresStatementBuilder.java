@@ -24,13 +24,68 @@
 
 package io.fairyproject.mysql.pojo.statement;
 
+import io.fairyproject.mysql.ImanitySqlException;
 import io.fairyproject.mysql.pojo.Property;
+import io.fairyproject.mysql.pojo.Query;
 import io.fairyproject.mysql.pojo.info.StandardPojoInfo;
 
 import javax.persistence.Column;
 
 public class PostgresStatementBuilder extends StandardSqlStatementBuilder {
 
+	@Override
+	public String getUpsertSql(Query query, Object row) {
+		StandardPojoInfo pojoInfo = getPojoInfo(row.getClass());
+		if (pojoInfo.getUpsertSql() == null) {
+			throw new ImanitySqlException("No primary key specified in the row. Use the @Id annotation.");
+		}
+		return pojoInfo.getUpsertSql();
+	}
+
+	@Override
+	public Object[] getUpsertArgs(Query query, Object row) {
+		// excluded.* refers to the inserted values, so the args are the same as insert
+		return super.getInsertArgs(query, row);
+	}
+
+	@Override
+	public void makeUpsertSql(StandardPojoInfo pojoInfo) {
+
+		// INSERT INTO table (a,b,c) VALUES (1,2,3) ON CONFLICT (a) DO UPDATE SET b=excluded.b,c=excluded.c;
+
+		if (pojoInfo.getPrimaryKeyName() == null) {
+			return;
+		}
+
+		StringBuilder buf = new StringBuilder();
+		buf.append(pojoInfo.getInsertSql());
+		buf.append(" on conflict (");
+		buf.append(pojoInfo.getPrimaryKeyName());
+		buf.append(") do ");
+
+		boolean first = true;
+		for (String colName : pojoInfo.getInsertColumnNames()) {
+			if (colName.equalsIgnoreCase(pojoInfo.getPrimaryKeyName())) {
+				continue;
+			}
+			if (first) {
+				buf.append("update set ");
+				first = false;
+			} else {
+				buf.append(',');
+			}
+			buf.append(colName);
+			buf.append("=excluded.");
+			buf.append(colName);
+		}
+
+		if (first) {
+			buf.append("nothing");
+		}
+
+		pojoInfo.setUpsertSql(buf.toString());
+	}
+
 	@Override
 	public String getCreateTableSql(Class<?> clazz) {
 		
@@ -70,7 +70,7 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 		StandardPojoInfo pojoInfo = getPojoInfo(row.getClass());
 		Object [] args = new Object[pojoInfo.getInsertSqlArgCount()];
 		for (int i = 0; i < pojoInfo.getInsertSqlArgCount(); i++) {
-			args[i] = pojoInfo.getValue(row, pojoInfo.getInsertColumnNames()[i]);
+			args[i] = pojoInfo.getValue(row, pojoInfo.getInsertProperties()[i]);
 		}
 		return args;
 	}
@@ -90,10 +90,10 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 		
 		Object [] args = new Object[pojoInfo.getUpdateSqlArgCount()];
 		for (int i = 0; i < pojoInfo.getUpdateSqlArgCount() - 1; i++) {
-			args[i] = pojoInfo.getValue(row, pojoInfo.getUpdateColumnNames()[i]);
+			args[i] = pojoInfo.getValue(row, pojoInfo.getUpdateProperties()[i]);
 		}
 		// add the value for the where clause to the end
-		Object pk = pojoInfo.getValue(row, pojoInfo.getPrimaryKeyName());
+		Object pk = pojoInfo.getValue(row, pojoInfo.getPrimaryKeyProperty());
 		args[pojoInfo.getUpdateSqlArgCount() - 1] = pk;
 		return args;
 	}
@@ -104,6 +104,7 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 	public void makeUpdateSql(StandardPojoInfo pojoInfo) {
 		
 		ArrayList<String> cols = new ArrayList<String>();
+		ArrayList<Property> props = new ArrayList<Property>();
 		for (Property prop: pojoInfo.getPropertyMap().values()) {
 			
 			if (prop.isPrimaryKey()) {
@@ -115,8 +116,10 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 			}
 			
 			cols.add(prop.getName());
+			props.add(prop);
 		}
 		pojoInfo.setUpdateColumnNames(cols.toArray(new String [cols.size()]));
+		pojoInfo.setUpdateProperties(props.toArray(new Property [props.size()]));
 		pojoInfo.setUpdateSqlArgCount(pojoInfo.getUpdateColumnNames().length + 1); // + 1 for the where arg
 		
 		StringBuilder buf = new StringBuilder();
@@ -139,13 +142,16 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 	
 	public void makeInsertSql(StandardPojoInfo pojoInfo) {
 		ArrayList<String> cols = new ArrayList<String>();
+		ArrayList<Property> props = new ArrayList<Property>();
 		for (Property prop: pojoInfo.getPropertyMap().values()) {
 			if (prop.isGenerated()) {
 				continue;
 			}
 			cols.add(prop.getName());
+			props.add(prop);
 		}
 		pojoInfo.setInsertColumnNames(cols.toArray(new String [cols.size()]));
+		pojoInfo.setInsertProperties(props.toArray(new Property [props.size()]));
 		pojoInfo.setInsertSqlArgCount(pojoInfo.getInsertColumnNames().length);
 		
 		StringBuilder buf = new StringBuilder();
@@ -356,7 +362,7 @@ public class StandardSqlStatementBuilder implements SqlStatementBuilder {
 	@Override
 	public Object[] getDeleteArgs(Query query, Object row) {
 		StandardPojoInfo pojoInfo = getPojoInfo(row.getClass());
-		Object primaryKeyValue = pojoInfo.getValue(row, pojoInfo.getPrimaryKeyName());
+		Object primaryKeyValue = pojoInfo.getValue(row, pojoInfo.getPrimaryKeyProperty());
 		Object [] args = new Object[1];
 		args[0] = primaryKeyValue;
 		return args;
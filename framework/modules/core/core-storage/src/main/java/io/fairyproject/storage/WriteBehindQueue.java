@@ -0,0 +1,239 @@
+package io.fairyproject.storage;
+
+import io.fairyproject.Repository;
+import io.fairyproject.log.Log;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.Scheduler;
+import io.fairyproject.scheduler.Schedulers;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind stage in front of a {@link Repository}.
+ * <p>
+ * Saves are merged per id, so saving the same id twice before a flush only writes the latest pojo once,
+ * and are flushed through {@link Repository#saveAll(Iterable)} either when {@link #getMaxBatchSize()} pojos
+ * are pending or {@link #getMaxDelay()} after the first pending save, whichever comes first.
+ * SQL repositories turn a flush into a single JDBC batch and Mongo repositories into a single bulk write.
+ * <p>
+ * Batches are always drained by the thread that writes them and written in the order they were drained,
+ * so an older batch can never overwrite a newer one even when a timed or size triggered flush races {@link #flush()}.
+ *
+ * @param <T> the pojo type
+ * @param <I> the id type
+ */
+public class WriteBehindQueue<T, I extends Serializable> implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(250);
+
+    @Getter
+    private final Repository<T, I> repository;
+    @Getter
+    private final int maxBatchSize;
+    @Getter
+    private final Duration maxDelay;
+    private final Scheduler scheduler;
+
+    private final Object lock = new Object();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition writeTurn = this.writeLock.newCondition();
+    private Map<I, PendingWrite<T>> pending = new LinkedHashMap<>();
+    // drained batches that aren't written yet, guarded by lock
+    private final Deque<Batch<T, I>> writing = new ArrayDeque<>();
+    private ScheduledTask<?> flushTask;
+    private boolean immediateFlush;
+    // the ticket of the next drained batch, guarded by lock
+    private long drainedTickets;
+    // the ticket of the next batch allowed to write, guarded by writeLock
+    private long writtenTickets;
+
+    public WriteBehindQueue(Repository<T, I> repository) {
+        this(repository, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_DELAY, Schedulers.IO);
+    }
+
+    public WriteBehindQueue(Repository<T, I> repository, int maxBatchSize, Duration maxDelay, Scheduler scheduler) {
+        this.repository = repository;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelay = maxDelay;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Queue the pojo to be saved.
+     *
+     * @param id   the id of the pojo
+     * @param pojo the pojo
+     * @return the future that completes once the pojo has been written
+     */
+    public CompletableFuture<T> save(I id, T pojo) {
+        final CompletableFuture<T> future;
+        ScheduledTask<?> staleTask = null;
+
+        synchronized (this.lock) {
+            PendingWrite<T> write = this.pending.get(id);
+            if (write == null) {
+                write = new PendingWrite<>();
+                this.pending.put(id, write);
+            }
+            write.pojo = pojo;
+            future = write.future;
+
+            if (this.pending.size() >= this.maxBatchSize) {
+                if (!this.immediateFlush) {
+                    // the batch is drained by the flush itself, so it gets its ticket on the writing thread
+                    staleTask = this.flushTask;
+                    this.flushTask = this.scheduler.schedule(this::flush);
+                    this.immediateFlush = true;
+                }
+            } else if (this.flushTask == null) {
+                this.flushTask = this.scheduler.schedule(this::flush, this.maxDelay);
+            }
+        }
+
+        // cancelled outside of the lock, a running flush holds the monitor of its task while it waits for the lock
+        if (staleTask != null) {
+            staleTask.cancel();
+        }
+        return future;
+    }
+
+    /**
+     * get the amount of ids waiting to be written
+     *
+     * @return the amount
+     */
+    public int size() {
+        synchronized (this.lock) {
+            return this.pending.size();
+        }
+    }
+
+    /**
+     * get the latest pojo saved for an id that isn't written to the repository yet,
+     * loads should prefer it over the repository as the stored pojo may be older
+     *
+     * @param id the id of the pojo
+     * @return the pojo, or null if nothing is waiting to be written for the id
+     */
+    public T getPending(I id) {
+        synchronized (this.lock) {
+            final PendingWrite<T> write = this.pending.get(id);
+            if (write != null) {
+                return write.pojo;
+            }
+
+            final Iterator<Batch<T, I>> iterator = this.writing.descendingIterator();
+            while (iterator.hasNext()) {
+                final PendingWrite<T> written = iterator.next().writes.get(id);
+                if (written != null) {
+                    return written.pojo;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Write everything pending on the current thread.
+     */
+    public void flush() {
+        final Batch<T, I> batch;
+        final ScheduledTask<?> staleTask;
+        synchronized (this.lock) {
+            staleTask = this.flushTask;
+            this.flushTask = null;
+            batch = this.drain();
+        }
+
+        if (staleTask != null) {
+            staleTask.cancel();
+        }
+
+        if (batch != null) {
+            try {
+                this.write(batch);
+            } finally {
+                synchronized (this.lock) {
+                    this.writing.remove(batch);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.flush();
+    }
+
+    // must be called while holding lock, the returned batch must be written right away by the caller
+    private Batch<T, I> drain() {
+        this.immediateFlush = false;
+        if (this.pending.isEmpty()) {
+            return null;
+        }
+
+        final Batch<T, I> batch = new Batch<>(this.drainedTickets++, this.pending);
+        this.pending = new LinkedHashMap<>();
+        this.writing.addLast(batch);
+        return batch;
+    }
+
+    private void write(Batch<T, I> batch) {
+        final List<T> pojos = new ArrayList<>(batch.writes.size());
+        for (PendingWrite<T> write : batch.writes.values()) {
+            pojos.add(write.pojo);
+        }
+
+        // batches are written in the order they were drained, so an older batch can never overwrite a newer one
+        this.writeLock.lock();
+        try {
+            while (this.writtenTickets != batch.ticket) {
+                this.writeTurn.awaitUninterruptibly();
+            }
+            this.repository.saveAll(pojos);
+        } catch (Throwable throwable) {
+            Log.error("Failed to write " + pojos.size() + " pojos to repository " + this.repository.getRepoId(), throwable);
+            for (PendingWrite<T> write : batch.writes.values()) {
+                write.future.completeExceptionally(throwable);
+            }
+            return;
+        } finally {
+            this.writtenTickets++;
+            this.writeTurn.signalAll();
+            this.writeLock.unlock();
+        }
+
+        for (PendingWrite<T> write : batch.writes.values()) {
+            write.future.complete(write.pojo);
+        }
+    }
+
+    private static class Batch<T, I> {
+        private final long ticket;
+        private final Map<I, PendingWrite<T>> writes;
+
+        private Batch(long ticket, Map<I, PendingWrite<T>> writes) {
+            this.ticket = ticket;
+            this.writes = writes;
+        }
+    }
+
+    private static class PendingWrite<T> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T pojo;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.fairyproject.test;
+
+import io.fairyproject.mysql.connection.file.H2ConnectionFactory;
+import io.fairyproject.mysql.pojo.SqlCursor;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class TestCursor {
+
+	@Test
+	public void test() {
+
+		H2ConnectionFactory db = new H2ConnectionFactory(new File("./h2test").toPath().toAbsolutePath(), true);
+
+		db.query().sql("drop table if exists cursortest").execute();
+
+		db.createTable(Row.class);
+
+		List<Row> rows = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new Row(i, i % 10));
+		}
+		db.query().upsertBatch(rows);
+
+		long count = 0;
+		long sum = 0;
+		try (SqlCursor<Row> cursor = db.query().orderBy("id").cursor(Row.class, 64)) {
+			while (cursor.hasNext()) {
+				Row row = cursor.next();
+				assertEquals(count, row.id);
+				sum += row.score;
+				count++;
+
+				if (count == 500) {
+					// the cursor has a connection of its own, other queries don't disturb it
+					assertEquals(1000L, (long) db.query().sql("select count(*) from cursortest").first(Long.class));
+					db.query().upsert(new Row(0, 0));
+				}
+			}
+			assertFalse(cursor.hasNext());
+		}
+		assertEquals(1000, count);
+		assertEquals(4500, sum);
+
+		try (SqlCursor<Row> cursor = db.query().cursor(Row.class, 64)) {
+			assertEquals(4500, cursor.stream().mapToLong(row -> row.score).sum());
+		}
+
+		// connection went back after the cursors were closed
+		assertEquals(1000L, (long) db.query().sql("select count(*) from cursortest").first(Long.class));
+	}
+
+	@Table(name="cursortest")
+	public static class Row {
+		@Id
+		public long id;
+		public int score;
+
+		public Row() {
+		}
+
+		public Row(long id, int score) {
+			this.id = id;
+			this.score = score;
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.test;
+
+import io.fairyproject.mysql.connection.file.H2ConnectionFactory;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestUpsertBatch {
+
+	@Test
+	public void test() {
+
+		H2ConnectionFactory db = new H2ConnectionFactory(new File("./h2test").toPath().toAbsolutePath(), true);
+
+		db.query().sql("drop table if exists upsertbatchtest").execute();
+
+		db.createTable(Row.class);
+
+		List<Row> rows = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			rows.add(new Row(i, "first" + i));
+		}
+		db.query().upsertBatch(rows);
+
+		assertEquals(50L, (long) db.query().sql("select count(*) from upsertbatchtest").first(Long.class));
+
+		// second batch updates half of the rows and inserts 25 new ones
+		rows.clear();
+		for (int i = 25; i < 75; i++) {
+			rows.add(new Row(i, "second" + i));
+		}
+		db.query().upsertBatch(rows);
+
+		assertEquals(75L, (long) db.query().sql("select count(*) from upsertbatchtest").first(Long.class));
+		assertEquals("first0", db.query().whereQuery("id", 0).first(Row.class).name);
+		assertEquals("second30", db.query().whereQuery("id", 30).first(Row.class).name);
+	}
+
+	@Table(name="upsertbatchtest")
+	public static class Row {
+		@Id
+		public long id;
+		public String name;
+
+		public Row() {
+		}
+
+		public Row(long id, String name) {
+			this.id = id;
+			this.name = name;
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package io.fairytest;
+
+import io.fairyproject.AsyncRepository;
+import io.fairyproject.ExecutorAsyncRepository;
+import io.fairyproject.InMemoryRepository;
+import io.fairyproject.providers.inmemory.InMemoryRepositoryProvider;
+import io.fairyproject.tests.base.JUnitJupiterBase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Id;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncRepositoryTest extends JUnitJupiterBase {
+
+    @Test
+    public void inMemoryShouldCompleteImmediately() {
+        final InMemoryRepository<TestPojo, String> repository = new InMemoryRepository<>(InMemoryRepositoryProvider.INSTANCE, TestPojo.class, "test");
+        repository.init();
+        final AsyncRepository<TestPojo, String> async = repository.async();
+
+        Assertions.assertTrue(async.save(new TestPojo("a", 1)).isDone());
+        Assertions.assertEquals(1, async.findById("a").join().get().value);
+
+        async.deleteById("a").join();
+        Assertions.assertFalse(async.findById("a").join().isPresent());
+        Assertions.assertSame(repository, async.sync());
+    }
+
+    @Test
+    public void executorShouldRunOffTheCallingThread() throws Exception {
+        final InMemoryRepository<TestPojo, String> repository = new InMemoryRepository<TestPojo, String>(InMemoryRepositoryProvider.INSTANCE, TestPojo.class, "test") {
+            @Override
+            public Optional<TestPojo> findById(String id) {
+                Assertions.assertTrue(Thread.currentThread().getName().startsWith("async-test"));
+                return super.findById(id);
+            }
+        };
+        repository.init();
+        repository.save(new TestPojo("a", 1));
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "async-test"));
+        try {
+            final AsyncRepository<TestPojo, String> async = new ExecutorAsyncRepository<>(repository, executor);
+            Assertions.assertEquals(1, async.findById("a").get(5, TimeUnit.SECONDS).get().value);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void closedProviderShouldNotCreateExecutors() throws Exception {
+        final InMemoryRepositoryProvider provider = new InMemoryRepositoryProvider("closing") {
+            @Override
+            public void close() {
+                this.shutdownAsyncExecutor();
+            }
+        };
+        provider.build();
+        final ExecutorService executor = provider.getAsyncExecutor();
+
+        provider.close();
+
+        Assertions.assertTrue(executor.isShutdown());
+        Assertions.assertThrows(RejectedExecutionException.class, provider::getAsyncExecutor);
+
+        provider.build();
+        Assertions.assertFalse(provider.getAsyncExecutor().isShutdown());
+        provider.close();
+    }
+
+    public static class TestPojo {
+
+        @Id
+        private String id;
+        private int value;
+
+        public TestPojo() {
+        }
+
+        public TestPojo(String id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+}
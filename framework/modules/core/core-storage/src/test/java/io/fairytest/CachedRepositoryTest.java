@@ -0,0 +1,205 @@
+package io.fairytest;
+
+import io.fairyproject.CachedRepository;
+import io.fairyproject.InMemoryRepository;
+import io.fairyproject.ProfiledRepository;
+import io.fairyproject.RepositoryCacheStats;
+import io.fairyproject.config.RepositoryCacheConfiguration;
+import io.fairyproject.providers.inmemory.InMemoryRepositoryProvider;
+import io.fairyproject.tests.base.JUnitJupiterBase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Id;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachedRepositoryTest extends JUnitJupiterBase {
+
+    @Test
+    public void hitsShouldNotLoadAgain() {
+        final CountingRepository repository = new CountingRepository();
+        repository.save(new TestPojo("a", 1));
+        final CachedRepository<TestPojo, String> cached = new CachedRepository<>(repository, new RepositoryCacheConfiguration());
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(1, cached.findById("a").get().value);
+        }
+
+        final RepositoryCacheStats stats = cached.getStats();
+        Assertions.assertEquals(1, repository.loads.get());
+        Assertions.assertEquals(9, stats.getHits());
+        Assertions.assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void missingIdsShouldBeCached() {
+        final CountingRepository repository = new CountingRepository();
+        final CachedRepository<TestPojo, String> cached = new CachedRepository<>(repository, new RepositoryCacheConfiguration(1000, 300, true, 30));
+
+        Assertions.assertFalse(cached.findById("missing").isPresent());
+        Assertions.assertFalse(cached.existsById("missing"));
+        Assertions.assertEquals(1, repository.loads.get());
+
+        // saving through the cache replaces the negative entry
+        cached.save(new TestPojo("missing", 5));
+        Assertions.assertEquals(5, cached.findById("missing").get().value);
+        Assertions.assertEquals(1, repository.loads.get());
+
+        cached.deleteById("missing");
+        Assertions.assertFalse(cached.findById("missing").isPresent());
+        Assertions.assertEquals(2, repository.loads.get());
+    }
+
+    @Test
+    public void missingIdsShouldNotBeCachedByDefault() {
+        final CountingRepository repository = new CountingRepository();
+        final CachedRepository<TestPojo, String> cached = new CachedRepository<>(repository, new RepositoryCacheConfiguration());
+
+        Assertions.assertFalse(cached.findById("missing").isPresent());
+        Assertions.assertFalse(cached.findById("missing").isPresent());
+
+        Assertions.assertEquals(2, repository.loads.get());
+        Assertions.assertEquals(0, cached.size());
+    }
+
+    @Test
+    public void failuresShouldNotBeCached() {
+        final AtomicInteger failures = new AtomicInteger(1);
+        final CountingRepository repository = new CountingRepository() {
+            @Override
+            public Optional<TestPojo> findById(String id) {
+                if (failures.getAndDecrement() > 0) {
+                    super.findById(id);
+                    throw new IllegalStateException("database is down");
+                }
+                return super.findById(id);
+            }
+
+            @Override
+            public <S extends TestPojo> S save(S pojo) {
+                if (((TestPojo) pojo).value < 0) {
+                    throw new IllegalStateException("database is down");
+                }
+                return super.save(pojo);
+            }
+        };
+        repository.save(new TestPojo("a", 1));
+        final CachedRepository<TestPojo, String> cached = new CachedRepository<>(repository, new RepositoryCacheConfiguration(1000, 300, true, 30));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> cached.findById("a"));
+        Assertions.assertEquals(1, cached.getStats().getLoadFailures());
+        Assertions.assertEquals(1, cached.findById("a").get().value);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> cached.save(new TestPojo("a", -1)));
+        Assertions.assertEquals(0, cached.size());
+        Assertions.assertEquals(1, cached.findById("a").get().value);
+        Assertions.assertEquals(3, repository.loads.get());
+    }
+
+    @Test
+    public void savesThroughWrappersShouldOnlyReplaceTheirId() {
+        final CountingRepository repository = new CountingRepository();
+        repository.save(new TestPojo("a", 1));
+        repository.save(new TestPojo("b", 1));
+        final CachedRepository<TestPojo, String> cached = new CachedRepository<>(new ProfiledRepository<>(repository), new RepositoryCacheConfiguration());
+
+        cached.findById("a");
+        cached.findById("b");
+        cached.save(new TestPojo("a", 2));
+
+        Assertions.assertEquals(2, cached.size());
+        Assertions.assertEquals(2, cached.findById("a").get().value);
+        Assertions.assertEquals(1, cached.findById("b").get().value);
+        Assertions.assertEquals(2, repository.loads.get());
+    }
+
+    @Test
+    public void sizeShouldBeBounded() {
+        final CountingRepository repository = new CountingRepository();
+        final CachedRepository<TestPojo, String> cached = new CachedRepository<>(repository, new RepositoryCacheConfiguration(2, 0, true, 60));
+
+        cached.findById("a");
+        cached.findById("b");
+        cached.findById("a");
+        cached.findById("c");
+
+        Assertions.assertEquals(2, cached.size());
+        Assertions.assertEquals(1, cached.getStats().getEvictions());
+
+        // b was the least recently used one
+        cached.findById("a");
+        Assertions.assertEquals(3, repository.loads.get());
+        cached.findById("b");
+        Assertions.assertEquals(4, repository.loads.get());
+    }
+
+    @Test
+    public void concurrentMissesShouldLoadOnce() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingRepository repository = new CountingRepository() {
+            @Override
+            public Optional<TestPojo> findById(String id) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+                return super.findById(id);
+            }
+        };
+        repository.save(new TestPojo("guild", 1));
+        final CachedRepository<TestPojo, String> cached = new CachedRepository<>(repository, new RepositoryCacheConfiguration());
+
+        final CountDownLatch finished = new CountDownLatch(50);
+        final AtomicInteger found = new AtomicInteger();
+        for (int i = 0; i < 50; i++) {
+            new Thread(() -> {
+                if (cached.findById("guild").isPresent()) {
+                    found.incrementAndGet();
+                }
+                finished.countDown();
+            }).start();
+        }
+
+        Thread.sleep(50L);
+        release.countDown();
+
+        Assertions.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(50, found.get());
+        Assertions.assertEquals(1, repository.loads.get());
+    }
+
+    public static class TestPojo {
+
+        @Id
+        private String id;
+        private int value;
+
+        public TestPojo() {
+        }
+
+        public TestPojo(String id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    private static class CountingRepository extends InMemoryRepository<TestPojo, String> {
+
+        private final AtomicInteger loads = new AtomicInteger();
+
+        private CountingRepository() {
+            super(InMemoryRepositoryProvider.INSTANCE, TestPojo.class, "test");
+            this.init();
+        }
+
+        @Override
+        public Optional<TestPojo> findById(String id) {
+            this.loads.incrementAndGet();
+            return super.findById(id);
+        }
+    }
+
+}
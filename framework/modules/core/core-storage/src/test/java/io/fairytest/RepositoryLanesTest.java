@@ -0,0 +1,225 @@
+package io.fairytest;
+
+import io.fairyproject.RepositoryConcurrency;
+import io.fairyproject.RepositoryLaneStats;
+import io.fairyproject.RepositoryLanes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class RepositoryLanesTest {
+
+    @Test
+    public void stripedShouldRunDifferentKeysInParallel() throws InterruptedException {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 4);
+        final CountDownLatch entered = new CountDownLatch(4);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 4; i++) {
+            final int key = i;
+            new Thread(() -> lanes.run(key, () -> {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            })).start();
+        }
+
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(4, lanes.snapshot().getActive());
+        release.countDown();
+    }
+
+    @Test
+    public void stripedShouldSerializeSameKey() throws InterruptedException {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 8);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(8);
+
+        for (int i = 0; i < 8; i++) {
+            new Thread(() -> {
+                lanes.run("same-id", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5L);
+                    } catch (InterruptedException ignored) {
+                    }
+                    running.decrementAndGet();
+                });
+                finished.countDown();
+            }).start();
+        }
+
+        Assertions.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void batchesShouldBeOrderedWithEveryKey() throws InterruptedException {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 4);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger order = new AtomicInteger();
+        final AtomicInteger batchFinished = new AtomicInteger();
+        final AtomicInteger singleStarted = new AtomicInteger();
+
+        final Thread batch = new Thread(() -> lanes.runAll(Arrays.asList("a", "b", null), () -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            batchFinished.set(order.incrementAndGet());
+        }));
+        batch.start();
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        final Thread single = new Thread(() -> lanes.run("b", () -> singleStarted.set(order.incrementAndGet())));
+        single.start();
+        Thread.sleep(50L);
+        release.countDown();
+        batch.join(5_000L);
+        single.join(5_000L);
+
+        Assertions.assertEquals(1, batchFinished.get());
+        Assertions.assertEquals(2, singleStarted.get());
+    }
+
+    @Test
+    public void nestedOperationShouldNotDeadlock() {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 1);
+
+        final String result = lanes.supply("a", () -> lanes.supply("b", () -> "nested"));
+
+        Assertions.assertEquals("nested", result);
+    }
+
+    @Test
+    public void nestedOperationShouldBeOrderedWithItsKey() throws InterruptedException {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 4);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger order = new AtomicInteger();
+        final AtomicInteger holderFinished = new AtomicInteger();
+        final AtomicInteger nestedStarted = new AtomicInteger();
+
+        // "b" sorts above "a", so the nested operation waits for it
+        final Thread holder = new Thread(() -> lanes.run("b", () -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            holderFinished.set(order.incrementAndGet());
+        }));
+        holder.start();
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        final Thread nested = new Thread(() -> lanes.run("a", () -> lanes.run("b", () -> nestedStarted.set(order.incrementAndGet()))));
+        nested.start();
+        Thread.sleep(50L);
+        release.countDown();
+        holder.join(5_000L);
+        nested.join(5_000L);
+
+        Assertions.assertEquals(1, holderFinished.get());
+        Assertions.assertEquals(2, nestedStarted.get());
+    }
+
+    @Test
+    public void crossNestedOperationsShouldFailInsteadOfDeadlocking() throws InterruptedException {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 2);
+        final CyclicBarrier outerEntered = new CyclicBarrier(2);
+        final CountDownLatch finished = new CountDownLatch(2);
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+
+        // each thread nests into the key the other one holds
+        for (String[] keys : new String[][] { { "a", "b" }, { "b", "a" } }) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    lanes.run(keys[0], () -> {
+                        try {
+                            outerEntered.await(5, TimeUnit.SECONDS);
+                        } catch (Exception ignored) {
+                        }
+                        lanes.run(keys[1], () -> {});
+                    });
+                    completed.incrementAndGet();
+                } catch (IllegalStateException ex) {
+                    failed.incrementAndGet();
+                }
+                finished.countDown();
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Assertions.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, completed.get());
+        Assertions.assertEquals(1, failed.get());
+        Assertions.assertEquals(0, lanes.snapshot().getActive());
+    }
+
+    @Test
+    public void everyKeyOperationsShouldBeOrderedWithEveryKey() throws InterruptedException {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 4);
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger order = new AtomicInteger();
+        final AtomicInteger saveFinished = new AtomicInteger();
+        final AtomicInteger bulkStarted = new AtomicInteger();
+
+        final Thread save = new Thread(() -> lanes.run("id", () -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            saveFinished.set(order.incrementAndGet());
+        }));
+        save.start();
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        final Thread bulk = new Thread(() -> lanes.runOnEveryKey(() -> bulkStarted.set(order.incrementAndGet())));
+        bulk.start();
+        Thread.sleep(50L);
+        release.countDown();
+        save.join(5_000L);
+        bulk.join(5_000L);
+
+        Assertions.assertEquals(1, saveFinished.get());
+        Assertions.assertEquals(2, bulkStarted.get());
+    }
+
+    @Test
+    public void nestedExclusiveShouldFail() {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.STRIPED, new ReentrantLock(), 2);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> lanes.run("a", () -> lanes.exclusive(() -> {})));
+        Assertions.assertEquals(0, lanes.snapshot().getActive());
+    }
+
+    @Test
+    public void snapshotShouldRecordAcquisitions() {
+        final RepositoryLanes lanes = new RepositoryLanes(RepositoryConcurrency.GLOBAL, new ReentrantLock(), 10);
+
+        lanes.run(null, () -> {});
+        lanes.run("id", () -> {});
+
+        final RepositoryLaneStats stats = lanes.snapshot();
+        Assertions.assertEquals(1, stats.getParallelism());
+        Assertions.assertEquals(2, stats.getAcquisitions());
+        Assertions.assertEquals(0, stats.getQueued());
+        Assertions.assertEquals(0, stats.getActive());
+    }
+
+}
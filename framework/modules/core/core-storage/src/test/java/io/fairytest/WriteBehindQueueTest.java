@@ -0,0 +1,147 @@
+package io.fairytest;
+
+import io.fairyproject.InMemoryRepository;
+import io.fairyproject.providers.inmemory.InMemoryRepositoryProvider;
+import io.fairyproject.scheduler.Schedulers;
+import io.fairyproject.storage.WriteBehindQueue;
+import io.fairyproject.tests.base.JUnitJupiterBase;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.Id;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class WriteBehindQueueTest extends JUnitJupiterBase {
+
+    @Test
+    public void savesShouldBeMergedPerId() throws Exception {
+        final CountingRepository repository = new CountingRepository();
+        final WriteBehindQueue<TestPojo, String> queue = new WriteBehindQueue<>(repository, 100, Duration.ofMinutes(1), Schedulers.IO);
+
+        final CompletableFuture<TestPojo> first = queue.save("a", new TestPojo("a", 1));
+        final CompletableFuture<TestPojo> second = queue.save("a", new TestPojo("a", 2));
+        queue.save("b", new TestPojo("b", 1));
+        Assertions.assertEquals(2, queue.size());
+
+        queue.flush();
+
+        Assertions.assertEquals(1, repository.batches.size());
+        Assertions.assertEquals(2, repository.batches.get(0));
+        Assertions.assertEquals(2, first.get(1, TimeUnit.SECONDS).value);
+        Assertions.assertSame(first.get(), second.get());
+        Assertions.assertEquals(2, repository.findById("a").get().value);
+    }
+
+    @Test
+    public void reachingMaxBatchSizeShouldFlush() throws Exception {
+        final CountingRepository repository = new CountingRepository();
+        final WriteBehindQueue<TestPojo, String> queue = new WriteBehindQueue<>(repository, 10, Duration.ofMinutes(1), Schedulers.IO);
+
+        CompletableFuture<TestPojo> last = null;
+        for (int i = 0; i < 10; i++) {
+            last = queue.save("id" + i, new TestPojo("id" + i, i));
+        }
+
+        last.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(0, queue.size());
+        Assertions.assertEquals(1, repository.batches.size());
+        Assertions.assertEquals(10, repository.batches.get(0));
+    }
+
+    @Test
+    public void maxDelayShouldFlush() throws Exception {
+        final CountingRepository repository = new CountingRepository();
+        final WriteBehindQueue<TestPojo, String> queue = new WriteBehindQueue<>(repository, 100, Duration.ofMillis(20), Schedulers.IO);
+
+        queue.save("a", new TestPojo("a", 1)).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(1, repository.batches.size());
+    }
+
+    @Test
+    public void pendingSavesShouldBeServedUntilWritten() throws Exception {
+        final CountingRepository repository = new CountingRepository();
+        final WriteBehindQueue<TestPojo, String> queue = new WriteBehindQueue<>(repository, 100, Duration.ofMinutes(1), Schedulers.IO);
+
+        final TestPojo pojo = new TestPojo("a", 1);
+        queue.save("a", pojo);
+
+        Assertions.assertSame(pojo, queue.getPending("a"));
+        Assertions.assertNull(queue.getPending("b"));
+        Assertions.assertFalse(repository.findById("a").isPresent());
+
+        queue.flush();
+
+        Assertions.assertNull(queue.getPending("a"));
+        Assertions.assertEquals(1, repository.findById("a").get().value);
+    }
+
+    @Test
+    public void sizeTriggeredBatchesShouldNeverOverwriteNewerFlushes() throws Exception {
+        final CountingRepository repository = new CountingRepository();
+        final WriteBehindQueue<TestPojo, String> queue = new WriteBehindQueue<>(repository, 1, Duration.ofMinutes(1), Schedulers.IO);
+
+        // every save triggers a batch on the scheduler while the test thread keeps flushing the same id
+        final List<CompletableFuture<TestPojo>> futures = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            futures.add(queue.save("a", new TestPojo("a", i)));
+            if (i % 3 == 0) {
+                queue.flush();
+            }
+        }
+        queue.flush();
+        for (CompletableFuture<TestPojo> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertEquals(1_999, repository.findById("a").get().value);
+        int previous = -1;
+        for (int value : repository.written) {
+            Assertions.assertTrue(value > previous, "value " + value + " was written after " + previous);
+            previous = value;
+        }
+    }
+
+    public static class TestPojo {
+
+        @Id
+        private String id;
+        private int value;
+
+        public TestPojo() {
+        }
+
+        public TestPojo(String id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    private static class CountingRepository extends InMemoryRepository<TestPojo, String> {
+
+        private final List<Integer> batches = new ArrayList<>();
+        private final List<Integer> written = new ArrayList<>();
+
+        private CountingRepository() {
+            super(InMemoryRepositoryProvider.INSTANCE, TestPojo.class, "write-behind");
+            this.init();
+        }
+
+        @Override
+        public <S extends TestPojo> Iterable<S> saveAll(Iterable<S> pojoIterable) {
+            int size = 0;
+            for (S pojo : pojoIterable) {
+                this.save(pojo);
+                this.written.add(((TestPojo) pojo).value);
+                size++;
+            }
+            this.batches.add(size);
+            return pojoIterable;
+        }
+    }
+
+}
@@ -5,11 +5,9 @@ import io.fairyproject.container.collection.ContainerObjCollector;
 import io.fairyproject.log.Log;
 import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.metadata.PlayerOnlineValue;
-import io.fairyproject.mc.registry.player.MCPlayerRegistry;
-import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.mc.scheduler.PlayerRenderLoop;
 import io.fairyproject.metadata.MetadataKey;
-import io.fairyproject.scheduler.ScheduledTask;
-import io.fairyproject.scheduler.response.TaskResponse;
+import io.fairyproject.util.terminable.Terminable;
 import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.Nullable;
@@ -18,7 +16,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @InjectableComponent
@@ -29,11 +26,9 @@ public class ActionbarService {
 
     private final List<ActionbarAdapter> adapters = new ArrayList<>();
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final AtomicBoolean activated = new AtomicBoolean();
     private final ContainerContext containerContext;
-    private final MCPlayerRegistry mcPlayerRegistry;
-    private final MCSchedulerProvider mcSchedulerProvider;
-    private ScheduledTask<Void> scheduledTask;
+    private final PlayerRenderLoop playerRenderLoop;
+    private Terminable renderTask;
 
     @PreInitialize
     public void onPreInitialize() {
@@ -51,49 +46,36 @@ public class ActionbarService {
 
     @PreDestroy
     public void onPreDestroy() {
-        if (this.scheduledTask != null) {
-            this.scheduledTask.closeAndReportException();
-            this.scheduledTask = null;
-        }
+        this.deactivate();
     }
 
-    public void activate() {
-        if (this.activated.compareAndSet(false, true)) {
-            int updateTick = this.getUpdateTick();
-
-            this.scheduledTask = this.mcSchedulerProvider.getAsyncScheduler().scheduleAtFixedRate(this::onTick, updateTick, updateTick);
+    public synchronized void activate() {
+        if (this.renderTask == null) {
+            this.renderTask = this.playerRenderLoop.register(this.getUpdateTick(), this::onTick);
         }
     }
 
-    private TaskResponse<Void> onTick() {
-
-        for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-            Component current = player.metadata().getOrDefault(ACTIONBAR_CURRENT, Component.empty());
-            Component component = this.buildActionbarComponent(player);
-
-            if (component == null) {
-                component = Component.empty();
-            }
+    private synchronized void deactivate() {
+        if (this.renderTask != null) {
+            this.renderTask.closeAndReportException();
+            this.renderTask = null;
+        }
+    }
 
-            if (current.equals(component) && current.equals(Component.empty())) {
-                continue;
-            }
+    private void onTick(MCPlayer player) {
+        Component current = player.metadata().getOrDefault(ACTIONBAR_CURRENT, Component.empty());
+        Component component = this.buildActionbarComponent(player);
 
-            player.metadata().put(ACTIONBAR_CURRENT, PlayerOnlineValue.create(component, player));
-            player.sendActionBar(component);
+        if (component == null) {
+            component = Component.empty();
         }
 
-        this.lock.readLock().lock();
-        try {
-            if (this.adapters.isEmpty()) {
-                // No adapter registered at the moment
-                return TaskResponse.success(null);
-            }
-        } finally {
-            this.lock.readLock().unlock();
+        if (current.equals(component) && current.equals(Component.empty())) {
+            return;
         }
 
-        return TaskResponse.continueTask();
+        player.metadata().put(ACTIONBAR_CURRENT, PlayerOnlineValue.create(component, player));
+        player.sendActionBar(component);
     }
 
     @Nullable
@@ -168,9 +150,15 @@ public class ActionbarService {
         this.lock.writeLock().lock();
         try {
             this.adapters.remove(actionbarAdapter);
+            if (!this.adapters.isEmpty())
+                return;
         } finally {
             this.lock.writeLock().unlock();
         }
+
+        // No adapter registered at the moment, one last pass clears the actionbars shown by the removed adapters
+        this.deactivate();
+        this.playerRenderLoop.renderOnce(this::onTick);
     }
 
 }
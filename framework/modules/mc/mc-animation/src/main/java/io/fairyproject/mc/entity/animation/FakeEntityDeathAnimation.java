@@ -7,6 +7,8 @@ import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSp
 import io.fairyproject.mc.MCEntity;
 import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.entity.EntityIDCounter;
+import io.fairyproject.mc.entity.EntityInteractHandler;
+import io.fairyproject.mc.entity.EntityInteractRouter;
 import io.fairyproject.mc.protocol.MCProtocol;
 import io.fairyproject.mc.util.Position;
 import org.jetbrains.annotations.NotNull;
@@ -22,6 +24,12 @@ public class FakeEntityDeathAnimation extends AbstractFakeEntityAnimation {
         Position pos = entity.getPosition();
 
         int entityID = EntityIDCounter.current().next();
+        // the fake entity doesn't exist on the server, so interactions on it are dropped until it's destroyed
+        EntityInteractRouter interactRouter = MCProtocol.INSTANCE.getInteractRouter();
+        EntityInteractHandler interactHandler = (event, packet) -> event.setCancelled(true);
+        if (!this.getViewers().isEmpty()) {
+            interactRouter.register(entityID, interactHandler);
+        }
         if (entity instanceof MCPlayer) {
             this.getViewers().forEach(mcPlayer -> MCProtocol.sendPacket(mcPlayer, new WrapperPlayServerSpawnPlayer(
                     entityID,
@@ -39,7 +47,10 @@ public class FakeEntityDeathAnimation extends AbstractFakeEntityAnimation {
         this.getViewers().forEach(mcPlayer -> {
             MCProtocol.sendPacket(mcPlayer, new WrapperPlayServerEntityStatus(entityID, 3));
 
-            mcPlayer.getScheduler().schedule(() -> MCProtocol.sendPacket(mcPlayer, new WrapperPlayServerDestroyEntities(entityID)), 20L);
+            mcPlayer.getScheduler().schedule(() -> {
+                MCProtocol.sendPacket(mcPlayer, new WrapperPlayServerDestroyEntities(entityID));
+                interactRouter.unregister(entityID, interactHandler);
+            }, 20L);
         });
     }
 
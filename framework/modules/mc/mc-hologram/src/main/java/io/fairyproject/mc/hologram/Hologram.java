@@ -3,10 +3,10 @@ package io.fairyproject.mc.hologram;
 import io.fairyproject.mc.MCEntity;
 import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.MCServer;
-import io.fairyproject.mc.Viewable;
 import io.fairyproject.mc.hologram.configuration.HologramConfiguration;
 import io.fairyproject.mc.hologram.line.HologramLine;
 import io.fairyproject.mc.util.Position;
+import io.fairyproject.mc.viewable.ChunkViewable;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -14,7 +14,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 import java.util.function.Consumer;
 
-public interface Hologram extends Viewable {
+public interface Hologram extends ChunkViewable {
 
     static @NotNull Hologram create(Position pos) {
         return new HologramImpl(MCServer.current(), HologramConfiguration.hologramEntityFactory, pos);
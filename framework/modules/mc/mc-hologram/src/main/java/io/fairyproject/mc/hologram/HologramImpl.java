@@ -1,21 +1,23 @@
 package io.fairyproject.mc.hologram;
 
-import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientInteractEntity;
 import io.fairyproject.event.EventListener;
 import io.fairyproject.event.EventNode;
 import io.fairyproject.mc.*;
 import io.fairyproject.mc.entity.EntityIDCounter;
+import io.fairyproject.mc.entity.EntityInteractHandler;
+import io.fairyproject.mc.entity.EntityInteractRouter;
 import io.fairyproject.mc.event.MCPlayerChangedWorldEvent;
-import io.fairyproject.mc.event.MCPlayerJoinEvent;
 import io.fairyproject.mc.event.MCPlayerMoveEvent;
 import io.fairyproject.mc.event.MCPlayerQuitEvent;
 import io.fairyproject.mc.event.trait.MCPlayerEvent;
 import io.fairyproject.mc.hologram.entity.HologramEntity;
 import io.fairyproject.mc.hologram.entity.factory.HologramEntityFactory;
 import io.fairyproject.mc.hologram.line.HologramLine;
+import io.fairyproject.mc.protocol.MCProtocol;
 import io.fairyproject.mc.protocol.event.MCPlayerPacketReceiveEvent;
 import io.fairyproject.mc.util.Position;
+import io.fairyproject.mc.viewable.ChunkViewableIndex;
 import io.fairyproject.util.ConditionUtils;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
@@ -39,15 +41,15 @@ public class HologramImpl implements Hologram {
     private boolean autoViewable;
     private double verticalSpacing;
     private int viewDistance;
+    private volatile boolean indexed;
 
-    @Nullable
-    private EventNode<MCPlayerEvent> eventNode;
-
-    private final Map<MCPlayer, EventNode<MCPlayerEvent>> viewers;
+    private final Set<MCPlayer> viewers;
+    private final Map<MCPlayer, EventNode<MCPlayerEvent>> viewerNodes;
     private final Set<Consumer<MCPlayer>> attackHandlers;
     private final Set<Consumer<MCPlayer>> interactHandlers;
     private final List<HologramLine> lines;
     private final List<HologramEntity> entities;
+    private final EntityInteractHandler interactHandler = this::onInteract;
 
     public HologramImpl(@NotNull MCServer server, @NotNull HologramEntityFactory entityFactory, @NotNull Position pos) {
         this.server = server;
@@ -59,7 +61,8 @@ public class HologramImpl implements Hologram {
         this.viewDistance = 4;
         this.lines = new ArrayList<>();
         this.entities = new ArrayList<>();
-        this.viewers = new ConcurrentHashMap<>();
+        this.viewers = ConcurrentHashMap.newKeySet();
+        this.viewerNodes = new ConcurrentHashMap<>();
         this.attackHandlers = new CopyOnWriteArraySet<>();
         this.interactHandlers = new CopyOnWriteArraySet<>();
     }
@@ -73,6 +76,8 @@ public class HologramImpl implements Hologram {
     @Override
     public Hologram viewDistance(int viewDistance) {
         this.viewDistance = viewDistance;
+        if (this.indexed)
+            ChunkViewableIndex.of(this.world).add(this);
         return this;
     }
 
@@ -121,7 +126,18 @@ public class HologramImpl implements Hologram {
         if (this.pos.getMCWorld() != this.world)
             throw new IllegalArgumentException("hologram doesn't support cross world teleportation.");
         this.pos = pos;
-        this.viewers.keySet().forEach(this::update);
+        if (this.indexed) {
+            ChunkViewableIndex.of(this.world).add(this);
+            // viewers only change on chunk crossings, so the ones that are out of range now have to be updated here
+            this.viewers.forEach(player -> {
+                if (this.chunkDistanceTo(player.getPosition()) > this.viewDistance)
+                    this.removeViewer(player);
+            });
+            this.viewers.forEach(this::update);
+            this.nearby().forEach(this::addViewer);
+        } else {
+            this.viewers.forEach(this::update);
+        }
         return this;
     }
 
@@ -134,7 +150,7 @@ public class HologramImpl implements Hologram {
     @Override
     public Hologram attach(@Nullable MCEntity entity) {
         this.attached = entity;
-        this.viewers.keySet().forEach(this::update);
+        this.viewers.forEach(this::update);
         return this;
     }
 
@@ -159,34 +175,10 @@ public class HologramImpl implements Hologram {
 
         this.updateEntities();
         if (this.autoViewable) {
+            // viewers joining, leaving and crossing chunks are handled by the index of the world
+            this.indexed = true;
+            ChunkViewableIndex.of(this.world).add(this);
             this.nearby().forEach(this::addViewer);
-
-            EventNode<MCPlayerEvent> eventNode = EventNode.type("hologram:nearby", MCEventFilter.PLAYER);
-            // add player when player is nearby on join
-            eventNode.addListener(MCPlayerJoinEvent.class, event -> {
-                MCPlayer player = event.getPlayer();
-                if (this.isViewer(player))
-                    return;
-
-                if (this.chunkDistanceTo(player.getPosition()) <= this.viewDistance)
-                    this.addViewer(player);
-            });
-
-            // add nearby non-viewer player to be viewed
-            eventNode.addListener(EventListener.builder(MCPlayerMoveEvent.class)
-                    .ignoreCancelled(true)
-                    .filter(event -> !this.isViewer(event.getPlayer()))
-                    .filter(MCEventFilter.DIFFERENT_CHUNK)
-                    .handler(event -> {
-                        MCPlayer player = event.getPlayer();
-
-                        if (this.chunkDistanceTo(event.getToPos()) <= this.viewDistance)
-                            this.addViewer(player);
-                    })
-                    .build()
-            );
-            this.world.getEventNode().addChild(eventNode);
-            this.eventNode = eventNode;
         }
 
         return this;
@@ -197,14 +189,17 @@ public class HologramImpl implements Hologram {
         synchronized (this) {
             if (!this.spawned)
                 return;
-            this.viewers.keySet().forEach(this::removeViewer);
+            if (this.indexed) {
+                ChunkViewableIndex.of(this.world).remove(this);
+                this.indexed = false;
+            }
+            this.viewers.forEach(this::removeViewer);
             this.spawned = false;
         }
 
-        this.viewers.clear();
-        if (this.eventNode != null) {
-            this.world.getEventNode().removeChild(this.eventNode);
-            this.eventNode = null;
+        synchronized (this) {
+            final EntityInteractRouter interactRouter = MCProtocol.INSTANCE.getInteractRouter();
+            this.entities.forEach(entity -> interactRouter.unregister(entity.getEntityId(), this.interactHandler));
         }
     }
 
@@ -212,6 +207,7 @@ public class HologramImpl implements Hologram {
         if (!this.spawned)
             return;
 
+        final EntityInteractRouter interactRouter = MCProtocol.INSTANCE.getInteractRouter();
         int index;
         for (index = 0; index < this.lines.size(); index++) {
             HologramLine line = this.lines.get(index);
@@ -225,11 +221,14 @@ public class HologramImpl implements Hologram {
                 entity.setLine(line);
 
                 this.entities.add(entity);
-                this.viewers.keySet().forEach(entity::show);
+                interactRouter.register(entity.getEntityId(), this.interactHandler);
+                this.viewers.forEach(entity::show);
             } else {
                 entity = this.entities.get(index);
                 entity.setLine(line);
-                this.viewers.keySet().forEach(entity::update);
+                // entities are kept on remove(), so they have to be registered again when respawned
+                interactRouter.register(entity.getEntityId(), this.interactHandler);
+                this.viewers.forEach(entity::update);
             }
         }
 
@@ -238,7 +237,8 @@ public class HologramImpl implements Hologram {
                 HologramEntity entity = this.entities.get(index);
 
                 this.entities.remove(entity);
-                this.viewers.keySet().forEach(entity::hide);
+                interactRouter.unregister(entity.getEntityId(), this.interactHandler);
+                this.viewers.forEach(entity::hide);
             }
         }
     }
@@ -280,10 +280,15 @@ public class HologramImpl implements Hologram {
 
     @Override
     public boolean addViewer(@NotNull MCPlayer player) {
+        if (!this.viewers.add(player))
+            return false;
         if (this.spawned)
             this.show(player);
 
-        return this.viewers.put(player, this.createEventNode(player)) != null;
+        // viewers of an indexed hologram are removed by the index instead of a listener per viewer
+        if (!this.indexed)
+            this.viewerNodes.put(player, this.createEventNode(player));
+        return true;
     }
 
     private EventNode<MCPlayerEvent> createEventNode(MCPlayer player) {
@@ -302,41 +307,32 @@ public class HologramImpl implements Hologram {
         eventNode.addListener(MCPlayerQuitEvent.class, event -> this.removeViewer(event.getPlayer()));
         // remove from viewing whenever player changes world
         eventNode.addListener(MCPlayerChangedWorldEvent.class, event -> this.removeViewer(event.getPlayer()));
-        // listen packet for interaction detection
-        eventNode.addListener(MCPlayerPacketReceiveEvent.class, event -> {
-            if (event.packetType() != PacketType.Play.Client.INTERACT_ENTITY)
-                return;
-
-            WrapperPlayClientInteractEntity packet = new WrapperPlayClientInteractEntity(event.getEvent());
-            if (!this.isEntity(packet.getEntityId()))
-                return;
-
-            switch (packet.getAction()) {
-                case ATTACK:
-                    this.attackHandlers.forEach(consumer -> consumer.accept(player));
-                    break;
-                case INTERACT:
-                case INTERACT_AT:
-                    this.interactHandlers.forEach(consumer -> consumer.accept(player));
-                    break;
-                default:
-                    throw new IllegalStateException("packet action is null");
-            }
-        });
         // add node as child to player's event node
         player.getEventNode().addChild(eventNode);
         return eventNode;
     }
 
     /**
-     * Check if the provided id is a part of hologram's entity ids.
+     * Handle interaction on one of hologram's entity ids, routed by {@link EntityInteractRouter}.
      *
-     * @param entityId the entity id
-     * @return true if it's a part of hologram
+     * @param event  the packet event
+     * @param packet the interact packet
      */
-    private boolean isEntity(int entityId) {
-        synchronized (this) {
-            return this.entities.stream().anyMatch(entity -> entity.getEntityId() == entityId);
+    private void onInteract(@NotNull MCPlayerPacketReceiveEvent event, @NotNull WrapperPlayClientInteractEntity packet) {
+        MCPlayer player = event.getPlayer();
+        if (!this.isViewer(player))
+            return;
+
+        switch (packet.getAction()) {
+            case ATTACK:
+                this.attackHandlers.forEach(consumer -> consumer.accept(player));
+                break;
+            case INTERACT:
+            case INTERACT_AT:
+                this.interactHandlers.forEach(consumer -> consumer.accept(player));
+                break;
+            default:
+                throw new IllegalStateException("packet action is null");
         }
     }
 
@@ -355,20 +351,20 @@ public class HologramImpl implements Hologram {
 
     @Override
     public boolean removeViewer(@NotNull MCPlayer player) {
+        if (!this.viewers.remove(player))
+            return false;
         if (this.spawned)
             this.hide(player);
 
-        EventNode<MCPlayerEvent> eventNode = this.viewers.remove(player);
-        if (eventNode != null) {
+        EventNode<MCPlayerEvent> eventNode = this.viewerNodes.remove(player);
+        if (eventNode != null)
             player.getEventNode().removeChild(eventNode);
-            return true;
-        }
-        return false;
+        return true;
     }
 
     @Override
     public @NotNull Set<@NotNull MCPlayer> getViewers() {
-        return this.viewers.keySet();
+        return this.viewers;
     }
 
     private Stream<MCPlayer> nearby() {
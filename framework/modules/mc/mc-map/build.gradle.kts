@@ -1,5 +1,6 @@
 plugins {
     id("io.fairyproject.module")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
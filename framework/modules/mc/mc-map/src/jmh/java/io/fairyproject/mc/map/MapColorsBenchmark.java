@@ -0,0 +1,98 @@
+package io.fairyproject.mc.map;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Frames of 128x128 pixels converted to map colors per second.
+ */
+public class MapColorsBenchmark {
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        private final int[] frame = new int[Framebuffer.WIDTH * Framebuffer.HEIGHT];
+        private final byte[] colors = new byte[Framebuffer.WIDTH * Framebuffer.HEIGHT];
+        private MapColorTable precise;
+        private MapColorTable approximate;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // a gradient with some noise, like a rendered image
+            Random random = new Random(0);
+            for (int y = 0; y < Framebuffer.HEIGHT; y++) {
+                for (int x = 0; x < Framebuffer.WIDTH; x++) {
+                    int red = Math.min(255, x * 2 + random.nextInt(8));
+                    int green = Math.min(255, y * 2 + random.nextInt(8));
+                    int blue = Math.min(255, (x + y) + random.nextInt(8));
+                    frame[x + y * Framebuffer.WIDTH] = (red << 16) | (green << 8) | blue;
+                }
+            }
+
+            precise = MapColorTable.build(8);
+            approximate = MapColorTable.build(6);
+            // warm the lazy map up so it measures lookups
+            for (int rgb : frame) {
+                MapColors.closestColor(rgb);
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public byte[] lazyPerPixel(State state) {
+        int[] frame = state.frame;
+        byte[] colors = state.colors;
+        for (int i = 0; i < frame.length; i++) {
+            colors[i] = MapColors.closestColor(frame[i]).getIndex();
+        }
+        return colors;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public byte[] preciseTable(State state) {
+        state.precise.closestIndices(state.frame, state.colors, state.frame.length);
+        return state.colors;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public byte[] approximateTable(State state) {
+        state.approximate.closestIndices(state.frame, state.colors, state.frame.length);
+        return state.colors;
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public byte[] dithered(State state) {
+        MapColors.dither(state.frame, state.colors, Framebuffer.WIDTH, Framebuffer.HEIGHT);
+        return state.colors;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MapColorsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+
+}
@@ -18,6 +18,15 @@ public interface Framebuffer {
 
     void addIcon(MapIcon icon);
 
+    /**
+     * Get a snapshot of the current colors and icons, the same frame should be returned as long as nothing changed.
+     *
+     * @return the frame
+     */
+    default MapFrame frame() {
+        return MapFrame.of(this);
+    }
+
     default RenderData preparePacket(int mapId) {
         return preparePacket(mapId, 0, 0, WIDTH, HEIGHT);
     }
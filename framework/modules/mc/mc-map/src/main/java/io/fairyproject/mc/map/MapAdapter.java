@@ -4,6 +4,13 @@ import io.fairyproject.mc.MCPlayer;
 
 public interface MapAdapter {
 
+    /**
+     * Render the map of the player, players seeing the same content should get the same framebuffer
+     * so its frame is only built once.
+     *
+     * @param mcPlayer the player
+     * @return the framebuffer, or null to let the next adapter render it
+     */
     Framebuffer render(MCPlayer mcPlayer);
 
     int ticks();
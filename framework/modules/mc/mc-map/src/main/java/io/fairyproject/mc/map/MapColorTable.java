@@ -0,0 +1,172 @@
+package io.fairyproject.mc.map;
+
+import io.fairyproject.log.Log;
+import io.fairyproject.util.ConditionUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A lookup table from RGB to the index of the closest {@link MapColors}, one byte per entry.
+ * <p>
+ * Each channel is quantized to {@link #getBits()} bits, a table of 8 bits is exact and takes 16MB,
+ * a table of 6 bits takes 256KB and looks up the closest color to the center of each quantization step.
+ */
+public final class MapColorTable {
+
+    private static final int MAGIC = 0x46414D43;
+    private static final int VERSION = 1;
+
+    private final int bits;
+    private final int shift;
+    private final int mask;
+    private final byte[] table;
+
+    private MapColorTable(int bits, byte[] table) {
+        this.bits = bits;
+        this.shift = 8 - bits;
+        this.mask = (1 << bits) - 1;
+        this.table = table;
+    }
+
+    /**
+     * Build a table, the entries are computed in parallel.
+     *
+     * @param bits the bits per channel, between 4 and 8
+     * @return the table
+     */
+    public static MapColorTable build(int bits) {
+        ConditionUtils.is(bits >= 4 && bits <= 8, "The bits per channel must be between 4 and 8");
+
+        final int steps = 1 << bits;
+        final int shift = 8 - bits;
+        // the center of each quantization step
+        final int half = shift > 0 ? 1 << (shift - 1) : 0;
+        final byte[] table = new byte[1 << (bits * 3)];
+        IntStream.range(0, steps * steps).parallel().forEach(redGreen -> {
+            final int red = ((redGreen >> bits) << shift) | half;
+            final int green = ((redGreen & (steps - 1)) << shift) | half;
+            final int offset = redGreen << bits;
+            for (int blue = 0; blue < steps; blue++) {
+                table[offset + blue] = MapColors.closestIndex(red, green, (blue << shift) | half);
+            }
+        });
+        return new MapColorTable(bits, table);
+    }
+
+    /**
+     * Load the table from the directory, or build it and store it there if it's missing or outdated.
+     *
+     * @param bits      the bits per channel, between 4 and 8
+     * @param directory the directory, or null to always build it
+     * @return the table
+     */
+    public static MapColorTable load(int bits, @Nullable File directory) {
+        if (directory == null)
+            return build(bits);
+
+        final File file = new File(directory, "map-colors-" + bits + ".lut");
+        if (file.exists()) {
+            try {
+                final MapColorTable table = read(file, bits);
+                if (table != null)
+                    return table;
+            } catch (IOException ex) {
+                Log.warn("Failed to read map color table " + file + ", rebuilding it.", ex);
+            }
+        }
+
+        final MapColorTable table = build(bits);
+        try {
+            table.write(file);
+        } catch (IOException ex) {
+            Log.warn("Failed to write map color table " + file, ex);
+        }
+        return table;
+    }
+
+    @Nullable
+    private static MapColorTable read(File file, int bits) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != bits || in.readInt() != MapColors.paletteHash())
+                return null;
+
+            final byte[] table = new byte[1 << (bits * 3)];
+            in.readFully(table);
+            return new MapColorTable(bits, table);
+        }
+    }
+
+    private void write(File file) throws IOException {
+        final File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs())
+            throw new IOException("Failed to create " + directory);
+
+        final File temp = new File(directory, file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.bits);
+            out.writeInt(MapColors.paletteHash());
+            out.write(this.table);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public int getBits() {
+        return this.bits;
+    }
+
+    /**
+     * Get the index of the closest map color.
+     *
+     * @param rgb the color, alpha is ignored
+     * @return the index
+     */
+    public byte closestIndex(int rgb) {
+        return this.table[this.key(rgb)];
+    }
+
+    /**
+     * Get the index of the closest map color of each color.
+     *
+     * @param rgb    the colors, alpha is ignored
+     * @param colors the array to write the indices into
+     * @param length the amount of colors
+     */
+    public void closestIndices(@NotNull int[] rgb, @NotNull byte[] colors, int length) {
+        final byte[] table = this.table;
+        if (this.shift == 0) {
+            for (int i = 0; i < length; i++) {
+                colors[i] = table[rgb[i] & 0xFFFFFF];
+            }
+            return;
+        }
+
+        final int shift = this.shift;
+        final int mask = this.mask;
+        final int bits = this.bits;
+        for (int i = 0; i < length; i++) {
+            final int color = rgb[i];
+            colors[i] = table[(((color >>> (16 + shift)) & mask) << (bits << 1))
+                    | (((color >>> (8 + shift)) & mask) << bits)
+                    | ((color >>> shift) & mask)];
+        }
+    }
+
+    private int key(int rgb) {
+        if (this.shift == 0)
+            return rgb & 0xFFFFFF;
+
+        return (((rgb >>> (16 + this.shift)) & this.mask) << (this.bits << 1))
+                | (((rgb >>> (8 + this.shift)) & this.mask) << this.bits)
+                | ((rgb >>> this.shift) & this.mask);
+    }
+
+}
@@ -1,5 +1,9 @@
 package io.fairyproject.mc.map;
 
+import io.fairyproject.FairyPlatform;
+
+import java.io.File;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
@@ -69,14 +73,22 @@ public enum MapColors {
     private final int blue;
 
     private static final ConcurrentHashMap<Integer, PreciseMapColor> rgbMap = new ConcurrentHashMap<>();
-    // only used if mappingStrategy == ColorMappingStrategy.PRECISE
-    private static volatile PreciseMapColor[] rgbArray = null;
+    // only used if mappingStrategy is PRECISE or APPROXIMATE
+    private static volatile MapColorTable table = null;
+
+    // every color a map can show, in the order the closest color is searched
+    private static final int[] paletteRGB;
+    private static final byte[] paletteIndex;
+    private static final PreciseMapColor[] colorByIndex = new PreciseMapColor[256];
+    private static final int[] rgbByIndex = new int[256];
 
     private static final ColorMappingStrategy mappingStrategy;
     private static final String MAPPING_ARGUMENT = "fairy.map.rgbmapping";
     // only used if MAPPING_ARGUMENT is "approximate"
-    private static final String REDUCTION_ARGUMENT = "fairy.map.rgbreduction";
-    private static final int colorReduction;
+    private static final String BITS_ARGUMENT = "fairy.map.lut-bits";
+    private static final int approximateBits;
+    // the directory the lookup table is stored in, defaults to the cache folder of the platform
+    private static final String DIRECTORY_ARGUMENT = "fairy.map.lut-directory";
 
     static {
         ColorMappingStrategy strategy;
@@ -94,21 +106,30 @@ public enum MapColors {
         }
         mappingStrategy = strategy;
 
-        int reduction = 10;
-        String reductionStr = System.getProperty(REDUCTION_ARGUMENT);
-        if (reductionStr != null) {
-            try {
-                reduction = Integer.parseInt(reductionStr);
-            } catch (NumberFormatException e) {
-                System.err.println("Invalid integer in reduction argument: " + reductionStr);
-            }
-
-            if (reduction < 0 || reduction >= 255) {
-                System.err.println("Reduction was found to be invalid: " + reduction + ". Must in 0-255, defaulting to 10.");
-                reduction = 10;
+        int bits = Integer.getInteger(BITS_ARGUMENT, 6);
+        if (bits < 4 || bits > 8) {
+            System.err.println("Bits per channel was found to be invalid: " + bits + ". Must in 4-8, defaulting to 6.");
+            bits = 6;
+        }
+        approximateBits = bits;
+
+        MapColors[] values = values();
+        Multiplier[] multipliers = Multiplier.values();
+        paletteRGB = new int[(values.length - 1) * multipliers.length];
+        paletteIndex = new byte[paletteRGB.length];
+        int i = 0;
+        for (MapColors base : values) {
+            if (base == NONE)
+                continue;
+            for (Multiplier m : multipliers) {
+                PreciseMapColor color = new PreciseMapColor(base, m);
+                paletteRGB[i] = color.toRGB();
+                paletteIndex[i] = color.getIndex();
+                colorByIndex[color.getIndex() & 0xFF] = color;
+                rgbByIndex[color.getIndex() & 0xFF] = paletteRGB[i];
+                i++;
             }
         }
-        colorReduction = reduction;
     }
 
     MapColors(int red, int green, int blue) {
@@ -165,40 +186,55 @@ public enum MapColors {
     }
 
     private static void fillRGBMap() {
-        for (MapColors base : values()) {
-            if (base == NONE)
-                continue;
-            for (Multiplier m : Multiplier.values()) {
-                PreciseMapColor preciseMapColor = new PreciseMapColor(base, m);
-                int rgb = preciseMapColor.toRGB();
+        for (int i = 0; i < paletteRGB.length; i++) {
+            rgbMap.put(paletteRGB[i], colorByIndex[paletteIndex[i] & 0xFF]);
+        }
+    }
 
-                if (mappingStrategy == ColorMappingStrategy.APPROXIMATE) {
-                    rgb = reduceColor(rgb);
+    private static MapColorTable table() {
+        if (table == null) {
+            synchronized (MapColors.class) {
+                if (table == null) {
+                    int bits = mappingStrategy == ColorMappingStrategy.PRECISE ? 8 : approximateBits;
+                    table = MapColorTable.load(bits, tableDirectory());
                 }
-                rgbMap.put(rgb, preciseMapColor);
             }
         }
+        return table;
     }
 
-    private static void fillRGBArray() {
-        rgbArray = new PreciseMapColor[0xFFFFFF + 1];
-        for (int rgb = 0; rgb <= 0xFFFFFF; rgb++) {
-            rgbArray[rgb] = mapColor(rgb);
-        }
+    private static File tableDirectory() {
+        String directory = System.getProperty(DIRECTORY_ARGUMENT);
+        if (directory != null)
+            return new File(directory);
+        if (FairyPlatform.INSTANCE != null)
+            return new File(FairyPlatform.INSTANCE.getDataFolder(), "cache");
+        return null;
+    }
+
+    /**
+     * Build or load the lookup table ahead of the first conversion, does nothing with the LAZY strategy.
+     */
+    public static void preload() {
+        if (mappingStrategy != ColorMappingStrategy.LAZY)
+            table();
     }
 
     public static PreciseMapColor closestColor(int argb) {
+        return colorByIndex[closestIndex(argb) & 0xFF];
+    }
+
+    /**
+     * Get the index of the closest map color.
+     *
+     * @param argb the color, alpha is ignored
+     * @return the index
+     */
+    public static byte closestIndex(int argb) {
         int noAlpha = argb & 0xFFFFFF;
-        if (mappingStrategy == ColorMappingStrategy.PRECISE) {
-            if (rgbArray == null) {
-                synchronized (MapColors.class) {
-                    if (rgbArray == null) {
-                        fillRGBArray();
-                    }
-                }
-            }
-            return rgbArray[noAlpha];
-        }
+        if (mappingStrategy != ColorMappingStrategy.LAZY)
+            return table().closestIndex(noAlpha);
+
         if (rgbMap.isEmpty()) {
             synchronized (rgbMap) {
                 if (rgbMap.isEmpty()) {
@@ -206,50 +242,110 @@ public enum MapColors {
                 }
             }
         }
-        if (mappingStrategy == ColorMappingStrategy.APPROXIMATE) {
-            noAlpha = reduceColor(noAlpha);
+        return rgbMap.computeIfAbsent(noAlpha, MapColors::mapColor).getIndex();
+    }
+
+    /**
+     * Get the index of the closest map color of each color.
+     *
+     * @param argb   the colors, alpha is ignored
+     * @param colors the array to write the indices into
+     * @param length the amount of colors
+     */
+    public static void closestIndices(int[] argb, byte[] colors, int length) {
+        if (mappingStrategy != ColorMappingStrategy.LAZY) {
+            table().closestIndices(argb, colors, length);
+            return;
+        }
+
+        for (int i = 0; i < length; i++) {
+            colors[i] = closestIndex(argb[i]);
         }
-        return rgbMap.computeIfAbsent(noAlpha, MapColors::mapColor);
     }
 
-    private static int reduceColor(int rgb) {
-        int red = (rgb >> 16) & 0xFF;
-        int green = (rgb >> 8) & 0xFF;
-        int blue = rgb & 0xFF;
+    /**
+     * Get the index of the closest map color of each color, spreading the difference to the neighbour pixels
+     * with Floyd-Steinberg dithering so gradients don't turn into bands.
+     *
+     * @param argb   the colors, row by row, alpha is ignored
+     * @param colors the array to write the indices into
+     * @param width  the width of a row
+     * @param height the amount of rows
+     */
+    public static void dither(int[] argb, byte[] colors, int width, int height) {
+        // the errors of the current and the next row, 3 channels per pixel with a pixel of padding on each side
+        int[] current = new int[(width + 2) * 3];
+        int[] next = new int[(width + 2) * 3];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int color = argb[x + y * width];
+                int e = (x + 1) * 3;
+                int red = clamp(((color >> 16) & 0xFF) + (current[e] >> 4));
+                int green = clamp(((color >> 8) & 0xFF) + (current[e + 1] >> 4));
+                int blue = clamp((color & 0xFF) + (current[e + 2] >> 4));
+
+                byte index = closestIndex((red << 16) | (green << 8) | blue);
+                colors[x + y * width] = index;
+
+                int closest = rgbByIndex[index & 0xFF];
+                spread(current, next, e, red - ((closest >> 16) & 0xFF));
+                spread(current, next, e + 1, green - ((closest >> 8) & 0xFF));
+                spread(current, next, e + 2, blue - (closest & 0xFF));
+            }
+
+            int[] swap = current;
+            current = next;
+            next = swap;
+            Arrays.fill(next, 0);
+        }
+    }
 
-        red = red / colorReduction;
-        green = green / colorReduction;
-        blue = blue / colorReduction;
-        return (red << 16) | (green << 8) | blue;
+    // errors are kept in sixteenths
+    private static void spread(int[] current, int[] next, int e, int error) {
+        current[e + 3] += error * 7;
+        next[e - 3] += error * 3;
+        next[e] += error * 5;
+        next[e + 3] += error;
+    }
+
+    private static int clamp(int channel) {
+        return channel < 0 ? 0 : Math.min(channel, 255);
+    }
+
+    /**
+     * Get the RGB of a map color index.
+     *
+     * @param index the index
+     * @return the color
+     */
+    public static int toRGB(byte index) {
+        return rgbByIndex[index & 0xFF];
+    }
+
+    static int paletteHash() {
+        return Arrays.hashCode(paletteRGB) * 31 + Arrays.hashCode(paletteIndex);
     }
 
     private static PreciseMapColor mapColor(int rgb) {
-        PreciseMapColor closest = null;
+        return colorByIndex[closestIndex((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF) & 0xFF];
+    }
+
+    static byte closestIndex(int red, int green, int blue) {
+        final int[] palette = paletteRGB;
+        int closest = 0;
         int closestDistance = Integer.MAX_VALUE;
-        for (MapColors base : values()) {
-            if (base == NONE)
-                continue;
-            for (Multiplier m : Multiplier.values()) {
-                final int rgbKey = PreciseMapColor.toRGB(base, m);
-                final int redKey = (rgbKey >> 16) & 0xFF;
-                final int greenKey = (rgbKey >> 8) & 0xFF;
-                final int blueKey = rgbKey & 0xFF;
-
-                final int red = (rgb >> 16) & 0xFF;
-                final int green = (rgb >> 8) & 0xFF;
-                final int blue = rgb & 0xFF;
-
-                final int dr = redKey - red;
-                final int dg = greenKey - green;
-                final int db = blueKey - blue;
-                final int dist = (dr * dr + dg * dg + db * db);
-                if (dist < closestDistance) {
-                    closest = new PreciseMapColor(base, m);
-                    closestDistance = dist;
-                }
+        for (int i = 0; i < palette.length; i++) {
+            final int rgbKey = palette[i];
+            final int dr = ((rgbKey >> 16) & 0xFF) - red;
+            final int dg = ((rgbKey >> 8) & 0xFF) - green;
+            final int db = (rgbKey & 0xFF) - blue;
+            final int dist = (dr * dr + dg * dg + db * db);
+            if (dist < closestDistance) {
+                closest = i;
+                closestDistance = dist;
             }
         }
-        return closest;
+        return paletteIndex[closest];
     }
 
     public static class PreciseMapColor {
@@ -326,13 +422,14 @@ public enum MapColors {
         LAZY,
 
         /**
-         * All colors are already in the map after the first call. Heavy hit on the memory:
-         * (2^24) * 4 bytes at the min (~64MB)
+         * All colors are in a lookup table of one byte per color built on the first call, or loaded from
+         * the disk if it was built by a previous start: (2^24) bytes (16MB)
          */
         PRECISE,
 
         /**
-         * RGB components are divided by 10 before issuing a lookup (as with the PRECISE strategy), but saves on memory usage
+         * RGB components are quantized to {@code fairy.map.lut-bits} bits (6 by default) before issuing a lookup
+         * (as with the PRECISE strategy), but saves on memory usage: 2^18 bytes (256KB) with 6 bits
          */
         APPROXIMATE
     }
@@ -0,0 +1,152 @@
+package io.fairyproject.mc.map;
+
+import io.fairyproject.mc.map.packet.MapIcon;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable snapshot of the colors and icons of a {@link Framebuffer}.
+ * <p>
+ * A framebuffer that tracks its frames numbers them and remembers the region changed since its previous frame,
+ * so a player who saw the previous frame only gets that region, and the data of it is built once for every player.
+ */
+@Getter
+@Accessors(fluent = true)
+public final class MapFrame {
+
+    @Nullable
+    private final Object source;
+    private final long version;
+    private final byte[] colors;
+    private final List<MapIcon> icons;
+    // the region changed since the previous version, null if only the icons changed
+    @Getter(AccessLevel.NONE)
+    private final int[] dirty;
+
+    @Getter(AccessLevel.NONE)
+    private volatile RenderData full;
+    @Getter(AccessLevel.NONE)
+    private volatile RenderData delta;
+
+    /**
+     * @param source  the framebuffer the frame belongs to, or null if it isn't tracked
+     * @param version the version of the frame in the framebuffer
+     * @param colors  the colors, the frame owns the array
+     * @param icons   the icons
+     * @param dirty   the x, y, width and height of the region changed since the previous version, or null if only the icons changed
+     */
+    public MapFrame(@Nullable Object source, long version, @NotNull byte[] colors, @NotNull Collection<MapIcon> icons, @Nullable int[] dirty) {
+        this.source = source;
+        this.version = version;
+        this.colors = colors;
+        this.icons = icons.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(icons));
+        this.dirty = dirty;
+    }
+
+    /**
+     * Create an untracked frame of the framebuffer.
+     *
+     * @param framebuffer the framebuffer
+     * @return the frame
+     */
+    public static MapFrame of(@NotNull Framebuffer framebuffer) {
+        return new MapFrame(null, 0L, framebuffer.toMapColors().clone(), framebuffer.icons(), null);
+    }
+
+    /**
+     * Get the data to send to a player who has the previous frame to show this frame.
+     *
+     * @param mapId    the map id
+     * @param previous the frame the player has, or null if none
+     * @return the data, or null if the player already sees this frame
+     */
+    @Nullable
+    public RenderData updateFrom(int mapId, @Nullable MapFrame previous) {
+        if (previous == this)
+            return null;
+        if (previous == null)
+            return this.full(mapId);
+
+        final boolean next = this.source != null && previous.source == this.source && previous.version == this.version - 1;
+        if (next) {
+            RenderData delta = this.delta;
+            if (delta == null || delta.id() != mapId)
+                this.delta = delta = this.region(mapId, this.dirty);
+            return delta;
+        }
+
+        final int[] region = difference(previous.colors, this.colors);
+        if (region == null && previous.icons.equals(this.icons))
+            return null;
+        return this.region(mapId, region);
+    }
+
+    private RenderData full(int mapId) {
+        RenderData full = this.full;
+        if (full == null || full.id() != mapId)
+            this.full = full = new RenderData(mapId, this.icons, this.colors, 0, 0, Framebuffer.WIDTH, Framebuffer.HEIGHT);
+        return full;
+    }
+
+    private RenderData region(int mapId, @Nullable int[] region) {
+        // only the icons changed
+        if (region == null)
+            return new RenderData(mapId, this.icons, new byte[0], 0, 0, 0, 0);
+        if (region[2] == Framebuffer.WIDTH && region[3] == Framebuffer.HEIGHT)
+            return this.full(mapId);
+
+        final int x = region[0];
+        final int y = region[1];
+        final int width = region[2];
+        final int height = region[3];
+        final byte[] colors = new byte[width * height];
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(this.colors, Framebuffer.index(x, y + row), colors, row * width, width);
+        }
+        return new RenderData(mapId, this.icons, colors, x, y, width, height);
+    }
+
+    /**
+     * Get the bounding rectangle of the colors that differ.
+     *
+     * @param previous the previous colors
+     * @param current  the current colors
+     * @return the x, y, width and height of the rectangle, or null if no color differs
+     */
+    @Nullable
+    public static int[] difference(@NotNull byte[] previous, @NotNull byte[] current) {
+        int minX = Framebuffer.WIDTH, minY = -1, maxX = -1, maxY = -1;
+        for (int y = 0; y < Framebuffer.HEIGHT; y++) {
+            final int row = y * Framebuffer.WIDTH;
+            int first = -1, last = -1;
+            for (int x = 0; x < Framebuffer.WIDTH; x++) {
+                if (previous[row + x] != current[row + x]) {
+                    if (first == -1)
+                        first = x;
+                    last = x;
+                }
+            }
+
+            if (first == -1)
+                continue;
+            if (minY == -1)
+                minY = y;
+            maxY = y;
+            minX = Math.min(minX, first);
+            maxX = Math.max(maxX, last);
+        }
+
+        if (minY == -1)
+            return null;
+        return new int[]{minX, minY, maxX - minX + 1, maxY - minY + 1};
+    }
+
+}
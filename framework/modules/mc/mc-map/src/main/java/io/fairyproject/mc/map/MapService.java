@@ -7,16 +7,14 @@ import io.fairyproject.mc.map.framebuffers.DirectFramebuffer;
 import io.fairyproject.mc.map.packet.WrapperPlayServerMapData;
 import io.fairyproject.mc.metadata.PlayerOnlineValue;
 import io.fairyproject.mc.protocol.MCProtocol;
-import io.fairyproject.mc.registry.player.MCPlayerRegistry;
-import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.mc.scheduler.PlayerRenderLoop;
 import io.fairyproject.metadata.MetadataKey;
-import io.fairyproject.scheduler.ScheduledTask;
-import io.fairyproject.scheduler.response.TaskResponse;
+import io.fairyproject.util.terminable.Terminable;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @InjectableComponent
@@ -24,16 +22,15 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class MapService {
 
     public static final MetadataKey<RenderData> MAP_CURRENT = MetadataKey.create("fairy:map", RenderData.class);
+    private static final MetadataKey<MapFrame> MAP_FRAME = MetadataKey.create("fairy:map-frame", MapFrame.class);
     private static final Framebuffer EMPTY_FRAMEBUFFER = new DirectFramebuffer();
     public static final int MAP_ID = 255;
 
     private final List<MapAdapter> adapters = new ArrayList<>();
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    private final AtomicBoolean activated = new AtomicBoolean();
     private final ContainerContext containerContext;
-    private final MCPlayerRegistry mcPlayerRegistry;
-    private final MCSchedulerProvider mcSchedulerProvider;
-    private ScheduledTask<Void> scheduledTask;
+    private final PlayerRenderLoop playerRenderLoop;
+    private Terminable renderTask;
 
     @PreInitialize
     public void onPreInitialize() {
@@ -51,54 +48,52 @@ public class MapService {
 
     @PreDestroy
     public void onPreDestroy() {
-        if (this.scheduledTask != null) {
-            this.scheduledTask.closeAndReportException();
-            this.scheduledTask = null;
-        }
+        this.deactivate();
     }
 
-    public void activate() {
-        if (this.activated.compareAndSet(false, true)) {
-            this.scheduledTask = this.mcSchedulerProvider.getAsyncScheduler().scheduleAtFixedRate(this::onTick, this.getUpdateTick(), this.getUpdateTick());
+    public synchronized void activate() {
+        if (this.renderTask == null) {
+            // the color table takes a while to build the first time
+            CompletableFuture.runAsync(MapColors::preload);
+            this.renderTask = this.playerRenderLoop.register(this.getUpdateTick(), this::onTick);
         }
     }
 
-    private TaskResponse<Void> onTick() {
-        for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-            RenderData previous = player.metadata().getOrDefault(MAP_CURRENT, null);
-            Framebuffer framebuffer = this.render(player);
-            if (framebuffer == null)
-                framebuffer = EMPTY_FRAMEBUFFER;
-
-            final RenderData current = framebuffer.preparePacket(MAP_ID);
-            if (Objects.equals(previous, current))
-                continue;
-
-            player.metadata().put(MAP_CURRENT, PlayerOnlineValue.create(current, player));
-            MCProtocol.sendPacket(player, new WrapperPlayServerMapData(
-                    current.id(),
-                    (byte) 0,
-                    false,
-                    current.icons(),
-                    current.colors(),
-                    current.x(),
-                    current.y(),
-                    current.width(),
-                    current.height()
-            ));
-        }
-
-        this.lock.readLock().lock();
-        try {
-            if (this.adapters.isEmpty()) {
-                // No adapter registered at the moment
-                return TaskResponse.success(null);
-            }
-        } finally {
-            this.lock.readLock().unlock();
+    private synchronized void deactivate() {
+        if (this.renderTask != null) {
+            this.renderTask.closeAndReportException();
+            this.renderTask = null;
         }
+    }
 
-        return TaskResponse.continueTask();
+    private void onTick(MCPlayer player) {
+        MapFrame previous = player.metadata().getOrDefault(MAP_FRAME, null);
+        Framebuffer framebuffer = this.render(player);
+        if (framebuffer == null)
+            framebuffer = EMPTY_FRAMEBUFFER;
+
+        // a framebuffer shared by players only builds its frame and the changed region once
+        final MapFrame current = framebuffer.frame();
+        final RenderData update = current.updateFrom(MAP_ID, previous);
+        if (current == previous)
+            return;
+
+        player.metadata().put(MAP_FRAME, PlayerOnlineValue.create(current, player));
+        player.metadata().put(MAP_CURRENT, PlayerOnlineValue.create(current.updateFrom(MAP_ID, null), player));
+        if (update == null)
+            return;
+
+        MCProtocol.sendPacket(player, new WrapperPlayServerMapData(
+                update.id(),
+                (byte) 0,
+                false,
+                update.icons(),
+                update.colors(),
+                update.x(),
+                update.y(),
+                update.width(),
+                update.height()
+        ));
     }
 
     @Nullable
@@ -167,9 +162,15 @@ public class MapService {
         this.lock.writeLock().lock();
         try {
             this.adapters.remove(actionbarAdapter);
+            if (!this.adapters.isEmpty())
+                return;
         } finally {
             this.lock.writeLock().unlock();
         }
+
+        // No adapter registered at the moment, one last pass clears the maps shown by the removed adapters
+        this.deactivate();
+        this.playerRenderLoop.renderOnce(this::onTick);
     }
 
 }
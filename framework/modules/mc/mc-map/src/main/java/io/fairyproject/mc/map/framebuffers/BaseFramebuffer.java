@@ -1,6 +1,7 @@
 package io.fairyproject.mc.map.framebuffers;
 
 import io.fairyproject.mc.map.Framebuffer;
+import io.fairyproject.mc.map.MapFrame;
 import io.fairyproject.mc.map.packet.MapIcon;
 
 import java.util.ArrayList;
@@ -10,6 +11,7 @@ import java.util.List;
 public abstract class BaseFramebuffer implements Framebuffer {
 
     private final List<MapIcon> icons = new ArrayList<>();
+    private MapFrame frame;
 
     @Override
     public Collection<MapIcon> icons() {
@@ -19,4 +21,41 @@ public abstract class BaseFramebuffer implements Framebuffer {
     public void addIcon(MapIcon icon) {
         this.icons.add(icon);
     }
+
+    /**
+     * Get a snapshot of the current colors and icons, a new frame is only created when something changed since the previous one
+     * and it remembers the region that changed, so a framebuffer shown to many players is converted once per change
+     * and only the changed region is sent.
+     *
+     * @return the frame
+     */
+    @Override
+    public synchronized MapFrame frame() {
+        final MapFrame previous = this.frame;
+        if (previous == null) {
+            this.changedSinceLastFrame();
+            this.frame = new MapFrame(this, 0L, this.toMapColors().clone(), this.icons, null);
+            return this.frame;
+        }
+
+        if (!this.changedSinceLastFrame() && previous.icons().equals(this.icons))
+            return previous;
+
+        final byte[] colors = this.toMapColors().clone();
+        final int[] dirty = MapFrame.difference(previous.colors(), colors);
+        if (dirty == null && previous.icons().equals(this.icons))
+            return previous;
+
+        this.frame = new MapFrame(this, previous.version() + 1, colors, this.icons, dirty);
+        return this.frame;
+    }
+
+    /**
+     * Check whether the content might have changed since the last frame, so the map colors don't have to be computed again when it didn't.
+     *
+     * @return true if it might have changed
+     */
+    protected boolean changedSinceLastFrame() {
+        return true;
+    }
 }
@@ -6,6 +6,7 @@ import io.fairyproject.mc.map.MapColors;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 
 /**
  * {@link Framebuffer} that embeds a BufferedImage, allowing for rendering directly via Graphics2D or its pixel array.
@@ -14,6 +15,12 @@ public class Graphics2DFramebuffer extends BaseFramebuffer {
     private final BufferedImage backingImage = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
     private final Graphics2D renderer;
     private final int[] pixels;
+    private final int[] lastPixels = new int[WIDTH * HEIGHT];
+    private final int[] convertedPixels = new int[WIDTH * HEIGHT];
+    private final byte[] colors = new byte[WIDTH * HEIGHT];
+    private boolean converted;
+    private boolean dithering;
+    private boolean ditheringChanged;
 
     public Graphics2DFramebuffer() {
         renderer = backingImage.createGraphics();
@@ -28,6 +35,21 @@ public class Graphics2DFramebuffer extends BaseFramebuffer {
         return backingImage;
     }
 
+    public boolean isDithering() {
+        return dithering;
+    }
+
+    /**
+     * Whether the colors missing from the map palette are approximated with Floyd-Steinberg dithering
+     * instead of being replaced by the closest color, smoother but slower.
+     */
+    public Graphics2DFramebuffer setDithering(boolean dithering) {
+        if (this.dithering != dithering)
+            this.ditheringChanged = true;
+        this.dithering = dithering;
+        return this;
+    }
+
     public int get(int x, int z) {
         return pixels[x + z * WIDTH]; // stride is always the width of the image
     }
@@ -37,13 +59,36 @@ public class Graphics2DFramebuffer extends BaseFramebuffer {
         return this;
     }
 
+    @Override
+    protected boolean changedSinceLastFrame() {
+        // comparing the pixels is a lot cheaper than converting them
+        if (!ditheringChanged && Arrays.equals(pixels, lastPixels))
+            return false;
+
+        ditheringChanged = false;
+        System.arraycopy(pixels, 0, lastPixels, 0, pixels.length);
+        return true;
+    }
+
     @Override
     public byte[] toMapColors() {
-        byte[] colors = new byte[WIDTH * HEIGHT];
-        // TODO: update subparts only
-        for (int x = 0; x < 128; x++) {
-            for (int z = 0; z < 128; z++) {
-                colors[Framebuffer.index(x, z)] = MapColors.closestColor(get(x, z)).getIndex();
+        // the pixels are laid out row by row like the map colors
+        if (dithering) {
+            // the error of a pixel spreads to its neighbours, so the whole image is converted again
+            MapColors.dither(pixels, colors, WIDTH, HEIGHT);
+            converted = false;
+        } else if (!converted) {
+            MapColors.closestIndices(pixels, colors, colors.length);
+            System.arraycopy(pixels, 0, convertedPixels, 0, pixels.length);
+            converted = true;
+        } else {
+            // only convert the pixels that changed since the last conversion
+            for (int i = 0; i < pixels.length; i++) {
+                final int pixel = pixels[i];
+                if (pixel != convertedPixels[i]) {
+                    colors[i] = MapColors.closestIndex(pixel);
+                    convertedPixels[i] = pixel;
+                }
             }
         }
         return colors;
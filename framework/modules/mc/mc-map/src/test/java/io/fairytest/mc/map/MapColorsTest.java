@@ -0,0 +1,90 @@
+package io.fairytest.mc.map;
+
+import io.fairyproject.mc.map.MapColorTable;
+import io.fairyproject.mc.map.MapColors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+public class MapColorsTest {
+
+    @Test
+    public void tableMatchesClosestColor() {
+        MapColorTable table = MapColorTable.build(6);
+        Random random = new Random(0);
+
+        for (int i = 0; i < 10_000; i++) {
+            // the center of a quantization step of 6 bits
+            int rgb = (random.nextInt() & 0xFCFCFC) | 0x020202;
+            Assertions.assertEquals(MapColors.closestColor(rgb).getIndex(), table.closestIndex(rgb), "color " + Integer.toHexString(rgb));
+        }
+    }
+
+    @Test
+    public void bulkLookupMatchesSingleLookup() {
+        MapColorTable table = MapColorTable.build(5);
+        Random random = new Random(1);
+        int[] rgb = new int[128 * 128];
+        for (int i = 0; i < rgb.length; i++) {
+            rgb[i] = random.nextInt();
+        }
+
+        byte[] colors = new byte[rgb.length];
+        table.closestIndices(rgb, colors, rgb.length);
+        for (int i = 0; i < rgb.length; i++) {
+            Assertions.assertEquals(table.closestIndex(rgb[i]), colors[i]);
+        }
+    }
+
+    @Test
+    public void tableIsStoredAndLoaded(@TempDir File directory) {
+        MapColorTable built = MapColorTable.load(5, directory);
+        Assertions.assertTrue(new File(directory, "map-colors-5.lut").exists());
+
+        MapColorTable loaded = MapColorTable.load(5, directory);
+        for (int rgb = 0; rgb <= 0xFFFFFF; rgb += 0x010305) {
+            Assertions.assertEquals(built.closestIndex(rgb), loaded.closestIndex(rgb));
+        }
+    }
+
+    @Test
+    public void ditherKeepsPaletteColors() {
+        byte index = MapColors.GRASS.baseColor();
+        int[] rgb = new int[16 * 16];
+        Arrays.fill(rgb, MapColors.toRGB(index));
+
+        byte[] colors = new byte[rgb.length];
+        MapColors.dither(rgb, colors, 16, 16);
+        for (byte color : colors) {
+            Assertions.assertEquals(index, color);
+        }
+    }
+
+    @Test
+    public void ditherMixesColorsBetweenPaletteColors() {
+        int[] rgb = new int[64 * 64];
+        // a gray the palette doesn't have
+        Arrays.fill(rgb, 0x5A5A5A);
+
+        byte[] plain = new byte[rgb.length];
+        byte[] dithered = new byte[rgb.length];
+        MapColors.closestIndices(rgb, plain, rgb.length);
+        MapColors.dither(rgb, dithered, 64, 64);
+
+        Assertions.assertEquals(1, Arrays.stream(toInts(plain)).distinct().count());
+        Assertions.assertTrue(Arrays.stream(toInts(dithered)).distinct().count() > 1);
+    }
+
+    private static int[] toInts(byte[] bytes) {
+        int[] ints = new int[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            ints[i] = bytes[i];
+        }
+        return ints;
+    }
+
+}
@@ -0,0 +1,104 @@
+package io.fairytest.mc.map;
+
+import io.fairyproject.mc.map.MapFrame;
+import io.fairyproject.mc.map.RenderData;
+import io.fairyproject.mc.map.framebuffers.DirectFramebuffer;
+import io.fairyproject.mc.map.framebuffers.Graphics2DFramebuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+public class MapFrameTest {
+
+    @Test
+    public void unchangedFramebufferKeepsFrame() {
+        DirectFramebuffer framebuffer = new DirectFramebuffer();
+        MapFrame frame = framebuffer.frame();
+
+        Assertions.assertSame(frame, framebuffer.frame());
+        Assertions.assertNull(frame.updateFrom(0, frame));
+    }
+
+    @Test
+    public void firstFrameIsSentWhole() {
+        DirectFramebuffer framebuffer = new DirectFramebuffer();
+        RenderData data = framebuffer.frame().updateFrom(0, null);
+
+        Assertions.assertNotNull(data);
+        Assertions.assertEquals(128, data.width());
+        Assertions.assertEquals(128, data.height());
+    }
+
+    @Test
+    public void onlyChangedRegionIsSent() {
+        DirectFramebuffer framebuffer = new DirectFramebuffer();
+        MapFrame previous = framebuffer.frame();
+
+        framebuffer.set(10, 20, (byte) 34);
+        framebuffer.set(15, 22, (byte) 35);
+        MapFrame current = framebuffer.frame();
+        RenderData data = current.updateFrom(0, previous);
+
+        Assertions.assertNotNull(data);
+        Assertions.assertEquals(10, data.x());
+        Assertions.assertEquals(20, data.y());
+        Assertions.assertEquals(6, data.width());
+        Assertions.assertEquals(3, data.height());
+        Assertions.assertEquals(34, data.colors()[0]);
+        Assertions.assertEquals(35, data.colors()[5 + 2 * 6]);
+        // the region is built once for every player who saw the previous frame
+        Assertions.assertSame(data, current.updateFrom(0, previous));
+    }
+
+    @Test
+    public void skippedFramesAreDiffed() {
+        DirectFramebuffer framebuffer = new DirectFramebuffer();
+        MapFrame first = framebuffer.frame();
+
+        framebuffer.set(1, 1, (byte) 34);
+        framebuffer.frame();
+        framebuffer.set(100, 100, (byte) 34);
+        RenderData data = framebuffer.frame().updateFrom(0, first);
+
+        Assertions.assertNotNull(data);
+        Assertions.assertEquals(1, data.x());
+        Assertions.assertEquals(1, data.y());
+        Assertions.assertEquals(100, data.width());
+        Assertions.assertEquals(100, data.height());
+    }
+
+    @Test
+    public void switchingFramebuffersSendsDifference() {
+        DirectFramebuffer first = new DirectFramebuffer();
+        DirectFramebuffer second = new DirectFramebuffer();
+        second.set(127, 127, (byte) 34);
+
+        RenderData data = second.frame().updateFrom(0, first.frame());
+
+        Assertions.assertNotNull(data);
+        Assertions.assertEquals(127, data.x());
+        Assertions.assertEquals(127, data.y());
+        Assertions.assertEquals(1, data.width());
+        Assertions.assertEquals(1, data.height());
+        Assertions.assertNull(first.frame().updateFrom(0, new DirectFramebuffer().frame()));
+    }
+
+    @Test
+    public void graphicsFramebufferTracksPixels() {
+        Graphics2DFramebuffer framebuffer = new Graphics2DFramebuffer();
+        MapFrame previous = framebuffer.frame();
+        Assertions.assertSame(previous, framebuffer.frame());
+
+        framebuffer.getRenderer().setColor(Color.RED);
+        framebuffer.getRenderer().fillRect(32, 40, 8, 4);
+        RenderData data = framebuffer.frame().updateFrom(0, previous);
+
+        Assertions.assertNotNull(data);
+        Assertions.assertEquals(32, data.x());
+        Assertions.assertEquals(40, data.y());
+        Assertions.assertEquals(8, data.width());
+        Assertions.assertEquals(4, data.height());
+    }
+
+}
@@ -24,7 +24,13 @@
 
 package io.fairyproject.mc.nametag;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Data
 public class NameTagData {
@@ -32,4 +38,23 @@ public class NameTagData {
     private final String name;
     private final NameTag nameTag;
 
+    /**
+     * The amount of players the team was created for.
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicInteger viewers = new AtomicInteger();
+
+    void retain() {
+        this.viewers.incrementAndGet();
+    }
+
+    /**
+     * @return true if no player has the team anymore
+     */
+    boolean release() {
+        return this.viewers.decrementAndGet() <= 0;
+    }
+
 }
@@ -26,11 +26,11 @@ package io.fairyproject.mc.nametag;
 
 import org.jetbrains.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 public class NameTagList {
     private final Map<String, NameTagData> dataByName = new HashMap<>();
+    private final Map<NameTagData, Integer> members = new IdentityHashMap<>();
 
     @Nullable
     public NameTagData get(String name) {
@@ -38,10 +38,44 @@ public class NameTagList {
     }
 
     public void add(String name, NameTagData nameTagData) {
-        this.dataByName.put(name, nameTagData);
+        NameTagData previous = this.dataByName.put(name, nameTagData);
+        if (previous == nameTagData)
+            return;
+
+        if (previous != null)
+            this.decrement(previous);
+        this.members.merge(nameTagData, 1, Integer::sum);
     }
 
     public boolean remove(String name) {
-        return this.dataByName.remove(name) != null;
+        NameTagData previous = this.dataByName.remove(name);
+        if (previous == null)
+            return false;
+
+        this.decrement(previous);
+        return true;
+    }
+
+    /**
+     * Get the amount of names in the team.
+     *
+     * @param nameTagData the team
+     * @return the amount, 0 if the team isn't known by the player
+     */
+    public int count(NameTagData nameTagData) {
+        return this.members.getOrDefault(nameTagData, 0);
+    }
+
+    /**
+     * Get the teams having at least one name.
+     *
+     * @return the teams
+     */
+    public Collection<NameTagData> getTeams() {
+        return Collections.unmodifiableSet(this.members.keySet());
+    }
+
+    private void decrement(NameTagData nameTagData) {
+        this.members.computeIfPresent(nameTagData, (data, count) -> count > 1 ? count - 1 : null);
     }
 }
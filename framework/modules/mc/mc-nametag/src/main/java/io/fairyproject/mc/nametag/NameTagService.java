@@ -34,7 +34,6 @@ import io.fairyproject.event.GlobalEventNode;
 import io.fairyproject.event.Subscribe;
 import io.fairyproject.log.Log;
 import io.fairyproject.mc.MCPlayer;
-import io.fairyproject.mc.event.MCPlayerJoinEvent;
 import io.fairyproject.mc.event.MCPlayerQuitEvent;
 import io.fairyproject.mc.nametag.update.DuoPlayerNameTagUpdate;
 import io.fairyproject.mc.nametag.update.NameTagUpdate;
@@ -43,8 +42,8 @@ import io.fairyproject.mc.protocol.MCProtocol;
 import io.fairyproject.mc.registry.player.MCPlayerRegistry;
 import io.fairyproject.mc.scheduler.MCSchedulers;
 import io.fairyproject.metadata.MetadataKey;
-import io.fairyproject.scheduler.Scheduler;
-import io.fairyproject.util.Utility;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
 import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -56,16 +55,29 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-
+import java.util.function.Consumer;
+
+/**
+ * Keeps the nametag of every (viewer, target) pair in sync.
+ * <p>
+ * The team of each pair is remembered in the {@link NameTagList} of the viewer so a pair only costs packets when its
+ * nametag changed, teams are created for a viewer the first time one of its targets joins them and removed once they are empty,
+ * a {@link NameTagData} is dropped once no viewer has it anymore.
+ * <p>
+ * Updates requested during a tick are merged and applied in a single pass on the global scheduler.
+ */
 @InjectableComponent
 @RequiredArgsConstructor
 public class NameTagService {
 
     protected static MetadataKey<NameTagList> TEAM_INFO_KEY = MetadataKey.create(Fairy.METADATA_PREFIX + "name-tag", NameTagList.class);
+    private static final ProfilerSite FLUSH_SITE = Profiler.site(Profiler.CATEGORY_TICK, "nametag");
 
     private final AtomicInteger teamId = new AtomicInteger(0);
     private final Map<NameTag, NameTagData> nameTagData = new ConcurrentHashMap<>();
     private final List<NameTagAdapter> nameTagAdapters = new LinkedList<>();
+    private final Object pendingLock = new Object();
+    private PendingUpdate pending;
 
     private final ContainerContext containerContext;
     private final MCPlayerRegistry mcPlayerRegistry;
@@ -89,10 +101,36 @@ public class NameTagService {
         }).getFuture();
     }
 
-    @Subscribe
-    public void onPlayerJoin(MCPlayerJoinEvent event) {
-        for (NameTagData data : this.nameTagData.values()) {
-            this.sendCreatePacket(event.getPlayer(), data);
+    private CompletableFuture<?> enqueue(Consumer<PendingUpdate> action) {
+        synchronized (this.pendingLock) {
+            if (this.pending == null) {
+                this.pending = new PendingUpdate();
+                MCSchedulers.getGlobalScheduler().schedule(this::flush);
+            }
+
+            action.accept(this.pending);
+            return this.pending.future;
+        }
+    }
+
+    private void flush() {
+        PendingUpdate update;
+        synchronized (this.pendingLock) {
+            update = this.pending;
+            this.pending = null;
+        }
+        if (update == null)
+            return;
+
+        final long start = FLUSH_SITE.start();
+        try {
+            this.apply(update);
+            update.future.complete(null);
+        } catch (Throwable throwable) {
+            Log.error("An error occurred while updating name tags", throwable);
+            update.future.completeExceptionally(throwable);
+        } finally {
+            FLUSH_SITE.stop(start);
         }
     }
 
@@ -103,6 +141,11 @@ public class NameTagService {
         runAsync(() -> {
             removeNameFromAll(name);
 
+            NameTagList list = player.metadata().getOrNull(TEAM_INFO_KEY);
+            if (list != null) {
+                for (NameTagData data : list.getTeams())
+                    this.release(data);
+            }
             player.metadata().remove(TEAM_INFO_KEY);
         });
     }
@@ -110,10 +153,10 @@ public class NameTagService {
     private void removeNameFromAll(String name) {
         for (MCPlayer player : mcPlayerRegistry.getAllPlayers()) {
             if (player.getName().equals(name))
-                return;
+                continue;
 
             if (!player.isOnline())
-                return;
+                continue;
 
             player.metadata().ifPresent(TEAM_INFO_KEY, list -> removeNameFromList(name, player, list));
         }
@@ -126,6 +169,13 @@ public class NameTagService {
 
         list.remove(name);
 
+        // removing the team takes its last entity along
+        if (list.count(data) == 0) {
+            this.sendRemovePacket(player, data);
+            this.release(data);
+            return;
+        }
+
         WrapperPlayServerTeams packet = new WrapperPlayServerTeams(
                 data.getName(),
                 WrapperPlayServerTeams.TeamMode.REMOVE_ENTITIES,
@@ -150,71 +200,83 @@ public class NameTagService {
 
     public CompletableFuture<?> updateFromThirdSide(MCPlayer target) {
         NameTagUpdate update = NameTagUpdate.createAllToPlayer(target);
-        return runAsync(() -> this.applyUpdate(update));
+        return enqueue(pending -> pending.add(update));
     }
 
     public CompletableFuture<?> updateFromFirstSide(MCPlayer player) {
         NameTagUpdate update = NameTagUpdate.createPlayerToAll(player);
-        return runAsync(() -> this.applyUpdate(update));
+        return enqueue(pending -> pending.add(update));
     }
 
     public CompletableFuture<?> update(MCPlayer player) {
         NameTagUpdate firstSide = NameTagUpdate.createPlayerToAll(player);
         NameTagUpdate thirdSide = NameTagUpdate.createAllToPlayer(player);
-        return runAsync(() -> {
-            this.applyUpdate(firstSide);
-            this.applyUpdate(thirdSide);
+        return enqueue(pending -> {
+            pending.add(firstSide);
+            pending.add(thirdSide);
         });
     }
 
     public CompletableFuture<?> update(MCPlayer target, MCPlayer player) {
         NameTagUpdate update = NameTagUpdate.create(target, player);
-        return runAsync(() -> this.applyUpdate(update));
+        return enqueue(pending -> pending.add(update));
     }
 
     public CompletableFuture<?> updateAll() {
-        return runAsync(() -> this.applyUpdate(NameTagUpdate.all()));
+        return enqueue(pending -> pending.add(NameTagUpdate.all()));
     }
 
     protected void applyUpdate(@NotNull NameTagUpdate update) {
-        switch (update.getType()) {
-            case ALL:
-                this.applyUpdateAll();
-                break;
-            case ALL_TO_PLAYER:
-                this.applyUpdateAllToPlayer((SinglePlayerNameTagUpdate) update);
-                break;
-            case PLAYER_TO_ALL:
-                this.applyUpdatePlayerToAll((SinglePlayerNameTagUpdate) update);
-                break;
-            case PLAYER_TO_PLAYER:
-                this.applyUpdatePlayerToPlayer((DuoPlayerNameTagUpdate) update);
-                break;
-            default:
-                throw new IllegalArgumentException("Unknown update type: " + update.getType());
-        }
+        PendingUpdate pending = new PendingUpdate();
+        pending.add(update);
+        this.apply(pending);
     }
 
-    private void applyUpdatePlayerToPlayer(DuoPlayerNameTagUpdate update) {
-        MCPlayer player = mcPlayerRegistry.findByPlatform(update.getPlayer());
-        MCPlayer target = mcPlayerRegistry.findByPlatform(update.getTarget());
-        if (player != null && target != null)
-            this.updateForInternal(player, target);
-    }
+    private void apply(PendingUpdate update) {
+        Map<UUID, MCPlayer> players = new HashMap<>();
+        for (MCPlayer player : mcPlayerRegistry.getAllPlayers())
+            players.put(player.getUUID(), player);
 
-    private void applyUpdatePlayerToAll(SinglePlayerNameTagUpdate update) {
-        MCPlayer target = mcPlayerRegistry.findByPlatform(update.getPlayer());
-        if (target != null)
-            mcPlayerRegistry.getAllPlayers().forEach(player -> this.updateForInternal(target, player));
-    }
+        if (update.all) {
+            for (MCPlayer player : players.values()) {
+                for (MCPlayer target : players.values())
+                    this.updateForInternal(player, target);
+            }
+            return;
+        }
 
-    private void applyUpdateAllToPlayer(SinglePlayerNameTagUpdate update) {
-        MCPlayer target = mcPlayerRegistry.findPlayerByUuid(update.getPlayer());
-        mcPlayerRegistry.getAllPlayers().forEach(player -> this.updateForInternal(player, target));
-    }
+        for (UUID uuid : update.viewers) {
+            MCPlayer player = players.get(uuid);
+            if (player == null)
+                continue;
+
+            for (MCPlayer target : players.values())
+                this.updateForInternal(player, target);
+        }
 
-    private void applyUpdateAll() {
-        Utility.twice(mcPlayerRegistry.getAllPlayers(), this::updateForInternal);
+        for (UUID uuid : update.targets) {
+            MCPlayer target = players.get(uuid);
+            if (target == null)
+                continue;
+
+            for (MCPlayer player : players.values()) {
+                // already updated against every target
+                if (!update.viewers.contains(player.getUUID()))
+                    this.updateForInternal(player, target);
+            }
+        }
+
+        update.pairs.forEach((uuid, targets) -> {
+            MCPlayer player = players.get(uuid);
+            if (player == null || update.viewers.contains(uuid))
+                return;
+
+            for (UUID targetUuid : targets) {
+                MCPlayer target = players.get(targetUuid);
+                if (target != null && !update.targets.contains(targetUuid))
+                    this.updateForInternal(player, target);
+            }
+        });
     }
 
     @Nullable
@@ -240,18 +302,31 @@ public class NameTagService {
         nameTag = event.getNameTag();
 
         NameTagList list = player.metadata().getOrPut(TEAM_INFO_KEY, NameTagList::new);
-        this.removeNameFromList(target.getName(), player, list);
+        String name = target.getName();
+        NameTagData previous = list.get(name);
+        if (previous != null && previous.getNameTag().equals(nameTag))
+            return;
 
         NameTagData current = this.getOrCreateData(nameTag);
-        list.add(target.getName(), current);
+        if (list.count(current) == 0) {
+            this.sendCreatePacket(player, current);
+            current.retain();
+        }
+        list.add(name, current);
 
+        // the client moves the entity out of its previous team by itself
         WrapperPlayServerTeams packet = new WrapperPlayServerTeams(
                 current.getName(),
                 WrapperPlayServerTeams.TeamMode.ADD_ENTITIES,
                 (WrapperPlayServerTeams.ScoreBoardTeamInfo) null,
-                target.getName()
+                name
         );
         MCProtocol.sendPacket(player, packet);
+
+        if (previous != null && list.count(previous) == 0) {
+            this.sendRemovePacket(player, previous);
+            this.release(previous);
+        }
     }
 
     @Nullable
@@ -260,26 +335,27 @@ public class NameTagService {
     }
 
     protected NameTagData getOrCreateData(NameTag nameTag) {
-        NameTagData data = this.getData(nameTag);
-        if (data != null)
-            return data;
-
-        NameTagData newData = new NameTagData(this.generateTeamName(), nameTag);
-        this.nameTagData.put(nameTag, newData);
-        this.sendDataToAll(newData);
-
-        return newData;
+        return this.nameTagData.computeIfAbsent(nameTag, key -> new NameTagData(this.generateTeamName(), key));
     }
 
-    private void sendDataToAll(NameTagData newData) {
-        for (MCPlayer player : mcPlayerRegistry.getAllPlayers())
-            this.sendCreatePacket(player, newData);
+    private void release(NameTagData data) {
+        if (data.release())
+            this.nameTagData.remove(data.getNameTag(), data);
     }
 
     private String generateTeamName() {
         return "team-" + this.teamId.getAndIncrement();
     }
 
+    private void sendRemovePacket(MCPlayer mcPlayer, NameTagData data) {
+        WrapperPlayServerTeams packet = new WrapperPlayServerTeams(
+                data.getName(),
+                WrapperPlayServerTeams.TeamMode.REMOVE,
+                (WrapperPlayServerTeams.ScoreBoardTeamInfo) null
+        );
+        MCProtocol.sendPacket(mcPlayer, packet);
+    }
+
     private void sendCreatePacket(MCPlayer mcPlayer, NameTagData data) {
         NameTag nameTag = data.getNameTag();
 
@@ -317,4 +393,32 @@ public class NameTagService {
         );
         MCProtocol.sendPacket(mcPlayer, packet);
     }
+
+    private static final class PendingUpdate {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final Set<UUID> viewers = new HashSet<>();
+        private final Set<UUID> targets = new HashSet<>();
+        private final Map<UUID, Set<UUID>> pairs = new HashMap<>();
+        private boolean all;
+
+        private void add(NameTagUpdate update) {
+            switch (update.getType()) {
+                case ALL:
+                    this.all = true;
+                    break;
+                case ALL_TO_PLAYER:
+                    this.targets.add(((SinglePlayerNameTagUpdate) update).getPlayer());
+                    break;
+                case PLAYER_TO_ALL:
+                    this.viewers.add(((SinglePlayerNameTagUpdate) update).getPlayer());
+                    break;
+                case PLAYER_TO_PLAYER:
+                    DuoPlayerNameTagUpdate duo = (DuoPlayerNameTagUpdate) update;
+                    this.pairs.computeIfAbsent(duo.getPlayer(), uuid -> new HashSet<>()).add(duo.getTarget());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown update type: " + update.getType());
+            }
+        }
+    }
 }
@@ -29,6 +29,7 @@ import io.fairyproject.Fairy;
 import io.fairyproject.container.ContainerContext;
 import io.fairyproject.container.InjectableComponent;
 import io.fairyproject.container.PostInitialize;
+import io.fairyproject.container.PreDestroy;
 import io.fairyproject.container.PreInitialize;
 import io.fairyproject.container.collection.ContainerObjCollector;
 import io.fairyproject.event.Subscribe;
@@ -37,34 +38,34 @@ import io.fairyproject.mc.data.MCMetadata;
 import io.fairyproject.mc.event.MCPlayerJoinEvent;
 import io.fairyproject.mc.event.MCPlayerQuitEvent;
 import io.fairyproject.mc.protocol.MCProtocol;
-import io.fairyproject.mc.registry.player.MCPlayerRegistry;
-import io.fairyproject.mc.scheduler.MCSchedulerProvider;
-import io.fairyproject.scheduler.response.TaskResponse;
+import io.fairyproject.mc.scheduler.PlayerRenderLoop;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
 import io.fairyproject.sidebar.handler.SidebarHandler;
 import io.fairyproject.sidebar.handler.legacy.LegacySidebarHandler;
 import io.fairyproject.sidebar.handler.legacy.V13LegacySidebarHandler;
 import io.fairyproject.sidebar.handler.modern.ModernSidebarHandler;
 import io.fairyproject.sidebar.handler.modern.LunarFixModernSidebarHandler;
-import io.fairyproject.util.Stacktrace;
+import io.fairyproject.util.terminable.Terminable;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @InjectableComponent
 @RequiredArgsConstructor
 public class SidebarService {
 
     private static final boolean LUNAR_CLIENT_FIX = System.getProperty("fairy.sidebar.lunar-client-fix", "true").equalsIgnoreCase("true");
-    private final List<SidebarProvider> providers = new ArrayList<>();
-    private final AtomicBoolean taskState = new AtomicBoolean(false);
+    private static final ProfilerSite TICK_SITE = Profiler.site(Profiler.CATEGORY_TICK, "sidebar");
+    private final List<SidebarProvider> providers = new CopyOnWriteArrayList<>();
     private final ContainerContext containerContext;
     private final MCProtocol mcProtocol;
-    private final MCPlayerRegistry mcPlayerRegistry;
-    private final MCSchedulerProvider mcSchedulerProvider;
+    private final PlayerRenderLoop playerRenderLoop;
     private SidebarHandler sidebarHandler;
+    private Terminable renderTask;
 
     @PreInitialize
     @SuppressWarnings("deprecation")
@@ -103,6 +104,11 @@ public class SidebarService {
         this.scheduleTask();
     }
 
+    @PreDestroy
+    public void onPreDestroy() {
+        this.cancelTask();
+    }
+
     @Subscribe
     public void onPlayerJoin(MCPlayerJoinEvent event) {
         this.getOrCreate(event.getPlayer());
@@ -122,62 +128,68 @@ public class SidebarService {
 
     public void removeProvider(SidebarProvider provider) {
         this.providers.remove(provider);
+
+        if (this.providers.isEmpty()) {
+            this.cancelTask();
+            // one last pass so the sidebars shown by the removed provider are hidden
+            this.playerRenderLoop.renderOnce(this::render);
+        }
     }
 
-    private void scheduleTask() {
-        if (!taskState.compareAndSet(false, true))
+    private synchronized void scheduleTask() {
+        if (this.renderTask != null)
             return;
 
-        mcSchedulerProvider.getAsyncScheduler().scheduleAtFixedRate(this::onTick, 2L, 2L);
+        this.renderTask = this.playerRenderLoop.register(2, this::tick);
     }
 
-    public TaskResponse<Void> onTick() {
-        try {
-            this.tick();
-        } catch (Exception ex) {
-            Stacktrace.print(ex);
-        }
+    private synchronized void cancelTask() {
+        if (this.renderTask == null)
+            return;
 
-        if (this.providers.isEmpty()) {
-            this.taskState.set(false);
-            return TaskResponse.success(null);
-        }
+        this.renderTask.closeAndReportException();
+        this.renderTask = null;
+    }
 
-        return TaskResponse.continueTask();
+    private void tick(MCPlayer player) {
+        final long start = TICK_SITE.start();
+        try {
+            this.render(player);
+        } finally {
+            TICK_SITE.stop(start);
+        }
     }
 
-    private void tick() {
+    private void render(MCPlayer player) {
         if (!Fairy.isRunning())
             return;
 
-        for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-            Sidebar sidebar = this.get(player);
-            if (sidebar == null)
-                continue;
+        Sidebar sidebar = this.get(player);
+        if (sidebar == null)
+            return;
 
-            sidebar.setTicks(sidebar.getTicks() + 1);
-            if (sidebar.getTicks() < 10)
-                continue;
+        sidebar.setTicks(sidebar.getTicks() + 1);
+        if (sidebar.getTicks() < 10)
+            return;
 
-            SidebarData data = this.writeProviderToData(player);
-            if (data == null) {
-                if (sidebar.getProvider() != null)
-                    // Sidebar is hidden
-                    sidebar.getProvider().onSidebarHidden(player, sidebar);
+        SidebarData data = this.writeProviderToData(player);
+        if (data == null) {
+            if (sidebar.getProvider() != null)
+                // Sidebar is hidden
+                sidebar.getProvider().onSidebarHidden(player, sidebar);
 
-                sidebar.remove();
-                continue;
-            }
+            sidebar.remove();
+            return;
+        }
 
-            SidebarProvider provider = data.getProvider();
-            if (!sidebar.isAvailable())
-                // Sidebar is shown
-                provider.onSidebarShown(player, sidebar);
+        SidebarProvider provider = data.getProvider();
+        if (!sidebar.isAvailable())
+            // Sidebar is shown
+            provider.onSidebarShown(player, sidebar);
 
-            sidebar.setProvider(provider);
-            sidebar.setTitle(data.getTitle());
-            sidebar.setLines(data.getLines());
-        }
+        sidebar.setProvider(provider);
+        sidebar.setTitle(data.getTitle());
+        sidebar.setLines(data.getLines());
     }
 
     private SidebarData writeProviderToData(MCPlayer player) {
@@ -10,18 +10,29 @@ import io.fairyproject.sidebar.Sidebar;
 import io.fairyproject.sidebar.SidebarLine;
 import io.fairyproject.sidebar.handler.AbstractSidebarHandler;
 import io.fairyproject.util.CC;
+import io.fairyproject.util.collection.ContentCache;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
 
 public class LegacySidebarHandler extends AbstractSidebarHandler {
+
+    private static final int TEAM_INFO_CACHE_SIZE = Integer.getInteger("fairy.sidebar.line-cache-size", 4096);
+
+    // most lines are the same for every player, so each distinct line is rendered once and the team info is shared by their packets
+    private final ContentCache<LineKey, WrapperPlayServerTeams.ScoreBoardTeamInfo> teamInfoCache = new ContentCache<>(TEAM_INFO_CACHE_SIZE);
+
     @Override
     public void sendLine(@NotNull Sidebar sidebar, int index, @NotNull SidebarLine line) {
         MCPlayer player = sidebar.getPlayer();
         WrapperPlayServerTeams packet = getOrRegisterTeam(sidebar, index);
-        WrapperPlayServerTeams.ScoreBoardTeamInfo info = createSidebarTeamInfo(line.getComponent(), player.getLocale());
+        WrapperPlayServerTeams.ScoreBoardTeamInfo info = this.teamInfoCache.get(
+                new LineKey(line.getComponent(), player.getLocale()),
+                key -> createSidebarTeamInfo(key.component, key.locale)
+        );
         packet.setTeamInfo(info);
 
         MCProtocol.sendPacket(player, packet);
@@ -105,4 +116,29 @@ public class LegacySidebarHandler extends AbstractSidebarHandler {
         }
         return "";
     }
+
+    private static final class LineKey {
+        private final Component component;
+        private final Locale locale;
+        private final int hashCode;
+
+        private LineKey(Component component, Locale locale) {
+            this.component = component;
+            this.locale = locale;
+            this.hashCode = Objects.hash(component, locale);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            LineKey that = (LineKey) o;
+            return Objects.equals(component, that.component) && Objects.equals(locale, that.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
 }
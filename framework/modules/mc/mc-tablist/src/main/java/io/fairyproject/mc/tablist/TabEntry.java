@@ -45,5 +45,11 @@ public class TabEntry {
     private TabColumn column;
     private int slot;
     private int latency;
+    @Builder.Default
+    private boolean listed = true;
+
+    public TabEntry(String id, UUID uuid, Component text, Tablist tab, Skin texture, TabColumn column, int slot, int latency) {
+        this(id, uuid, text, tab, texture, column, slot, latency, true);
+    }
 
 }
@@ -0,0 +1,56 @@
+package io.fairyproject.mc.tablist;
+
+import io.fairyproject.mc.tablist.util.Skin;
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes of the entries of a {@link Tablist} collected during an update, applied to the entries right away
+ * and flushed to the player by {@link TablistSender#sendChanges(Tablist, TabEntryChanges)} in a few grouped packets.
+ */
+class TabEntryChanges {
+
+    final List<TabEntry> names = new ArrayList<>();
+    final List<TabEntry> latencies = new ArrayList<>();
+    final List<TabEntry> skins = new ArrayList<>();
+    final List<TabEntry> listed = new ArrayList<>();
+
+    void name(TabEntry tabEntry, Component text) {
+        if (tabEntry.getText().equals(text))
+            return;
+
+        tabEntry.setText(text);
+        this.names.add(tabEntry);
+    }
+
+    void latency(TabEntry tabEntry, int latency) {
+        if (tabEntry.getLatency() == latency)
+            return;
+
+        tabEntry.setLatency(latency);
+        this.latencies.add(tabEntry);
+    }
+
+    void skin(TabEntry tabEntry, Skin skin) {
+        if (tabEntry.getTexture().equals(skin))
+            return;
+
+        tabEntry.setTexture(skin);
+        this.skins.add(tabEntry);
+    }
+
+    void listed(TabEntry tabEntry, boolean listed) {
+        if (tabEntry.isListed() == listed)
+            return;
+
+        tabEntry.setListed(listed);
+        this.listed.add(tabEntry);
+    }
+
+    boolean isEmpty() {
+        return this.names.isEmpty() && this.latencies.isEmpty() && this.skins.isEmpty() && this.listed.isEmpty();
+    }
+
+}
@@ -28,22 +28,26 @@ import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.tablist.util.Skin;
 import io.fairyproject.mc.tablist.util.TabSlot;
 import io.fairyproject.mc.version.MCVersion;
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.kyori.adventure.text.Component;
 
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Getter
 public class Tablist {
 
+    private static final int SLOTS_PER_COLUMN = 20;
+
     private final MCPlayer player;
     private final TablistService tablistService;
     private final TablistSender tablistSender;
-    private final Set<TabEntry> entries = new HashSet<>();
+    @Getter(AccessLevel.NONE)
+    private final Set<TabEntry> entries = new LinkedHashSet<>();
+    // indexed by column and slot, see index(TabColumn, int)
+    @Getter(AccessLevel.NONE)
+    private final TabEntry[] grid = new TabEntry[TabColumn.values().length * SLOTS_PER_COLUMN];
     private final AtomicBoolean shown;
 
     private Component header;
@@ -61,6 +65,7 @@ public class Tablist {
 
     private void setup() {
         this.entries.clear();
+        Arrays.fill(this.grid, null);
 
         final int possibleSlots = player.getVersion().isLowerThan(MCVersion.of(8)) ? 60 : 80;
 
@@ -72,6 +77,7 @@ public class Tablist {
 
             TabEntry tabEntry = new TabEntry(String.format("%03d", i) + "|Tab", UUID.randomUUID(), Component.empty(), this, Skin.GRAY, tabColumn, tabColumn.getNumber(player, i), 0);
             entries.add(tabEntry);
+            grid[index(tabColumn, tabEntry.getSlot())] = tabEntry;
         }
     }
 
@@ -87,10 +93,12 @@ public class Tablist {
             return;
 
         this.tablistSender.removeFakePlayer(this, this.entries);
+        // the entries are gone from the client, so they're reset without sending anything and added back as they are on show
         for (TabEntry tabEntry : this.entries) {
-            this.tablistSender.updateFakeName(this, tabEntry, Component.empty());
-            this.tablistSender.updateFakeLatency(this, tabEntry, 0);
-            this.tablistSender.updateFakeSkin(this, tabEntry, Skin.GRAY);
+            tabEntry.setText(Component.empty());
+            tabEntry.setLatency(0);
+            tabEntry.setTexture(Skin.GRAY);
+            tabEntry.setListed(true);
         }
 
         this.header = null;
@@ -99,8 +107,6 @@ public class Tablist {
     }
 
     public void update() {
-        Set<TabEntry> previous = new HashSet<>(entries);
-
         Set<TabSlot> current = this.tablistService.getSlots(player);
         if (current == null || current.isEmpty()) {
             this.hide();
@@ -109,25 +115,30 @@ public class Tablist {
 
         this.show();
 
+        // diff every entry first, then flush all the changes at once
+        final TabEntryChanges changes = new TabEntryChanges();
+        final boolean[] updated = new boolean[this.grid.length];
         for (TabSlot tabSlot : current) {
             TabEntry tabEntry = getEntry(tabSlot.getColumn(), tabSlot.getSlot());
+            updated[index(tabEntry.getColumn(), tabEntry.getSlot())] = true;
 
-            if (tabEntry != null) {
-                previous.remove(tabEntry);
-
-                this.tablistSender.updateFakeLatency(this, tabEntry, tabSlot.getPing());
-                this.tablistSender.updateFakeName(this, tabEntry, tabSlot.getText());
-                this.tablistSender.updateFakeSkin(this, tabEntry, tabSlot.getSkin());
-            }
+            changes.latency(tabEntry, tabSlot.getPing());
+            changes.name(tabEntry, tabSlot.getText());
+            changes.skin(tabEntry, tabSlot.getSkin());
+            changes.listed(tabEntry, tabSlot.isListed());
         }
 
-        for (TabEntry tabEntry : previous) {
-            this.tablistSender.updateFakeName(this, tabEntry, Component.empty());
-            this.tablistSender.updateFakeLatency(this, tabEntry, 0);
-            this.tablistSender.updateFakeSkin(this, tabEntry, Skin.GRAY);
+        for (TabEntry tabEntry : this.entries) {
+            if (updated[index(tabEntry.getColumn(), tabEntry.getSlot())])
+                continue;
+
+            changes.name(tabEntry, Component.empty());
+            changes.latency(tabEntry, 0);
+            changes.skin(tabEntry, Skin.GRAY);
+            changes.listed(tabEntry, true);
         }
 
-        previous.clear();
+        this.tablistSender.sendChanges(this, changes);
 
         Component headerNow = this.tablistService.getHeader(player);
         Component footerNow = this.tablistService.getFooter(player);
@@ -139,12 +150,38 @@ public class Tablist {
         }
     }
 
-    public TabEntry getEntry(TabColumn column, int slot) {
-        for (TabEntry entry : entries) {
-            if (entry.getColumn() == column && entry.getSlot() == slot) {
-                return entry;
-            }
+    /**
+     * @return the entries of the tablist, in slot order
+     */
+    public Set<TabEntry> getEntries() {
+        return Collections.unmodifiableSet(this.entries);
+    }
+
+    /**
+     * @param column the column
+     * @return the entries of the column the player's version has, in slot order
+     */
+    public List<TabEntry> getEntries(TabColumn column) {
+        final List<TabEntry> entries = new ArrayList<>(SLOTS_PER_COLUMN);
+        for (int slot = 1; slot <= SLOTS_PER_COLUMN; slot++) {
+            final TabEntry entry = this.grid[index(column, slot)];
+            if (entry != null)
+                entries.add(entry);
         }
-        throw new IllegalArgumentException("No entry found for column " + column + " and slot " + slot);
+        return entries;
+    }
+
+    public TabEntry getEntry(TabColumn column, int slot) {
+        TabEntry entry = null;
+        if (slot >= 1 && slot <= SLOTS_PER_COLUMN)
+            entry = this.grid[index(column, slot)];
+
+        if (entry == null)
+            throw new IllegalArgumentException("No entry found for column " + column + " and slot " + slot);
+        return entry;
+    }
+
+    private static int index(TabColumn column, int slot) {
+        return column.getOrdinal() * SLOTS_PER_COLUMN + slot - 1;
     }
 }
@@ -38,9 +38,7 @@ import io.fairyproject.mc.version.MCVersion;
 import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.EnumSet;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -56,7 +54,8 @@ public class TablistSender {
                     EnumSet.of(
                             WrapperPlayServerPlayerInfoUpdate.Action.ADD_PLAYER,
                             WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_DISPLAY_NAME,
-                            WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LISTED
+                            WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LISTED,
+                            WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LATENCY
                     ),
                     tabEntries.stream().map(this::createModern).collect(Collectors.toList())
             );
@@ -147,6 +146,83 @@ public class TablistSender {
         this.addFakePlayer(tablist, Collections.singletonList(tabEntry));
     }
 
+    /**
+     * Send the changes collected during an update.
+     * Entries with a new skin have to be removed and added again, the name, latency and listed changes of the other entries
+     * are grouped into a single packet on 1.19.3+ or one packet per action on older versions.
+     *
+     * @param tablist the tablist
+     * @param changes the changes
+     */
+    void sendChanges(Tablist tablist, TabEntryChanges changes) {
+        if (changes.isEmpty())
+            return;
+
+        if (!changes.skins.isEmpty()) {
+            // re-adding sends the current name and latency as well
+            this.removeFakePlayer(tablist, changes.skins);
+            this.addFakePlayer(tablist, changes.skins);
+        }
+
+        final Set<TabEntry> readded = Collections.newSetFromMap(new IdentityHashMap<>());
+        readded.addAll(changes.skins);
+        final List<TabEntry> names = this.exclude(changes.names, readded);
+        final List<TabEntry> latencies = this.exclude(changes.latencies, readded);
+        final List<TabEntry> listed = this.exclude(changes.listed, readded);
+        if (names.isEmpty() && latencies.isEmpty() && listed.isEmpty())
+            return;
+
+        final MCPlayer player = tablist.getPlayer();
+        if (player.getVersion().isHigherOrEqual(newVersion)) {
+            final EnumSet<WrapperPlayServerPlayerInfoUpdate.Action> actions = EnumSet.noneOf(WrapperPlayServerPlayerInfoUpdate.Action.class);
+            final Set<TabEntry> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+            if (!names.isEmpty()) {
+                actions.add(WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_DISPLAY_NAME);
+                entries.addAll(names);
+            }
+            if (!latencies.isEmpty()) {
+                actions.add(WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LATENCY);
+                entries.addAll(latencies);
+            }
+            if (!listed.isEmpty()) {
+                actions.add(WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LISTED);
+                entries.addAll(listed);
+            }
+
+            WrapperPlayServerPlayerInfoUpdate packet = new WrapperPlayServerPlayerInfoUpdate(
+                    actions,
+                    entries.stream().map(this::createModern).collect(Collectors.toList())
+            );
+            MCProtocol.sendPacket(player, packet);
+        } else {
+            // older clients always list every entry
+            if (!names.isEmpty()) {
+                MCProtocol.sendPacket(player, new WrapperPlayServerPlayerInfo(
+                        WrapperPlayServerPlayerInfo.Action.UPDATE_DISPLAY_NAME,
+                        names.stream().map(this::createLegacy).collect(Collectors.toList())
+                ));
+            }
+            if (!latencies.isEmpty()) {
+                MCProtocol.sendPacket(player, new WrapperPlayServerPlayerInfo(
+                        WrapperPlayServerPlayerInfo.Action.UPDATE_LATENCY,
+                        latencies.stream().map(this::createLegacy).collect(Collectors.toList())
+                ));
+            }
+        }
+    }
+
+    private List<TabEntry> exclude(List<TabEntry> tabEntries, Set<TabEntry> excluded) {
+        if (excluded.isEmpty())
+            return tabEntries;
+
+        final List<TabEntry> result = new ArrayList<>(tabEntries.size());
+        for (TabEntry tabEntry : tabEntries) {
+            if (!excluded.contains(tabEntry))
+                result.add(tabEntry);
+        }
+        return result;
+    }
+
     public void updateHeaderAndFooter(Tablist tablist, Component header, Component footer) {
         MCPlayer player = tablist.getPlayer();
 
@@ -172,7 +248,7 @@ public class TablistSender {
     private WrapperPlayServerPlayerInfoUpdate.PlayerInfo createModern(TabEntry tabEntry) {
         return new WrapperPlayServerPlayerInfoUpdate.PlayerInfo(
                 getGameProfile(tabEntry),
-                true,
+                tabEntry.isListed(),
                 tabEntry.getLatency(),
                 GameMode.SURVIVAL,
                 tabEntry.getText(),
@@ -31,11 +31,12 @@ import io.fairyproject.event.Subscribe;
 import io.fairyproject.mc.MCPlayer;
 import io.fairyproject.mc.event.MCPlayerJoinEvent;
 import io.fairyproject.mc.event.MCPlayerQuitEvent;
-import io.fairyproject.mc.registry.player.MCPlayerRegistry;
-import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.mc.scheduler.PlayerRenderLoop;
 import io.fairyproject.mc.tablist.util.TabSlot;
 import io.fairyproject.metadata.MetadataKey;
-import io.fairyproject.util.Stacktrace;
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
+import io.fairyproject.util.terminable.Terminable;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -53,15 +54,16 @@ import java.util.concurrent.ScheduledExecutorService;
 public class TablistService {
 
     private static final MetadataKey<Tablist> TABLIST_KEY = MetadataKey.create(Fairy.METADATA_PREFIX + "TabList", Tablist.class);
+    private static final ProfilerSite TICK_SITE = Profiler.site(Profiler.CATEGORY_TICK, "tablist");
     public static TablistService INSTANCE;
 
     private final TablistSender tablistSender = new TablistSender();
     private final List<TablistAdapter> adapters = new ArrayList<>();
     private final ContainerContext containerContext;
-    private final MCPlayerRegistry mcPlayerRegistry;
-    private final MCSchedulerProvider mcSchedulerProvider;
+    private final PlayerRenderLoop playerRenderLoop;
 
     private ScheduledExecutorService thread;
+    private Terminable renderTask;
 
     //Tablist Ticks
     @Setter
@@ -146,24 +148,26 @@ public class TablistService {
     }
 
     private void setup() {
-        // Start Thread
-        this.mcSchedulerProvider.getAsyncScheduler().scheduleAtFixedRate(() -> {
+        // Start rendering, players are updated on the shared render loop
+        this.renderTask = this.playerRenderLoop.register((int) this.ticks, player -> {
             if (this.adapters.isEmpty())
                 return;
 
-            for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
-                player.metadata().ifPresent(TABLIST_KEY, tablist -> {
-                    try {
-                        tablist.update();
-                    } catch (Throwable throwable) {
-                        Stacktrace.print(throwable);
-                    }
-                });
+            final long start = TICK_SITE.start();
+            try {
+                player.metadata().ifPresent(TABLIST_KEY, Tablist::update);
+            } finally {
+                TICK_SITE.stop(start);
             }
-        }, this.ticks, this.ticks);
+        });
     }
 
+    @PreDestroy
     public void stop() {
+        if (this.renderTask != null) {
+            this.renderTask.closeAndReportException();
+            this.renderTask = null;
+        }
         if (this.thread != null) {
             this.thread.shutdown();
             this.thread = null;
@@ -35,12 +35,14 @@ public class TabSlot {
     private int slot;
     private Component text;
     private Skin skin;
+    private boolean listed;
 
     public TabSlot() {
         this.column = TabColumn.LEFT;
         this.slot = 1;
         this.text = Component.empty();
         this.skin = Skin.GRAY;
+        this.listed = true;
     }
 
     public TabSlot text(Component text) {
@@ -63,6 +65,14 @@ public class TabSlot {
         return this;
     }
 
+    /**
+     * Whether the entry is shown in the tablist, only 1.19.3+ clients can hide an entry.
+     */
+    public TabSlot listed(boolean listed) {
+        this.listed = listed;
+        return this;
+    }
+
     public TabSlot column(TabColumn tabColumn) {
         this.column = tabColumn;
         return this;
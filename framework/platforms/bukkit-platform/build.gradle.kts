@@ -1,5 +1,6 @@
 plugins {
     id("io.fairyproject.platform")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
@@ -28,4 +29,9 @@ dependencies {
     }
     testImplementation("org.mockito:mockito-core:4.11.0")
     testImplementation("io.fairyproject:bukkit-tests")
+
+    jmhImplementation("io.papermc.paper:paper-api:1.20.6-R0.1-SNAPSHOT") {
+        exclude(group = "org.yaml", module = "snakeyaml")
+        exclude(group = "net.kyori")
+    }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package io.fairyproject.bukkit.listener;
+
+import io.fairyproject.bukkit.listener.asm.GeneratedEventExecutor;
+import io.fairyproject.bukkit.listener.asm.MethodHandleEventExecutor;
+import io.fairyproject.bukkit.listener.asm.StaticMethodHandleEventExecutor;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Predicate;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class EventExecutorBenchmark {
+
+    public enum ExecutorType {
+        REFLECTION,
+        GENERATED
+    }
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        @Param({"REFLECTION", "GENERATED"})
+        private ExecutorType type;
+
+        @Param({"false", "true"})
+        private boolean filtered;
+
+        private EventExecutor instanceExecutor;
+        private EventExecutor staticExecutor;
+        private BenchListener listener;
+        private BenchEvent event;
+
+        @Setup(Level.Trial)
+        public void setup() throws ReflectiveOperationException {
+            final FilteredEventList eventList = FilteredEventList.builder()
+                    .filter((Predicate<Event>) event -> ((BenchEvent) event).counter >= 0)
+                    .build();
+
+            instanceExecutor = create(BenchListener.class.getMethod("onBench", BenchEvent.class), eventList);
+            staticExecutor = create(BenchListener.class.getMethod("onStaticBench", BenchEvent.class), eventList);
+            listener = new BenchListener();
+            event = new BenchEvent();
+        }
+
+        private EventExecutor create(Method method, FilteredEventList eventList) {
+            final boolean ignoredFilters = !filtered;
+            if (type == ExecutorType.GENERATED) {
+                return GeneratedEventExecutor.generate(method, BenchEvent.class, false, ignoredFilters, eventList);
+            }
+            return Modifier.isStatic(method.getModifiers())
+                    ? new StaticMethodHandleEventExecutor(BenchEvent.class, method, ignoredFilters, eventList)
+                    : new MethodHandleEventExecutor(BenchEvent.class, method, ignoredFilters, eventList);
+        }
+    }
+
+    public static class BenchEvent extends Event {
+        private static final HandlerList HANDLERS = new HandlerList();
+
+        private int counter;
+
+        @Override
+        public @NotNull HandlerList getHandlers() {
+            return HANDLERS;
+        }
+
+        public static HandlerList getHandlerList() {
+            return HANDLERS;
+        }
+    }
+
+    public static class BenchListener implements Listener {
+        @EventHandler
+        public void onBench(BenchEvent event) {
+            event.counter++;
+        }
+
+        @EventHandler
+        public static void onStaticBench(BenchEvent event) {
+            event.counter++;
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void instanceHandler(State state, Blackhole blackhole) throws EventException {
+        state.instanceExecutor.execute(state.listener, state.event);
+        blackhole.consume(state.event.counter);
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void staticHandler(State state, Blackhole blackhole) throws EventException {
+        state.staticExecutor.execute(state.listener, state.event);
+        blackhole.consume(state.event.counter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(EventExecutorBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
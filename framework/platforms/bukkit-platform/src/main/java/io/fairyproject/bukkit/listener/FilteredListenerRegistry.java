@@ -26,8 +26,10 @@ package io.fairyproject.bukkit.listener;
 
 import com.google.common.collect.ImmutableSet;
 import io.fairyproject.bukkit.listener.annotation.IgnoredFilters;
+import io.fairyproject.bukkit.listener.asm.GeneratedEventExecutor;
 import io.fairyproject.bukkit.listener.asm.MethodHandleEventExecutor;
 import io.fairyproject.bukkit.listener.asm.StaticMethodHandleEventExecutor;
+import io.fairyproject.bukkit.listener.timings.ProfiledEventExecutor;
 import io.fairyproject.bukkit.listener.timings.TimedEventExecutor;
 import io.fairyproject.util.AccessUtil;
 import io.fairyproject.util.ConditionUtils;
@@ -55,6 +57,12 @@ public final class FilteredListenerRegistry {
 
     public static final FilteredListenerRegistry INSTANCE = new FilteredListenerRegistry();
 
+    /**
+     * The system property disabling {@link GeneratedEventExecutor}s, handlers are then invoked through reflection.
+     */
+    public static final String GENERATED_EXECUTORS_PROPERTY = "fairy.bukkit.generated-executors";
+    private static final boolean GENERATED_EXECUTORS = Boolean.parseBoolean(System.getProperty(GENERATED_EXECUTORS_PROPERTY, "true"));
+
     public void register(FilteredListener<?> filteredListener) {
         this.register(filteredListener, filteredListener.plugin, filteredListener.getEventList());
     }
@@ -98,7 +106,10 @@ public final class FilteredListenerRegistry {
 
             boolean ignoredFilters = method.getAnnotation(IgnoredFilters.class) != null;
 
-            EventExecutor executor = new TimedEventExecutor(this.create(method, eventClass, ignoredFilters, eventList), plugin, method, eventClass);
+            EventExecutor executor = new ProfiledEventExecutor(this.create(method, eventClass, ignoredFilters, eventList), method, eventClass);
+            if (TimedEventExecutor.isEnabled()) {
+                executor = new TimedEventExecutor(executor, plugin, method, eventClass);
+            }
             eventSet.add(new RegisteredListener(listener, executor, eventHandler.priority(), plugin, eventHandler.ignoreCancelled()));
         }
         for (Map.Entry<Class<? extends Event>, Set<RegisteredListener>> entry : ret.entrySet()) {
@@ -111,6 +122,12 @@ public final class FilteredListenerRegistry {
         ConditionUtils.notNull(m, "Null method");
         ConditionUtils.is(m.getParameterCount() != 0, "Incorrect number of arguments %s", m.getParameterCount());
         ConditionUtils.is(m.getParameterTypes()[0] == eventClass, "First parameter %s doesn't match event class %s", m.getParameterTypes()[0], eventClass);
+        if (GENERATED_EXECUTORS) {
+            final EventExecutor executor = GeneratedEventExecutor.generate(m, eventClass, !hasOwnHandlerList(eventClass), ignoredFilters, eventList);
+            if (executor != null) {
+                return executor;
+            }
+        }
         if (Modifier.isStatic(m.getModifiers())) {
             return new StaticMethodHandleEventExecutor(eventClass, m, ignoredFilters, eventList);
         } else {
@@ -118,6 +135,16 @@ public final class FilteredListenerRegistry {
         }
     }
 
+    // events of other classes can only reach the handler if its event class borrows the handler list of a super class
+    private static boolean hasOwnHandlerList(Class<? extends Event> clazz) {
+        try {
+            clazz.getDeclaredMethod("getHandlerList");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     private static HandlerList getHandlerList(Class<? extends Event> clazz) {
         try {
             Method method = clazz.getDeclaredMethod("getHandlerList");
@@ -0,0 +1,133 @@
+package io.fairyproject.bukkit.listener.asm;
+
+import io.fairyproject.bukkit.listener.FilteredEventList;
+import io.fairyproject.bukkit.listener.annotation.PlayerSearchAttribute;
+import io.fairyproject.bukkit.player.PlayerEventRecognizer;
+import io.fairyproject.util.AccessUtil;
+import lombok.NonNull;
+import org.bukkit.event.Event;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiPredicate;
+
+/**
+ * {@link EventExecutor} calling its handler through a class generated by {@link LambdaMetafactory},
+ * so the handler is a direct, typed call the JIT can inline instead of a reflective invocation.
+ * <p>
+ * The filters of the {@link FilteredEventList} are resolved once at registration: handlers without filters skip them entirely,
+ * and an instance handler without filters whose event class owns its handler list becomes the generated class itself.
+ */
+public final class GeneratedEventExecutor implements EventExecutor {
+
+    private static final MethodType EXECUTE = MethodType.methodType(void.class, Listener.class, Event.class);
+    private static final MethodType INVOKE = MethodType.methodType(void.class, Event.class);
+    private static final BiPredicate<Event, Class<? extends PlayerEventRecognizer.Attribute<?>>[]>[] NO_FILTERS = new BiPredicate[0];
+
+    private final Class<? extends Event> eventClass;
+    private final boolean checkInstance;
+    private final Invoker invoker;
+    private final BiPredicate<Event, Class<? extends PlayerEventRecognizer.Attribute<?>>[]>[] filters;
+    private final Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes;
+
+    private GeneratedEventExecutor(Class<? extends Event> eventClass, boolean checkInstance, Invoker invoker, BiPredicate<Event, Class<? extends PlayerEventRecognizer.Attribute<?>>[]>[] filters, Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes) {
+        this.eventClass = eventClass;
+        this.checkInstance = checkInstance;
+        this.invoker = invoker;
+        this.filters = filters;
+        this.attributes = attributes;
+    }
+
+    /**
+     * Generate the executor of an event handler.
+     *
+     * @param m the handler method
+     * @param eventClass the event class
+     * @param checkInstance whether events that aren't an instance of the event class can be passed to the executor,
+     *                      which happens when the event class shares the handler list of its super class
+     * @param ignoredFilters whether the filters of the event list are ignored
+     * @param eventList the filters
+     * @return the executor, or null if the handler can't be linked from a generated class
+     */
+    @Nullable
+    public static EventExecutor generate(@NonNull Method m, @NonNull Class<? extends Event> eventClass, boolean checkInstance, boolean ignoredFilters, FilteredEventList eventList) {
+        final boolean isStatic = Modifier.isStatic(m.getModifiers());
+        final BiPredicate<Event, Class<? extends PlayerEventRecognizer.Attribute<?>>[]>[] filters = ignoredFilters || eventList == null ? NO_FILTERS : eventList.getFilters();
+        try {
+            final MethodHandles.Lookup lookup = AccessUtil.privateLookupIn(m.getDeclaringClass());
+            if (lookup == null || (!Modifier.isPublic(m.getModifiers()) && lookup.lookupClass() != m.getDeclaringClass())) {
+                return null;
+            }
+            final MethodHandle implementation = lookup.unreflect(m);
+
+            if (!isStatic && !checkInstance && filters.length == 0) {
+                // nothing to do besides the call, the generated class implements the executor
+                return (EventExecutor) LambdaMetafactory.metafactory(
+                        lookup,
+                        "execute",
+                        MethodType.methodType(EventExecutor.class),
+                        EXECUTE,
+                        implementation,
+                        MethodType.methodType(void.class, m.getDeclaringClass(), eventClass)
+                ).getTarget().invoke();
+            }
+
+            final Invoker invoker;
+            if (isStatic) {
+                final StaticInvoker staticInvoker = (StaticInvoker) LambdaMetafactory.metafactory(
+                        lookup,
+                        "invoke",
+                        MethodType.methodType(StaticInvoker.class),
+                        INVOKE,
+                        implementation,
+                        MethodType.methodType(void.class, eventClass)
+                ).getTarget().invoke();
+                invoker = (listener, event) -> staticInvoker.invoke(event);
+            } else {
+                invoker = (Invoker) LambdaMetafactory.metafactory(
+                        lookup,
+                        "invoke",
+                        MethodType.methodType(Invoker.class),
+                        EXECUTE,
+                        implementation,
+                        MethodType.methodType(void.class, m.getDeclaringClass(), eventClass)
+                ).getTarget().invoke();
+            }
+
+            final PlayerSearchAttribute annotation = m.getAnnotation(PlayerSearchAttribute.class);
+            final Class<? extends PlayerEventRecognizer.Attribute<?>>[] attributes = annotation != null ? annotation.value() : new Class[0];
+            return new GeneratedEventExecutor(eventClass, checkInstance, invoker, filters, attributes);
+        } catch (Throwable throwable) {
+            // non void return types or classes that can't be linked, fall back to reflection
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(@NonNull Listener listener, @NonNull Event event) {
+        if (this.checkInstance && !this.eventClass.isInstance(event))
+            return;
+
+        for (BiPredicate<Event, Class<? extends PlayerEventRecognizer.Attribute<?>>[]> filter : this.filters) {
+            if (!filter.test(event, this.attributes))
+                return;
+        }
+
+        this.invoker.invoke(listener, event);
+    }
+
+    public interface Invoker {
+        void invoke(Listener listener, Event event);
+    }
+
+    public interface StaticInvoker {
+        void invoke(Event event);
+    }
+}
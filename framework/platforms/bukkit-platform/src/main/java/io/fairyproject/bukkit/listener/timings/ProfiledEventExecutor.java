@@ -0,0 +1,34 @@
+package io.fairyproject.bukkit.listener.timings;
+
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+
+import java.lang.reflect.Method;
+
+/**
+ * Records every call of an event handler into its {@link ProfilerSite}, the site is named after the handler method.
+ */
+public class ProfiledEventExecutor implements EventExecutor {
+
+    private final EventExecutor executor;
+    private final ProfilerSite site;
+
+    public ProfiledEventExecutor(EventExecutor eventExecutor, Method method, Class<? extends Event> eventClass) {
+        this.executor = eventExecutor;
+        this.site = Profiler.site(Profiler.CATEGORY_BUKKIT_LISTENER, method.getDeclaringClass().getName() + "#" + method.getName() + " (" + eventClass.getSimpleName() + ")");
+    }
+
+    @Override
+    public void execute(Listener listener, Event event) throws EventException {
+        final long start = this.site.start();
+        try {
+            this.executor.execute(listener, event);
+        } finally {
+            this.site.stop(start);
+        }
+    }
+}
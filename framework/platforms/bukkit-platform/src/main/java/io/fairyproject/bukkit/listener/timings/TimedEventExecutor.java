@@ -44,6 +44,13 @@ public class TimedEventExecutor implements EventExecutor {
     private final EventExecutor executor;
     private final MCTiming timings;
 
+    /**
+     * @return whether handlers should be wrapped at all, they aren't when the server has no timings
+     */
+    public static boolean isEnabled() {
+        return TIMING_SERVICE != null && TIMING_SERVICE.isEnabled();
+    }
+
     public TimedEventExecutor(EventExecutor eventExecutor, Plugin plugin, Method method, Class<? extends Event> eventClass) {
         this.executor = eventExecutor;
         if (method == null && eventExecutor.getClass().getEnclosingClass() != null) {
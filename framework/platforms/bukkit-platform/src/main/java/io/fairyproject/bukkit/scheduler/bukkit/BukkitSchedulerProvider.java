@@ -24,20 +24,33 @@
 
 package io.fairyproject.bukkit.scheduler.bukkit;
 
+import io.fairyproject.container.PreDestroy;
 import io.fairyproject.mc.MCWorld;
 import io.fairyproject.mc.scheduler.MCScheduler;
 import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.mc.scheduler.TimingWheelMCScheduler;
 import io.fairyproject.mc.util.Position;
+import io.fairyproject.scheduler.wheel.TimingWheelScheduler;
 import org.bukkit.plugin.Plugin;
 
 public class BukkitSchedulerProvider implements MCSchedulerProvider {
 
     private final BukkitMainScheduler bukkitMainScheduler;
-    private final BukkitAsyncScheduler bukkitAsyncScheduler;
+    private final MCScheduler bukkitAsyncScheduler;
+    private final TimingWheelMCScheduler timingWheelScheduler;
 
     public BukkitSchedulerProvider(Plugin plugin) {
         this.bukkitMainScheduler = new BukkitMainScheduler(plugin);
-        this.bukkitAsyncScheduler = new BukkitAsyncScheduler(plugin);
+        this.timingWheelScheduler = TimingWheelScheduler.isEnabled() ? new TimingWheelMCScheduler("Fairy Async Scheduler") : null;
+        this.bukkitAsyncScheduler = this.timingWheelScheduler != null ? this.timingWheelScheduler : new BukkitAsyncScheduler(plugin);
+    }
+
+    @PreDestroy
+    public void onPreDestroy() {
+        // bukkit only cancels the tasks it owns when the plugin is disabled
+        if (this.timingWheelScheduler != null) {
+            this.timingWheelScheduler.shutdown();
+        }
     }
 
     @Override
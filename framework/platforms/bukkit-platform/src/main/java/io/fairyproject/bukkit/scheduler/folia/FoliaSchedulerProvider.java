@@ -25,19 +25,34 @@
 package io.fairyproject.bukkit.scheduler.folia;
 
 import io.fairyproject.bukkit.util.BukkitPos;
+import io.fairyproject.container.PreDestroy;
 import io.fairyproject.mc.MCWorld;
 import io.fairyproject.mc.scheduler.MCScheduler;
 import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.mc.scheduler.TimingWheelMCScheduler;
 import io.fairyproject.mc.util.Position;
-import lombok.RequiredArgsConstructor;
+import io.fairyproject.scheduler.wheel.TimingWheelScheduler;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
 
-@RequiredArgsConstructor
 public class FoliaSchedulerProvider implements MCSchedulerProvider {
 
     private final Plugin plugin;
+    private final TimingWheelMCScheduler timingWheelScheduler;
+
+    public FoliaSchedulerProvider(Plugin plugin) {
+        this.plugin = plugin;
+        this.timingWheelScheduler = TimingWheelScheduler.isEnabled() ? new TimingWheelMCScheduler("Fairy Async Scheduler") : null;
+    }
+
+    @PreDestroy
+    public void onPreDestroy() {
+        // folia only cancels the tasks it owns when the plugin is disabled
+        if (this.timingWheelScheduler != null) {
+            this.timingWheelScheduler.shutdown();
+        }
+    }
 
     @Override
     public MCScheduler getGlobalScheduler() {
@@ -46,6 +61,9 @@ public class FoliaSchedulerProvider implements MCSchedulerProvider {
 
     @Override
     public MCScheduler getAsyncScheduler() {
+        if (this.timingWheelScheduler != null) {
+            return this.timingWheelScheduler;
+        }
         return new FoliaAsyncScheduler(plugin);
     }
 
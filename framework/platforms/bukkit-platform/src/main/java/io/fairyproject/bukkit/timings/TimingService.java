@@ -75,6 +75,13 @@ public class TimingService {
         }
     }
 
+    /**
+     * @return false if timings aren't available on this server, every timing is then a no-op
+     */
+    public boolean isEnabled() {
+        return timingType != TimingType.EMPTY;
+    }
+
     @SuppressWarnings("WeakerAccess")
     public MCTiming ofStart(Plugin plugin, String name) {
         return ofStart(plugin, name, null);
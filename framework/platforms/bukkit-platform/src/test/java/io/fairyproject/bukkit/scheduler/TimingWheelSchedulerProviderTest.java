@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Fairy Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.bukkit.scheduler;
+
+import io.fairyproject.bukkit.scheduler.bukkit.BukkitSchedulerProvider;
+import io.fairyproject.bukkit.scheduler.folia.FoliaSchedulerProvider;
+import io.fairyproject.mc.scheduler.MCSchedulerProvider;
+import io.fairyproject.mc.scheduler.TimingWheelMCScheduler;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.wheel.TimingWheelScheduler;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TimingWheelSchedulerProviderTest {
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty(TimingWheelScheduler.ENABLED_PROPERTY, "true");
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(TimingWheelScheduler.ENABLED_PROPERTY);
+    }
+
+    @Test
+    void disablingBukkitProviderStopsRepeatingTasks() throws Exception {
+        BukkitSchedulerProvider provider = new BukkitSchedulerProvider(mock(Plugin.class));
+
+        assertRepeatingTaskStops(provider, provider::onPreDestroy);
+    }
+
+    @Test
+    void disablingFoliaProviderStopsRepeatingTasks() throws Exception {
+        FoliaSchedulerProvider provider = new FoliaSchedulerProvider(mock(Plugin.class));
+
+        assertRepeatingTaskStops(provider, provider::onPreDestroy);
+    }
+
+    private void assertRepeatingTaskStops(MCSchedulerProvider provider, Runnable disable) throws Exception {
+        assertTrue(provider.getAsyncScheduler() instanceof TimingWheelMCScheduler);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(2);
+        ScheduledTask<?> task = provider.getAsyncScheduler().scheduleAtFixedRate(() -> {
+            runs.incrementAndGet();
+            started.countDown();
+        }, 1L, 1L);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        disable.run();
+
+        assertThrows(CancellationException.class, () -> task.getFuture().get(5, TimeUnit.SECONDS));
+        // let a run that was already handed to the worker finish
+        Thread.sleep(100L);
+        int afterDisable = runs.get();
+        Thread.sleep(200L);
+        assertEquals(afterDisable, runs.get());
+    }
+
+}
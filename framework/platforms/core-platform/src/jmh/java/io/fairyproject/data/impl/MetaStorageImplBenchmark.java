@@ -9,8 +9,6 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
-import java.util.concurrent.CountDownLatch;
-
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 
@@ -18,10 +16,15 @@ public class MetaStorageImplBenchmark {
 
     public static final int keys = 1000;
 
-    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    // shared with the benchmark threads, as the key ids are taken from a global counter
+    @org.openjdk.jmh.annotations.State(Scope.Benchmark)
     public static class State {
         private MetaKey<Integer>[] metaKeys;
+        // kept as objects, as Number isn't unboxed by the storage
+        private MetaKey<Number>[] objectKeys;
         private MetadataKey<Integer>[] metadataKeys;
+        private MetaKey<Long> counterKey;
+        private MetaKey<Number> objectCounterKey;
 
         @Setup(Level.Trial)
         public void setup() {
@@ -32,10 +35,33 @@ public class MetaStorageImplBenchmark {
                 metaKeys[i] = MetaKey.create("key" + i, Integer.class);
             }
 
+            objectKeys = new MetaKey[keys];
+            for (int i = 0; i < keys; i++) {
+                objectKeys[i] = MetaKey.create("object" + i, Number.class);
+            }
+
             metadataKeys = new MetadataKey[keys];
             for (int i = 0; i < keys; i++) {
                 metadataKeys[i] = MetadataKey.create("key" + i, Integer.class);
             }
+
+            counterKey = MetaKey.createLong("counter");
+            objectCounterKey = MetaKey.create("objectCounter", Number.class);
+        }
+    }
+
+    // the storages every thread of the concurrent benchmarks works on
+    @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+    public static class Shared {
+        private MetaStorageImpl metaStorage;
+        private MetadataMap metadataMap;
+        private java.util.concurrent.ConcurrentHashMap<Integer, Integer> map;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            metaStorage = new MetaStorageImpl();
+            metadataMap = MetadataMap.create();
+            map = new java.util.concurrent.ConcurrentHashMap<>();
         }
     }
 
@@ -72,24 +98,12 @@ public class MetaStorageImplBenchmark {
     @BenchmarkMode(Mode.Throughput)
     @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
     @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
-    public void metaStorageConcurrent(State state) throws InterruptedException {
-        MetaStorageImpl metaStorage = new MetaStorageImpl();
-        CountDownLatch countDownLatch = new CountDownLatch(10);
-
-        for (int t = 0; t < 10; t++) {
-            new Thread() {
-                @Override
-                public void run() {
-                    for (int i = 0; i < state.metaKeys.length; i++) {
-                        metaStorage.put(state.metaKeys[i], i);
-                        metaStorage.getOrNull(state.metaKeys[i]);
-                    }
-                    countDownLatch.countDown();
-                }
-            }.start();
+    @Threads(10)
+    public void metaStorageConcurrent(State state, Shared shared) {
+        for (int i = 0; i < state.metaKeys.length; i++) {
+            shared.metaStorage.put(state.metaKeys[i], i);
+            shared.metaStorage.getOrNull(state.metaKeys[i]);
         }
-
-        countDownLatch.await();
     }
 
     @Benchmark
@@ -97,24 +111,12 @@ public class MetaStorageImplBenchmark {
     @BenchmarkMode(Mode.Throughput)
     @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
     @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
-    public void metadataMapConcurrent(State state) throws InterruptedException {
-        MetadataMap metadataStorage = MetadataMap.create();
-        CountDownLatch countDownLatch = new CountDownLatch(10);
-
-        for (int t = 0; t < 10; t++) {
-            new Thread() {
-                @Override
-                public void run() {
-                    for (int i = 0; i < state.metadataKeys.length; i++) {
-                        metadataStorage.put(state.metadataKeys[i], i);
-                        metadataStorage.get(state.metadataKeys[i]);
-                    }
-                    countDownLatch.countDown();
-                }
-            }.start();
+    @Threads(10)
+    public void metadataMapConcurrent(State state, Shared shared) {
+        for (int i = 0; i < state.metadataKeys.length; i++) {
+            shared.metadataMap.put(state.metadataKeys[i], i);
+            shared.metadataMap.get(state.metadataKeys[i]);
         }
-
-        countDownLatch.await();
     }
 
     @Benchmark
@@ -136,24 +138,92 @@ public class MetaStorageImplBenchmark {
     @BenchmarkMode(Mode.Throughput)
     @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
     @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
-    public void concurrentHashMap_concurrent(State state) throws InterruptedException {
-        java.util.concurrent.ConcurrentHashMap<Integer, Integer> map = new java.util.concurrent.ConcurrentHashMap<>();
-        CountDownLatch countDownLatch = new CountDownLatch(10);
-
-        for (int t = 0; t < 10; t++) {
-            new Thread() {
-                @Override
-                public void run() {
-                    for (int i = 0; i < state.metaKeys.length; i++) {
-                        map.put(state.metaKeys[i].getId(), i);
-                        map.get(state.metaKeys[i].getId());
-                    }
-                    countDownLatch.countDown();
-                }
-            }.start();
+    @Threads(10)
+    public void concurrentHashMap_concurrent(State state, Shared shared) {
+        for (int i = 0; i < state.metaKeys.length; i++) {
+            shared.map.put(state.metaKeys[i].getId(), i);
+            shared.map.get(state.metaKeys[i].getId());
         }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void metaStorageObject(State state) {
+        MetaStorageImpl metaStorage = new MetaStorageImpl();
+
+        for (int i = 0; i < state.objectKeys.length; i++) {
+            metaStorage.put(state.objectKeys[i], i);
+            metaStorage.getOrNull(state.objectKeys[i]);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void metaStoragePrimitive(State state) {
+        MetaStorageImpl metaStorage = new MetaStorageImpl();
 
-        countDownLatch.await();
+        for (int i = 0; i < state.metaKeys.length; i++) {
+            metaStorage.setInt(state.metaKeys[i], i);
+            metaStorage.getInt(state.metaKeys[i], 0);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    @Threads(10)
+    public void metaStorageObjectConcurrent(State state, Shared shared) {
+        for (int i = 0; i < state.objectKeys.length; i++) {
+            shared.metaStorage.put(state.objectKeys[i], i);
+            shared.metaStorage.getOrNull(state.objectKeys[i]);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    @Threads(10)
+    public void metaStoragePrimitiveConcurrent(State state, Shared shared) {
+        for (int i = 0; i < state.metaKeys.length; i++) {
+            shared.metaStorage.setInt(state.metaKeys[i], i);
+            shared.metaStorage.getInt(state.metaKeys[i], 0);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    @Threads(10)
+    public void counterObjectConcurrent(State state, Shared shared) {
+        for (int i = 0; i < keys; i++) {
+            // what a counter takes without the primitive accessors, which doesn't even keep every increment
+            Number value = shared.metaStorage.getOrDefault(state.objectCounterKey, 0L);
+            shared.metaStorage.put(state.objectCounterKey, value.longValue() + 1);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    @Threads(10)
+    public void counterPrimitiveConcurrent(State state, Shared shared) {
+        for (int i = 0; i < keys; i++) {
+            shared.metaStorage.incrementLong(state.counterKey, 1L);
+        }
     }
 
     public static void main(Object[] args) throws RunnerException {
@@ -0,0 +1,78 @@
+package io.fairyproject.event;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Dispatch throughput of the global graph while other threads keep adding and removing per-player nodes.
+ */
+public class EventNodeChurnBenchmark {
+
+    public static final int players = 200;
+
+    @org.openjdk.jmh.annotations.State(Scope.Group)
+    public static class State {
+        private EventNode<Event> root;
+        private ListenerHandle<BenchEvent> handle;
+        private BenchEvent event;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            root = EventNode.all("root");
+            for (int i = 0; i < players; i++) {
+                root.addChild(EventNode.all("player" + i).addListener(OtherEvent.class, event -> {}));
+            }
+            root.addChild(EventNode.all("listener").addListener(BenchEvent.class, event -> event.counter++));
+
+            handle = root.getHandle(BenchEvent.class);
+            event = new BenchEvent();
+        }
+    }
+
+    public static class BenchEvent implements Event {
+        private int counter;
+    }
+
+    public static class OtherEvent implements Event {
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void dispatch(State state, Blackhole blackhole) {
+        state.handle.call(state.event);
+        blackhole.consume(state.event.counter);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void mutate(State state) {
+        final EventNode<Event> node = EventNode.all("churn").addListener(BenchEvent.class, event -> {});
+        state.root.addChild(node);
+        state.root.removeChild(node);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(EventNodeChurnBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,78 @@
+package io.fairyproject.event;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+public class EventNodeDispatchBenchmark {
+
+    public static final int children = 8;
+    public static final int listenersPerChild = 4;
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        @Param({"NESTED", "COMPILED"})
+        private EventDispatchMode mode;
+
+        private ListenerHandle<BenchEvent> handle;
+        private BenchEvent event;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            EventNodeImpl.setDispatchMode(mode);
+
+            final EventNode<Event> root = EventNode.all("root");
+            for (int i = 0; i < children; i++) {
+                final EventNode<Event> child = EventNode.all("child" + i);
+                for (int j = 0; j < listenersPerChild; j++) {
+                    child.addListener(BenchEvent.class, event -> event.counter++);
+                }
+                child.addChild(EventSubscribeRegistry.create(new BenchListener()));
+                root.addChild(child);
+            }
+
+            handle = root.getHandle(BenchEvent.class);
+            event = new BenchEvent();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            EventNodeImpl.setDispatchMode(EventDispatchMode.NESTED);
+        }
+    }
+
+    public static class BenchEvent implements Event {
+        private int counter;
+    }
+
+    public static class BenchListener {
+        @Subscribe
+        public void onBench(BenchEvent event) {
+            event.counter++;
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void dispatch(State state, Blackhole blackhole) {
+        state.handle.call(state.event);
+        blackhole.consume(state.event.counter);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(EventNodeDispatchBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
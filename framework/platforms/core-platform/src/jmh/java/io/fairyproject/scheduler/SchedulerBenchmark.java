@@ -0,0 +1,97 @@
+package io.fairyproject.scheduler;
+
+import io.fairyproject.scheduler.executor.ExecutorScheduler;
+import io.fairyproject.scheduler.wheel.TimingWheelScheduler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Schedules short delayed tasks such as cooldowns while keeping {@link #outstanding} of them pending,
+ * every scheduled task cancels the oldest pending one, from four threads sharing the scheduler.
+ */
+public class SchedulerBenchmark {
+
+    public static final int outstanding = 50_000;
+
+    @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+    public static class SchedulerState {
+        @Param({"executor", "wheel"})
+        private String type;
+
+        private Scheduler scheduler;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            if (type.equals("wheel")) {
+                scheduler = new TimingWheelScheduler("Benchmark", Duration.ofMillis(50));
+            } else {
+                scheduler = new ExecutorScheduler(Executors.defaultThreadFactory());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (scheduler instanceof TimingWheelScheduler) {
+                ((TimingWheelScheduler) scheduler).shutdown();
+            }
+        }
+    }
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        private ScheduledTask<?>[] tasks;
+        private int index;
+
+        @Setup(Level.Trial)
+        public void setup(SchedulerState schedulerState) {
+            tasks = new ScheduledTask[outstanding];
+            for (int i = 0; i < outstanding; i++) {
+                tasks[i] = schedulerState.scheduler.schedule(() -> {}, delay());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            for (ScheduledTask<?> task : tasks) {
+                task.cancel();
+            }
+        }
+
+        private static Duration delay() {
+            return Duration.ofMillis(ThreadLocalRandom.current().nextLong(30_000L, 120_000L));
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public ScheduledTask<?> scheduleAndCancel(SchedulerState schedulerState, State state) {
+        final int index = state.index;
+        state.tasks[index].cancel();
+        final ScheduledTask<?> task = schedulerState.scheduler.schedule(() -> {}, State.delay());
+        state.tasks[index] = task;
+        state.index = index + 1 == outstanding ? 0 : index + 1;
+        return task;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SchedulerBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
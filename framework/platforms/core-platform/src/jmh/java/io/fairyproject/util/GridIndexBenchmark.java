@@ -0,0 +1,92 @@
+package io.fairyproject.util;
+
+import io.fairyproject.util.collection.GridIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A player crossing a chunk border among {@link #holograms} holograms spread over a 200x200 chunks world,
+ * either checking the chunk distance to every hologram like a move listener per hologram does,
+ * or asking a {@link GridIndex} which holograms got in and out of view.
+ */
+public class GridIndexBenchmark {
+
+    public static final int holograms = 5_000;
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class State {
+        private Hologram[] all;
+        private GridIndex<Hologram> index;
+        private int step;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Random random = new Random(0);
+            all = new Hologram[holograms];
+            index = new GridIndex<>(hologram -> hologram.viewDistance);
+            for (int i = 0; i < holograms; i++) {
+                Hologram hologram = new Hologram(random.nextInt(200) - 100, random.nextInt(200) - 100);
+                all[i] = hologram;
+                index.put(hologram, hologram.chunkX, hologram.chunkZ);
+            }
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void perHologram(State state, Blackhole blackhole) {
+        int fromX = state.step++ % 200 - 100;
+        int toX = fromX + 1;
+        for (Hologram hologram : state.all) {
+            boolean was = hologram.chunkDistanceTo(fromX, 0) <= hologram.viewDistance;
+            boolean is = hologram.chunkDistanceTo(toX, 0) <= hologram.viewDistance;
+            if (was != is)
+                blackhole.consume(hologram);
+        }
+    }
+
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+    @Measurement(iterations = 10, time = 200, timeUnit = MILLISECONDS)
+    public void gridIndex(State state, Blackhole blackhole) {
+        int fromX = state.step++ % 200 - 100;
+        state.index.forEachTransition(fromX, 0, fromX + 1, 0, blackhole::consume, blackhole::consume);
+    }
+
+    private static class Hologram {
+        private final int chunkX;
+        private final int chunkZ;
+        private final int viewDistance = 4;
+
+        private Hologram(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private double chunkDistanceTo(int chunkX, int chunkZ) {
+            return Math.sqrt(Math.pow(this.chunkX - chunkX, 2) + Math.pow(this.chunkZ - chunkZ, 2));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(GridIndexBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
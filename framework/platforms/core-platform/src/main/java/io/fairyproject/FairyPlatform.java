@@ -32,6 +32,8 @@ import io.fairyproject.log.Log;
 import io.fairyproject.metadata.CommonMetadataRegistries;
 import io.fairyproject.plugin.Plugin;
 import io.fairyproject.plugin.PluginManager;
+import io.fairyproject.profiler.ProfilerExporter;
+import io.fairyproject.scheduler.Schedulers;
 import io.fairyproject.util.URLClassLoaderAccess;
 import io.fairyproject.util.terminable.Terminable;
 import io.fairyproject.util.terminable.TerminableConsumer;
@@ -80,6 +82,10 @@ public abstract class FairyPlatform implements TerminableConsumer {
     public void enable() {
         this.containerContext = new ContainerContext();
         this.containerContext.init();
+
+        final ProfilerExporter profilerExporter = ProfilerExporter.startFromProperties(Schedulers.IO);
+        if (profilerExporter != null)
+            this.bind(profilerExporter);
     }
 
     public void disable() {
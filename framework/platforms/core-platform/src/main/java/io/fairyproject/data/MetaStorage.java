@@ -126,6 +126,156 @@ public interface MetaStorage {
         }
     }
 
+    /**
+     * Get the int value for the given key without boxing it
+     *
+     * @param key the key
+     * @param def the default value
+     * @return the value or the default value if no value is found
+     */
+    default int getInt(@NotNull MetaKey<Integer> key, int def) {
+        Integer value = getOrNull(key);
+        return value != null ? value : def;
+    }
+
+    /**
+     * Put the int value for the given key without boxing it
+     *
+     * @param key the key
+     * @param value the value
+     */
+    default void setInt(@NotNull MetaKey<Integer> key, int value) {
+        put(key, value);
+    }
+
+    /**
+     * Atomically add to the int value for the given key, a missing value counts as 0
+     *
+     * @param key the key
+     * @param delta the amount to add
+     * @return the updated value
+     */
+    default int incrementInt(@NotNull MetaKey<Integer> key, int delta) {
+        synchronized (this) {
+            int value = getInt(key, 0) + delta;
+            put(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Get the long value for the given key without boxing it
+     *
+     * @param key the key
+     * @param def the default value
+     * @return the value or the default value if no value is found
+     */
+    default long getLong(@NotNull MetaKey<Long> key, long def) {
+        Long value = getOrNull(key);
+        return value != null ? value : def;
+    }
+
+    /**
+     * Put the long value for the given key without boxing it
+     *
+     * @param key the key
+     * @param value the value
+     */
+    default void setLong(@NotNull MetaKey<Long> key, long value) {
+        put(key, value);
+    }
+
+    /**
+     * Atomically add to the long value for the given key, a missing value counts as 0
+     *
+     * @param key the key
+     * @param delta the amount to add
+     * @return the updated value
+     */
+    default long incrementLong(@NotNull MetaKey<Long> key, long delta) {
+        synchronized (this) {
+            long value = getLong(key, 0L) + delta;
+            put(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Atomically set the long value for the given key if it's the expected value, a missing value counts as 0
+     *
+     * @param key the key
+     * @param expect the expected value
+     * @param update the new value
+     * @return true if the value was set, false if it wasn't the expected value
+     */
+    default boolean compareAndSetLong(@NotNull MetaKey<Long> key, long expect, long update) {
+        synchronized (this) {
+            if (getLong(key, 0L) != expect)
+                return false;
+            put(key, update);
+            return true;
+        }
+    }
+
+    /**
+     * Get the double value for the given key without boxing it
+     *
+     * @param key the key
+     * @param def the default value
+     * @return the value or the default value if no value is found
+     */
+    default double getDouble(@NotNull MetaKey<Double> key, double def) {
+        Double value = getOrNull(key);
+        return value != null ? value : def;
+    }
+
+    /**
+     * Put the double value for the given key without boxing it
+     *
+     * @param key the key
+     * @param value the value
+     */
+    default void setDouble(@NotNull MetaKey<Double> key, double value) {
+        put(key, value);
+    }
+
+    /**
+     * Atomically add to the double value for the given key, a missing value counts as 0
+     *
+     * @param key the key
+     * @param delta the amount to add
+     * @return the updated value
+     */
+    default double addDouble(@NotNull MetaKey<Double> key, double delta) {
+        synchronized (this) {
+            double value = getDouble(key, 0.0D) + delta;
+            put(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * Get the boolean value for the given key without boxing it
+     *
+     * @param key the key
+     * @param def the default value
+     * @return the value or the default value if no value is found
+     */
+    default boolean getBoolean(@NotNull MetaKey<Boolean> key, boolean def) {
+        Boolean value = getOrNull(key);
+        return value != null ? value : def;
+    }
+
+    /**
+     * Put the boolean value for the given key without boxing it
+     *
+     * @param key the key
+     * @param value the value
+     */
+    default void setBoolean(@NotNull MetaKey<Boolean> key, boolean value) {
+        put(key, value);
+    }
+
     /**
      * Remove the value for the given key
      *
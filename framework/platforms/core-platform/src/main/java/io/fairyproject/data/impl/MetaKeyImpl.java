@@ -2,6 +2,7 @@ package io.fairyproject.data.impl;
 
 import io.fairyproject.data.MetaKey;
 import io.fairyproject.util.TypeLiteral;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.Objects;
@@ -12,11 +13,19 @@ public class MetaKeyImpl<T> implements MetaKey<T> {
     private final int id;
     private final String name;
     private final TypeLiteral<T> type;
+    // the type the values are kept unboxed as, null if they're objects
+    @Getter(AccessLevel.NONE)
+    private final PrimitiveType primitiveType;
 
     public MetaKeyImpl(String name, TypeLiteral<T> type) {
         this.id = ID_COUNTER.getAndIncrement();
         this.name = name;
         this.type = type;
+        this.primitiveType = type.getParameters().length == 0 ? PrimitiveType.of(type.getType()) : null;
+    }
+
+    PrimitiveType primitiveType() {
+        return this.primitiveType;
     }
 
     @Override
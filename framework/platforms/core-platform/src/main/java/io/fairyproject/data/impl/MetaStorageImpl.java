@@ -6,15 +6,24 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.Reference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Supplier;
 
 public class MetaStorageImpl implements MetaStorage {
 
     private static final int BUCKET_SIZE = 8;
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
 
     private final StampedLock[] buckets = new StampedLock[BUCKET_SIZE];
     private volatile Object[] data = new Object[MetaKey.getCurrentCapacity()];
+    // the values of primitive keys by id, in chunks of 64 ids that are never copied,
+    // reads are optimistic and writes share the read lock of their chunk, only removals take it exclusively
+    private volatile AtomicReferenceArray<PrimitiveChunk> primitives;
+    private final Object primitivesLock = new Object();
 
     public MetaStorageImpl() {
         for (int i = 0; i < buckets.length; i++) {
@@ -65,6 +74,13 @@ public class MetaStorageImpl implements MetaStorage {
 
     @Override
     public <T> @Nullable T getOrNull(@NotNull MetaKey<T> key) {
+        PrimitiveType primitiveType = primitiveType(key);
+        if (primitiveType != null) {
+            T value = this.getPrimitive(key, primitiveType);
+            if (value != null)
+                return value;
+        }
+
         StampedLock bucket = this.getBucket(key.getId());
         long stamp = bucket.tryOptimisticRead();
         Object retVal = getOrNullInternal(key);
@@ -91,11 +107,21 @@ public class MetaStorageImpl implements MetaStorage {
 
     @Override
     public <T> void put(@NotNull MetaKey<T> key, @NotNull T value) {
+        PrimitiveType primitiveType = primitiveType(key);
+        if (primitiveType != null) {
+            this.chunkOrCreate(key.getId()).set(key.getId() & CHUNK_MASK, primitiveType.toBits(value));
+            return;
+        }
+
         putInternal(key, value);
     }
 
     @Override
     public <T> void putRef(@NotNull MetaKey<T> key, @NotNull Reference<T> reference) {
+        // a reference can't be unboxed, it's kept as an object
+        if (primitiveType(key) != null)
+            this.removePrimitive(key.getId());
+
         putInternal(key, reference);
     }
 
@@ -113,11 +139,29 @@ public class MetaStorageImpl implements MetaStorage {
 
     @Override
     public <T> T computeIfAbsent(@NotNull MetaKey<T> key, @NotNull Supplier<T> value) {
+        PrimitiveType primitiveType = primitiveType(key);
+        if (primitiveType != null) {
+            PrimitiveChunk chunk = this.chunkOrCreate(key.getId());
+            synchronized (chunk) {
+                T existing = this.getOrNull(key);
+                if (existing != null)
+                    return existing;
+
+                T computed = value.get();
+                chunk.set(key.getId() & CHUNK_MASK, primitiveType.toBits(computed));
+                return computed;
+            }
+        }
+
         return key.cast(putIfAbsentInternal(key, value));
     }
 
     @Override
     public <T> void computeIfAbsentRef(@NotNull MetaKey<T> key, @NotNull Supplier<Reference<T>> reference) {
+        PrimitiveType primitiveType = primitiveType(key);
+        if (primitiveType != null && this.getPrimitive(key, primitiveType) != null)
+            return;
+
         putIfAbsentInternal(key, reference);
     }
 
@@ -158,6 +202,11 @@ public class MetaStorageImpl implements MetaStorage {
 
     @Override
     public <T> boolean remove(@NotNull MetaKey<T> key) {
+        boolean removed = primitiveType(key) != null && this.removePrimitive(key.getId());
+        return removeInternal(key) || removed;
+    }
+
+    private boolean removeInternal(@NotNull MetaKey<?> key) {
         StampedLock bucket = this.getBucket(key.getId());
         long stamp = bucket.tryOptimisticRead();
         boolean write = false;
@@ -197,6 +246,316 @@ public class MetaStorageImpl implements MetaStorage {
         } finally {
             this.unlockAll(stamps);
         }
+
+        synchronized (this.primitivesLock) {
+            this.primitives = null;
+        }
+    }
+
+    @Override
+    public int getInt(@NotNull MetaKey<Integer> key, int def) {
+        PrimitiveChunk chunk = this.chunkOf(key, PrimitiveType.INT);
+        int slot = key.getId() & CHUNK_MASK;
+        if (chunk != null) {
+            long stamp = chunk.startRead();
+            if (chunk.isPresent(slot)) {
+                long bits = chunk.get(slot);
+                if (chunk.validate(stamp))
+                    return (int) bits;
+            }
+        }
+
+        return MetaStorage.super.getInt(key, def);
+    }
+
+    @Override
+    public void setInt(@NotNull MetaKey<Integer> key, int value) {
+        if (primitiveType(key) != PrimitiveType.INT) {
+            MetaStorage.super.setInt(key, value);
+            return;
+        }
+
+        this.chunkOrCreate(key.getId()).set(key.getId() & CHUNK_MASK, value);
+    }
+
+    @Override
+    public int incrementInt(@NotNull MetaKey<Integer> key, int delta) {
+        if (primitiveType(key) != PrimitiveType.INT)
+            return MetaStorage.super.incrementInt(key, delta);
+
+        return (int) this.chunkOrCreate(key.getId()).add(key.getId() & CHUNK_MASK, delta);
+    }
+
+    @Override
+    public long getLong(@NotNull MetaKey<Long> key, long def) {
+        PrimitiveChunk chunk = this.chunkOf(key, PrimitiveType.LONG);
+        int slot = key.getId() & CHUNK_MASK;
+        if (chunk != null) {
+            long stamp = chunk.startRead();
+            if (chunk.isPresent(slot)) {
+                long bits = chunk.get(slot);
+                if (chunk.validate(stamp))
+                    return bits;
+            }
+        }
+
+        return MetaStorage.super.getLong(key, def);
+    }
+
+    @Override
+    public void setLong(@NotNull MetaKey<Long> key, long value) {
+        if (primitiveType(key) != PrimitiveType.LONG) {
+            MetaStorage.super.setLong(key, value);
+            return;
+        }
+
+        this.chunkOrCreate(key.getId()).set(key.getId() & CHUNK_MASK, value);
+    }
+
+    @Override
+    public long incrementLong(@NotNull MetaKey<Long> key, long delta) {
+        if (primitiveType(key) != PrimitiveType.LONG)
+            return MetaStorage.super.incrementLong(key, delta);
+
+        return this.chunkOrCreate(key.getId()).add(key.getId() & CHUNK_MASK, delta);
+    }
+
+    @Override
+    public boolean compareAndSetLong(@NotNull MetaKey<Long> key, long expect, long update) {
+        if (primitiveType(key) != PrimitiveType.LONG)
+            return MetaStorage.super.compareAndSetLong(key, expect, update);
+
+        return this.chunkOrCreate(key.getId()).compareAndSet(key.getId() & CHUNK_MASK, expect, update);
+    }
+
+    @Override
+    public double getDouble(@NotNull MetaKey<Double> key, double def) {
+        PrimitiveChunk chunk = this.chunkOf(key, PrimitiveType.DOUBLE);
+        int slot = key.getId() & CHUNK_MASK;
+        if (chunk != null) {
+            long stamp = chunk.startRead();
+            if (chunk.isPresent(slot)) {
+                long bits = chunk.get(slot);
+                if (chunk.validate(stamp))
+                    return Double.longBitsToDouble(bits);
+            }
+        }
+
+        return MetaStorage.super.getDouble(key, def);
+    }
+
+    @Override
+    public void setDouble(@NotNull MetaKey<Double> key, double value) {
+        if (primitiveType(key) != PrimitiveType.DOUBLE) {
+            MetaStorage.super.setDouble(key, value);
+            return;
+        }
+
+        this.chunkOrCreate(key.getId()).set(key.getId() & CHUNK_MASK, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public double addDouble(@NotNull MetaKey<Double> key, double delta) {
+        if (primitiveType(key) != PrimitiveType.DOUBLE)
+            return MetaStorage.super.addDouble(key, delta);
+
+        return this.chunkOrCreate(key.getId()).addDouble(key.getId() & CHUNK_MASK, delta);
+    }
+
+    @Override
+    public boolean getBoolean(@NotNull MetaKey<Boolean> key, boolean def) {
+        PrimitiveChunk chunk = this.chunkOf(key, PrimitiveType.BOOLEAN);
+        int slot = key.getId() & CHUNK_MASK;
+        if (chunk != null) {
+            long stamp = chunk.startRead();
+            if (chunk.isPresent(slot)) {
+                long bits = chunk.get(slot);
+                if (chunk.validate(stamp))
+                    return bits != 0L;
+            }
+        }
+
+        return MetaStorage.super.getBoolean(key, def);
+    }
+
+    @Override
+    public void setBoolean(@NotNull MetaKey<Boolean> key, boolean value) {
+        if (primitiveType(key) != PrimitiveType.BOOLEAN) {
+            MetaStorage.super.setBoolean(key, value);
+            return;
+        }
+
+        this.chunkOrCreate(key.getId()).set(key.getId() & CHUNK_MASK, value ? 1L : 0L);
+    }
+
+    @Nullable
+    private static PrimitiveType primitiveType(MetaKey<?> key) {
+        return key instanceof MetaKeyImpl ? ((MetaKeyImpl<?>) key).primitiveType() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> @Nullable T getPrimitive(@NotNull MetaKey<T> key, PrimitiveType primitiveType) {
+        PrimitiveChunk chunk = this.chunk(key.getId());
+        int slot = key.getId() & CHUNK_MASK;
+        if (chunk == null)
+            return null;
+
+        long stamp = chunk.startRead();
+        if (!chunk.isPresent(slot))
+            return null;
+
+        long bits = chunk.get(slot);
+        return chunk.validate(stamp) ? (T) primitiveType.fromBits(bits) : null;
+    }
+
+    private boolean removePrimitive(int id) {
+        PrimitiveChunk chunk = this.chunk(id);
+        return chunk != null && chunk.remove(id & CHUNK_MASK);
+    }
+
+    // the chunk of the key if it's kept as the given primitive type
+    @Nullable
+    private PrimitiveChunk chunkOf(MetaKey<?> key, PrimitiveType primitiveType) {
+        return primitiveType(key) == primitiveType ? this.chunk(key.getId()) : null;
+    }
+
+    @Nullable
+    private PrimitiveChunk chunk(int id) {
+        AtomicReferenceArray<PrimitiveChunk> primitives = this.primitives;
+        int index = id >>> CHUNK_SHIFT;
+        return primitives != null && index < primitives.length() ? primitives.get(index) : null;
+    }
+
+    private PrimitiveChunk chunkOrCreate(int id) {
+        PrimitiveChunk chunk = this.chunk(id);
+        if (chunk != null)
+            return chunk;
+
+        int index = id >>> CHUNK_SHIFT;
+        synchronized (this.primitivesLock) {
+            AtomicReferenceArray<PrimitiveChunk> primitives = this.primitives;
+            if (primitives == null || index >= primitives.length()) {
+                // only the references to the chunks are copied, so updates to them aren't lost
+                int length = Math.max(index + 1, (MetaKey.getCurrentCapacity() + CHUNK_MASK) >>> CHUNK_SHIFT);
+                AtomicReferenceArray<PrimitiveChunk> grown = new AtomicReferenceArray<>(length);
+                for (int i = 0; primitives != null && i < primitives.length(); i++) {
+                    grown.set(i, primitives.get(i));
+                }
+                this.primitives = primitives = grown;
+            }
+
+            chunk = primitives.get(index);
+            if (chunk == null) {
+                chunk = new PrimitiveChunk();
+                primitives.set(index, chunk);
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * The values of 64 primitive keys and the bits of which of them are present.
+     * A value is written before it's marked present, and a missing value is 0 so updates can start from it.
+     * <p>
+     * Writers share the lock, so they only contend on the slots they update.
+     * A removal takes it exclusively, so it can't clear a slot while a write to it is in progress,
+     * and readers validate against it so they never see a slot which is being cleared.
+     */
+    private static final class PrimitiveChunk {
+        private final AtomicLongArray values = new AtomicLongArray(CHUNK_MASK + 1);
+        private final AtomicLong present = new AtomicLong();
+        private final StampedLock lock = new StampedLock();
+
+        // the stamp to validate a read with, 0 if a removal is in progress
+        private long startRead() {
+            return this.lock.tryOptimisticRead();
+        }
+
+        private boolean validate(long stamp) {
+            return this.lock.validate(stamp);
+        }
+
+        private boolean isPresent(int slot) {
+            return (this.present.get() & (1L << slot)) != 0L;
+        }
+
+        private long get(int slot) {
+            return this.values.get(slot);
+        }
+
+        private void set(int slot, long value) {
+            long stamp = this.lock.readLock();
+            try {
+                this.values.set(slot, value);
+                this.markPresent(slot);
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        private long add(int slot, long delta) {
+            long stamp = this.lock.readLock();
+            try {
+                long value = this.values.addAndGet(slot, delta);
+                this.markPresent(slot);
+                return value;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        private double addDouble(int slot, double delta) {
+            long stamp = this.lock.readLock();
+            try {
+                while (true) {
+                    long bits = this.values.get(slot);
+                    double value = Double.longBitsToDouble(bits) + delta;
+                    if (this.values.compareAndSet(slot, bits, Double.doubleToRawLongBits(value))) {
+                        this.markPresent(slot);
+                        return value;
+                    }
+                }
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        private boolean compareAndSet(int slot, long expect, long update) {
+            long stamp = this.lock.readLock();
+            try {
+                if (!this.values.compareAndSet(slot, expect, update))
+                    return false;
+
+                this.markPresent(slot);
+                return true;
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+
+        private boolean remove(int slot) {
+            long stamp = this.lock.writeLock();
+            try {
+                if (!this.isPresent(slot))
+                    return false;
+
+                this.values.set(slot, 0L);
+                this.present.set(this.present.get() & ~(1L << slot));
+                return true;
+            } finally {
+                this.lock.unlockWrite(stamp);
+            }
+        }
+
+        private void markPresent(int slot) {
+            long bit = 1L << slot;
+            long present;
+            do {
+                present = this.present.get();
+                if ((present & bit) != 0L)
+                    return;
+            } while (!this.present.compareAndSet(present, present | bit));
+        }
     }
 
 }
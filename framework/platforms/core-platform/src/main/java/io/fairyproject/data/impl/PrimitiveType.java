@@ -0,0 +1,111 @@
+package io.fairyproject.data.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The primitive types whose values {@link MetaStorageImpl} keeps unboxed, as the bits of a long.
+ */
+enum PrimitiveType {
+
+    BOOLEAN {
+        @Override
+        long toBits(Object value) {
+            return (Boolean) value ? 1L : 0L;
+        }
+
+        @Override
+        Object fromBits(long bits) {
+            return bits != 0L;
+        }
+    },
+    BYTE {
+        @Override
+        long toBits(Object value) {
+            return (Byte) value;
+        }
+
+        @Override
+        Object fromBits(long bits) {
+            return (byte) bits;
+        }
+    },
+    SHORT {
+        @Override
+        long toBits(Object value) {
+            return (Short) value;
+        }
+
+        @Override
+        Object fromBits(long bits) {
+            return (short) bits;
+        }
+    },
+    INT {
+        @Override
+        long toBits(Object value) {
+            return (Integer) value;
+        }
+
+        @Override
+        Object fromBits(long bits) {
+            return (int) bits;
+        }
+    },
+    LONG {
+        @Override
+        long toBits(Object value) {
+            return (Long) value;
+        }
+
+        @Override
+        Object fromBits(long bits) {
+            return bits;
+        }
+    },
+    FLOAT {
+        @Override
+        long toBits(Object value) {
+            return Float.floatToRawIntBits((Float) value);
+        }
+
+        @Override
+        Object fromBits(long bits) {
+            return Float.intBitsToFloat((int) bits);
+        }
+    },
+    DOUBLE {
+        @Override
+        long toBits(Object value) {
+            return Double.doubleToRawLongBits((Double) value);
+        }
+
+        @Override
+        Object fromBits(long bits) {
+            return Double.longBitsToDouble(bits);
+        }
+    };
+
+    abstract long toBits(Object value);
+
+    abstract Object fromBits(long bits);
+
+    @Nullable
+    static PrimitiveType of(Class<?> type) {
+        if (type == Boolean.class)
+            return BOOLEAN;
+        if (type == Byte.class)
+            return BYTE;
+        if (type == Short.class)
+            return SHORT;
+        if (type == Integer.class)
+            return INT;
+        if (type == Long.class)
+            return LONG;
+        if (type == Float.class)
+            return FLOAT;
+        if (type == Double.class)
+            return DOUBLE;
+        return null;
+    }
+
+}
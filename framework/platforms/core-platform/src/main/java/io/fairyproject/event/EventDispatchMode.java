@@ -0,0 +1,21 @@
+package io.fairyproject.event;
+
+/**
+ * How {@link ListenerHandle}s dispatch events to their listeners, see {@link EventNodeImpl#setDispatchMode(EventDispatchMode)}.
+ */
+public enum EventDispatchMode {
+
+    /**
+     * Every node of the graph is a consumer wrapping the consumers of its listeners and children,
+     * {@link Subscribe} methods are called through a method handle.
+     */
+    NESTED,
+
+    /**
+     * Listeners of nodes without a filter predicate are flattened into the handle of the closest filtered ancestor,
+     * so an event is dispatched in a single loop, and {@link Subscribe} methods are called through a consumer
+     * generated by {@link java.lang.invoke.LambdaMetafactory} which the JIT can inline.
+     */
+    COMPILED
+
+}
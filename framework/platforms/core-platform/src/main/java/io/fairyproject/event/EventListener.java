@@ -173,6 +173,10 @@ public interface EventListener<T> {
             return Result.SUCCESS;
         }
 
+        Class<?> handlerType() {
+            return handler != null ? handler.getClass() : getClass();
+        }
+
         @Nullable
         private Result checkFilters(@NotNull T event) {
             if (!filters.isEmpty()) {
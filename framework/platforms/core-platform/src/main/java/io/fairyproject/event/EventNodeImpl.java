@@ -1,5 +1,7 @@
 package io.fairyproject.event;
 
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
 import io.fairyproject.util.ConditionUtils;
 import io.fairyproject.util.exceptionally.SneakyThrowUtil;
 import lombok.Data;
@@ -16,13 +18,44 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * The event graph is lock free for dispatching.
+ * <p>
+ * Children and listeners are kept in copy-on-write collections, so every mutation publishes a new immutable
+ * snapshot of the node, then bumps the version of the affected handles of the node and its ancestors.
+ * A handle lazily rebuilds its consumer when its version moved since the last build, without any global monitor.
+ * The rebuild is single flight, the callers finding the same handle outdated wait for one of them to rebuild it.
+ * If the graph changes while a handle is rebuilding, the version moves again and the next call rebuilds once more.
+ */
 public class EventNodeImpl<T> implements EventNode<T> {
-    static final Object GLOBAL_CHILD_LOCK = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<EventNodeImpl, EventNodeImpl> PARENT_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(EventNodeImpl.class, EventNodeImpl.class, "parent");
+    private static volatile EventDispatchMode DISPATCH_MODE = Boolean.getBoolean("fairy.event.compiled-dispatch")
+            ? EventDispatchMode.COMPILED
+            : EventDispatchMode.NESTED;
+
+    public static EventDispatchMode getDispatchMode() {
+        return DISPATCH_MODE;
+    }
+
+    /**
+     * Set how handles dispatch events, it applies to handles and {@link Subscribe} listeners built afterwards,
+     * so it should be set before any listener is registered.
+     * Can also be enabled with the {@code fairy.event.compiled-dispatch} system property.
+     *
+     * @param dispatchMode the dispatch mode
+     */
+    public static void setDispatchMode(@NotNull EventDispatchMode dispatchMode) {
+        DISPATCH_MODE = dispatchMode;
+    }
 
     private final ClassValue<Handle<T>> handleMap = new ClassValue<Handle<T>>() {
         @Override
@@ -33,6 +66,8 @@ public class EventNodeImpl<T> implements EventNode<T> {
     };
     final Map<Class<? extends T>, ListenerEntry<T>> listenerMap = new ConcurrentHashMap<>();
     final Set<EventNodeImpl<T>> children = new CopyOnWriteArraySet<>();
+    // guards mappedNodeCache and registeredMappedNode
+    final Object mappedLock = new Object();
     final Map<Object, EventNodeImpl<T>> mappedNodeCache = new WeakHashMap<>();
     final Map<Object, EventNodeImpl<T>> registeredMappedNode = new WeakHashMap<>();
 
@@ -64,17 +99,15 @@ public class EventNodeImpl<T> implements EventNode<T> {
 
     @Override
     public <E extends T> @NotNull List<EventNode<E>> findChildren(@NotNull String name, Class<E> eventType) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            if (children.isEmpty()) return Collections.emptyList();
-            List<EventNode<E>> result = new ArrayList<>();
-            for (EventNode<T> child : children) {
-                if (equals(child, name, eventType)) {
-                    result.add((EventNode<E>) child);
-                }
-                result.addAll(child.findChildren(name, eventType));
+        if (children.isEmpty()) return Collections.emptyList();
+        List<EventNode<E>> result = new ArrayList<>();
+        for (EventNode<T> child : children) {
+            if (equals(child, name, eventType)) {
+                result.add((EventNode<E>) child);
             }
-            return result;
+            result.addAll(child.findChildren(name, eventType));
         }
+        return result;
     }
 
     @Contract(pure = true)
@@ -84,84 +117,73 @@ public class EventNodeImpl<T> implements EventNode<T> {
 
     @Override
     public <E extends T> void replaceChildren(@NotNull String name, @NotNull Class<E> eventType, @NotNull EventNode<E> eventNode) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            if (children.isEmpty()) return;
-            for (EventNode<T> child : children) {
-                if (equals(child, name, eventType)) {
-                    removeChild(child);
-                    addChild(eventNode);
-                    break;
-                }
-                child.replaceChildren(name, eventType, eventNode);
+        if (children.isEmpty()) return;
+        for (EventNode<T> child : children) {
+            if (equals(child, name, eventType)) {
+                removeChild(child);
+                addChild(eventNode);
+                break;
             }
+            child.replaceChildren(name, eventType, eventNode);
         }
     }
 
     @Override
     public void removeChildren(@NotNull String name, @NotNull Class<? extends T> eventType) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            if (children.isEmpty()) return;
-            for (EventNode<T> child : children) {
-                if (equals(child, name, eventType)) {
-                    removeChild(child);
-                    continue;
-                }
-                child.removeChildren(name, eventType);
+        if (children.isEmpty()) return;
+        for (EventNode<T> child : children) {
+            if (equals(child, name, eventType)) {
+                removeChild(child);
+                continue;
             }
+            child.removeChildren(name, eventType);
         }
     }
 
     @Override
     public @NotNull EventNode<T> addChild(@NotNull EventNode<? extends T> child) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            val childImpl = (EventNodeImpl<? extends T>) child;
-            ConditionUtils.not(childImpl.parent != null, "Node already has a parent");
-            ConditionUtils.not(Objects.equals(parent, child), "Cannot have a child as parent");
-            if (!children.add((EventNodeImpl<T>) childImpl)) return this; // Couldn't add the child (already present?)
-            childImpl.parent = this;
-            childImpl.invalidateEventsFor(this);
-        }
+        val childImpl = (EventNodeImpl<? extends T>) child;
+        ConditionUtils.not(Objects.equals(parent, child), "Cannot have a child as parent");
+        // claiming the parent first makes concurrent additions of the same node fail instead of sharing it
+        ConditionUtils.is(PARENT_UPDATER.compareAndSet(childImpl, null, this), "Node already has a parent");
+        if (!children.add((EventNodeImpl<T>) childImpl)) return this; // Couldn't add the child (already present?)
+        // only bumped once the child is published, so a rebuild reading the new version sees it
+        childImpl.invalidateEventsFor(this);
         return this;
     }
 
     @Override
     public @NotNull EventNode<T> removeChild(@NotNull EventNode<? extends T> child) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var childImpl = (EventNodeImpl<? extends T>) child;
-            final boolean result = this.children.remove(childImpl);
-            if (!result) return this; // Child not found
-            childImpl.parent = null;
-            childImpl.invalidateEventsFor(this);
-        }
+        final var childImpl = (EventNodeImpl<? extends T>) child;
+        final boolean result = this.children.remove(childImpl);
+        if (!result) return this; // Child not found
+        PARENT_UPDATER.compareAndSet(childImpl, this, null);
+        childImpl.invalidateEventsFor(this);
         return this;
     }
 
     @Override
     public @NotNull EventNode<T> addListener(@NotNull EventListener<? extends T> listener) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var eventType = listener.eventType();
-            ListenerEntry<T> entry = getEntry(eventType);
-            entry.listeners.add((EventListener<T>) listener);
-            invalidateEvent(eventType);
-        }
+        final var eventType = listener.eventType();
+        ListenerEntry<T> entry = getEntry(eventType);
+        entry.listeners.add((EventListener<T>) listener);
+        invalidateEvent(eventType);
         return this;
     }
 
     @Override
     public @NotNull EventNode<T> removeListener(@NotNull EventListener<? extends T> listener) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var eventType = listener.eventType();
-            ListenerEntry<T> entry = listenerMap.get(eventType);
-            if (entry == null) return this; // There is no listener with such type
-            if (entry.listeners.remove(listener)) invalidateEvent(eventType);
-        }
+        final var eventType = listener.eventType();
+        ListenerEntry<T> entry = listenerMap.get(eventType);
+        if (entry == null) return this; // There is no listener with such type
+        if (entry.listeners.remove(listener)) invalidateEvent(eventType);
         return this;
     }
 
     @Override
     public @NotNull <E extends T, H> EventNode<E> map(@NotNull H value, @NotNull EventFilter<E, H> filter) {
         EventNodeImpl<E> node;
-        synchronized (GLOBAL_CHILD_LOCK) {
+        synchronized (this.mappedLock) {
             node = new EventNodeLazyImpl<>(this, value, filter);
             ConditionUtils.not(node.parent != null, "Node already has a parent");
             ConditionUtils.not(Objects.equals(parent, node), "Cannot map to self");
@@ -174,32 +196,29 @@ public class EventNodeImpl<T> implements EventNode<T> {
 
     @Override
     public void unmap(@NotNull Object value) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var mappedNode = this.registeredMappedNode.remove(value);
-            if (mappedNode != null) mappedNode.invalidateEventsFor(this);
+        final EventNodeImpl<T> mappedNode;
+        synchronized (this.mappedLock) {
+            mappedNode = this.registeredMappedNode.remove(value);
         }
+        if (mappedNode != null) mappedNode.invalidateEventsFor(this);
     }
 
     @Override
     public void register(@NotNull EventBinding<? extends T> binding) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            for (var eventType : binding.eventTypes()) {
-                ListenerEntry<T> entry = getEntry((Class<? extends T>) eventType);
-                final boolean added = entry.bindingConsumers.add((Consumer<T>) binding.consumer(eventType));
-                if (added) invalidateEvent((Class<? extends T>) eventType);
-            }
+        for (var eventType : binding.eventTypes()) {
+            ListenerEntry<T> entry = getEntry((Class<? extends T>) eventType);
+            final boolean added = entry.bindingConsumers.add((Consumer<T>) binding.consumer(eventType));
+            if (added) invalidateEvent((Class<? extends T>) eventType);
         }
     }
 
     @Override
     public void unregister(@NotNull EventBinding<? extends T> binding) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            for (var eventType : binding.eventTypes()) {
-                ListenerEntry<T> entry = listenerMap.get(eventType);
-                if (entry == null) return;
-                final boolean removed = entry.bindingConsumers.remove(binding.consumer(eventType));
-                if (removed) invalidateEvent((Class<? extends T>) eventType);
-            }
+        for (var eventType : binding.eventTypes()) {
+            ListenerEntry<T> entry = listenerMap.get(eventType);
+            if (entry == null) return;
+            final boolean removed = entry.bindingConsumers.remove(binding.consumer(eventType));
+            if (removed) invalidateEvent((Class<? extends T>) eventType);
         }
     }
 
@@ -235,10 +254,8 @@ public class EventNodeImpl<T> implements EventNode<T> {
     }
 
     public Graph createGraph() {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            List<Graph> children = this.children.stream().map(EventNodeImpl::createGraph).collect(Collectors.toList());
-            return new Graph(getName(), getEventType().getSimpleName(), getPriority(), children);
-        }
+        List<Graph> children = this.children.stream().map(EventNodeImpl::createGraph).collect(Collectors.toList());
+        return new Graph(getName(), getEventType().getSimpleName(), getPriority(), children);
     }
 
     public static String createStringGraph(Graph graph) {
@@ -299,7 +316,6 @@ public class EventNodeImpl<T> implements EventNode<T> {
     }
 
     void invalidateEventsFor(EventNodeImpl<? super T> node) {
-        assert Thread.holdsLock(GLOBAL_CHILD_LOCK);
         for (Class<? extends T> eventType : listenerMap.keySet()) {
             node.invalidateEvent(eventType);
         }
@@ -345,8 +361,10 @@ public class EventNodeImpl<T> implements EventNode<T> {
     @SuppressWarnings("unchecked")
     final class Handle<E> implements ListenerHandle<E> {
         private final Class<E> eventType;
-        private Consumer<E> listener = null;
-        private volatile boolean updated;
+        // bumped on every invalidation, a snapshot is only valid for the version it was built from
+        private final AtomicInteger version = new AtomicInteger();
+        private final Object rebuildLock = new Object();
+        private volatile Snapshot<E> snapshot;
 
         Handle(Class<E> eventType) {
             this.eventType = eventType;
@@ -369,17 +387,27 @@ public class EventNodeImpl<T> implements EventNode<T> {
         }
 
         void invalidate() {
-            this.updated = false;
+            this.version.incrementAndGet();
         }
 
         @Nullable Consumer<E> updatedListener() {
-            if (updated) return listener;
-            synchronized (GLOBAL_CHILD_LOCK) {
-                if (updated) return listener;
-                final Consumer<E> listener = createConsumer();
-                this.listener = listener;
-                this.updated = true;
-                return listener;
+            return updatedSnapshot().listener;
+        }
+
+        @NotNull Snapshot<E> updatedSnapshot() {
+            final Snapshot<E> snapshot = this.snapshot;
+            if (snapshot != null && snapshot.version == this.version.get()) return snapshot;
+            synchronized (this.rebuildLock) {
+                // another caller may have rebuilt it while this one was waiting
+                final Snapshot<E> current = this.snapshot;
+                final int version = this.version.get();
+                if (current != null && current.version == version) return current;
+                // The version is read before the graph, so a concurrent mutation always leaves this snapshot outdated
+                final Snapshot<E> updated = DISPATCH_MODE == EventDispatchMode.COMPILED
+                        ? createCompiledSnapshot(version)
+                        : new Snapshot<>(version, createConsumer(), null);
+                this.snapshot = updated;
+                return updated;
             }
         }
 
@@ -418,6 +446,59 @@ public class EventNodeImpl<T> implements EventNode<T> {
             return toConsumer(listenersArray, mappedListener, childrenListeners, predicate, filter, hasPredicate, hasListeners, hasMap, hasChildren);
         }
 
+        /**
+         * Create a consumer running every listener of this node and its unfiltered descendants in one loop.
+         * Children without a predicate expose their flattened steps, which are inlined in place of their consumer.
+         */
+        private @NotNull Snapshot<E> createCompiledSnapshot(int version) {
+            var node = (EventNodeImpl<E>) EventNodeImpl.this;
+            final List<Consumer<E>> steps = new ArrayList<>();
+            // Standalone listeners
+            forTargetEvents(eventType, type -> {
+                final ListenerEntry<E> entry = node.listenerMap.get(type);
+                if (entry == null) return;
+                for (EventListener<E> listener : entry.listeners) {
+                    final ProfilerSite site = profilerSite(listener);
+                    steps.add(e -> callListener(listener, site, e));
+                }
+                steps.addAll(entry.bindingConsumers);
+            });
+            // Mapped
+            final Consumer<E> mappedListener = mappedConsumer();
+            if (mappedListener != null) steps.add(mappedListener);
+            // Children
+            node.children.stream()
+                    .filter(child -> child.eventType.isAssignableFrom(eventType)) // Invalid event type
+                    .sorted(Comparator.comparing(EventNode::getPriority))
+                    .forEach(child -> {
+                        final Snapshot<E> childSnapshot = ((Handle<E>) child.getHandle(eventType)).updatedSnapshot();
+                        if (childSnapshot.listener == null) return;
+                        if (childSnapshot.flatSteps != null) {
+                            Collections.addAll(steps, childSnapshot.flatSteps);
+                        } else {
+                            steps.add(childSnapshot.listener);
+                        }
+                    });
+
+            final Consumer<E>[] stepsArray = steps.toArray(new Consumer[0]);
+            final BiPredicate<E, Object> predicate = node.predicate;
+            final Consumer<E>[] flatSteps = predicate == null ? stepsArray : null;
+            if (stepsArray.length == 0) {
+                // No listener
+                return new Snapshot<>(version, null, flatSteps);
+            }
+
+            final Consumer<E> compiled = new CompiledConsumer<>(stepsArray);
+            if (predicate == null) return new Snapshot<>(version, compiled, flatSteps);
+
+            final EventFilter<E, ?> filter = node.filter;
+            return new Snapshot<>(version, e -> {
+                final Object value = filter.getHandler(e);
+                if (!predicate.test(e, value)) return;
+                compiled.accept(e);
+            }, null);
+        }
+
         @NotNull
         private Consumer<E> toConsumer(Consumer<E>[] listenersArray, Consumer<E> mappedListener, Consumer<E>[] childrenListeners, BiPredicate<E, Object> predicate, EventFilter<E, ?> filter, boolean hasPredicate, boolean hasListeners, boolean hasMap, boolean hasChildren) {
             return e -> {
@@ -455,16 +536,21 @@ public class EventNodeImpl<T> implements EventNode<T> {
             final boolean listenersEmpty = listenersCopy.length == 0;
             final boolean bindingsEmpty = bindingsCopy.length == 0;
             if (listenersEmpty && bindingsEmpty) return null;
+            final ProfilerSite[] sitesCopy = new ProfilerSite[listenersCopy.length];
+            for (int i = 0; i < listenersCopy.length; i++) {
+                sitesCopy[i] = profilerSite(listenersCopy[i]);
+            }
             if (bindingsEmpty && listenersCopy.length == 1) {
                 // Only one normal listener
                 final EventListener<E> listener = listenersCopy[0];
-                return e -> callListener(listener, e);
+                final ProfilerSite site = sitesCopy[0];
+                return e -> callListener(listener, site, e);
             }
             // Worse case scenario, try to run everything
             return e -> {
                 if (!listenersEmpty) {
-                    for (EventListener<E> listener : listenersCopy) {
-                        callListener(listener, e);
+                    for (int i = 0; i < listenersCopy.length; i++) {
+                        callListener(listenersCopy[i], sitesCopy[i], e);
                     }
                 }
                 if (!bindingsEmpty) {
@@ -481,8 +567,11 @@ public class EventNodeImpl<T> implements EventNode<T> {
          */
         private @Nullable Consumer<E> mappedConsumer() {
             var node = (EventNodeImpl<E>) EventNodeImpl.this;
-            final var mappedNodeCache = node.registeredMappedNode;
-            if (mappedNodeCache.isEmpty()) return null;
+            final Map<Object, EventNodeImpl<E>> mappedNodeCache;
+            synchronized (node.mappedLock) {
+                if (node.registeredMappedNode.isEmpty()) return null;
+                mappedNodeCache = new HashMap<>(node.registeredMappedNode);
+            }
             Set<EventFilter<E, ?>> filters = new HashSet<>(mappedNodeCache.size());
             Map<Object, Handle<E>> handlers = new WeakHashMap<>(mappedNodeCache.size());
             // Retrieve all filters used to retrieve potential handlers
@@ -526,9 +615,22 @@ public class EventNodeImpl<T> implements EventNode<T> {
             }
         }
 
-        void callListener(@NotNull EventListener<E> listener, E event) {
+        private @NotNull ProfilerSite profilerSite(@NotNull EventListener<E> listener) {
+            final Class<?> type = listener instanceof EventListener.EventListenerImpl
+                    ? ((EventListener.EventListenerImpl<?>) listener).handlerType()
+                    : listener.getClass();
+            return Profiler.site(Profiler.CATEGORY_EVENT_NODE, Profiler.nameOf(type) + " (" + listener.eventType().getSimpleName() + ")");
+        }
+
+        void callListener(@NotNull EventListener<E> listener, @NotNull ProfilerSite site, E event) {
             var node = (EventNodeImpl<E>) EventNodeImpl.this;
-            EventListener.Result result = listener.run(event);
+            final long start = site.start();
+            EventListener.Result result;
+            try {
+                result = listener.run(event);
+            } finally {
+                site.stop(start);
+            }
             if (result == EventListener.Result.EXPIRED) {
                 node.removeListener(listener);
                 invalidate();
@@ -536,6 +638,37 @@ public class EventNodeImpl<T> implements EventNode<T> {
         }
     }
 
+    private static final class Snapshot<E> {
+
+        private final int version;
+        private final @Nullable Consumer<E> listener;
+        // the flattened listeners of the handle, only set in compiled mode when the node has no predicate
+        private final @Nullable Consumer<E>[] flatSteps;
+
+        private Snapshot(int version, @Nullable Consumer<E> listener, @Nullable Consumer<E>[] flatSteps) {
+            this.version = version;
+            this.listener = listener;
+            this.flatSteps = flatSteps;
+        }
+    }
+
+    private static final class CompiledConsumer<E> implements Consumer<E> {
+
+        private final Consumer<E>[] steps;
+
+        private CompiledConsumer(Consumer<E>[] steps) {
+            this.steps = steps;
+        }
+
+        @Override
+        public void accept(E event) {
+            final Consumer<E>[] steps = this.steps;
+            for (int i = 0; i < steps.length; i++) {
+                steps[i].accept(event);
+            }
+        }
+    }
+
     private static class AnnotatedHandler<T> implements Consumer<T> {
 
         private final Object listener;
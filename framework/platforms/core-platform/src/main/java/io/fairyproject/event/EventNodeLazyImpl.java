@@ -23,20 +23,23 @@ final class EventNodeLazyImpl<E> extends EventNodeImpl<E> {
 
     @Override
     public @NotNull EventNode<E> addChild(@NotNull EventNode<? extends E> child) {
+        super.addChild(child);
         ensureMap();
-        return super.addChild(child);
+        return this;
     }
 
     @Override
     public @NotNull EventNode<E> addListener(@NotNull EventListener<? extends E> listener) {
+        super.addListener(listener);
         ensureMap();
-        return super.addListener(listener);
+        return this;
     }
 
     @Override
     public @NotNull <E1 extends E> EventNode<E> addListener(@NotNull Class<E1> eventType, @NotNull Consumer<@NotNull E1> listener) {
+        super.addListener(eventType, listener);
         ensureMap();
-        return super.addListener(eventType, listener);
+        return this;
     }
 
     @Override
@@ -50,16 +53,18 @@ final class EventNodeLazyImpl<E> extends EventNodeImpl<E> {
 
     @Override
     public void register(@NotNull EventBinding<? extends E> binding) {
-        ensureMap();
         super.register(binding);
+        ensureMap();
     }
 
+    // registers the node in its holder once it has something to dispatch, after it was published
     private void ensureMap() {
         if (this.mapped.compareAndSet(false, true)) {
-            synchronized (GLOBAL_CHILD_LOCK) {
-                val previous = this.holder.registeredMappedNode.putIfAbsent(retrieveOwner(), EventNodeImpl.class.cast(this));
-                if (previous == null) invalidateEventsFor(holder);
+            final Object previous;
+            synchronized (this.holder.mappedLock) {
+                previous = this.holder.registeredMappedNode.putIfAbsent(retrieveOwner(), EventNodeImpl.class.cast(this));
             }
+            if (previous == null) invalidateEventsFor(holder);
         }
     }
 
@@ -2,17 +2,12 @@ package io.fairyproject.event;
 
 import io.fairyproject.util.ConditionUtils;
 import io.fairyproject.util.Utility;
-import io.fairyproject.util.exceptionally.SneakyThrowUtil;
 import lombok.experimental.UtilityClass;
 import lombok.val;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.reflect.Method;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 @UtilityClass
@@ -35,7 +30,7 @@ public class EventSubscribeRegistry {
                     val eventType = parameterType.asSubclass(Event.class);
                     val eventListener = EventListener.builder(eventType)
                             .ignoreCancelled(subscribe.ignoreCancelled())
-                            .handler(new AnnotatedHandler<>(listener, method))
+                            .handler(SubscribeMethodCompiler.compile(listener, method))
                             .build();
 
                     count.incrementAndGet();
@@ -47,33 +42,4 @@ public class EventSubscribeRegistry {
         return null;
     }
 
-    private static class AnnotatedHandler<T> implements Consumer<T> {
-
-        private final Object listener;
-        private final MethodHandle method;
-
-        public AnnotatedHandler(Object listener, Method method) {
-            this.listener = listener;
-
-            MethodHandle retMethod = null;
-            try {
-                method.setAccessible(true);
-                retMethod = MethodHandles.lookup().unreflect(method);
-            } catch (IllegalAccessException e) {
-                SneakyThrowUtil.sneakyThrow(e);
-            }
-
-            this.method = retMethod;
-        }
-
-        @Override
-        public void accept(T t) {
-            try {
-                this.method.invoke(listener, t);
-            } catch (Throwable e) {
-                SneakyThrowUtil.sneakyThrow(e);
-            }
-        }
-    }
-
 }
@@ -0,0 +1,111 @@
+package io.fairyproject.event;
+
+import io.fairyproject.util.AccessUtil;
+import io.fairyproject.util.exceptionally.SneakyThrowUtil;
+import lombok.experimental.UtilityClass;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Consumer;
+
+/**
+ * Turns {@link Subscribe} methods into consumers.
+ */
+@UtilityClass
+public class SubscribeMethodCompiler {
+
+    private static final MethodType CONSUMER_ACCEPT = MethodType.methodType(void.class, Object.class);
+
+    /**
+     * Create a consumer calling the method on the listener.
+     * In {@link EventDispatchMode#COMPILED} mode the consumer is generated with {@link LambdaMetafactory}
+     * so the call is a direct invocation, otherwise or if it can't be generated it calls a method handle.
+     *
+     * @param listener the listener instance, or null if the method is static
+     * @param method   the method, with a single event parameter
+     * @return the consumer
+     */
+    public <E> Consumer<E> compile(Object listener, Method method) {
+        final MethodHandle handle;
+        try {
+            method.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            return SneakyThrowUtil.sneakyThrow(e);
+        }
+
+        if (EventNodeImpl.getDispatchMode() == EventDispatchMode.COMPILED) {
+            final Consumer<E> generated = generate(listener, method);
+            if (generated != null) {
+                return generated;
+            }
+        }
+
+        return new MethodHandleConsumer<>(listener, handle);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> Consumer<E> generate(Object listener, Method method) {
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        try {
+            // the generated class is defined next to the listener so private methods work, except on Java 8
+            final MethodHandles.Lookup lookup = AccessUtil.privateLookupIn(method.getDeclaringClass());
+            if (lookup == null || (!Modifier.isPublic(method.getModifiers()) && lookup.lookupClass() != method.getDeclaringClass())) {
+                return null;
+            }
+
+            final MethodHandle implementation = lookup.unreflect(method);
+            final Class<?> eventType = method.getParameterTypes()[0];
+            final MethodType factoryType = isStatic
+                    ? MethodType.methodType(Consumer.class)
+                    : MethodType.methodType(Consumer.class, method.getDeclaringClass());
+
+            final CallSite callSite = LambdaMetafactory.metafactory(
+                    lookup,
+                    "accept",
+                    factoryType,
+                    CONSUMER_ACCEPT,
+                    implementation,
+                    MethodType.methodType(void.class, eventType)
+            );
+
+            final MethodHandle factory = callSite.getTarget();
+            return isStatic ? (Consumer<E>) factory.invoke() : (Consumer<E>) factory.invoke(listener);
+        } catch (Throwable throwable) {
+            // non void return types or inaccessible classes, fall back to the method handle
+            return null;
+        }
+    }
+
+    private static final class MethodHandleConsumer<E> implements Consumer<E> {
+
+        private final Object listener;
+        private final MethodHandle method;
+        private final boolean isStatic;
+
+        private MethodHandleConsumer(Object listener, MethodHandle method) {
+            this.listener = listener;
+            this.method = method;
+            this.isStatic = listener == null;
+        }
+
+        @Override
+        public void accept(E event) {
+            try {
+                if (this.isStatic) {
+                    this.method.invoke(event);
+                } else {
+                    this.method.invoke(this.listener, event);
+                }
+            } catch (Throwable e) {
+                SneakyThrowUtil.sneakyThrow(e);
+            }
+        }
+    }
+
+}
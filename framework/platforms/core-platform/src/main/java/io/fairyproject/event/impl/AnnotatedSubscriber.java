@@ -1,28 +1,23 @@
 package io.fairyproject.event.impl;
 
+import io.fairyproject.event.SubscribeMethodCompiler;
 import io.fairyproject.event.Subscriber;
 
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 public class AnnotatedSubscriber<E> extends Subscriber<E> {
 
-    // TODO: made asm generated method instead of reflection or method handles
-
     private final Object listener;
-    private final MethodHandle method;
+    private final Method method;
+    private final Consumer<E> consumer;
 
     public AnnotatedSubscriber(Class<E> type, int priority, Object listener, Method method) {
         super(type, priority);
         this.listener = listener;
-        try {
-            method.setAccessible(true);
-            this.method = MethodHandles.lookup().unreflect(method);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        this.method = method;
+        this.consumer = SubscribeMethodCompiler.compile(listener, method);
     }
 
     @Override
@@ -32,7 +27,7 @@ public class AnnotatedSubscriber<E> extends Subscriber<E> {
 
     @Override
     public void invoke(E event) throws Throwable {
-        this.method.invoke(this.listener, event);
+        this.consumer.accept(event);
     }
 
     @Override
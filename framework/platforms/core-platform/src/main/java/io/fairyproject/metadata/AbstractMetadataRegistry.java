@@ -26,9 +26,11 @@ package io.fairyproject.metadata;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -39,6 +41,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class AbstractMetadataRegistry<T> implements MetadataRegistry<T> {
 
     private final Map<T, MetadataMap> cache = new ConcurrentHashMap<>();
+    // the ids whose map may have become empty since the last cleanup
+    private final Set<T> emptied = ConcurrentHashMap.newKeySet();
 
     public Map<T, MetadataMap> cache() {
         return this.cache;
@@ -48,7 +52,11 @@ public class AbstractMetadataRegistry<T> implements MetadataRegistry<T> {
     @Override
     public MetadataMap provide(@NotNull T id) {
         Objects.requireNonNull(id, "id");
-        return this.cache.computeIfAbsent(id, k -> MetadataMap.create());
+        return this.cache.computeIfAbsent(id, k -> {
+            // a map nothing gets put into is dropped on the next cleanup too
+            this.emptied.add(k);
+            return new IndexedMetadataMap(MetadataExpiry.SHARED, () -> this.emptied.add(k));
+        });
     }
 
     @NotNull
@@ -68,14 +76,22 @@ public class AbstractMetadataRegistry<T> implements MetadataRegistry<T> {
 
     @Override
     public void cleanup() {
-        // MetadataMap#isEmpty also removes expired values
-        this.cache.values().removeIf(MetadataMap::isEmpty);
+        // removes the expired values of every registry, the maps they emptied are reported to their registry
+        MetadataExpiry.SHARED.expire(System.currentTimeMillis());
+
+        final Iterator<T> iterator = this.emptied.iterator();
+        while (iterator.hasNext()) {
+            final T id = iterator.next();
+            iterator.remove();
+            this.cache.computeIfPresent(id, (k, map) -> map.isEmpty() ? null : map);
+        }
     }
 
     @Override
     public void destroy() {
         this.cache.values().forEach(MetadataMap::clear);
         this.cache.clear();
+        this.emptied.clear();
     }
 
 }
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.metadata;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+
+/**
+ * A signal expiring every {@link SignalledValue} bound to it once fired.
+ * <p>
+ * The values don't expire by time, so the map maintenance doesn't check them until the signal is fired.
+ */
+public final class ExpirySignal {
+
+    private final WeakReference<ExpirySignal> reference = new WeakReference<>(this, MetadataExpiry.SHARED.referenceQueue());
+    private volatile boolean fired;
+
+    /**
+     * Fire the signal, the values bound to it are removed from their maps on the next maintenance.
+     */
+    public void fire() {
+        this.fired = true;
+        this.reference.enqueue();
+    }
+
+    /**
+     * Returns if the signal was fired
+     *
+     * @return true if the signal was fired
+     */
+    public boolean isFired() {
+        return this.fired;
+    }
+
+    Reference<?> reference() {
+        return this.reference;
+    }
+
+}
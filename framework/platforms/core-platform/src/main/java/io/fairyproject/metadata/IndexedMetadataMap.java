@@ -0,0 +1,483 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.metadata;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link MetadataMap} addressing its values by a dense index given to every key id, the way {@link io.fairyproject.data.MetaKey} does.
+ * <p>
+ * Reads are lock-free, they load the slot of the key and only take the lock to drop a transient value they found expired.
+ * Mutations are serialized. Every slot holds the key it was put with, so type conflicts are checked without a scan,
+ * and the slots holding transient values are tracked so cleanup only visits those.
+ * <p>
+ * Transient values are also scheduled in a {@link MetadataExpiry}, which removes them once they expired
+ * without the map having to be visited.
+ */
+final class IndexedMetadataMap implements MetadataMap {
+
+    private static final Map<String, Integer> INDICES = new ConcurrentHashMap<>();
+    private static final AtomicInteger INDEX_COUNTER = new AtomicInteger();
+    private static final AtomicReferenceArray<Slot> EMPTY = new AtomicReferenceArray<>(0);
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Get the index of the key id, keys with the same id share the index.
+     *
+     * @param id the key id
+     * @return the index
+     */
+    static int indexOf(String id) {
+        return INDICES.computeIfAbsent(id, k -> INDEX_COUNTER.getAndIncrement());
+    }
+
+    private static int indexOf(MetadataKey<?> key) {
+        if (key instanceof MetadataKeyImpl)
+            return ((MetadataKeyImpl<?>) key).getIndex();
+        return indexOf(key.getId());
+    }
+
+    private final Object lock = new Object();
+    private final MetadataExpiry expiry;
+    // called once the map became empty, so its registry can drop it
+    @Nullable
+    private final Runnable emptyListener;
+    // never written in place once replaced, grown under the lock
+    private volatile AtomicReferenceArray<Slot> slots = EMPTY;
+    // the indices of the slots holding transient values, guarded by the lock
+    private final BitSet transients = new BitSet();
+    private volatile int size;
+    private volatile int transientSize;
+    // created with the first transient value, guarded by the lock
+    @Nullable
+    private MetadataExpiry.MapReference expiryReference;
+
+    IndexedMetadataMap() {
+        this(MetadataExpiry.SHARED, null);
+    }
+
+    IndexedMetadataMap(MetadataExpiry expiry, @Nullable Runnable emptyListener) {
+        this.expiry = expiry;
+        this.emptyListener = emptyListener;
+    }
+
+    @Override
+    public <T> void put(@NotNull MetadataKey<T> key, @NotNull T value) {
+        internalPut(key, value);
+    }
+
+    @Override
+    public <T> void put(@NotNull MetadataKey<T> key, @NotNull TransientValue<T> value) {
+        internalPut(key, value);
+    }
+
+    private void internalPut(MetadataKey<?> key, Object value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+
+        final int index = indexOf(key);
+        synchronized (this.lock) {
+            final Slot existing = this.slot(index);
+            if (existing != null)
+                checkType(existing, key);
+
+            this.set(index, new Slot(key, value));
+        }
+    }
+
+    @Override
+    public <T> void forcePut(@NotNull MetadataKey<T> key, @NotNull T value) {
+        internalForcePut(key, value);
+    }
+
+    @Override
+    public <T> void forcePut(@NotNull MetadataKey<T> key, @NotNull TransientValue<T> value) {
+        internalForcePut(key, value);
+    }
+
+    private void internalForcePut(MetadataKey<?> key, Object value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+
+        final int index = indexOf(key);
+        synchronized (this.lock) {
+            this.set(index, new Slot(key, value));
+        }
+    }
+
+    @Override
+    public <T> boolean putIfAbsent(@NotNull MetadataKey<T> key, @NotNull T value) {
+        return internalPutIfAbsent(key, value);
+    }
+
+    @Override
+    public <T> boolean putIfAbsent(@NotNull MetadataKey<T> key, @NotNull TransientValue<T> value) {
+        return internalPutIfAbsent(key, value);
+    }
+
+    private boolean internalPutIfAbsent(MetadataKey<?> key, Object value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+
+        final int index = indexOf(key);
+        synchronized (this.lock) {
+            final Slot existing = this.slot(index);
+            if (existing != null && existing.unbox() != null)
+                return false;
+
+            this.set(index, new Slot(key, value));
+            return true;
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> Optional<T> get(@NotNull MetadataKey<T> key) {
+        Objects.requireNonNull(key, "key");
+
+        final Object value = this.read(key, indexOf(key));
+        return value == null ? Optional.empty() : Optional.of(key.cast(value));
+    }
+
+    @Override
+    public <T> boolean ifPresent(@NotNull MetadataKey<T> key, @NotNull Consumer<? super T> action) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(action, "action");
+
+        final T value = this.getOrNull(key);
+        if (value == null)
+            return false;
+
+        action.accept(value);
+        return true;
+    }
+
+    @Override
+    public <T> T getOrNull(@NotNull MetadataKey<T> key) {
+        Objects.requireNonNull(key, "key");
+
+        final Object value = this.read(key, indexOf(key));
+        return value == null ? null : key.cast(value);
+    }
+
+    @NotNull
+    @Override
+    public <T> T getOrDefault(@NotNull MetadataKey<T> key, T def) {
+        final T value = this.getOrNull(key);
+        return value == null ? def : value;
+    }
+
+    @NotNull
+    @Override
+    public <T> T getOrPut(@NotNull MetadataKey<T> key, @NotNull Supplier<? extends T> def) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(def, "def");
+
+        final int index = indexOf(key);
+        Object value = this.read(key, index);
+        if (value != null)
+            return key.cast(value);
+
+        synchronized (this.lock) {
+            value = this.read(key, index);
+            if (value != null)
+                return key.cast(value);
+
+            final T t = def.get();
+            Objects.requireNonNull(t, "supplied def");
+
+            this.set(index, new Slot(key, t));
+            return t;
+        }
+    }
+
+    @Override
+    public <T> T getOrThrow(@NotNull MetadataKey<T> key) {
+        T t = this.getOrNull(key);
+        if (t == null) {
+            throw new NullPointerException(key.getId());
+        }
+        return t;
+    }
+
+    @NotNull
+    @Override
+    public <T> T getOrPutExpiring(@NotNull MetadataKey<T> key, @NotNull Supplier<? extends TransientValue<T>> def) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(def, "def");
+
+        final int index = indexOf(key);
+        Object value = this.read(key, index);
+        if (value != null)
+            return key.cast(value);
+
+        synchronized (this.lock) {
+            value = this.read(key, index);
+            if (value != null)
+                return key.cast(value);
+
+            final TransientValue<T> t = def.get();
+            Objects.requireNonNull(t, "supplied def");
+
+            final T unboxed = t.getOrNull();
+            if (unboxed == null) {
+                throw new IllegalArgumentException("Transient value already expired: " + t);
+            }
+
+            this.set(index, new Slot(key, t));
+            return unboxed;
+        }
+    }
+
+    @Override
+    public boolean has(@NotNull MetadataKey<?> key) {
+        Objects.requireNonNull(key, "key");
+
+        final int index = indexOf(key);
+        final Slot slot = this.slot(index);
+        if (slot == null)
+            return false;
+
+        if (slot.transientValue && ((TransientValue<?>) slot.value).shouldExpire()) {
+            this.expire(index, slot);
+            return false;
+        }
+        return slot.key.getType().equals(key.getType());
+    }
+
+    @Override
+    public boolean remove(@NotNull MetadataKey<?> key) {
+        Objects.requireNonNull(key, "key");
+
+        final int index = indexOf(key);
+        synchronized (this.lock) {
+            return this.clearSlot(index) != null;
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (this.lock) {
+            final AtomicReferenceArray<Slot> slots = this.slots;
+            for (int index = this.transients.nextSetBit(0); index >= 0; index = this.transients.nextSetBit(index + 1)) {
+                this.expiry.cancel(slots.get(index).expiry);
+            }
+
+            final boolean wasEmpty = this.size == 0;
+            this.slots = EMPTY;
+            this.transients.clear();
+            this.size = 0;
+            this.transientSize = 0;
+            if (!wasEmpty && this.emptyListener != null)
+                this.emptyListener.run();
+        }
+    }
+
+    @NotNull
+    @Override
+    public Map<MetadataKey<?>, Object> asMap() {
+        final AtomicReferenceArray<Slot> slots = this.slots;
+        final Map<MetadataKey<?>, Object> map = new HashMap<>();
+        for (int i = 0; i < slots.length(); i++) {
+            final Slot slot = slots.get(i);
+            if (slot != null)
+                map.put(slot.key, slot.value);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        // only transient values may be expired, so a map holding anything else isn't empty
+        if (this.size > this.transientSize)
+            return false;
+        if (this.size == 0)
+            return true;
+
+        this.cleanup();
+        return this.size == 0;
+    }
+
+    @Override
+    public void cleanup() {
+        if (this.transientSize == 0)
+            return;
+
+        synchronized (this.lock) {
+            final AtomicReferenceArray<Slot> slots = this.slots;
+            for (int index = this.transients.nextSetBit(0); index >= 0; index = this.transients.nextSetBit(index + 1)) {
+                final Slot slot = slots.get(index);
+                if (((TransientValue<?>) slot.value).shouldExpire())
+                    this.clearSlot(index);
+            }
+        }
+    }
+
+    @Nullable
+    private Slot slot(int index) {
+        final AtomicReferenceArray<Slot> slots = this.slots;
+        return index < slots.length() ? slots.get(index) : null;
+    }
+
+    // the value of the key unboxed from its transient value, or null if absent or expired
+    @Nullable
+    private Object read(MetadataKey<?> key, int index) {
+        final Slot slot = this.slot(index);
+        if (slot == null)
+            return null;
+
+        final Object value = slot.unbox();
+        if (value == null) {
+            this.expire(index, slot);
+            return null;
+        }
+
+        checkType(slot, key);
+        return value;
+    }
+
+    /**
+     * Check the transient value once it's due, removing it if it expired or scheduling it again.
+     *
+     * @param expiry the expiry of the value
+     */
+    void recheck(MetadataExpiry.Expiry expiry) {
+        synchronized (this.lock) {
+            final Slot slot = this.slot(expiry.index());
+            // it was replaced or removed since
+            if (slot != expiry.slot())
+                return;
+
+            if (((TransientValue<?>) slot.value).shouldExpire())
+                this.clearSlot(expiry.index());
+            else
+                this.expiry.reschedule(expiry);
+        }
+    }
+
+    private void expire(int index, Slot slot) {
+        synchronized (this.lock) {
+            // it may have been replaced since it was read
+            if (this.slot(index) == slot)
+                this.clearSlot(index);
+        }
+    }
+
+    // must hold the lock
+    private MetadataExpiry.MapReference expiryReference() {
+        if (this.expiryReference == null)
+            this.expiryReference = this.expiry.track(this);
+        return this.expiryReference;
+    }
+
+    // must hold the lock
+    private void set(int index, Slot slot) {
+        this.ensureCapacity(index);
+
+        final Slot previous = this.slots.getAndSet(index, slot);
+        if (previous == null)
+            this.size++;
+        else if (previous.expiry != null)
+            this.expiry.cancel(previous.expiry);
+        if (slot.transientValue)
+            slot.expiry = this.expiry.schedule(this.expiryReference(), index, slot, (TransientValue<?>) slot.value);
+        if (this.transients.get(index) != slot.transientValue) {
+            this.transients.set(index, slot.transientValue);
+            this.transientSize += slot.transientValue ? 1 : -1;
+        }
+    }
+
+    // must hold the lock
+    @Nullable
+    private Slot clearSlot(int index) {
+        final AtomicReferenceArray<Slot> slots = this.slots;
+        if (index >= slots.length())
+            return null;
+
+        final Slot previous = slots.getAndSet(index, null);
+        if (previous != null) {
+            if (previous.transientValue) {
+                this.expiry.cancel(previous.expiry);
+                this.transients.clear(index);
+                this.transientSize--;
+            }
+            if (--this.size == 0 && this.emptyListener != null)
+                this.emptyListener.run();
+        }
+        return previous;
+    }
+
+    // must hold the lock
+    private void ensureCapacity(int index) {
+        final AtomicReferenceArray<Slot> slots = this.slots;
+        if (index < slots.length())
+            return;
+
+        int capacity = Math.max(slots.length(), INITIAL_CAPACITY);
+        while (capacity <= index) {
+            capacity <<= 1;
+        }
+
+        final AtomicReferenceArray<Slot> grown = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < slots.length(); i++) {
+            grown.set(i, slots.get(i));
+        }
+        this.slots = grown;
+    }
+
+    private static void checkType(Slot existing, MetadataKey<?> key) {
+        if (!existing.key.getType().equals(key.getType())) {
+            throw new ClassCastException("Cannot cast key with id " + key.getId() + " with type " + key.getType() + " to existing stored type " + existing.key.getType());
+        }
+    }
+
+    private static final class Slot {
+        private final MetadataKey<?> key;
+        private final Object value;
+        private final boolean transientValue;
+        // guarded by the lock of the map
+        private MetadataExpiry.Expiry expiry;
+
+        private Slot(MetadataKey<?> key, Object value) {
+            this.key = key;
+            this.value = value;
+            this.transientValue = value instanceof TransientValue;
+        }
+
+        @Nullable
+        private Object unbox() {
+            return this.transientValue ? ((TransientValue<?>) this.value).getOrNull() : this.value;
+        }
+    }
+
+}
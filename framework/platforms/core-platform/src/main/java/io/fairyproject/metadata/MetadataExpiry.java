@@ -0,0 +1,308 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.metadata;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The transient values of every {@link IndexedMetadataMap}, ordered by the time they should be checked for expiry.
+ * <p>
+ * Values with a deadline are kept in a binary heap, and the references of {@link SoftValue}s and {@link WeakValue}s
+ * are enqueued once they were cleared, so expiring only visits the values that are due instead of walking every map.
+ * A value that turns out not to be expired when it's due, such as an {@link ExpireAfterAccessValue} that was accessed,
+ * is scheduled again at its new deadline.
+ * <p>
+ * Values that don't override {@link TransientValue#getExpireAt()} can't tell when they expire, they are polled every
+ * {@link #POLL_INTERVAL_MILLIS} instead.
+ * <p>
+ * The maps are only held weakly, so a map created outside a registry and dropped with transient values left in it
+ * isn't kept alive until they expire. Its values are unscheduled once it was collected.
+ */
+final class MetadataExpiry {
+
+    static final MetadataExpiry SHARED = new MetadataExpiry();
+    static final long POLL_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final ClassValue<Boolean> DATED = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("getExpireAt").getDeclaringClass() != TransientValue.class;
+            } catch (NoSuchMethodException ex) {
+                return false;
+            }
+        }
+    };
+
+    private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+    private final Map<Reference<?>, Expiry> references = new IdentityHashMap<>();
+    private final ReferenceQueue<IndexedMetadataMap> mapQueue = new ReferenceQueue<>();
+    private Expiry[] heap = new Expiry[16];
+    private int heapSize;
+
+    /**
+     * Get the queue the references of reference backed values should be registered with.
+     *
+     * @return the reference queue
+     */
+    ReferenceQueue<Object> referenceQueue() {
+        return this.referenceQueue;
+    }
+
+    /**
+     * Create the reference a map schedules its values with.
+     *
+     * @param map the map
+     * @return the reference to the map
+     */
+    MapReference track(IndexedMetadataMap map) {
+        return new MapReference(map, this.mapQueue);
+    }
+
+    synchronized Expiry schedule(MapReference map, int index, Object slot, TransientValue<?> value) {
+        final Expiry expiry = new Expiry(map, index, slot, value);
+        map.expiries.add(expiry);
+        if (value instanceof ReferenceValue) {
+            expiry.reference = ((ReferenceValue) value).reference();
+            expiry.nextOfReference = this.references.put(expiry.reference, expiry);
+        }
+
+        expiry.deadline = deadlineOf(value);
+        if (expiry.deadline != Long.MAX_VALUE)
+            this.offer(expiry);
+        return expiry;
+    }
+
+    synchronized void reschedule(Expiry expiry) {
+        this.removeFromHeap(expiry);
+        expiry.deadline = deadlineOf(expiry.value);
+        if (expiry.deadline != Long.MAX_VALUE)
+            this.offer(expiry);
+    }
+
+    synchronized void cancel(Expiry expiry) {
+        expiry.map.expiries.remove(expiry);
+        this.unschedule(expiry);
+    }
+
+    // must hold the lock
+    private void unschedule(Expiry expiry) {
+        this.removeFromHeap(expiry);
+        if (expiry.reference == null)
+            return;
+
+        // unlink it from the values sharing the reference
+        final Expiry head = this.references.get(expiry.reference);
+        if (head == expiry) {
+            if (expiry.nextOfReference == null)
+                this.references.remove(expiry.reference);
+            else
+                this.references.put(expiry.reference, expiry.nextOfReference);
+            return;
+        }
+        for (Expiry previous = head; previous != null; previous = previous.nextOfReference) {
+            if (previous.nextOfReference == expiry) {
+                previous.nextOfReference = expiry.nextOfReference;
+                return;
+            }
+        }
+    }
+
+    private static long deadlineOf(TransientValue<?> value) {
+        if (!DATED.get(value.getClass()))
+            return System.currentTimeMillis() + POLL_INTERVAL_MILLIS;
+        return value.getExpireAt();
+    }
+
+    /**
+     * Check the values whose deadline passed or whose reference was cleared, removing the expired ones from their map.
+     *
+     * @param now the current time in millis
+     * @return the amount of checked values
+     */
+    int expire(long now) {
+        final List<Expiry> due = new ArrayList<>();
+        synchronized (this) {
+            while (this.heapSize > 0 && this.heap[0].deadline <= now) {
+                due.add(this.poll());
+            }
+
+            Reference<?> reference;
+            while ((reference = this.referenceQueue.poll()) != null) {
+                for (Expiry expiry = this.references.remove(reference); expiry != null; expiry = expiry.nextOfReference) {
+                    this.removeFromHeap(expiry);
+                    expiry.reference = null;
+                    due.add(expiry);
+                }
+            }
+
+            Reference<? extends IndexedMetadataMap> map;
+            while ((map = this.mapQueue.poll()) != null) {
+                for (Expiry expiry : ((MapReference) map).expiries) {
+                    this.unschedule(expiry);
+                }
+                ((MapReference) map).expiries.clear();
+            }
+        }
+
+        // the maps are called without holding the lock, as they schedule and cancel while holding theirs
+        for (Expiry expiry : due) {
+            final IndexedMetadataMap map = expiry.map.get();
+            if (map != null)
+                map.recheck(expiry);
+        }
+        return due.size();
+    }
+
+    synchronized int size() {
+        return this.heapSize;
+    }
+
+    private void offer(Expiry expiry) {
+        if (this.heapSize == this.heap.length)
+            this.heap = Arrays.copyOf(this.heap, this.heapSize << 1);
+
+        this.siftUp(this.heapSize++, expiry);
+    }
+
+    private Expiry poll() {
+        final Expiry first = this.heap[0];
+        this.removeAt(0);
+        return first;
+    }
+
+    private void removeFromHeap(Expiry expiry) {
+        if (expiry.heapIndex >= 0)
+            this.removeAt(expiry.heapIndex);
+    }
+
+    private void removeAt(int index) {
+        final Expiry removed = this.heap[index];
+        removed.heapIndex = -1;
+
+        final int last = --this.heapSize;
+        final Expiry moved = this.heap[last];
+        this.heap[last] = null;
+        if (index == last)
+            return;
+
+        this.siftDown(index, moved);
+        if (this.heap[index] == moved)
+            this.siftUp(index, moved);
+    }
+
+    private void siftUp(int index, Expiry expiry) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            final Expiry other = this.heap[parent];
+            if (expiry.deadline >= other.deadline)
+                break;
+
+            this.place(index, other);
+            index = parent;
+        }
+        this.place(index, expiry);
+    }
+
+    private void siftDown(int index, Expiry expiry) {
+        final int half = this.heapSize >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            final int right = child + 1;
+            if (right < this.heapSize && this.heap[right].deadline < this.heap[child].deadline)
+                child = right;
+            if (expiry.deadline <= this.heap[child].deadline)
+                break;
+
+            this.place(index, this.heap[child]);
+            index = child;
+        }
+        this.place(index, expiry);
+    }
+
+    private void place(int index, Expiry expiry) {
+        this.heap[index] = expiry;
+        expiry.heapIndex = index;
+    }
+
+    /**
+     * The weak reference to a map, with the values it scheduled.
+     */
+    static final class MapReference extends WeakReference<IndexedMetadataMap> {
+        // guarded by the lock of the expiry
+        private final Set<Expiry> expiries = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private MapReference(IndexedMetadataMap map, ReferenceQueue<IndexedMetadataMap> queue) {
+            super(map, queue);
+        }
+    }
+
+    /**
+     * A transient value held by a slot of a map, guarded by the lock of the expiry.
+     */
+    static final class Expiry {
+        private final MapReference map;
+        private final int index;
+        private final Object slot;
+        private final TransientValue<?> value;
+        private long deadline;
+        private int heapIndex = -1;
+        @Nullable
+        private Reference<?> reference;
+        @Nullable
+        private Expiry nextOfReference;
+
+        private Expiry(MapReference map, int index, Object slot, TransientValue<?> value) {
+            this.map = map;
+            this.index = index;
+            this.slot = slot;
+            this.value = value;
+        }
+
+        int index() {
+            return this.index;
+        }
+
+        Object slot() {
+            return this.slot;
+        }
+    }
+
+    /**
+     * A transient value backed by a reference registered with {@link #referenceQueue()}.
+     */
+    interface ReferenceValue {
+
+        Reference<?> reference();
+
+    }
+
+}
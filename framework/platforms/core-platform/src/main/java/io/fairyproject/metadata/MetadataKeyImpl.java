@@ -30,10 +30,16 @@ final class MetadataKeyImpl<T> implements MetadataKey<T> {
 
     private final String id;
     private final Class<T> type;
+    private final int index;
 
     MetadataKeyImpl(String id, Class<T> type) {
         this.id = id.toLowerCase();
         this.type = type;
+        this.index = IndexedMetadataMap.indexOf(this.id);
+    }
+
+    int getIndex() {
+        return this.index;
     }
 
     @Override
@@ -44,7 +44,7 @@ public interface MetadataMap {
 
     @NotNull
     static MetadataMap create() {
-        return new MetadataMapImpl();
+        return new IndexedMetadataMap();
     }
 
     /**
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Imanity
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.fairyproject.metadata;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.util.Objects;
+
+/**
+ * Represents a value which expires once its {@link ExpirySignal} is fired
+ *
+ * @param <T> the wrapped value type
+ */
+public class SignalledValue<T> implements TransientValue<T>, MetadataExpiry.ReferenceValue {
+
+    public static <T> SignalledValue<T> of(T value, ExpirySignal signal) {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(signal, "signal");
+        return new SignalledValue<>(value, signal);
+    }
+
+    private final T value;
+    private final ExpirySignal signal;
+
+    protected SignalledValue(T value, ExpirySignal signal) {
+        this.value = value;
+        this.signal = signal;
+    }
+
+    @Nullable
+    @Override
+    public T getOrNull() {
+        return this.shouldExpire() ? null : this.value;
+    }
+
+    @Override
+    public boolean shouldExpire() {
+        return this.signal.isFired();
+    }
+
+    @Override
+    public long getExpireAt() {
+        // expired through the reference queue, unless it was fired before the value was put
+        return this.signal.isFired() ? 0L : Long.MAX_VALUE;
+    }
+
+    @Override
+    public final Reference<?> reference() {
+        return this.signal.reference();
+    }
+
+}
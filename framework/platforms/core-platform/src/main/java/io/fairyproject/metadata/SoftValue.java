@@ -26,6 +26,7 @@ package io.fairyproject.metadata;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
 import java.util.Objects;
 import java.util.function.Supplier;
@@ -35,7 +36,7 @@ import java.util.function.Supplier;
  *
  * @param <T> the wrapped value type
  */
-public final class SoftValue<T> implements TransientValue<T> {
+public final class SoftValue<T> implements TransientValue<T>, MetadataExpiry.ReferenceValue {
 
     public static <T> SoftValue<T> of(T value) {
         Objects.requireNonNull(value, "value");
@@ -56,7 +57,7 @@ public final class SoftValue<T> implements TransientValue<T> {
     private final SoftReference<T> value;
 
     private SoftValue(T value) {
-        this.value = new SoftReference<>(value);
+        this.value = new SoftReference<>(value, MetadataExpiry.SHARED.referenceQueue());
     }
 
     @Nullable
@@ -70,4 +71,15 @@ public final class SoftValue<T> implements TransientValue<T> {
         return this.value.get() == null;
     }
 
+    @Override
+    public long getExpireAt() {
+        // expired through the reference queue
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public Reference<?> reference() {
+        return this.value;
+    }
+
 }
@@ -48,4 +48,17 @@ public interface TransientValue<T> {
      */
     boolean shouldExpire();
 
+    /**
+     * Returns the time in milliseconds from which this value may expire, which is when the map maintenance checks it.
+     *
+     * <p>A value that isn't expired by then is checked again at the time returned afterwards. Values that don't expire by
+     * time return {@link Long#MAX_VALUE}, values expiring on an event rather than by time should extend
+     * {@link SignalledValue}. Implementations that don't override this method are polled once a minute instead.</p>
+     *
+     * @return the time in milliseconds from which the value may expire
+     */
+    default long getExpireAt() {
+        return Long.MAX_VALUE;
+    }
+
 }
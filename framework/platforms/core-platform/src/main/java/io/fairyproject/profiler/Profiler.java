@@ -0,0 +1,124 @@
+package io.fairyproject.profiler;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The framework's built-in profiler, recording per-site latency histograms of listeners, scheduled tasks, ticks and repository calls.
+ * <p>
+ * It is disabled by default and only costs a volatile read per instrumented call while disabled,
+ * it can be enabled with the {@link #ENABLED_PROPERTY} system property or at runtime with {@link #setEnabled(boolean)}.
+ */
+@UtilityClass
+public class Profiler {
+
+    /**
+     * The system property enabling the profiler from startup.
+     */
+    public static final String ENABLED_PROPERTY = "fairy.profiler";
+
+    public static final String CATEGORY_BUKKIT_LISTENER = "bukkit-listener";
+    public static final String CATEGORY_EVENT_NODE = "event-node";
+    public static final String CATEGORY_SCHEDULER = "scheduler";
+    public static final String CATEGORY_TICK = "tick";
+    public static final String CATEGORY_REPOSITORY = "repository";
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final ConcurrentMap<String, ProfilerSite> SITES = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Profiler.enabled = enabled;
+    }
+
+    /**
+     * Start a sample for a site that is resolved lazily, pass the result to {@link ProfilerSite#stop(long)}.
+     *
+     * @return the start of the sample, or 0 if the profiler is disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Get or create the site of a category.
+     * Sites are meant to be resolved once and kept by the instrumented code rather than looked up on every call.
+     *
+     * @param category the category of the site
+     * @param name the name of the site
+     * @return the site
+     */
+    public static @NotNull ProfilerSite site(@NotNull String category, @NotNull String name) {
+        return SITES.computeIfAbsent(category + ':' + name, key -> new ProfilerSite(category, name));
+    }
+
+    /**
+     * Get or create the site named after a class, lambdas are attributed to the class declaring them.
+     *
+     * @param category the category of the site
+     * @param type the class
+     * @return the site
+     */
+    public static @NotNull ProfilerSite site(@NotNull String category, @NotNull Class<?> type) {
+        return site(category, nameOf(type));
+    }
+
+    /**
+     * @return every site registered so far
+     */
+    public static @NotNull Collection<ProfilerSite> sites() {
+        return Collections.unmodifiableCollection(SITES.values());
+    }
+
+    /**
+     * Take a snapshot of every site with at least one sample.
+     *
+     * @return the snapshot
+     */
+    public static @NotNull ProfilerSnapshot snapshot() {
+        final List<ProfilerSnapshot.Site> sites = new ArrayList<>();
+        for (ProfilerSite site : SITES.values()) {
+            if (site.count() == 0)
+                continue;
+            sites.add(site.snapshot());
+        }
+        sites.sort(Comparator.comparingLong(ProfilerSnapshot.Site::getTotalNanos).reversed());
+
+        return new ProfilerSnapshot(System.currentTimeMillis(), enabled, Collections.unmodifiableList(sites));
+    }
+
+    /**
+     * Clear the samples of every site, the sites stay registered.
+     */
+    public static void reset() {
+        for (ProfilerSite site : SITES.values()) {
+            site.reset();
+        }
+    }
+
+    /**
+     * Get the name sites use for a class, lambdas are attributed to the class declaring them
+     * so their sites stay the same across restarts.
+     *
+     * @param type the class
+     * @return the name
+     */
+    public static @NotNull String nameOf(@NotNull Class<?> type) {
+        final String name = type.getName();
+        final int lambda = name.indexOf("$$Lambda");
+        return lambda == -1 ? name : name.substring(0, lambda);
+    }
+
+}
@@ -0,0 +1,117 @@
+package io.fairyproject.profiler;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.fairyproject.log.Log;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.Scheduler;
+import io.fairyproject.util.terminable.Terminable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+/**
+ * Periodically writes a {@link ProfilerSnapshot} as json to a file, replacing the previous snapshot.
+ */
+public final class ProfilerExporter implements Terminable {
+
+    /**
+     * The system property holding the file to export snapshots to, no snapshot is exported if it isn't set.
+     */
+    public static final String FILE_PROPERTY = "fairy.profiler.export";
+    /**
+     * The system property holding the interval between two exports in seconds, 60 by default.
+     */
+    public static final String INTERVAL_PROPERTY = "fairy.profiler.export-interval";
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private final Path file;
+    private final ScheduledTask<?> task;
+    private volatile boolean closed;
+
+    private ProfilerExporter(Path file, Scheduler scheduler, Duration interval) {
+        this.file = file;
+        this.task = scheduler.scheduleAtFixedRate(this::export, interval, interval);
+    }
+
+    /**
+     * Start exporting snapshots.
+     *
+     * @param file the file to write the snapshots to
+     * @param scheduler the scheduler running the exports
+     * @param interval the interval between two exports
+     * @return the exporter, closing it stops the exports and writes a last snapshot
+     */
+    public static @NotNull ProfilerExporter start(@NotNull Path file, @NotNull Scheduler scheduler, @NotNull Duration interval) {
+        return new ProfilerExporter(file, scheduler, interval);
+    }
+
+    /**
+     * Start exporting snapshots as configured by {@link #FILE_PROPERTY} and {@link #INTERVAL_PROPERTY}.
+     *
+     * @param scheduler the scheduler running the exports
+     * @return the exporter, or null if no file is configured
+     */
+    public static @Nullable ProfilerExporter startFromProperties(@NotNull Scheduler scheduler) {
+        final String file = System.getProperty(FILE_PROPERTY);
+        if (file == null || file.isEmpty())
+            return null;
+
+        final long interval = Long.getLong(INTERVAL_PROPERTY, 60L);
+        return start(Paths.get(file), scheduler, Duration.ofSeconds(Math.max(1L, interval)));
+    }
+
+    /**
+     * Write the current snapshot to the file.
+     */
+    public void export() {
+        try {
+            write(this.file, Profiler.snapshot());
+        } catch (IOException ex) {
+            Log.error("Failed to export profiler snapshot to " + this.file, ex);
+        }
+    }
+
+    /**
+     * Write a snapshot to a file, the file is replaced at once so readers never see a partial snapshot.
+     *
+     * @param file the file
+     * @param snapshot the snapshot
+     * @throws IOException if the file couldn't be written
+     */
+    public static void write(@NotNull Path file, @NotNull ProfilerSnapshot snapshot) throws IOException {
+        final Path absolute = file.toAbsolutePath();
+        final Path parent = absolute.getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+
+        final Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            GSON.toJson(snapshot, writer);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() {
+        if (this.closed)
+            return;
+        this.closed = true;
+        this.task.cancel();
+        this.export();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return this.closed;
+    }
+}
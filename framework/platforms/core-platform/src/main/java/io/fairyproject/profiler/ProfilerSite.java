@@ -0,0 +1,163 @@
+package io.fairyproject.profiler;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A single instrumented call site, recording a latency histogram of every sample taken while the {@link Profiler} is enabled.
+ * <p>
+ * The histogram is log-linear: every power of two is split into {@link #SUB_BUCKETS} buckets, so a recorded value
+ * is reported within 12.5% of its actual duration. Recording is lock-free and the buckets are only allocated on the first sample.
+ */
+public final class ProfilerSite {
+
+    static final int SUB_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    @Getter
+    private final String category;
+    @Getter
+    private final String name;
+
+    private final AtomicReference<AtomicLongArray> buckets = new AtomicReference<>();
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    ProfilerSite(@NotNull String category, @NotNull String name) {
+        this.category = category;
+        this.name = name;
+    }
+
+    /**
+     * Start a sample.
+     *
+     * @return the start of the sample to pass to {@link #stop(long)}, or 0 if the profiler is disabled
+     */
+    public long start() {
+        return Profiler.start();
+    }
+
+    /**
+     * Stop a sample started by {@link #start()}, does nothing if the profiler was disabled when it started.
+     *
+     * @param start the value returned by {@link #start()}
+     */
+    public void stop(long start) {
+        if (start != 0L) {
+            this.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a sample regardless of the profiler state.
+     *
+     * @param nanos the duration of the sample in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0L)
+            nanos = 0L;
+
+        AtomicLongArray buckets = this.buckets.get();
+        if (buckets == null) {
+            this.buckets.compareAndSet(null, new AtomicLongArray(BUCKETS));
+            buckets = this.buckets.get();
+        }
+        buckets.incrementAndGet(bucketOf(nanos));
+        this.count.increment();
+        this.totalNanos.add(nanos);
+
+        long max = this.maxNanos.get();
+        while (nanos > max && !this.maxNanos.compareAndSet(max, nanos)) {
+            max = this.maxNanos.get();
+        }
+    }
+
+    /**
+     * Take a snapshot of the samples recorded so far.
+     * Samples recorded concurrently may or may not be included, but are never lost.
+     *
+     * @return the snapshot
+     */
+    public @NotNull ProfilerSnapshot.Site snapshot() {
+        final AtomicLongArray buckets = this.buckets.get();
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        if (buckets != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+        }
+        final long max = this.maxNanos.get();
+
+        return new ProfilerSnapshot.Site(
+                this.category,
+                this.name,
+                count,
+                this.totalNanos.sum(),
+                max,
+                percentile(counts, count, max, 0.5),
+                percentile(counts, count, max, 0.9),
+                percentile(counts, count, max, 0.99),
+                percentile(counts, count, max, 0.999)
+        );
+    }
+
+    /**
+     * Clear every sample recorded so far.
+     */
+    public void reset() {
+        this.buckets.set(null);
+        this.count.reset();
+        this.totalNanos.reset();
+        this.maxNanos.set(0L);
+    }
+
+    /**
+     * @return the number of samples recorded so far
+     */
+    public long count() {
+        return this.count.sum();
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int) nanos;
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        final int shift = exponent - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        final int shift = (bucket >>> SUB_BITS) - 1;
+        final long lower = (long) (SUB_BUCKETS + (bucket & (SUB_BUCKETS - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long count, long max, double percentile) {
+        if (count == 0)
+            return 0L;
+        final long rank = Math.max(1L, (long) Math.ceil(count * percentile));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(upperBoundOf(i), max);
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return this.category + ":" + this.name;
+    }
+}
@@ -0,0 +1,66 @@
+package io.fairyproject.profiler;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable view of the samples recorded by every {@link ProfilerSite}, ordered by total time spent, highest first.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class ProfilerSnapshot {
+
+    private final long takenAt;
+    private final boolean enabled;
+    private final List<Site> sites;
+
+    /**
+     * Find the snapshot of a site.
+     *
+     * @param category the category of the site
+     * @param name the name of the site
+     * @return the snapshot of the site, or null if it wasn't registered
+     */
+    public @Nullable Site get(@NotNull String category, @NotNull String name) {
+        for (Site site : this.sites) {
+            if (site.category.equals(category) && site.name.equals(name))
+                return site;
+        }
+        return null;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Site {
+
+        private final String category;
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long p50Nanos;
+        private final long p90Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+
+        public long getMeanNanos() {
+            return this.count == 0 ? 0L : this.totalNanos / this.count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s:%s count=%d total=%.3fms mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                    this.category, this.name, this.count,
+                    millis(this.totalNanos), millis(this.getMeanNanos()), millis(this.p50Nanos), millis(this.p99Nanos), millis(this.maxNanos));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
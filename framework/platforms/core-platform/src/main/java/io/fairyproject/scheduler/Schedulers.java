@@ -25,12 +25,18 @@
 package io.fairyproject.scheduler;
 
 import io.fairyproject.scheduler.executor.ExecutorScheduler;
+import io.fairyproject.scheduler.wheel.TimingWheelScheduler;
 
 /**
  * Default schedulers
  */
 public class Schedulers {
 
-    public static final Scheduler IO = new ExecutorScheduler(java.util.concurrent.Executors.defaultThreadFactory());
+    /**
+     * The IO scheduler, backed by a {@link TimingWheelScheduler} when {@link TimingWheelScheduler#ENABLED_PROPERTY} is set.
+     */
+    public static final Scheduler IO = TimingWheelScheduler.isEnabled()
+            ? new TimingWheelScheduler("Fairy IO")
+            : new ExecutorScheduler(java.util.concurrent.Executors.defaultThreadFactory());
 
 }
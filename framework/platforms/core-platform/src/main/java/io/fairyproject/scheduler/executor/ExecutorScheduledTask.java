@@ -24,7 +24,10 @@
 
 package io.fairyproject.scheduler.executor;
 
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
 import io.fairyproject.scheduler.ScheduledTask;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -41,6 +44,20 @@ public abstract class ExecutorScheduledTask<R> implements ScheduledTask<R>, Runn
     @Setter
     protected ScheduledFuture<?> scheduledFuture;
 
+    // what the caller handed to the scheduler, the profiler attributes the task to its class
+    @Getter(AccessLevel.NONE)
+    private final Object origin;
+    @Getter(AccessLevel.NONE)
+    private ProfilerSite profilerSite;
+
+    protected ExecutorScheduledTask() {
+        this.origin = this;
+    }
+
+    protected ExecutorScheduledTask(Object origin) {
+        this.origin = origin;
+    }
+
     @Override
     public synchronized void cancel() {
         if (!cancelled.compareAndSet(false, true))
@@ -53,4 +70,14 @@ public abstract class ExecutorScheduledTask<R> implements ScheduledTask<R>, Runn
         this.future.cancel(false);
     }
 
+    protected void stopProfiling(long start) {
+        if (start == 0L)
+            return;
+
+        ProfilerSite site = this.profilerSite;
+        if (site == null)
+            this.profilerSite = site = Profiler.site(Profiler.CATEGORY_SCHEDULER, this.origin.getClass());
+        site.stop(start);
+    }
+
 }
@@ -52,50 +52,44 @@ public class ExecutorScheduler implements Scheduler {
 
     @Override
     public ScheduledTask<?> schedule(Runnable runnable) {
-        return this.schedule(() -> {
+        return this.scheduleTask(() -> {
             runnable.run();
             return null;
-        });
+        }, runnable, 0L);
     }
 
     @Override
     public ScheduledTask<?> schedule(Runnable runnable, Duration delay) {
-        return this.schedule(() -> {
+        return this.scheduleTask(() -> {
             runnable.run();
             return null;
-        }, delay);
+        }, runnable, delay.toMillis());
     }
 
     @Override
     public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, Duration delay, Duration interval) {
-        return this.scheduleAtFixedRate(() -> {
+        return this.scheduleRepeatedTask(() -> {
             runnable.run();
             return TaskResponse.continueTask();
-        }, delay, interval);
+        }, runnable, delay, interval, RepeatPredicate.empty());
     }
 
     @Override
     public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, Duration delay, Duration interval, RepeatPredicate<?> predicate) {
-        return this.scheduleAtFixedRate(() -> {
+        return this.scheduleRepeatedTask(() -> {
             runnable.run();
             return TaskResponse.continueTask();
-        }, delay, interval, predicate);
+        }, runnable, delay, interval, predicate);
     }
 
     @Override
     public <R> ScheduledTask<R> schedule(Callable<R> callable) {
-        SingleExecutorScheduledTask<R> task = new SingleExecutorScheduledTask<>(callable);
-        task.setScheduledFuture(this.executorService.schedule(task, 0, TimeUnit.MILLISECONDS));
-
-        return task;
+        return this.scheduleTask(callable, callable, 0L);
     }
 
     @Override
     public <R> ScheduledTask<R> schedule(Callable<R> callable, Duration delay) {
-        SingleExecutorScheduledTask<R> task = new SingleExecutorScheduledTask<>(callable);
-        task.setScheduledFuture(this.executorService.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS));
-
-        return task;
+        return this.scheduleTask(callable, callable, delay.toMillis());
     }
 
     @Override
@@ -105,7 +99,19 @@ public class ExecutorScheduler implements Scheduler {
 
     @Override
     public <R> ScheduledTask<R> scheduleAtFixedRate(Callable<TaskResponse<R>> callback, Duration delay, Duration interval, RepeatPredicate<R> predicate) {
-        RepeatedExecutorScheduledTask<R> task = new RepeatedExecutorScheduledTask<>(callback, predicate);
+        return this.scheduleRepeatedTask(callback, callback, delay, interval, predicate);
+    }
+
+    // the origin is what the caller handed over, the profiler attributes the task to its class
+    private <R> ScheduledTask<R> scheduleTask(Callable<R> callable, Object origin, long delayMillis) {
+        SingleExecutorScheduledTask<R> task = new SingleExecutorScheduledTask<>(callable, origin);
+        task.setScheduledFuture(this.executorService.schedule(task, delayMillis, TimeUnit.MILLISECONDS));
+
+        return task;
+    }
+
+    private <R> ScheduledTask<R> scheduleRepeatedTask(Callable<TaskResponse<R>> callback, Object origin, Duration delay, Duration interval, RepeatPredicate<R> predicate) {
+        RepeatedExecutorScheduledTask<R> task = new RepeatedExecutorScheduledTask<>(callback, predicate, origin);
         task.setScheduledFuture(this.executorService.scheduleAtFixedRate(task, delay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS));
 
         return task;
@@ -24,6 +24,7 @@
 
 package io.fairyproject.scheduler.executor;
 
+import io.fairyproject.profiler.Profiler;
 import io.fairyproject.scheduler.repeat.RepeatPredicate;
 import io.fairyproject.scheduler.response.TaskResponse;
 
@@ -35,6 +36,11 @@ public class RepeatedExecutorScheduledTask<R> extends ExecutorScheduledTask<R> {
     private final RepeatPredicate<R> predicate;
 
     public RepeatedExecutorScheduledTask(Callable<TaskResponse<R>> callable, RepeatPredicate<R> predicate) {
+        this(callable, predicate, callable);
+    }
+
+    public RepeatedExecutorScheduledTask(Callable<TaskResponse<R>> callable, RepeatPredicate<R> predicate, Object origin) {
+        super(origin);
         this.callable = callable;
         this.predicate = predicate;
     }
@@ -44,6 +50,7 @@ public class RepeatedExecutorScheduledTask<R> extends ExecutorScheduledTask<R> {
         if (cancelled.get())
             return;
 
+        final long start = Profiler.start();
         try {
             TaskResponse<R> result = callable.call();
 
@@ -71,6 +78,8 @@ public class RepeatedExecutorScheduledTask<R> extends ExecutorScheduledTask<R> {
             }
         } catch (Exception e) {
             future.completeExceptionally(e);
+        } finally {
+            stopProfiling(start);
         }
     }
 
@@ -24,6 +24,8 @@
 
 package io.fairyproject.scheduler.executor;
 
+import io.fairyproject.profiler.Profiler;
+
 import java.util.concurrent.Callable;
 
 public class SingleExecutorScheduledTask<R> extends ExecutorScheduledTask<R> {
@@ -31,6 +33,11 @@ public class SingleExecutorScheduledTask<R> extends ExecutorScheduledTask<R> {
     private final Callable<R> callable;
 
     public SingleExecutorScheduledTask(Callable<R> callable) {
+        this(callable, callable);
+    }
+
+    public SingleExecutorScheduledTask(Callable<R> callable, Object origin) {
+        super(origin);
         this.callable = callable;
     }
 
@@ -39,12 +46,15 @@ public class SingleExecutorScheduledTask<R> extends ExecutorScheduledTask<R> {
         if (cancelled.get())
             return;
 
+        final long start = Profiler.start();
         try {
             R result = callable.call();
 
             future.complete(result);
         } catch (Exception e) {
             future.completeExceptionally(e);
+        } finally {
+            stopProfiling(start);
         }
     }
 
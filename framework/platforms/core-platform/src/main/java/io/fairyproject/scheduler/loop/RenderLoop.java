@@ -0,0 +1,203 @@
+package io.fairyproject.scheduler.loop;
+
+import io.fairyproject.log.Log;
+import io.fairyproject.util.ConditionUtils;
+import io.fairyproject.util.FairyThreadFactory;
+import io.fairyproject.util.terminable.Terminable;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A loop rendering something for each target, such as a sidebar for each player, on a bounded pool of workers.
+ * <p>
+ * Every {@link #tick()} the renderers due on that tick are queued to the shard of their target, a target always belongs to the
+ * same shard so it's never rendered by two workers at once. A renderer with an interval of n ticks renders a target every n ticks,
+ * and the targets are staggered across those ticks so they aren't all rendered on the same tick.
+ * <p>
+ * Each shard stops draining once it used up the budget of the tick, the renders left in its queue run on the next tick
+ * before anything else, and a render that is still queued isn't queued twice.
+ *
+ * @param <T> the target type
+ */
+public class RenderLoop<T> {
+
+    private final Supplier<? extends Iterable<T>> targets;
+    @Getter
+    private final Duration budget;
+    private final long budgetNanos;
+    private final Executor worker;
+    private final boolean ownsWorker;
+    private final Shard<T>[] shards;
+    private final Set<Renderer<T>> renderers = new CopyOnWriteArraySet<>();
+    @Getter
+    private volatile long tick;
+
+    public RenderLoop(@NotNull String name, @NotNull Supplier<? extends Iterable<T>> targets, int workers, @NotNull Duration budget) {
+        this(targets, workers, budget, createWorker(name, workers), true);
+    }
+
+    public RenderLoop(@NotNull Supplier<? extends Iterable<T>> targets, int workers, @NotNull Duration budget, @NotNull Executor worker) {
+        this(targets, workers, budget, worker, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RenderLoop(Supplier<? extends Iterable<T>> targets, int workers, Duration budget, Executor worker, boolean ownsWorker) {
+        ConditionUtils.is(workers > 0, "The amount of workers must be positive");
+        ConditionUtils.is(!budget.isNegative() && !budget.isZero(), "The budget must be positive");
+
+        this.targets = targets;
+        this.budget = budget;
+        this.budgetNanos = budget.toNanos();
+        this.worker = worker;
+        this.ownsWorker = ownsWorker;
+        this.shards = new Shard[workers];
+        for (int i = 0; i < workers; i++) {
+            this.shards[i] = new Shard<>();
+        }
+    }
+
+    /**
+     * Register a renderer.
+     *
+     * @param interval the interval in ticks between two renders of the same target
+     * @param renderer the renderer
+     * @return the terminable to unregister the renderer
+     */
+    public Terminable register(int interval, @NotNull Consumer<T> renderer) {
+        ConditionUtils.is(interval > 0, "The interval must be positive");
+
+        final Renderer<T> registered = new Renderer<>(interval, renderer);
+        this.renderers.add(registered);
+        return () -> this.renderers.remove(registered);
+    }
+
+    public boolean isEmpty() {
+        return this.renderers.isEmpty();
+    }
+
+    /**
+     * Get the amount of renders waiting for a worker.
+     *
+     * @return the amount
+     */
+    public int getBacklog() {
+        int backlog = 0;
+        for (Shard<T> shard : this.shards) {
+            backlog += shard.queue.size();
+        }
+        return backlog;
+    }
+
+    /**
+     * Queue the renders due on this tick and wake the shards up, doesn't wait for the renders to be done.
+     * Should always be called by the same thread, once per tick.
+     */
+    public void tick() {
+        final long tick = this.tick++;
+        if (this.renderers.isEmpty())
+            return;
+
+        for (T target : this.targets.get()) {
+            final int hash = mix(target.hashCode());
+            final Shard<T> shard = this.shards[(hash >>> 16) % this.shards.length];
+            for (Renderer<T> renderer : this.renderers) {
+                // staggered so only 1 / interval of the targets are rendered on a tick
+                if ((tick + (hash & 0xFFFF)) % renderer.interval != 0)
+                    continue;
+                if (renderer.queued.add(target))
+                    shard.queue.add(new Render<>(renderer, target));
+            }
+        }
+
+        for (Shard<T> shard : this.shards) {
+            if (shard.queue.isEmpty() || !shard.draining.compareAndSet(false, true))
+                continue;
+            this.worker.execute(() -> this.drain(shard));
+        }
+    }
+
+    /**
+     * Shut the worker down if it was created by this loop.
+     */
+    public void shutdown() {
+        this.renderers.clear();
+        if (this.ownsWorker) {
+            ((ExecutorService) this.worker).shutdown();
+        }
+    }
+
+    private void drain(Shard<T> shard) {
+        final long deadline = System.nanoTime() + this.budgetNanos;
+        try {
+            Render<T> render;
+            // whatever is left once the budget is used up stays queued for the next tick
+            while (System.nanoTime() - deadline < 0 && (render = shard.queue.poll()) != null) {
+                this.render(render);
+            }
+        } finally {
+            shard.draining.set(false);
+        }
+    }
+
+    private void render(Render<T> render) {
+        final Renderer<T> renderer = render.renderer;
+        renderer.queued.remove(render.target);
+        if (!this.renderers.contains(renderer))
+            return;
+
+        try {
+            renderer.consumer.accept(render.target);
+        } catch (Throwable throwable) {
+            Log.error("An error occurred while rendering " + render.target, throwable);
+        }
+    }
+
+    private static int mix(int hash) {
+        final int mixed = hash * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 15)) & Integer.MAX_VALUE;
+    }
+
+    private static ExecutorService createWorker(String name, int workers) {
+        return Executors.newFixedThreadPool(workers, FairyThreadFactory.builder()
+                .name(name + " - <id>")
+                .daemon(true)
+                .priority(Thread.NORM_PRIORITY)
+                .uncaughtExceptionHandler((thread, throwable) -> Log.error("Exception occurred in render loop", throwable))
+                .build());
+    }
+
+    private static final class Renderer<T> {
+        private final int interval;
+        private final Consumer<T> consumer;
+        private final Set<T> queued = ConcurrentHashMap.newKeySet();
+
+        private Renderer(int interval, Consumer<T> consumer) {
+            this.interval = interval;
+            this.consumer = consumer;
+        }
+    }
+
+    private static final class Render<T> {
+        private final Renderer<T> renderer;
+        private final T target;
+
+        private Render(Renderer<T> renderer, T target) {
+            this.renderer = renderer;
+            this.target = target;
+        }
+    }
+
+    private static final class Shard<T> {
+        private final Queue<Render<T>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+}
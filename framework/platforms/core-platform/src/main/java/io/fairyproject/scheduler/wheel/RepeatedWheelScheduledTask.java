@@ -0,0 +1,67 @@
+package io.fairyproject.scheduler.wheel;
+
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.scheduler.repeat.RepeatPredicate;
+import io.fairyproject.scheduler.response.TaskResponse;
+
+import java.util.concurrent.Callable;
+
+public class RepeatedWheelScheduledTask<R> extends WheelScheduledTask<R> {
+
+    private final Callable<TaskResponse<R>> callable;
+    private final RepeatPredicate<R> predicate;
+    private final long intervalNanos;
+
+    public RepeatedWheelScheduledTask(TimingWheelScheduler scheduler, Callable<TaskResponse<R>> callable, RepeatPredicate<R> predicate, long intervalNanos) {
+        this(scheduler, callable, predicate, intervalNanos, callable);
+    }
+
+    public RepeatedWheelScheduledTask(TimingWheelScheduler scheduler, Callable<TaskResponse<R>> callable, RepeatPredicate<R> predicate, long intervalNanos, Object origin) {
+        super(scheduler, origin);
+        this.callable = callable;
+        this.predicate = predicate;
+        this.intervalNanos = intervalNanos;
+    }
+
+    @Override
+    public void run() {
+        if (cancelled.get())
+            return;
+
+        final long start = Profiler.start();
+        try {
+            TaskResponse<R> result = callable.call();
+
+            switch (result.getState()) {
+                case SUCCESS:
+                    future.complete(result.getResult());
+                    return;
+                case FAILURE:
+                    if (result.getThrowable() != null) {
+                        future.completeExceptionally(result.getThrowable());
+                    } else {
+                        future.completeExceptionally(new IllegalStateException(result.getErrorMessage()));
+                    }
+                    return;
+                case CONTINUE:
+                    if (!predicate.shouldContinue(this)) {
+                        future.complete(predicate.getDefaultValue());
+                        return;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected value: " + result.getState());
+            }
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            return;
+        } finally {
+            stopProfiling(start);
+        }
+
+        // fixed rate, the next run is relative to the previous deadline rather than to now
+        this.deadline += this.intervalNanos;
+        this.scheduler.reschedule(this);
+    }
+
+}
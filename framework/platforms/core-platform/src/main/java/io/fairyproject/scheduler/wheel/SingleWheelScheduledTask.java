@@ -0,0 +1,37 @@
+package io.fairyproject.scheduler.wheel;
+
+import io.fairyproject.profiler.Profiler;
+
+import java.util.concurrent.Callable;
+
+public class SingleWheelScheduledTask<R> extends WheelScheduledTask<R> {
+
+    private final Callable<R> callable;
+
+    public SingleWheelScheduledTask(TimingWheelScheduler scheduler, Callable<R> callable) {
+        this(scheduler, callable, callable);
+    }
+
+    public SingleWheelScheduledTask(TimingWheelScheduler scheduler, Callable<R> callable, Object origin) {
+        super(scheduler, origin);
+        this.callable = callable;
+    }
+
+    @Override
+    public void run() {
+        if (cancelled.get())
+            return;
+
+        final long start = Profiler.start();
+        try {
+            R result = callable.call();
+
+            future.complete(result);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        } finally {
+            stopProfiling(start);
+        }
+    }
+
+}
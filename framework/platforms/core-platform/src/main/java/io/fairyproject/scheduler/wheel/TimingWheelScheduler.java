@@ -0,0 +1,383 @@
+package io.fairyproject.scheduler.wheel;
+
+import io.fairyproject.log.Log;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.Scheduler;
+import io.fairyproject.scheduler.repeat.RepeatPredicate;
+import io.fairyproject.scheduler.response.TaskResponse;
+import io.fairyproject.util.ConditionUtils;
+import io.fairyproject.util.FairyThreadFactory;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Scheduler} backed by a hashed timing wheel.
+ * <p>
+ * Scheduling and cancelling are O(1): a task is pushed to a lock-free queue and a single ticker thread moves it
+ * into the bucket of its deadline, every tick the ticker expires the current bucket and hands the due tasks to the
+ * worker executor in batches. Deadlines are rounded to the tick duration, 50 milliseconds by default to match a game tick.
+ * <p>
+ * Unlike {@link io.fairyproject.scheduler.executor.ExecutorScheduler} the tasks run on a pool, so two tasks may run at once.
+ */
+public class TimingWheelScheduler implements Scheduler {
+
+    /**
+     * Enables the timing wheel for {@link io.fairyproject.scheduler.Schedulers#IO} and the async minecraft scheduler.
+     */
+    public static final String ENABLED_PROPERTY = "fairy.scheduler.timing-wheel";
+    public static final String TICK_PROPERTY = "fairy.scheduler.timing-wheel.tick-millis";
+    public static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(Long.getLong(TICK_PROPERTY, 50L));
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final int BATCH_SIZE = 64;
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+    private static final ThreadLocal<TimingWheelScheduler> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final Duration tickDuration;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor worker;
+    private final boolean ownsWorker;
+    private final Thread ticker;
+    private final long startTime;
+    private final Queue<WheelScheduledTask<?>> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelScheduledTask<?>> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean shutdown;
+    // only accessed by the ticker thread
+    private long tick;
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    public TimingWheelScheduler(String name) {
+        this(name, DEFAULT_TICK_DURATION);
+    }
+
+    public TimingWheelScheduler(String name, Duration tickDuration) {
+        this(name, tickDuration, DEFAULT_WHEEL_SIZE, createWorker(name), true);
+    }
+
+    public TimingWheelScheduler(String name, Duration tickDuration, int wheelSize, Executor worker) {
+        this(name, tickDuration, wheelSize, worker, false);
+    }
+
+    private TimingWheelScheduler(String name, Duration tickDuration, int wheelSize, Executor worker, boolean ownsWorker) {
+        ConditionUtils.is(!tickDuration.isNegative() && !tickDuration.isZero(), "The tick duration must be positive");
+        ConditionUtils.is(wheelSize > 0, "The wheel size must be positive");
+
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.tickDuration = tickDuration;
+        this.tickNanos = tickDuration.toNanos();
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = worker;
+        this.ownsWorker = ownsWorker;
+        this.startTime = System.nanoTime();
+        this.ticker = FairyThreadFactory.builder()
+                .name(name + " Ticker")
+                .daemon(true)
+                .priority(Thread.NORM_PRIORITY)
+                .uncaughtExceptionHandler((thread, throwable) -> Log.error("Exception occurred in scheduler ticker", throwable))
+                .build()
+                .newThread(this::runTicker);
+    }
+
+    @Override
+    public boolean isCurrentThread() {
+        return CURRENT.get() == this;
+    }
+
+    @Override
+    public ScheduledTask<?> schedule(Runnable runnable) {
+        return this.scheduleTask(() -> {
+            runnable.run();
+            return null;
+        }, runnable, null);
+    }
+
+    @Override
+    public ScheduledTask<?> schedule(Runnable runnable, Duration delay) {
+        return this.scheduleTask(() -> {
+            runnable.run();
+            return null;
+        }, runnable, delay);
+    }
+
+    @Override
+    public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, Duration delay, Duration interval) {
+        return this.scheduleRepeatedTask(() -> {
+            runnable.run();
+            return TaskResponse.continueTask();
+        }, runnable, delay, interval, RepeatPredicate.empty());
+    }
+
+    @Override
+    public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, Duration delay, Duration interval, RepeatPredicate<?> predicate) {
+        return this.scheduleRepeatedTask(() -> {
+            runnable.run();
+            return TaskResponse.continueTask();
+        }, runnable, delay, interval, predicate);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> schedule(Callable<R> callable) {
+        return this.scheduleTask(callable, callable, null);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> schedule(Callable<R> callable, Duration delay) {
+        return this.scheduleTask(callable, callable, delay);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> scheduleAtFixedRate(Callable<TaskResponse<R>> callback, Duration delay, Duration interval) {
+        return this.scheduleAtFixedRate(callback, delay, interval, RepeatPredicate.empty());
+    }
+
+    @Override
+    public <R> ScheduledTask<R> scheduleAtFixedRate(Callable<TaskResponse<R>> callback, Duration delay, Duration interval, RepeatPredicate<R> predicate) {
+        return this.scheduleRepeatedTask(callback, callback, delay, interval, predicate);
+    }
+
+    // the origin is what the caller handed over, the profiler attributes the task to its class
+    private <R> ScheduledTask<R> scheduleTask(Callable<R> callable, Object origin, Duration delay) {
+        SingleWheelScheduledTask<R> task = new SingleWheelScheduledTask<>(this, callable, origin);
+        if (delay == null) {
+            if (!this.dispatch(task))
+                task.cancel();
+        } else {
+            this.enqueue(task, delay.toNanos());
+        }
+
+        return task;
+    }
+
+    private <R> ScheduledTask<R> scheduleRepeatedTask(Callable<TaskResponse<R>> callback, Object origin, Duration delay, Duration interval, RepeatPredicate<R> predicate) {
+        ConditionUtils.is(!interval.isNegative() && !interval.isZero(), "The interval must be positive");
+
+        RepeatedWheelScheduledTask<R> task = new RepeatedWheelScheduledTask<>(this, callback, predicate, interval.toNanos(), origin);
+        this.enqueue(task, delay.toNanos());
+
+        return task;
+    }
+
+    /**
+     * Stop the ticker, tasks that haven't been handed to the worker yet are cancelled, so their futures complete.
+     * The worker is shut down as well if it was created by this scheduler.
+     */
+    public void shutdown() {
+        this.shutdown = true;
+        LockSupport.unpark(this.ticker);
+        if (this.ownsWorker) {
+            ((ExecutorService) this.worker).shutdown();
+        }
+    }
+
+    private void enqueue(WheelScheduledTask<?> task, long delayNanos) {
+        task.deadline = System.nanoTime() - this.startTime + Math.max(0L, delayNanos);
+        this.pending.add(task);
+        if (!this.started.get() && this.started.compareAndSet(false, true)) {
+            this.ticker.start();
+        }
+        // the ticker may already have cancelled the remaining tasks
+        if (this.shutdown)
+            task.cancel();
+    }
+
+    void reschedule(WheelScheduledTask<?> task) {
+        this.pending.add(task);
+        if (this.shutdown)
+            task.cancel();
+    }
+
+    void cancelled(WheelScheduledTask<?> task) {
+        this.cancelled.add(task);
+    }
+
+    private void runTicker() {
+        while (!this.shutdown) {
+            this.waitForNextTick();
+            if (this.shutdown)
+                break;
+
+            this.transferPending();
+            this.removeCancelled();
+            this.expire(this.wheel[(int) (this.tick & this.mask)]);
+            this.tick++;
+        }
+        this.cancelRemaining();
+    }
+
+    private void cancelRemaining() {
+        WheelScheduledTask<?> task;
+        while ((task = this.pending.poll()) != null) {
+            task.cancel();
+        }
+        for (Bucket bucket : this.wheel) {
+            while ((task = bucket.head) != null) {
+                bucket.remove(task);
+                task.cancel();
+            }
+        }
+        this.cancelled.clear();
+    }
+
+    private void waitForNextTick() {
+        final long deadline = this.tickNanos * (this.tick + 1);
+        while (!this.shutdown) {
+            final long sleepNanos = deadline - (System.nanoTime() - this.startTime);
+            if (sleepNanos <= 0)
+                return;
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            final WheelScheduledTask<?> task = this.pending.poll();
+            if (task == null)
+                return;
+            if (task.isCancelled())
+                continue;
+
+            // a bucket is expired at the end of its tick, so flooring the deadline never runs a task early
+            final long ticks = task.deadline / this.tickNanos;
+            task.remainingRounds = (ticks - this.tick) / this.wheel.length;
+            this.wheel[(int) (Math.max(ticks, this.tick) & this.mask)].add(task);
+        }
+    }
+
+    private void removeCancelled() {
+        WheelScheduledTask<?> task;
+        while ((task = this.cancelled.poll()) != null) {
+            final Bucket bucket = task.bucket;
+            if (bucket != null) {
+                bucket.remove(task);
+            }
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        List<WheelScheduledTask<?>> expired = null;
+        WheelScheduledTask<?> task = bucket.head;
+        while (task != null) {
+            final WheelScheduledTask<?> next = task.next;
+            if (task.remainingRounds <= 0) {
+                bucket.remove(task);
+                if (!task.isCancelled()) {
+                    if (expired == null)
+                        expired = new ArrayList<>();
+                    expired.add(task);
+                }
+            } else {
+                task.remainingRounds--;
+            }
+            task = next;
+        }
+
+        if (expired == null)
+            return;
+        for (int from = 0; from < expired.size(); from += BATCH_SIZE) {
+            final List<WheelScheduledTask<?>> batch = expired.subList(from, Math.min(expired.size(), from + BATCH_SIZE));
+            final boolean dispatched = this.dispatch(() -> {
+                for (WheelScheduledTask<?> expiredTask : batch) {
+                    expiredTask.run();
+                }
+            });
+            if (!dispatched)
+                batch.forEach(WheelScheduledTask::cancel);
+        }
+    }
+
+    // false if the worker rejected the runnable because the scheduler is shut down
+    private boolean dispatch(Runnable runnable) {
+        try {
+            this.worker.execute(() -> {
+                CURRENT.set(this);
+                try {
+                    runnable.run();
+                } catch (Throwable throwable) {
+                    Log.error("An error occurred while executing a scheduled task", throwable);
+                } finally {
+                    CURRENT.remove();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            if (!this.shutdown)
+                throw ex;
+            return false;
+        }
+        return true;
+    }
+
+    private static ExecutorService createWorker(String name) {
+        final int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), FairyThreadFactory.builder()
+                .name(name + " Worker - <id>")
+                .daemon(true)
+                .priority(Thread.NORM_PRIORITY)
+                .uncaughtExceptionHandler((thread, throwable) -> Log.error("Exception occurred in scheduler thread", throwable))
+                .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * The tasks expiring on a slot of the wheel, as an intrusive doubly linked list so removal is O(1).
+     * Only accessed by the ticker thread.
+     */
+    static final class Bucket {
+
+        private WheelScheduledTask<?> head;
+        private WheelScheduledTask<?> tail;
+
+        void add(WheelScheduledTask<?> task) {
+            task.bucket = this;
+            task.prev = this.tail;
+            task.next = null;
+            if (this.tail == null) {
+                this.head = task;
+            } else {
+                this.tail.next = task;
+            }
+            this.tail = task;
+        }
+
+        void remove(WheelScheduledTask<?> task) {
+            final WheelScheduledTask<?> prev = task.prev;
+            final WheelScheduledTask<?> next = task.next;
+            if (prev == null) {
+                this.head = next;
+            } else {
+                prev.next = next;
+            }
+            if (next == null) {
+                this.tail = prev;
+            } else {
+                next.prev = prev;
+            }
+            task.prev = null;
+            task.next = null;
+            task.bucket = null;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package io.fairyproject.scheduler.wheel;
+
+import io.fairyproject.profiler.Profiler;
+import io.fairyproject.profiler.ProfilerSite;
+import io.fairyproject.scheduler.ScheduledTask;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public abstract class WheelScheduledTask<R> implements ScheduledTask<R>, Runnable {
+
+    @Getter
+    protected final CompletableFuture<R> future = new CompletableFuture<>();
+    protected final AtomicBoolean cancelled = new AtomicBoolean(false);
+    protected final TimingWheelScheduler scheduler;
+
+    // what the caller handed to the scheduler, the profiler attributes the task to its class
+    private final Object origin;
+    private ProfilerSite profilerSite;
+
+    // nanoseconds since the start of the scheduler
+    long deadline;
+    // the following fields are only accessed by the ticker thread
+    long remainingRounds;
+    WheelScheduledTask<?> prev;
+    WheelScheduledTask<?> next;
+    TimingWheelScheduler.Bucket bucket;
+
+    protected WheelScheduledTask(TimingWheelScheduler scheduler, Object origin) {
+        this.scheduler = scheduler;
+        this.origin = origin;
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled.get();
+    }
+
+    @Override
+    public void cancel() {
+        if (!this.cancelled.compareAndSet(false, true))
+            return;
+
+        this.future.cancel(false);
+        this.scheduler.cancelled(this);
+    }
+
+    protected void stopProfiling(long start) {
+        if (start == 0L)
+            return;
+
+        ProfilerSite site = this.profilerSite;
+        if (site == null)
+            this.profilerSite = site = Profiler.site(Profiler.CATEGORY_SCHEDULER, this.origin.getClass());
+        site.stop(start);
+    }
+
+}
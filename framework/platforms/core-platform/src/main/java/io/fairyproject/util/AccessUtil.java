@@ -26,7 +26,9 @@ package io.fairyproject.util;
 
 import io.fairyproject.log.Log;
 import io.fairyproject.reflect.wrapper.ReflectWrapper;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -138,4 +140,27 @@ public abstract class AccessUtil {
         return constructor;
     }
 
+    /**
+     * Get a lookup with private access to a class, classes generated through it are defined next to the class.
+     * On Java 8 it's only possible for public classes loaded by the same class loader as the framework,
+     * the returned lookup is then the framework's own one.
+     *
+     * @param type the class
+     * @return the lookup, or null if there is no way to get one
+     * @throws ReflectiveOperationException if the lookup couldn't be created
+     */
+    @Nullable
+    public static MethodHandles.Lookup privateLookupIn(Class<?> type) throws ReflectiveOperationException {
+        try {
+            // Java 9+
+            final Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, type, MethodHandles.lookup());
+        } catch (NoSuchMethodException e) {
+            if (Modifier.isPublic(type.getModifiers()) && type.getClassLoader() == AccessUtil.class.getClassLoader()) {
+                return MethodHandles.lookup();
+            }
+            return null;
+        }
+    }
+
 }
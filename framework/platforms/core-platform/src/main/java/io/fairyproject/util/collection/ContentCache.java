@@ -0,0 +1,80 @@
+package io.fairyproject.util.collection;
+
+import io.fairyproject.util.ConditionUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A bounded cache for values that are a pure function of their key, such as a component rendered for a locale,
+ * so the same content requested by many players is only computed once.
+ * <p>
+ * Entries are kept in two generations, once the young generation exceeds the maximum size it becomes the old generation
+ * and the previous old generation is dropped, an entry hit in the old generation is moved back to the young one.
+ * This keeps whatever is in use across ticks without tracking the recency of every entry.
+ * <p>
+ * Values can't be null. The value may be computed more than once by concurrent callers.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class ContentCache<K, V> {
+
+    private final int maxSize;
+    private final Object lock = new Object();
+    private volatile Map<K, V> young = new ConcurrentHashMap<>();
+    private volatile Map<K, V> old = new ConcurrentHashMap<>();
+
+    public ContentCache(int maxSize) {
+        ConditionUtils.is(maxSize > 0, "The max size must be positive");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the value of the key, computing it if it isn't cached.
+     *
+     * @param key    the key
+     * @param loader the function computing the value
+     * @return the value
+     */
+    public @NotNull V get(@NotNull K key, @NotNull Function<? super K, ? extends V> loader) {
+        final Map<K, V> young = this.young;
+        V value = young.get(key);
+        if (value != null)
+            return value;
+
+        value = this.old.get(key);
+        if (value == null)
+            value = loader.apply(key);
+
+        young.put(key, value);
+        if (young.size() > this.maxSize)
+            this.rotate(young);
+        return value;
+    }
+
+    public int size() {
+        return this.young.size() + this.old.size();
+    }
+
+    public void clear() {
+        synchronized (this.lock) {
+            this.young = new ConcurrentHashMap<>();
+            this.old = new ConcurrentHashMap<>();
+        }
+    }
+
+    private void rotate(Map<K, V> full) {
+        synchronized (this.lock) {
+            // another thread already rotated it
+            if (this.young != full)
+                return;
+
+            this.old = full;
+            this.young = new ConcurrentHashMap<>();
+        }
+    }
+
+}
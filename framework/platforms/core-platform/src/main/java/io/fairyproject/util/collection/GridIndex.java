@@ -0,0 +1,246 @@
+package io.fairyproject.util.collection;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * A spatial index bucketing values by the 2D grid cell they are located in, such as a chunk.
+ * <p>
+ * Every value has its own range in cells, a value is in range of a cell when the euclidean distance between the two cells
+ * is at most the range of the value. Queries only look at the cells around the queried cell, so their cost scales with
+ * the amount of values nearby rather than the amount of values in the index.
+ * <p>
+ * Mutations are serialized. Queries only hold a read lock while looking their cells up, the values are visited outside of it,
+ * so queries are weakly consistent and the consumers may mutate the index.
+ *
+ * @param <T> the value type
+ */
+public class GridIndex<T> {
+
+    private final ToIntFunction<T> rangeFunction;
+    // guarded by the lock, the sets themselves are concurrent
+    private final LongObjectMap<Set<T>> cells = new LongObjectMap<>();
+    private final Map<T, Long> locations = new ConcurrentHashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private volatile int maxRange;
+
+    /**
+     * @param rangeFunction the function to get the range of a value in cells, re-evaluated by every query
+     */
+    public GridIndex(@NotNull ToIntFunction<T> rangeFunction) {
+        this.rangeFunction = rangeFunction;
+    }
+
+    /**
+     * Put the value at the cell, or move it there if it's already in the index.
+     * Needs to be called again if the range of the value grows.
+     *
+     * @param value the value
+     * @param x     the x of the cell
+     * @param z     the z of the cell
+     */
+    public void put(@NotNull T value, int x, int z) {
+        final long key = key(x, z);
+        final long stamp = this.lock.writeLock();
+        try {
+            final Long previous = this.locations.put(value, key);
+            if (previous != null) {
+                if (previous == key) {
+                    this.updateMaxRange(value);
+                    return;
+                }
+                this.removeFromCell(previous, value);
+            }
+
+            Set<T> values = this.cells.get(key);
+            if (values == null) {
+                values = ConcurrentHashMap.newKeySet();
+                this.cells.put(key, values);
+            }
+            values.add(value);
+            this.updateMaxRange(value);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the value from the index.
+     *
+     * @param value the value
+     * @return true if the value was in the index
+     */
+    public boolean remove(@NotNull T value) {
+        final long stamp = this.lock.writeLock();
+        try {
+            final Long previous = this.locations.remove(value);
+            if (previous == null)
+                return false;
+
+            this.removeFromCell(previous, value);
+            return true;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean contains(@NotNull T value) {
+        return this.locations.containsKey(value);
+    }
+
+    public int size() {
+        return this.locations.size();
+    }
+
+    public boolean isEmpty() {
+        return this.locations.isEmpty();
+    }
+
+    /**
+     * Iterate every value in the index.
+     *
+     * @param consumer the consumer
+     */
+    public void forEach(@NotNull Consumer<T> consumer) {
+        this.locations.keySet().forEach(consumer);
+    }
+
+    /**
+     * Iterate the values that have the cell in range.
+     *
+     * @param x        the x of the cell
+     * @param z        the z of the cell
+     * @param consumer the consumer
+     */
+    public void forEachInRange(int x, int z, @NotNull Consumer<T> consumer) {
+        if (this.locations.isEmpty())
+            return;
+
+        final int range = this.maxRange;
+        final int side = (range << 1) + 1;
+        final Set<T>[] around = this.newCells(side);
+        final long stamp = this.lock.readLock();
+        try {
+            this.collect(x, z, range, around);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+
+        for (int i = 0; i < around.length; i++) {
+            final Set<T> values = around[i];
+            if (values == null)
+                continue;
+
+            final int dx = i / side - range;
+            final int dz = i % side - range;
+            for (T value : values) {
+                if (this.inRange(value, dx, dz))
+                    consumer.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Compute which values got in and out of range while moving from one cell to another.
+     * Only the cells around the two cells are visited, every value is visited once.
+     *
+     * @param fromX   the x of the previous cell
+     * @param fromZ   the z of the previous cell
+     * @param toX     the x of the current cell
+     * @param toZ     the z of the current cell
+     * @param entered the consumer of values that have the current cell but not the previous cell in range
+     * @param left    the consumer of values that have the previous cell but not the current cell in range
+     */
+    public void forEachTransition(int fromX, int fromZ, int toX, int toZ, @NotNull Consumer<T> entered, @NotNull Consumer<T> left) {
+        if (this.locations.isEmpty() || (fromX == toX && fromZ == toZ))
+            return;
+
+        final int range = this.maxRange;
+        final int side = (range << 1) + 1;
+        final Set<T>[] aroundFrom = this.newCells(side);
+        final Set<T>[] aroundTo = this.newCells(side);
+        final long stamp = this.lock.readLock();
+        try {
+            this.collect(fromX, fromZ, range, aroundFrom);
+            this.collect(toX, toZ, range, aroundTo);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+
+        for (int i = 0; i < aroundFrom.length; i++) {
+            this.transition(aroundFrom[i], fromX - range + i / side, fromZ - range + i % side, fromX, fromZ, toX, toZ, entered, left);
+        }
+
+        for (int i = 0; i < aroundTo.length; i++) {
+            final int cellX = toX - range + i / side;
+            final int cellZ = toZ - range + i % side;
+            // already visited as part of the previous neighbourhood
+            if (Math.abs(cellX - fromX) <= range && Math.abs(cellZ - fromZ) <= range)
+                continue;
+            this.transition(aroundTo[i], cellX, cellZ, fromX, fromZ, toX, toZ, entered, left);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<T>[] newCells(int side) {
+        return new Set[side * side];
+    }
+
+    // must hold the lock, the cells are laid out row by row along x
+    private void collect(int x, int z, int range, Set<T>[] into) {
+        final int side = (range << 1) + 1;
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                into[i * side + j] = this.cells.get(key(x - range + i, z - range + j));
+            }
+        }
+    }
+
+    private void transition(Set<T> values, int cellX, int cellZ, int fromX, int fromZ, int toX, int toZ, Consumer<T> entered, Consumer<T> left) {
+        if (values == null)
+            return;
+
+        for (T value : values) {
+            final boolean wasInRange = this.inRange(value, cellX - fromX, cellZ - fromZ);
+            final boolean isInRange = this.inRange(value, cellX - toX, cellZ - toZ);
+            if (isInRange && !wasInRange) {
+                entered.accept(value);
+            } else if (wasInRange && !isInRange) {
+                left.accept(value);
+            }
+        }
+    }
+
+    private boolean inRange(T value, int dx, int dz) {
+        final long range = this.rangeFunction.applyAsInt(value);
+        return (long) dx * dx + (long) dz * dz <= range * range;
+    }
+
+    private void updateMaxRange(T value) {
+        final int range = this.rangeFunction.applyAsInt(value);
+        if (range > this.maxRange)
+            this.maxRange = range;
+    }
+
+    // must hold the write lock
+    private void removeFromCell(long key, T value) {
+        final Set<T> values = this.cells.get(key);
+        if (values == null)
+            return;
+
+        values.remove(value);
+        if (values.isEmpty())
+            this.cells.remove(key);
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+}
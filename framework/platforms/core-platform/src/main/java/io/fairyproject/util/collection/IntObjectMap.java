@@ -0,0 +1,63 @@
+package io.fairyproject.util.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+
+/**
+ * An open addressing hash map with primitive int keys, so lookups neither box the key nor chase entry nodes.
+ * <p>
+ * The keys are widened into a {@link LongObjectMap}, which holds the probing and deletion logic.
+ * Values can't be null. This class isn't thread safe.
+ *
+ * @param <V> the value type
+ */
+public class IntObjectMap<V> {
+
+    private final LongObjectMap<V> map;
+
+    public IntObjectMap() {
+        this.map = new LongObjectMap<>();
+    }
+
+    public IntObjectMap(int expectedSize) {
+        this.map = new LongObjectMap<>(expectedSize);
+    }
+
+    @Nullable
+    public V get(int key) {
+        return this.map.get(key);
+    }
+
+    public boolean containsKey(int key) {
+        return this.map.containsKey(key);
+    }
+
+    @Nullable
+    public V put(int key, @NotNull V value) {
+        return this.map.put(key, value);
+    }
+
+    @Nullable
+    public V remove(int key) {
+        return this.map.remove(key);
+    }
+
+    public int size() {
+        return this.map.size();
+    }
+
+    public boolean isEmpty() {
+        return this.map.isEmpty();
+    }
+
+    public void clear() {
+        this.map.clear();
+    }
+
+    public void forEach(@NotNull BiConsumer<Integer, V> consumer) {
+        this.map.forEach((key, value) -> consumer.accept((int) key, value));
+    }
+
+}
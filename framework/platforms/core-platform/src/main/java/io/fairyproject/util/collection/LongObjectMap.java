@@ -0,0 +1,207 @@
+package io.fairyproject.util.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map with primitive long keys, such as packed block positions,
+ * so lookups neither box the key nor chase entry nodes.
+ * <p>
+ * Values can't be null. This class isn't thread safe.
+ *
+ * @param <V> the value type
+ */
+public class LongObjectMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        this.allocate(tableSizeFor(Math.max(expectedSize, 1)));
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        final long[] keys = this.keys;
+        final Object[] values = this.values;
+        final int mask = values.length - 1;
+        for (int index = hash(key) & mask; ; index = (index + 1) & mask) {
+            final Object value = values[index];
+            if (value == null)
+                return null;
+            if (keys[index] == key)
+                return (V) value;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return this.get(key) != null;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(long key, @NotNull V value) {
+        for (int index = hash(key) & this.mask; ; index = (index + 1) & this.mask) {
+            final Object current = this.values[index];
+            if (current == null) {
+                this.keys[index] = key;
+                this.values[index] = value;
+                if (++this.size > this.resizeThreshold)
+                    this.rehash(this.values.length << 1);
+                return null;
+            }
+            if (this.keys[index] == key) {
+                this.values[index] = value;
+                return (V) current;
+            }
+        }
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        for (int index = hash(key) & this.mask; ; index = (index + 1) & this.mask) {
+            final Object current = this.values[index];
+            if (current == null)
+                return null;
+            if (this.keys[index] == key) {
+                this.size--;
+                this.shiftBack(index);
+                return (V) current;
+            }
+        }
+    }
+
+    /**
+     * Remove every entry matching the predicate.
+     *
+     * @param predicate the predicate
+     * @return the amount of removed entries
+     */
+    @SuppressWarnings("unchecked")
+    public int removeIf(@NotNull EntryPredicate<? super V> predicate) {
+        long[] removed = null;
+        int amount = 0;
+        for (int i = 0; i < this.values.length; i++) {
+            final Object value = this.values[i];
+            if (value == null || !predicate.test(this.keys[i], (V) value))
+                continue;
+
+            // removing shifts entries back, so the keys are removed once the table was walked
+            if (removed == null)
+                removed = new long[Math.min(this.size, 16)];
+            else if (amount == removed.length)
+                removed = Arrays.copyOf(removed, amount << 1);
+            removed[amount++] = this.keys[i];
+        }
+
+        for (int i = 0; i < amount; i++) {
+            this.remove(removed[i]);
+        }
+        return amount;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.values, null);
+        this.size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(@NotNull EntryConsumer<? super V> consumer) {
+        for (int i = 0; i < this.values.length; i++) {
+            final Object value = this.values[i];
+            if (value != null)
+                consumer.accept(this.keys[i], (V) value);
+        }
+    }
+
+    // backward shift deletion, moves the following entries of the probe sequence into the freed slot so no tombstone is needed
+    private void shiftBack(int freed) {
+        int index = freed;
+        while (true) {
+            index = (index + 1) & this.mask;
+            final Object value = this.values[index];
+            if (value == null)
+                break;
+
+            final int ideal = hash(this.keys[index]) & this.mask;
+            // the entry can only move back if its ideal slot isn't between the freed slot and its current slot
+            if (((index - ideal) & this.mask) >= ((index - freed) & this.mask)) {
+                this.keys[freed] = this.keys[index];
+                this.values[freed] = value;
+                freed = index;
+            }
+        }
+        this.values[freed] = null;
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        this.allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            final Object value = oldValues[i];
+            if (value == null)
+                continue;
+
+            int index = hash(oldKeys[i]) & this.mask;
+            while (this.values[index] != null) {
+                index = (index + 1) & this.mask;
+            }
+            this.keys[index] = oldKeys[i];
+            this.values[index] = value;
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    @FunctionalInterface
+    public interface EntryPredicate<V> {
+        boolean test(long key, V value);
+    }
+
+}
@@ -0,0 +1,280 @@
+package io.fairyproject.util.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A spatial index of 2D rectangles, such as claims, answering which rectangles contain a point or intersect a box.
+ * <p>
+ * Rectangles are kept in a hierarchy of grids whose cell size doubles on every level, a rectangle is stored on the lowest level
+ * where it spans at most 2x2 cells. So a rectangle takes at most 4 entries whatever its size, and a query looks up a few cells
+ * on each level, the amount of levels growing with the logarithm of the largest rectangle.
+ * <p>
+ * Mutations are serialized, queries are lock-free and weakly consistent.
+ *
+ * @param <T> the value type
+ */
+public class RectangleIndex<T> {
+
+    private static final int MIN_SHIFT = 4;
+    private static final int LEVELS = 32 - MIN_SHIFT;
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Entry<T>[]>[] levels = new Map[LEVELS];
+    private final Map<T, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object lock = new Object();
+
+    public RectangleIndex() {
+        for (int i = 0; i < LEVELS; i++) {
+            this.levels[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Put the value with the rectangle, or move it there if it's already in the index.
+     * The bounds are inclusive and may be given in any order.
+     *
+     * @param value the value
+     * @param x1    the x of a corner
+     * @param z1    the z of a corner
+     * @param x2    the x of the opposite corner
+     * @param z2    the z of the opposite corner
+     */
+    public void put(@NotNull T value, int x1, int z1, int x2, int z2) {
+        synchronized (this.lock) {
+            final Entry<T> previous = this.entries.remove(value);
+            if (previous != null)
+                this.unlink(previous);
+
+            final Entry<T> entry = new Entry<>(value, Math.min(x1, x2), Math.min(z1, z2), Math.max(x1, x2), Math.max(z1, z2), this.sequence.incrementAndGet());
+            this.entries.put(value, entry);
+            this.link(entry);
+        }
+    }
+
+    public boolean remove(@NotNull T value) {
+        synchronized (this.lock) {
+            final Entry<T> entry = this.entries.remove(value);
+            if (entry == null)
+                return false;
+
+            this.unlink(entry);
+            return true;
+        }
+    }
+
+    public boolean contains(@NotNull T value) {
+        return this.entries.containsKey(value);
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    public void clear() {
+        synchronized (this.lock) {
+            this.entries.clear();
+            for (Map<Long, Entry<T>[]> level : this.levels) {
+                level.clear();
+            }
+        }
+    }
+
+    /**
+     * Get the value containing the point, the one put last if several contain it.
+     *
+     * @param x the x
+     * @param z the z
+     * @return the value, or null if none contains the point
+     */
+    @Nullable
+    public T get(int x, int z) {
+        Entry<T> found = null;
+        for (int level = 0; level < LEVELS; level++) {
+            final Map<Long, Entry<T>[]> cells = this.levels[level];
+            if (cells.isEmpty())
+                continue;
+
+            final int shift = MIN_SHIFT + level;
+            final Entry<T>[] cell = cells.get(key(x >> shift, z >> shift));
+            if (cell == null)
+                continue;
+
+            for (Entry<T> entry : cell) {
+                if (entry.contains(x, z) && (found == null || entry.sequence > found.sequence))
+                    found = entry;
+            }
+        }
+        return found != null ? found.value : null;
+    }
+
+    /**
+     * Get every value intersecting the box, each of them once, in no particular order.
+     * The bounds are inclusive.
+     *
+     * @param minX     the minimum x
+     * @param minZ     the minimum z
+     * @param maxX     the maximum x
+     * @param maxZ     the maximum z
+     * @param consumer the consumer
+     */
+    public void forEachIntersecting(int minX, int minZ, int maxX, int maxZ, @NotNull Consumer<? super T> consumer) {
+        for (int level = 0; level < LEVELS; level++) {
+            final Map<Long, Entry<T>[]> cells = this.levels[level];
+            if (cells.isEmpty())
+                continue;
+
+            final int shift = MIN_SHIFT + level;
+            final long width = (long) (maxX >> shift) - (minX >> shift) + 1;
+            final long height = (long) (maxZ >> shift) - (minZ >> shift) + 1;
+            if (width * height > cells.size()) {
+                // the box covers more cells than the level has
+                for (Map.Entry<Long, Entry<T>[]> cell : cells.entrySet()) {
+                    final long key = cell.getKey();
+                    this.accept(cell.getValue(), (int) (key >> 32), (int) key, shift, minX, minZ, maxX, maxZ, consumer);
+                }
+                continue;
+            }
+
+            for (int cellX = minX >> shift; cellX <= maxX >> shift; cellX++) {
+                for (int cellZ = minZ >> shift; cellZ <= maxZ >> shift; cellZ++) {
+                    final Entry<T>[] cell = cells.get(key(cellX, cellZ));
+                    if (cell != null)
+                        this.accept(cell, cellX, cellZ, shift, minX, minZ, maxX, maxZ, consumer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get every value intersecting the box, each of them once.
+     *
+     * @param minX the minimum x
+     * @param minZ the minimum z
+     * @param maxX the maximum x
+     * @param maxZ the maximum z
+     * @return the values
+     */
+    public List<T> getIntersecting(int minX, int minZ, int maxX, int maxZ) {
+        final List<T> values = new ArrayList<>();
+        this.forEachIntersecting(minX, minZ, maxX, maxZ, values::add);
+        return values;
+    }
+
+    private void accept(Entry<T>[] cell, int cellX, int cellZ, int shift, int minX, int minZ, int maxX, int maxZ, Consumer<? super T> consumer) {
+        for (Entry<T> entry : cell) {
+            if (!entry.intersects(minX, minZ, maxX, maxZ))
+                continue;
+
+            // an entry is in up to 4 cells, only the cell holding the corner of the intersection reports it
+            if (Math.max(entry.minX, minX) >> shift != cellX || Math.max(entry.minZ, minZ) >> shift != cellZ)
+                continue;
+            consumer.accept(entry.value);
+        }
+    }
+
+    private void link(Entry<T> entry) {
+        final int level = level(entry);
+        final int shift = MIN_SHIFT + level;
+        final Map<Long, Entry<T>[]> cells = this.levels[level];
+        for (int cellX = entry.minX >> shift; cellX <= entry.maxX >> shift; cellX++) {
+            for (int cellZ = entry.minZ >> shift; cellZ <= entry.maxZ >> shift; cellZ++) {
+                cells.compute(key(cellX, cellZ), (key, cell) -> append(cell, entry));
+            }
+        }
+    }
+
+    private void unlink(Entry<T> entry) {
+        final int level = level(entry);
+        final int shift = MIN_SHIFT + level;
+        final Map<Long, Entry<T>[]> cells = this.levels[level];
+        for (int cellX = entry.minX >> shift; cellX <= entry.maxX >> shift; cellX++) {
+            for (int cellZ = entry.minZ >> shift; cellZ <= entry.maxZ >> shift; cellZ++) {
+                cells.computeIfPresent(key(cellX, cellZ), (key, cell) -> without(cell, entry));
+            }
+        }
+    }
+
+    private static int level(Entry<?> entry) {
+        int level = 0;
+        while (level < LEVELS - 1) {
+            final int shift = MIN_SHIFT + level;
+            if ((entry.maxX >> shift) - (entry.minX >> shift) <= 1 && (entry.maxZ >> shift) - (entry.minZ >> shift) <= 1)
+                break;
+            level++;
+        }
+        return level;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] append(@Nullable Entry<T>[] cell, Entry<T> entry) {
+        if (cell == null)
+            return new Entry[]{entry};
+
+        final Entry<T>[] copy = new Entry[cell.length + 1];
+        System.arraycopy(cell, 0, copy, 0, cell.length);
+        copy[cell.length] = entry;
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private static <T> Entry<T>[] without(Entry<T>[] cell, Entry<T> entry) {
+        if (cell.length == 1)
+            return cell[0] == entry ? null : cell;
+
+        final Entry<T>[] copy = new Entry[cell.length - 1];
+        int index = 0;
+        for (Entry<T> other : cell) {
+            if (other == entry)
+                continue;
+            if (index == copy.length)
+                return cell;
+            copy[index++] = other;
+        }
+        return copy;
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+        private final long sequence;
+
+        private Entry(T value, int minX, int minZ, int maxX, int maxZ, long sequence) {
+            this.value = value;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+            this.sequence = sequence;
+        }
+
+        private boolean contains(int x, int z) {
+            return x >= this.minX && x <= this.maxX && z >= this.minZ && z <= this.maxZ;
+        }
+
+        private boolean intersects(int minX, int minZ, int maxX, int maxZ) {
+            return this.minX <= maxX && this.maxX >= minX && this.minZ <= maxZ && this.maxZ >= minZ;
+        }
+    }
+
+}
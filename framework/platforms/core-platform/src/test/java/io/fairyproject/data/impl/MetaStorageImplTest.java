@@ -67,6 +67,87 @@ class MetaStorageImplTest {
         assertSame(123, metaStorage.getOrNull(testKey), "Storage should return the reference previously put in");
     }
 
+    @Test
+    void primitiveValuesAreSharedWithBoxedAccess() {
+        MetaKey<Long> longKey = MetaKey.createLong("testLong");
+        MetaKey<Double> doubleKey = MetaKey.createDouble("testDouble");
+        MetaKey<Boolean> booleanKey = MetaKey.createBoolean("testBoolean");
+
+        assertEquals(-1, metaStorage.getInt(testKey, -1), "Storage should return the default for non-existing key");
+        metaStorage.setInt(testKey, 5);
+        assertEquals(5, metaStorage.getOrNull(testKey), "Boxed access should see the primitive value");
+        metaStorage.put(testKey, 7);
+        assertEquals(7, metaStorage.getInt(testKey, -1), "Primitive access should see the boxed value");
+        assertEquals(10, metaStorage.incrementInt(testKey, 3));
+
+        assertEquals(4L, metaStorage.incrementLong(longKey, 4L), "A missing value should count as 0");
+        assertFalse(metaStorage.compareAndSetLong(longKey, 3L, 8L));
+        assertTrue(metaStorage.compareAndSetLong(longKey, 4L, 8L));
+        assertEquals(8L, metaStorage.getOrNull(longKey));
+
+        metaStorage.setDouble(doubleKey, 1.5D);
+        assertEquals(3.75D, metaStorage.addDouble(doubleKey, 2.25D));
+        metaStorage.setBoolean(booleanKey, true);
+        assertTrue(metaStorage.getOrNull(booleanKey));
+
+        assertTrue(metaStorage.remove(testKey));
+        assertFalse(metaStorage.contains(testKey));
+        assertEquals(1, metaStorage.incrementInt(testKey, 1), "A removed value should count as 0");
+
+        metaStorage.clear();
+        assertEquals(0L, metaStorage.getLong(longKey, 0L));
+        assertFalse(metaStorage.getBoolean(booleanKey, false));
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws InterruptedException {
+        MetaKey<Long> counterKey = MetaKey.createLong("counter");
+        int numberOfThreads = 8;
+        CountDownLatch endGate = new CountDownLatch(numberOfThreads);
+
+        for (int i = 0; i < numberOfThreads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    metaStorage.incrementLong(counterKey, 1L);
+                }
+                endGate.countDown();
+            }).start();
+        }
+
+        endGate.await();
+        assertEquals(numberOfThreads * 10_000L, metaStorage.getLong(counterKey, 0L));
+    }
+
+    @Test
+    void removalsDoNotLoseConcurrentWrites() throws InterruptedException {
+        MetaKey<Long> valueKey = MetaKey.createLong("value");
+        int writers = 4;
+        AtomicReference<String> testFailed = new AtomicReference<>(null);
+        CountDownLatch endGate = new CountDownLatch(writers * 2);
+
+        // 0 is never written, a removal racing with a write must not leave it present
+        for (int i = 0; i < writers; i++) {
+            new Thread(() -> {
+                for (long j = 1; j <= 200_000; j++) {
+                    metaStorage.setLong(valueKey, j);
+                    if (metaStorage.getLong(valueKey, -1L) == 0L)
+                        testFailed.set("A removal cleared a value after it was written");
+                }
+                endGate.countDown();
+            }).start();
+            new Thread(() -> {
+                for (int j = 0; j < 200_000; j++) {
+                    metaStorage.remove(valueKey);
+                }
+                endGate.countDown();
+            }).start();
+        }
+
+        endGate.await();
+        String failMessage = testFailed.get();
+        assertNull(failMessage, failMessage);
+    }
+
     @Test
     void testConcurrentAccess() throws InterruptedException {
         for (int k = 0; k < 10; k++) {
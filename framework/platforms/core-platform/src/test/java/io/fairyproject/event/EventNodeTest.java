@@ -31,6 +31,8 @@ import io.fairyproject.event.EventNode;
 import lombok.var;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -134,4 +136,108 @@ public class EventNodeTest {
         assertTrue(node.getChildren().isEmpty(), "The node should have no child left");
         assertEquals(0, result.get(), "The event should not be called after the removal");
     }
+
+    public static class SubscribeTest {
+        private final AtomicInteger result;
+
+        public SubscribeTest(AtomicInteger result) {
+            this.result = result;
+        }
+
+        @Subscribe
+        public void onEvent(EventTest event) {
+            assertEquals(1, result.get(), "subscribed listener should be called after child1");
+            result.set(2);
+        }
+    }
+
+    @Test
+    public void testCompiledDispatch() {
+        EventNodeImpl.setDispatchMode(EventDispatchMode.COMPILED);
+        try {
+            var node = EventNode.all("main");
+            AtomicInteger result = new AtomicInteger(0);
+            AtomicBoolean filtered = new AtomicBoolean(false);
+            var child1 = EventNode.all("child1").setPriority(1)
+                    .addListener(EventTest.class, eventTest -> {
+                        assertEquals(0, result.get(), "child1 should be called before the subscribed listener");
+                        result.set(1);
+                    });
+            var subscribed = EventSubscribeRegistry.create(new SubscribeTest(result));
+            assertNotNull(subscribed);
+            subscribed.setPriority(2);
+            var rejected = EventNode.create("rejected", EventFilter.ALL, (event, handler) -> false)
+                    .addListener(EventTest.class, eventTest -> filtered.set(true));
+            node.addChild(child1);
+            node.addChild(subscribed);
+            node.addChild(rejected);
+            node.call(new EventTest());
+            assertEquals(2, result.get(), "Every child should be called in priority order");
+            assertFalse(filtered.get(), "The predicate of a child should still apply");
+
+            // Changes to a child should rebuild the flattened parent
+            result.set(0);
+            node.removeChild(subscribed);
+            node.call(new EventTest());
+            assertEquals(1, result.get(), "The subscribed listener should has been removed");
+        } finally {
+            EventNodeImpl.setDispatchMode(EventDispatchMode.NESTED);
+        }
+    }
+
+    @Test
+    public void testConcurrentChildren() throws InterruptedException {
+        var node = EventNode.all("main");
+        AtomicInteger stable = new AtomicInteger(0);
+        node.addChild(EventNode.all("stable").addListener(EventTest.class, eventTest -> stable.incrementAndGet()));
+
+        int threads = 4;
+        int iterations = 2000;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < iterations; j++) {
+                    var child = EventNode.all("churn").addListener(EventTest.class, eventTest -> {});
+                    node.addChild(child);
+                    node.call(new EventTest());
+                    node.removeChild(child);
+                }
+                done.countDown();
+            }).start();
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS), "The churning threads should finish");
+
+        assertEquals(1, node.getChildren().size(), "Only the stable child should remain");
+        assertEquals(threads * iterations, stable.get(), "Every call should reach the stable child");
+        node.call(new EventTest());
+        assertEquals(threads * iterations + 1, stable.get(), "The handle should be rebuilt after the churn");
+    }
+
+    @Test
+    public void testConcurrentRebuild() throws InterruptedException {
+        var node = EventNode.all("main");
+        var handle = node.getHandle(EventTest.class);
+        assertFalse(handle.hasListener());
+
+        AtomicInteger calls = new AtomicInteger(0);
+        node.addChild(EventNode.all("child").addListener(EventTest.class, eventTest -> calls.incrementAndGet()));
+
+        // every caller finds the handle outdated at once, each of them must see the new listener
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    handle.call(new EventTest());
+                } catch (InterruptedException ignored) {
+                }
+                done.countDown();
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS), "The calling threads should finish");
+        assertEquals(threads, calls.get(), "Every call should reach the new listener");
+    }
 }
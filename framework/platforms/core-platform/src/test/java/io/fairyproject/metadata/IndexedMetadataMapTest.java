@@ -0,0 +1,118 @@
+package io.fairyproject.metadata;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedMetadataMapTest {
+
+    private static final MetadataKey<Integer> INT_KEY = MetadataKey.createIntegerKey("indexed-test-int");
+    private static final MetadataKey<String> STRING_KEY = MetadataKey.createStringKey("indexed-test-string");
+
+    @Test
+    void putGetRemove() {
+        MetadataMap map = MetadataMap.create();
+        assertTrue(map.isEmpty());
+        assertFalse(map.get(INT_KEY).isPresent());
+
+        map.put(INT_KEY, 1);
+        map.put(STRING_KEY, "a");
+        assertEquals(1, map.getOrNull(INT_KEY));
+        assertEquals("a", map.getOrNull(STRING_KEY));
+        assertTrue(map.has(INT_KEY));
+        assertEquals(2, map.asMap().size());
+
+        assertTrue(map.remove(INT_KEY));
+        assertFalse(map.remove(INT_KEY));
+        assertNull(map.getOrNull(INT_KEY));
+        assertFalse(map.isEmpty());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.getOrNull(STRING_KEY));
+    }
+
+    @Test
+    void keysWithSameIdShareSlot() {
+        MetadataMap map = MetadataMap.create();
+        MetadataKey<String> conflicting = MetadataKey.createStringKey("INDEXED-TEST-INT");
+
+        map.put(INT_KEY, 1);
+        assertThrows(ClassCastException.class, () -> map.put(conflicting, "a"));
+        assertThrows(ClassCastException.class, () -> map.get(conflicting));
+        assertFalse(map.has(conflicting));
+        assertEquals(1, map.getOrNull(MetadataKey.createIntegerKey("Indexed-Test-Int")));
+
+        map.forcePut(conflicting, "a");
+        assertEquals("a", map.getOrNull(conflicting));
+    }
+
+    @Test
+    void expiredTransientValuesAreAbsent() {
+        MetadataMap map = MetadataMap.create();
+        Transient<Integer> value = new Transient<>(1);
+
+        map.put(INT_KEY, value);
+        assertEquals(1, map.getOrNull(INT_KEY));
+        assertFalse(map.putIfAbsent(INT_KEY, 2));
+        assertFalse(map.isEmpty());
+
+        value.expired = true;
+        assertFalse(map.has(INT_KEY));
+        assertTrue(map.isEmpty());
+
+        map.put(INT_KEY, new Transient<>(3));
+        assertEquals(3, map.getOrPut(INT_KEY, () -> 4));
+        map.put(STRING_KEY, "a");
+        ((Transient<?>) map.asMap().get(INT_KEY)).expired = true;
+        assertFalse(map.isEmpty());
+        map.cleanup();
+        assertEquals(1, map.asMap().size());
+        assertTrue(map.putIfAbsent(INT_KEY, 5));
+    }
+
+    @Test
+    void getOrPutSuppliesOnce() throws InterruptedException {
+        MetadataMap map = MetadataMap.create();
+        AtomicInteger supplied = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(8);
+
+        for (int i = 0; i < 8; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    map.getOrPut(INT_KEY, supplied::incrementAndGet);
+                }
+                latch.countDown();
+            }).start();
+        }
+
+        latch.await();
+        assertEquals(1, supplied.get());
+        assertEquals(1, map.getOrNull(INT_KEY));
+    }
+
+    private static final class Transient<T> implements TransientValue<T> {
+        private final T value;
+        private volatile boolean expired;
+
+        private Transient(T value) {
+            this.value = value;
+        }
+
+        @Nullable
+        @Override
+        public T getOrNull() {
+            return this.expired ? null : this.value;
+        }
+
+        @Override
+        public boolean shouldExpire() {
+            return this.expired;
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package io.fairyproject.metadata;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetadataExpiryTest {
+
+    private static final MetadataKey<Integer> INT_KEY = MetadataKey.createIntegerKey("expiry-test-int");
+    private static final MetadataKey<Integer> OTHER_INT_KEY = MetadataKey.createIntegerKey("expiry-test-other-int");
+    private static final MetadataKey<String> STRING_KEY = MetadataKey.createStringKey("expiry-test-string");
+
+    @Test
+    void onlyDueValuesAreChecked() {
+        MetadataExpiry expiry = new MetadataExpiry();
+        List<Deadline> values = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            Deadline value = new Deadline(random.nextInt(10_000));
+            values.add(value);
+            new IndexedMetadataMap(expiry, null).put(INT_KEY, value);
+        }
+
+        assertEquals(1_000, expiry.size());
+        for (long now = 0; now <= 10_000; now += 1_000) {
+            int due = 0;
+            for (Deadline value : values) {
+                value.expired = value.expireAt <= now;
+                if (value.expired && value.checks == 0)
+                    due++;
+            }
+
+            assertEquals(due, expiry.expire(now));
+            for (Deadline value : values) {
+                assertEquals(value.expireAt <= now ? 1 : 0, value.checks);
+            }
+        }
+        assertEquals(0, expiry.size());
+    }
+
+    @Test
+    void valuesNotExpiredWhenDueAreRescheduled() {
+        MetadataExpiry expiry = new MetadataExpiry();
+        IndexedMetadataMap map = new IndexedMetadataMap(expiry, null);
+        Deadline value = new Deadline(100);
+        map.put(INT_KEY, value);
+
+        // accessed meanwhile, like an ExpireAfterAccessValue
+        value.expireAt = 200;
+        assertEquals(1, expiry.expire(150));
+        assertEquals(1, map.getOrNull(INT_KEY));
+        assertEquals(0, expiry.expire(150));
+
+        value.expired = true;
+        assertEquals(1, expiry.expire(200));
+        assertTrue(map.asMap().isEmpty());
+        assertEquals(0, expiry.size());
+    }
+
+    @Test
+    void replacedAndRemovedValuesAreUnscheduled() {
+        MetadataExpiry expiry = new MetadataExpiry();
+        IndexedMetadataMap map = new IndexedMetadataMap(expiry, null);
+
+        map.put(INT_KEY, new Deadline(100));
+        map.put(INT_KEY, new Deadline(200));
+        map.put(OTHER_INT_KEY, new Deadline(300));
+        assertEquals(2, expiry.size());
+
+        map.put(INT_KEY, 1);
+        assertEquals(1, expiry.size());
+        map.remove(OTHER_INT_KEY);
+        assertEquals(0, expiry.size());
+
+        map.put(OTHER_INT_KEY, new Deadline(300));
+        map.clear();
+        assertEquals(0, expiry.size());
+    }
+
+    @Test
+    void clearedReferencesAreExpired() {
+        IndexedMetadataMap map = new IndexedMetadataMap();
+        String value = new String("value");
+        WeakValue<String> weakValue = WeakValue.of(value);
+        map.put(STRING_KEY, weakValue);
+        assertEquals("value", map.getOrNull(STRING_KEY));
+
+        weakValue.reference().clear();
+        weakValue.reference().enqueue();
+        MetadataExpiry.SHARED.expire(System.currentTimeMillis());
+        assertTrue(map.asMap().isEmpty());
+    }
+
+    @Test
+    void signalledValuesAreOnlyCheckedOnceFired() {
+        IndexedMetadataMap map = new IndexedMetadataMap();
+        ExpirySignal signal = new ExpirySignal();
+        map.put(STRING_KEY, SignalledValue.of("value", signal));
+        map.put(INT_KEY, SignalledValue.of(1, signal));
+
+        MetadataExpiry.SHARED.expire(System.currentTimeMillis());
+        assertEquals("value", map.getOrNull(STRING_KEY));
+
+        signal.fire();
+        MetadataExpiry.SHARED.expire(System.currentTimeMillis());
+        assertTrue(map.asMap().isEmpty());
+
+        // put after the signal was fired
+        map.put(STRING_KEY, SignalledValue.of("value", signal));
+        MetadataExpiry.SHARED.expire(System.currentTimeMillis());
+        assertTrue(map.asMap().isEmpty());
+    }
+
+    @Test
+    void collectedMapsAreUnscheduled() {
+        MetadataExpiry expiry = new MetadataExpiry();
+        MetadataExpiry.MapReference reference = expiry.track(new IndexedMetadataMap(expiry, null));
+        expiry.schedule(reference, 0, new Object(), new Deadline(Long.MAX_VALUE - 1));
+        assertEquals(1, expiry.size());
+
+        // what the garbage collector does once the map is unreachable
+        reference.clear();
+        reference.enqueue();
+        expiry.expire(0L);
+        assertEquals(0, expiry.size());
+    }
+
+    @Test
+    void valuesWithoutDeadlineArePolled() {
+        MetadataExpiry expiry = new MetadataExpiry();
+        IndexedMetadataMap map = new IndexedMetadataMap(expiry, null);
+        Undated value = new Undated();
+        map.put(INT_KEY, value);
+        assertEquals(1, expiry.size());
+
+        value.expired = true;
+        long now = System.currentTimeMillis();
+        assertEquals(0, expiry.expire(now));
+        assertEquals(1, expiry.expire(now + MetadataExpiry.POLL_INTERVAL_MILLIS + 1_000L));
+        assertTrue(map.asMap().isEmpty());
+    }
+
+    @Test
+    void registryDropsEmptiedMaps() {
+        AbstractMetadataRegistry<UUID> registry = new AbstractMetadataRegistry<>();
+        UUID expiring = UUID.randomUUID();
+        UUID persistent = UUID.randomUUID();
+        UUID unused = UUID.randomUUID();
+
+        registry.provide(expiring).put(INT_KEY, ExpiringValue.of(1, 1, TimeUnit.HOURS));
+        registry.provide(persistent).put(INT_KEY, 1);
+        registry.provide(unused);
+        registry.cleanup();
+
+        assertFalse(registry.get(unused).isPresent());
+        assertTrue(registry.get(persistent).isPresent());
+        assertTrue(registry.get(expiring).isPresent());
+
+        Deadline value = new Deadline(0);
+        value.expired = true;
+        registry.provide(expiring).put(INT_KEY, value);
+        registry.cleanup();
+        assertFalse(registry.get(expiring).isPresent());
+
+        registry.provide(persistent).remove(INT_KEY);
+        registry.cleanup();
+        assertFalse(registry.get(persistent).isPresent());
+    }
+
+    private static final class Deadline implements TransientValue<Integer> {
+        private volatile long expireAt;
+        private volatile boolean expired;
+        private int checks;
+
+        private Deadline(long expireAt) {
+            this.expireAt = expireAt;
+        }
+
+        @Nullable
+        @Override
+        public Integer getOrNull() {
+            return this.expired ? null : 1;
+        }
+
+        @Override
+        public boolean shouldExpire() {
+            this.checks++;
+            return this.expired;
+        }
+
+        @Override
+        public long getExpireAt() {
+            return this.expireAt;
+        }
+    }
+
+    private static final class Undated implements TransientValue<Integer> {
+        private volatile boolean expired;
+
+        @Nullable
+        @Override
+        public Integer getOrNull() {
+            return this.expired ? null : 1;
+        }
+
+        @Override
+        public boolean shouldExpire() {
+            return this.expired;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package io.fairyproject.profiler;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.fairyproject.event.Event;
+import io.fairyproject.event.EventListener;
+import io.fairyproject.event.EventNode;
+import io.fairyproject.scheduler.executor.ExecutorScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfilerTest {
+
+    @AfterEach
+    void tearDown() {
+        Profiler.setEnabled(false);
+        Profiler.reset();
+    }
+
+    @Test
+    void bucketsBoundValuesWithinAnEighth() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            long upper = ProfilerSite.upperBoundOf(ProfilerSite.bucketOf(value));
+
+            assertTrue(upper >= value, value + " > " + upper);
+            assertTrue(upper - value <= value / ProfilerSite.SUB_BUCKETS, value + " is too far from " + upper);
+        }
+        assertEquals(ProfilerSite.BUCKETS - 1, ProfilerSite.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void nothingIsSampledWhileDisabled() {
+        ProfilerSite site = Profiler.site("test", "disabled");
+
+        long start = site.start();
+        assertEquals(0L, start);
+        site.stop(start);
+        assertEquals(0L, site.count());
+        assertNull(Profiler.snapshot().get("test", "disabled"));
+    }
+
+    @Test
+    void percentilesFollowRecordedSamples() {
+        ProfilerSite site = Profiler.site("test", "percentiles");
+        for (int i = 1; i <= 1_000; i++) {
+            site.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        ProfilerSnapshot.Site snapshot = Profiler.snapshot().get("test", "percentiles");
+        assertNotNull(snapshot);
+        assertEquals(1_000, snapshot.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1_000), snapshot.getMaxNanos());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500_500), snapshot.getTotalNanos());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500), snapshot.getP50Nanos(), TimeUnit.MICROSECONDS.toNanos(500) / 8.0);
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(990), snapshot.getP99Nanos(), TimeUnit.MICROSECONDS.toNanos(990) / 8.0);
+
+        site.reset();
+        assertNull(Profiler.snapshot().get("test", "percentiles"));
+    }
+
+    @Test
+    void eventNodeListenersAreSampled() {
+        Profiler.setEnabled(true);
+        EventNode<Event> node = EventNode.all("profiler");
+        AtomicInteger calls = new AtomicInteger();
+        node.addListener(EventListener.of(Ping.class, ping -> calls.incrementAndGet()));
+
+        for (int i = 0; i < 10; i++) {
+            node.call(new Ping());
+        }
+
+        assertEquals(10, calls.get());
+        ProfilerSnapshot.Site site = Profiler.snapshot().get(Profiler.CATEGORY_EVENT_NODE, ProfilerTest.class.getName() + " (Ping)");
+        assertNotNull(site);
+        assertEquals(10, site.getCount());
+    }
+
+    @Test
+    void scheduledTasksAreAttributedToTheirOrigin() throws Exception {
+        Profiler.setEnabled(true);
+        ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+        ExecutorScheduler scheduler = new ExecutorScheduler(executorService);
+
+        scheduler.schedule(() -> {});
+        scheduler.schedule(() -> "result");
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+
+        ProfilerSnapshot.Site site = Profiler.snapshot().get(Profiler.CATEGORY_SCHEDULER, ProfilerTest.class.getName());
+        assertNotNull(site);
+        assertEquals(2, site.getCount());
+    }
+
+    @Test
+    void snapshotsAreExportedAsJson(@TempDir Path directory) throws Exception {
+        Profiler.site("test", "export").record(1_000L);
+        Path file = directory.resolve("profiler").resolve("snapshot.json");
+
+        ProfilerExporter.write(file, Profiler.snapshot());
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonObject json = new JsonParser().parse(reader).getAsJsonObject();
+            JsonObject site = json.getAsJsonArray("sites").get(0).getAsJsonObject();
+            assertEquals("export", site.get("name").getAsString());
+            assertEquals(1, site.get("count").getAsLong());
+        }
+        assertFalse(Files.exists(directory.resolve("profiler").resolve("snapshot.json.tmp")));
+    }
+
+    private static final class Ping implements Event {
+    }
+
+}
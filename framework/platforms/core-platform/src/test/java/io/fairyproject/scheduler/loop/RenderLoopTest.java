@@ -0,0 +1,118 @@
+package io.fairyproject.scheduler.loop;
+
+import io.fairyproject.util.terminable.Terminable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderLoopTest {
+
+    private static List<Integer> targets(int amount) {
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            targets.add(i);
+        }
+        return targets;
+    }
+
+    @Test
+    void shouldStaggerTargetsAcrossInterval() {
+        List<Integer> targets = targets(1000);
+        RenderLoop<Integer> loop = new RenderLoop<>(() -> targets, 4, Duration.ofSeconds(1), Runnable::run);
+        Map<Integer, Integer> renders = new HashMap<>();
+        List<Integer> perTick = new ArrayList<>();
+
+        loop.register(4, target -> renders.merge(target, 1, Integer::sum));
+        for (int tick = 0; tick < 4; tick++) {
+            int before = renders.values().stream().mapToInt(Integer::intValue).sum();
+            loop.tick();
+            perTick.add(renders.values().stream().mapToInt(Integer::intValue).sum() - before);
+        }
+
+        // every target is rendered exactly once per interval
+        assertEquals(1000, renders.size());
+        assertTrue(renders.values().stream().allMatch(count -> count == 1));
+        for (int count : perTick) {
+            assertTrue(count > 150 && count < 350, "unbalanced tick: " + perTick);
+        }
+    }
+
+    @Test
+    void shouldCarryOverrunToNextTick() {
+        List<Integer> targets = targets(10);
+        RenderLoop<Integer> loop = new RenderLoop<>(() -> targets, 1, Duration.ofMillis(20), Runnable::run);
+        Map<Integer, Integer> renders = new HashMap<>();
+
+        loop.register(1, target -> {
+            renders.merge(target, 1, Integer::sum);
+            try {
+                Thread.sleep(10L);
+            } catch (InterruptedException ignored) {
+            }
+        });
+
+        loop.tick();
+        assertTrue(renders.size() < 10);
+        assertEquals(10, renders.size() + loop.getBacklog());
+
+        for (int i = 0; i < 10 && loop.getBacklog() > 0; i++) {
+            loop.tick();
+        }
+        assertEquals(10, renders.size());
+        // a target still queued from the previous tick isn't queued again
+        assertTrue(loop.getBacklog() <= 10);
+    }
+
+    @Test
+    void shouldNotRenderSameTargetConcurrently() throws InterruptedException {
+        List<Integer> targets = targets(64);
+        RenderLoop<Integer> loop = new RenderLoop<>("Test", () -> targets, 4, Duration.ofMillis(40));
+        Set<Integer> rendering = ConcurrentHashMap.newKeySet();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(64 * 5);
+
+        loop.register(1, target -> {
+            if (!rendering.add(target))
+                overlaps.incrementAndGet();
+            renders.incrementAndGet();
+            rendering.remove(target);
+            latch.countDown();
+        });
+
+        try {
+            for (int i = 0; i < 20 && latch.getCount() > 0; i++) {
+                loop.tick();
+                Thread.sleep(5L);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, overlaps.get());
+        } finally {
+            loop.shutdown();
+        }
+    }
+
+    @Test
+    void shouldStopRenderingOnceUnregistered() {
+        List<Integer> targets = targets(10);
+        RenderLoop<Integer> loop = new RenderLoop<>(() -> targets, 2, Duration.ofSeconds(1), Runnable::run);
+        AtomicInteger renders = new AtomicInteger();
+
+        Terminable terminable = loop.register(1, target -> renders.incrementAndGet());
+        loop.tick();
+        assertEquals(10, renders.get());
+
+        assertDoesNotThrow(terminable::close);
+        loop.tick();
+        assertEquals(10, renders.get());
+        assertTrue(loop.isEmpty());
+    }
+
+}
@@ -0,0 +1,125 @@
+package io.fairyproject.scheduler.wheel;
+
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.repeat.RepeatPredicate;
+import io.fairyproject.scheduler.response.TaskResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelSchedulerTest {
+
+    private TimingWheelScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new TimingWheelScheduler("Test", Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testScheduleDelayed() throws Exception {
+        long start = System.nanoTime();
+        ScheduledTask<String> task = scheduler.schedule(() -> "Hello World", Duration.ofMillis(50));
+
+        assertEquals("Hello World", task.getFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50), "The task should not run before its delay");
+    }
+
+    @Test
+    void testCurrentThread() throws Exception {
+        assertFalse(scheduler.isCurrentThread());
+        assertTrue(scheduler.schedule(() -> scheduler.isCurrentThread(), Duration.ofMillis(10)).getFuture().get(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.schedule(() -> scheduler.isCurrentThread()).getFuture().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+        ScheduledTask<?> task = scheduler.schedule(() -> ran.set(true), Duration.ofMillis(30));
+        task.cancel();
+
+        // a later task should run after the cancelled one would have
+        scheduler.schedule(() -> null, Duration.ofMillis(60)).getFuture().get(5, TimeUnit.SECONDS);
+        assertFalse(ran.get(), "A cancelled task should never run");
+        assertTrue(task.getFuture().isCancelled());
+    }
+
+    @Test
+    void testLongDelayWrapsTheWheel() throws Exception {
+        TimingWheelScheduler small = new TimingWheelScheduler("Small", Duration.ofMillis(5), 4, Runnable::run);
+        try {
+            long start = System.nanoTime();
+            small.schedule(() -> null, Duration.ofMillis(100)).getFuture().get(5, TimeUnit.SECONDS);
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100), "Rounds should delay the task over multiple turns");
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void testFixedRate() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledTask<String> task = scheduler.scheduleAtFixedRate(() -> {
+            if (counter.incrementAndGet() < 5) {
+                return TaskResponse.continueTask();
+            }
+            return TaskResponse.success("Hello World");
+        }, Duration.ZERO, Duration.ofMillis(10));
+
+        assertEquals("Hello World", task.getFuture().get(5, TimeUnit.SECONDS));
+        assertEquals(5, counter.get());
+    }
+
+    @Test
+    void testFixedRatePredicate() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledTask<?> task = scheduler.scheduleAtFixedRate(() -> {
+            counter.incrementAndGet();
+        }, Duration.ZERO, Duration.ofMillis(10), RepeatPredicate.cycled(3));
+
+        task.getFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(3, counter.get());
+    }
+
+    @Test
+    void testManyTasks() throws Exception {
+        int amount = 10_000;
+        CountDownLatch latch = new CountDownLatch(amount);
+        for (int i = 0; i < amount; i++) {
+            scheduler.schedule(latch::countDown, Duration.ofMillis(i % 200));
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS), "Every task should have expired");
+    }
+
+    @Test
+    void testShutdownCancelsRemainingTasks() throws Exception {
+        // one waits in the pending queue, the others are in the wheel already
+        ScheduledTask<?> delayed = scheduler.schedule(() -> {}, Duration.ofHours(1));
+        ScheduledTask<?> repeated = scheduler.scheduleAtFixedRate(() -> {}, Duration.ofMillis(10), Duration.ofMillis(10));
+        scheduler.schedule(() -> null, Duration.ofMillis(30)).getFuture().get(5, TimeUnit.SECONDS);
+        ScheduledTask<?> pending = scheduler.schedule(() -> {}, Duration.ofHours(1));
+
+        scheduler.shutdown();
+        ScheduledTask<?> late = scheduler.schedule(() -> {}, Duration.ofMillis(10));
+
+        for (ScheduledTask<?> task : new ScheduledTask<?>[]{delayed, repeated, pending, late}) {
+            assertThrows(CancellationException.class, () -> task.getFuture().get(5, TimeUnit.SECONDS));
+        }
+    }
+
+}
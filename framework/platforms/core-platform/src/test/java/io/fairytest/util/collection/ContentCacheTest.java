@@ -0,0 +1,56 @@
+package io.fairytest.util.collection;
+
+import io.fairyproject.util.collection.ContentCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ContentCacheTest {
+
+    @Test
+    public void shouldComputeOncePerKey() {
+        ContentCache<String, String> cache = new ContentCache<>(16);
+        AtomicInteger computed = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals("A", cache.get("a", key -> {
+                computed.incrementAndGet();
+                return key.toUpperCase();
+            }));
+        }
+
+        Assertions.assertEquals(1, computed.get());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldKeepEntriesInUseWhenBounded() {
+        ContentCache<Integer, Integer> cache = new ContentCache<>(8);
+        AtomicInteger computed = new AtomicInteger();
+
+        for (int i = 0; i < 1000; i++) {
+            // a hot key is requested between every cold key
+            cache.get(-1, key -> {
+                computed.incrementAndGet();
+                return key;
+            });
+            cache.get(i, key -> key);
+            Assertions.assertTrue(cache.size() <= 18);
+        }
+
+        Assertions.assertEquals(1, computed.get());
+    }
+
+    @Test
+    public void shouldRecomputeAfterClear() {
+        ContentCache<String, String> cache = new ContentCache<>(4);
+        AtomicInteger computed = new AtomicInteger();
+
+        cache.get("a", key -> String.valueOf(computed.incrementAndGet()));
+        cache.clear();
+
+        Assertions.assertEquals("2", cache.get("a", key -> String.valueOf(computed.incrementAndGet())));
+    }
+
+}
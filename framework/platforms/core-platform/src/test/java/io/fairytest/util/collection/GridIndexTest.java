@@ -0,0 +1,104 @@
+package io.fairytest.util.collection;
+
+import io.fairyproject.util.collection.GridIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class GridIndexTest {
+
+    @Test
+    public void putMoveRemove() {
+        GridIndex<Cell> index = new GridIndex<>(cell -> cell.range);
+        Cell cell = new Cell(0, 0, 2);
+
+        index.put(cell, 0, 0);
+        Assertions.assertEquals(Collections.singleton(cell), inRange(index, 2, 0));
+        Assertions.assertTrue(inRange(index, 3, 0).isEmpty());
+
+        cell.x = 10;
+        index.put(cell, 10, 0);
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertTrue(inRange(index, 0, 0).isEmpty());
+        Assertions.assertEquals(Collections.singleton(cell), inRange(index, 9, 1));
+
+        Assertions.assertTrue(index.remove(cell));
+        Assertions.assertFalse(index.remove(cell));
+        Assertions.assertTrue(index.isEmpty());
+        Assertions.assertTrue(inRange(index, 10, 0).isEmpty());
+    }
+
+    @Test
+    public void transitionShouldMatchBruteForce() {
+        GridIndex<Cell> index = new GridIndex<>(cell -> cell.range);
+        List<Cell> cells = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            Cell cell = new Cell(random.nextInt(64) - 32, random.nextInt(64) - 32, 1 + random.nextInt(6));
+            cells.add(cell);
+            index.put(cell, cell.x, cell.z);
+        }
+
+        int x = 0;
+        int z = 0;
+        for (int step = 0; step < 500; step++) {
+            // mostly walk to a neighbour chunk, sometimes teleport
+            int toX = random.nextInt(10) == 0 ? random.nextInt(64) - 32 : x + random.nextInt(3) - 1;
+            int toZ = random.nextInt(10) == 0 ? random.nextInt(64) - 32 : z + random.nextInt(3) - 1;
+
+            Set<Cell> expectedEntered = new HashSet<>();
+            Set<Cell> expectedLeft = new HashSet<>();
+            for (Cell cell : cells) {
+                boolean was = cell.inRange(x, z);
+                boolean is = cell.inRange(toX, toZ);
+                if (is && !was)
+                    expectedEntered.add(cell);
+                else if (was && !is)
+                    expectedLeft.add(cell);
+            }
+
+            List<Cell> entered = new ArrayList<>();
+            List<Cell> left = new ArrayList<>();
+            index.forEachTransition(x, z, toX, toZ, entered::add, left::add);
+
+            Assertions.assertEquals(expectedEntered.size(), entered.size());
+            Assertions.assertEquals(expectedEntered, new HashSet<>(entered));
+            Assertions.assertEquals(expectedLeft.size(), left.size());
+            Assertions.assertEquals(expectedLeft, new HashSet<>(left));
+
+            Set<Cell> expectedInRange = new HashSet<>();
+            for (Cell cell : cells) {
+                if (cell.inRange(toX, toZ))
+                    expectedInRange.add(cell);
+            }
+            Assertions.assertEquals(expectedInRange, inRange(index, toX, toZ));
+
+            x = toX;
+            z = toZ;
+        }
+    }
+
+    private static Set<Cell> inRange(GridIndex<Cell> index, int x, int z) {
+        Set<Cell> result = new HashSet<>();
+        index.forEachInRange(x, z, result::add);
+        return result;
+    }
+
+    private static class Cell {
+        private int x;
+        private final int z;
+        private final int range;
+
+        private Cell(int x, int z, int range) {
+            this.x = x;
+            this.z = z;
+            this.range = range;
+        }
+
+        private boolean inRange(int x, int z) {
+            return Math.sqrt(Math.pow(this.x - x, 2) + Math.pow(this.z - z, 2)) <= this.range;
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package io.fairytest.util.collection;
+
+import io.fairyproject.util.collection.IntObjectMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class IntObjectMapTest {
+
+    @Test
+    public void putGetRemove() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+
+        Assertions.assertNull(map.put(1, "a"));
+        Assertions.assertNull(map.put(0, "zero"));
+        Assertions.assertNull(map.put(-5, "negative"));
+        Assertions.assertEquals("a", map.put(1, "b"));
+
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals("b", map.get(1));
+        Assertions.assertEquals("zero", map.get(0));
+        Assertions.assertEquals("negative", map.get(-5));
+        Assertions.assertNull(map.get(2));
+
+        Assertions.assertEquals("zero", map.remove(0));
+        Assertions.assertNull(map.remove(0));
+        Assertions.assertFalse(map.containsKey(0));
+        Assertions.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void forEachShouldNarrowKeysBack() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(Integer.MIN_VALUE, "min");
+        map.put(-1, "negative");
+        map.put(Integer.MAX_VALUE, "max");
+
+        Map<Integer, String> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+
+        Map<Integer, String> expected = new HashMap<>();
+        expected.put(Integer.MIN_VALUE, "min");
+        expected.put(-1, "negative");
+        expected.put(Integer.MAX_VALUE, "max");
+        Assertions.assertEquals(expected, iterated);
+    }
+
+}
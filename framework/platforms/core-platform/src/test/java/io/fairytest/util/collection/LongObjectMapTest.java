@@ -0,0 +1,78 @@
+package io.fairytest.util.collection;
+
+import io.fairyproject.util.collection.LongObjectMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void putGetRemove() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        Assertions.assertNull(map.put(1L, "a"));
+        Assertions.assertNull(map.put(0L, "zero"));
+        Assertions.assertNull(map.put(Long.MIN_VALUE, "min"));
+        Assertions.assertEquals("a", map.put(1L, "b"));
+
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertEquals("b", map.get(1L));
+        Assertions.assertEquals("zero", map.get(0L));
+        Assertions.assertEquals("min", map.get(Long.MIN_VALUE));
+        Assertions.assertNull(map.get(1L << 32));
+
+        Assertions.assertEquals("zero", map.remove(0L));
+        Assertions.assertNull(map.remove(0L));
+        Assertions.assertFalse(map.containsKey(0L));
+        Assertions.assertEquals(2, map.size());
+    }
+
+    @Test
+    public void shouldMatchHashMapOnRandomOperations() {
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // keys only differing in their high bits, like packed block positions
+            long key = ((long) (random.nextInt(64) - 32) << 38) | random.nextInt(32);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assertions.assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            Assertions.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+
+        Map<Long, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        Assertions.assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void removeIfShouldRemoveMatchingEntries() {
+        LongObjectMap<Integer> map = new LongObjectMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 31L, i);
+            expected.put(i * 31L, i);
+        }
+
+        Assertions.assertEquals(5_000, map.removeIf((key, value) -> value % 2 == 0));
+        expected.values().removeIf(value -> value % 2 == 0);
+
+        Map<Long, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        Assertions.assertEquals(expected, iterated);
+        Assertions.assertEquals(5_000, map.size());
+    }
+
+}
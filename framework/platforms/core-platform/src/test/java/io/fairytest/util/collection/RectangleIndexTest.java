@@ -0,0 +1,86 @@
+package io.fairytest.util.collection;
+
+import io.fairyproject.util.collection.RectangleIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class RectangleIndexTest {
+
+    @Test
+    public void putMoveRemove() {
+        RectangleIndex<String> index = new RectangleIndex<>();
+
+        index.put("a", 10, 10, -10, -10);
+        Assertions.assertEquals("a", index.get(-10, 10));
+        Assertions.assertNull(index.get(11, 0));
+
+        index.put("a", 100, 100, 200, 200);
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertNull(index.get(0, 0));
+        Assertions.assertEquals("a", index.get(150, 200));
+
+        Assertions.assertTrue(index.remove("a"));
+        Assertions.assertFalse(index.remove("a"));
+        Assertions.assertTrue(index.isEmpty());
+        Assertions.assertNull(index.get(150, 150));
+        Assertions.assertTrue(index.getIntersecting(Integer.MIN_VALUE / 2, Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 2).isEmpty());
+    }
+
+    @Test
+    public void lastPutWinsOnOverlap() {
+        RectangleIndex<String> index = new RectangleIndex<>();
+
+        index.put("big", -1000, -1000, 1000, 1000);
+        index.put("small", 0, 0, 5, 5);
+        Assertions.assertEquals("small", index.get(3, 3));
+        Assertions.assertEquals("big", index.get(6, 6));
+
+        index.put("big", -1000, -1000, 1000, 1000);
+        Assertions.assertEquals("big", index.get(3, 3));
+    }
+
+    @Test
+    public void queriesShouldMatchBruteForce() {
+        RectangleIndex<Integer> index = new RectangleIndex<>();
+        List<int[]> rectangles = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            // mostly small claims with a few huge ones
+            int size = random.nextInt(10) == 0 ? random.nextInt(5_000) : random.nextInt(64);
+            int x = random.nextInt(20_000) - 10_000;
+            int z = random.nextInt(20_000) - 10_000;
+            int[] rectangle = {x, z, x + random.nextInt(size + 1), z + random.nextInt(size + 1)};
+            rectangles.add(rectangle);
+            index.put(i, rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+        }
+        for (int i = 0; i < 500; i++) {
+            index.remove(random.nextInt(rectangles.size()));
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            int x = random.nextInt(20_000) - 10_000;
+            int z = random.nextInt(20_000) - 10_000;
+            int size = random.nextInt(4) == 0 ? random.nextInt(3_000) : 14;
+
+            Set<Integer> expected = new HashSet<>();
+            Integer expectedAt = null;
+            for (int id = 0; id < rectangles.size(); id++) {
+                if (!index.contains(id))
+                    continue;
+                int[] rectangle = rectangles.get(id);
+                if (rectangle[0] <= x + size && rectangle[2] >= x && rectangle[1] <= z + size && rectangle[3] >= z)
+                    expected.add(id);
+                if (rectangle[0] <= x && rectangle[2] >= x && rectangle[1] <= z && rectangle[3] >= z)
+                    expectedAt = id;
+            }
+
+            List<Integer> intersecting = index.getIntersecting(x, z, x + size, z + size);
+            Assertions.assertEquals(expected.size(), intersecting.size(), "duplicates or missing values");
+            Assertions.assertEquals(expected, new HashSet<>(intersecting));
+            Assertions.assertEquals(expectedAt, index.get(x, z));
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package io.fairyproject.mc.entity;
+
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientInteractEntity;
+import io.fairyproject.mc.protocol.event.MCPlayerPacketReceiveEvent;
+import org.jetbrains.annotations.NotNull;
+
+@FunctionalInterface
+public interface EntityInteractHandler {
+
+    /**
+     * Handle a player interacting with an entity id registered in {@link EntityInteractRouter}.
+     * It runs on the netty thread of the player.
+     *
+     * @param event  the packet event, can be cancelled to stop the packet from reaching the server
+     * @param packet the decoded interact packet
+     */
+    void onInteract(@NotNull MCPlayerPacketReceiveEvent event, @NotNull WrapperPlayClientInteractEntity packet);
+
+}
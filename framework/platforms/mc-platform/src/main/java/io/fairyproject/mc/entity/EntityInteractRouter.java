@@ -0,0 +1,108 @@
+package io.fairyproject.mc.entity;
+
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientInteractEntity;
+import io.fairyproject.log.Log;
+import io.fairyproject.mc.protocol.event.MCPlayerPacketReceiveEvent;
+import io.fairyproject.util.collection.IntObjectMap;
+import io.fairyproject.util.terminable.Terminable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Routes interact packets to the owner of the entity id, for entities that only exist on the client
+ * such as holograms, npcs or animations.
+ * <p>
+ * The interact packet is decoded once and the owner is found with a single lookup on a primitive int keyed map,
+ * instead of every owner decoding the packet and scanning its own entities.
+ */
+public class EntityInteractRouter {
+
+    private final IntObjectMap<EntityInteractHandler> handlers = new IntObjectMap<>();
+    private final StampedLock lock = new StampedLock();
+    private volatile int size;
+
+    /**
+     * Register the handler of an entity id, replacing the previous handler of the id.
+     *
+     * @param entityId the entity id
+     * @param handler  the handler
+     * @return the terminable to unregister the handler
+     */
+    public Terminable register(int entityId, @NotNull EntityInteractHandler handler) {
+        final long stamp = this.lock.writeLock();
+        try {
+            this.handlers.put(entityId, handler);
+            this.size = this.handlers.size();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+        return () -> this.unregister(entityId, handler);
+    }
+
+    /**
+     * Unregister the handler of an entity id, if the id is still owned by that handler.
+     *
+     * @param entityId the entity id
+     * @param handler  the handler
+     */
+    public void unregister(int entityId, @NotNull EntityInteractHandler handler) {
+        final long stamp = this.lock.writeLock();
+        try {
+            if (this.handlers.get(entityId) != handler)
+                return;
+            this.handlers.remove(entityId);
+            this.size = this.handlers.size();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Nullable
+    public EntityInteractHandler get(int entityId) {
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                final EntityInteractHandler handler = this.handlers.get(entityId);
+                if (this.lock.validate(stamp))
+                    return handler;
+            } catch (RuntimeException ignored) {
+                // torn read of a concurrent resize, retried below with the read lock
+            }
+        }
+
+        stamp = this.lock.readLock();
+        try {
+            return this.handlers.get(entityId);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Decode the interact packet and forward it to the owner of the entity id.
+     *
+     * @param event the interact packet event
+     */
+    public void handle(@NotNull MCPlayerPacketReceiveEvent event) {
+        if (this.size == 0)
+            return;
+
+        final WrapperPlayClientInteractEntity packet = new WrapperPlayClientInteractEntity(event.getEvent());
+        final EntityInteractHandler handler = this.get(packet.getEntityId());
+        if (handler == null)
+            return;
+
+        try {
+            handler.onInteract(event, packet);
+        } catch (Throwable throwable) {
+            Log.error("An error occurred while handling interaction on entity " + packet.getEntityId(), throwable);
+        }
+    }
+
+}
@@ -1,16 +1,24 @@
 package io.fairyproject.mc.metadata;
 
 import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.metadata.ExpirySignal;
+import io.fairyproject.metadata.SignalledValue;
 import io.fairyproject.metadata.TransientValue;
-import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A value expiring once its player quits.
+ * The values of a player share a signal fired by {@link PlayerOnlineValueListener}, so they aren't polled until then.
+ */
 @Deprecated
-public class PlayerOnlineValue<T> implements TransientValue<T> {
+public class PlayerOnlineValue<T> extends SignalledValue<T> {
+
+    private static final Map<UUID, ExpirySignal> SIGNALS = new ConcurrentHashMap<>();
 
-    private final T value;
     private final MCPlayer ownedPlayer;
 
     public static <T> TransientValue<T> create(T value, UUID ownedPlayerUuid) {
@@ -22,18 +30,40 @@ public class PlayerOnlineValue<T> implements TransientValue<T> {
     }
 
     private PlayerOnlineValue(T value, MCPlayer ownedPlayer) {
-        this.value = value;
+        super(value, signalOf(ownedPlayer));
         this.ownedPlayer = ownedPlayer;
     }
 
-    @Nullable
     @Override
-    public T getOrNull() {
-        return shouldExpire() ? null : this.value;
+    public boolean shouldExpire() {
+        return super.shouldExpire() || ownedPlayer == null || !ownedPlayer.isOnline();
     }
 
-    @Override
-    public boolean shouldExpire() {
-        return ownedPlayer == null || !ownedPlayer.isOnline();
+    private static ExpirySignal signalOf(MCPlayer player) {
+        if (player == null)
+            return firedSignal();
+
+        final ExpirySignal signal = SIGNALS.computeIfAbsent(player.getUUID(), uuid -> new ExpirySignal());
+        // the player may have quit before the signal was registered
+        if (!player.isOnline())
+            expire(player.getUUID());
+        return signal;
+    }
+
+    private static ExpirySignal firedSignal() {
+        final ExpirySignal signal = new ExpirySignal();
+        signal.fire();
+        return signal;
+    }
+
+    /**
+     * Expire the values of the player.
+     *
+     * @param uuid the uuid of the player
+     */
+    static void expire(UUID uuid) {
+        final ExpirySignal signal = SIGNALS.remove(uuid);
+        if (signal != null)
+            signal.fire();
     }
 }
@@ -0,0 +1,23 @@
+package io.fairyproject.mc.metadata;
+
+import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.container.PostInitialize;
+import io.fairyproject.event.GlobalEventNode;
+import io.fairyproject.mc.event.MCPlayerQuitEvent;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Expire the {@link PlayerOnlineValue}s of the players quitting.
+ */
+@InjectableComponent
+@RequiredArgsConstructor
+public class PlayerOnlineValueListener {
+
+    private final GlobalEventNode eventNode;
+
+    @PostInitialize
+    public void onPostInitialize() {
+        this.eventNode.addListener(MCPlayerQuitEvent.class, event -> PlayerOnlineValue.expire(event.getPlayer().getUUID()));
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.fairyproject.mc.protocol;
+
+import com.github.retrooper.packetevents.event.PacketListener;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import io.fairyproject.event.Event;
+import io.fairyproject.event.EventNode;
+import io.fairyproject.event.ListenerHandle;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.protocol.event.MCPlayerPacketReceiveEvent;
+import io.fairyproject.mc.protocol.event.MCPlayerPacketSendEvent;
+import io.fairyproject.mc.protocol.event.PacketTypeListeners;
+import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Transform the packets of packetevents into {@link MCPlayerPacketReceiveEvent} and {@link MCPlayerPacketSendEvent}.
+ * <p>
+ * Listeners of the packet type are called first, then the event node.
+ * Packets nobody listens to are skipped before the player is resolved or the event is allocated.
+ */
+@RequiredArgsConstructor
+class MCPacketEventTransformer implements PacketListener {
+
+    private final MCPlayerRegistry playerRegistry;
+    private final PacketTypeListeners<MCPlayerPacketReceiveEvent> receiveListeners;
+    private final PacketTypeListeners<MCPlayerPacketSendEvent> sendListeners;
+    private final Supplier<EventNode<Event>> eventNode;
+
+    // handles are resolved lazily since the global event node is injected after pre initialize
+    private ListenerHandle<MCPlayerPacketReceiveEvent> receiveHandle;
+    private ListenerHandle<MCPlayerPacketSendEvent> sendHandle;
+
+    @Override
+    public void onPacketReceive(PacketReceiveEvent event) {
+        if (this.receiveHandle == null)
+            this.receiveHandle = this.eventNode.get().getHandle(MCPlayerPacketReceiveEvent.class);
+
+        // nobody listens to this packet, skip before resolving the player or allocating the event
+        final Consumer<MCPlayerPacketReceiveEvent>[] listeners = this.receiveListeners.get(event.getPacketType());
+        final boolean global = this.receiveHandle.hasListener();
+        if (listeners == null && !global)
+            return;
+
+        Object player = event.getPlayer();
+        if (player == null)
+            return;
+
+        MCPlayer mcPlayer = this.playerRegistry.findByPlatform(player);
+        if (mcPlayer != null) {
+            final MCPlayerPacketReceiveEvent mcEvent = new MCPlayerPacketReceiveEvent(mcPlayer, event);
+            if (listeners != null)
+                PacketTypeListeners.call(listeners, mcEvent);
+            if (global)
+                this.receiveHandle.call(mcEvent);
+        }
+    }
+
+    @Override
+    public void onPacketSend(PacketSendEvent event) {
+        if (this.sendHandle == null)
+            this.sendHandle = this.eventNode.get().getHandle(MCPlayerPacketSendEvent.class);
+
+        // nobody listens to this packet, skip before resolving the player or allocating the event
+        final Consumer<MCPlayerPacketSendEvent>[] listeners = this.sendListeners.get(event.getPacketType());
+        final boolean global = this.sendHandle.hasListener();
+        if (listeners == null && !global)
+            return;
+
+        Object player = event.getPlayer();
+        if (player == null)
+            return;
+
+        MCPlayer mcPlayer = this.playerRegistry.findByPlatform(player);
+        if (mcPlayer != null) {
+            final MCPlayerPacketSendEvent mcEvent = new MCPlayerPacketSendEvent(mcPlayer, event);
+            if (listeners != null)
+                PacketTypeListeners.call(listeners, mcEvent);
+            if (global)
+                this.sendHandle.call(mcEvent);
+        }
+    }
+
+}
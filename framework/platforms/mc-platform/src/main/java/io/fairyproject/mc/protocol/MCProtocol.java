@@ -27,6 +27,8 @@ package io.fairyproject.mc.protocol;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.PacketEventsAPI;
 import com.github.retrooper.packetevents.event.*;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.util.TimeStampMode;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import io.fairyproject.Debug;
@@ -37,8 +39,10 @@ import io.fairyproject.container.PreInitialize;
 import io.fairyproject.container.collection.ContainerObjCollector;
 import io.fairyproject.event.GlobalEventNode;
 import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.entity.EntityInteractRouter;
 import io.fairyproject.mc.protocol.event.MCPlayerPacketReceiveEvent;
 import io.fairyproject.mc.protocol.event.MCPlayerPacketSendEvent;
+import io.fairyproject.mc.protocol.event.PacketTypeListeners;
 import io.fairyproject.mc.protocol.packet.PacketSender;
 import io.fairyproject.mc.registry.player.MCPlayerRegistry;
 import io.fairyproject.mc.version.MCVersionMappingRegistry;
@@ -48,6 +52,7 @@ import lombok.RequiredArgsConstructor;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Getter
 @RequiredArgsConstructor
@@ -62,6 +67,9 @@ public class MCProtocol {
     private PacketEventsAPI<?> packetEvents;
 
     private final Map<Class<?>, PacketListenerCommon> listenerCommonMap = new ConcurrentHashMap<>();
+    private final PacketTypeListeners<MCPlayerPacketReceiveEvent> receiveListeners = new PacketTypeListeners<>();
+    private final PacketTypeListeners<MCPlayerPacketSendEvent> sendListeners = new PacketTypeListeners<>();
+    private final EntityInteractRouter interactRouter = new EntityInteractRouter();
 
     public static void loadProtocol(PacketEventsBuilder packetEventsBuilder) {
         PacketEvents.setAPI(packetEventsBuilder.build());
@@ -94,33 +102,11 @@ public class MCProtocol {
     }
 
     private void registerMCEventTransformer() {
-        this.packetEvents.getEventManager().registerListener(new PacketListener() {
-
-            @Override
-            public void onPacketReceive(PacketReceiveEvent event) {
-                Object player = event.getPlayer();
-                if (player == null)
-                    return;
-
-                MCPlayer mcPlayer = playerRegistry.findByPlatform(player);
-                if (mcPlayer != null) {
-                    GlobalEventNode.get().call(new MCPlayerPacketReceiveEvent(mcPlayer, event));
-                }
-            }
-
-            @Override
-            public void onPacketSend(PacketSendEvent event) {
-                Object player = event.getPlayer();
-                if (player == null)
-                    return;
-
-                MCPlayer mcPlayer = playerRegistry.findByPlatform(player);
-                if (mcPlayer != null) {
-                    GlobalEventNode.get().call(new MCPlayerPacketSendEvent(mcPlayer, event));
-                }
-            }
-
-        }, PacketListenerPriority.LOWEST);
+        this.receiveListeners.register(PacketType.Play.Client.INTERACT_ENTITY, this.interactRouter::handle);
+        this.packetEvents.getEventManager().registerListener(
+                new MCPacketEventTransformer(this.playerRegistry, this.receiveListeners, this.sendListeners, GlobalEventNode::get),
+                PacketListenerPriority.LOWEST
+        );
     }
 
     private void registerPacketListenerObjectCollector() {
@@ -164,4 +150,28 @@ public class MCProtocol {
         return () -> MCProtocol.INSTANCE.getPacketEvents().getEventManager().unregisterListener(packetListener);
     }
 
+    /**
+     * Listen to a received packet type, the listener is called before the global event node
+     * and only for that packet type, so other packets don't allocate an event for it.
+     *
+     * @param packetType the packet type
+     * @param listener   the listener
+     * @return the terminable to unregister the listener
+     */
+    public static Terminable listenReceive(PacketTypeCommon packetType, Consumer<MCPlayerPacketReceiveEvent> listener) {
+        return MCProtocol.INSTANCE.getReceiveListeners().register(packetType, listener);
+    }
+
+    /**
+     * Listen to a sent packet type, the listener is called before the global event node
+     * and only for that packet type, so other packets don't allocate an event for it.
+     *
+     * @param packetType the packet type
+     * @param listener   the listener
+     * @return the terminable to unregister the listener
+     */
+    public static Terminable listenSend(PacketTypeCommon packetType, Consumer<MCPlayerPacketSendEvent> listener) {
+        return MCProtocol.INSTANCE.getSendListeners().register(packetType, listener);
+    }
+
 }
@@ -0,0 +1,120 @@
+package io.fairyproject.mc.protocol.event;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import io.fairyproject.log.Log;
+import io.fairyproject.util.terminable.Terminable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Listeners of a packet event indexed by {@link PacketTypeCommon}.
+ * <p>
+ * Lookups are done against an immutable snapshot which is replaced on every registration,
+ * so the packet threads can check whether a packet type has any listener without locking or allocating.
+ *
+ * @param <E> the packet event type
+ */
+public class PacketTypeListeners<E extends MCPlayerProtocolPacketEvent> {
+
+    private final Object lock = new Object();
+    private volatile Map<PacketTypeCommon, Consumer<E>[]> listeners = new IdentityHashMap<>();
+
+    /**
+     * Register a listener for the packet type.
+     *
+     * @param packetType the packet type
+     * @param listener   the listener
+     * @return the terminable to unregister the listener
+     */
+    public Terminable register(@NotNull PacketTypeCommon packetType, @NotNull Consumer<E> listener) {
+        synchronized (this.lock) {
+            final Map<PacketTypeCommon, Consumer<E>[]> listeners = new IdentityHashMap<>(this.listeners);
+            final Consumer<E>[] current = listeners.get(packetType);
+            final Consumer<E>[] updated;
+            if (current == null) {
+                //noinspection unchecked
+                updated = new Consumer[]{listener};
+            } else {
+                updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = listener;
+            }
+            listeners.put(packetType, updated);
+            this.listeners = listeners;
+        }
+        return () -> this.unregister(packetType, listener);
+    }
+
+    /**
+     * Unregister a listener for the packet type.
+     *
+     * @param packetType the packet type
+     * @param listener   the listener
+     */
+    public void unregister(@NotNull PacketTypeCommon packetType, @NotNull Consumer<E> listener) {
+        synchronized (this.lock) {
+            final Consumer<E>[] current = this.listeners.get(packetType);
+            if (current == null) {
+                return;
+            }
+
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == listener) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index == -1) {
+                return;
+            }
+
+            final Map<PacketTypeCommon, Consumer<E>[]> listeners = new IdentityHashMap<>(this.listeners);
+            if (current.length == 1) {
+                listeners.remove(packetType);
+            } else {
+                //noinspection unchecked
+                final Consumer<E>[] updated = new Consumer[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, index);
+                System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+                listeners.put(packetType, updated);
+            }
+            this.listeners = listeners;
+        }
+    }
+
+    /**
+     * Get the listeners of the packet type.
+     *
+     * @param packetType the packet type
+     * @return the listeners, or null if there isn't any
+     */
+    public @Nullable Consumer<E>[] get(@Nullable PacketTypeCommon packetType) {
+        if (packetType == null) {
+            return null;
+        }
+        return this.listeners.get(packetType);
+    }
+
+    /**
+     * Call the listeners of the packet type.
+     * A listener throwing an exception is logged and doesn't prevent the next listeners from being called.
+     *
+     * @param listeners the listeners returned by {@link #get(PacketTypeCommon)}
+     * @param event     the event
+     */
+    public static <E extends MCPlayerProtocolPacketEvent> void call(@NotNull Consumer<E>[] listeners, @NotNull E event) {
+        for (Consumer<E> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Throwable throwable) {
+                Log.error("An error occurred while handling packet " + event.packetType(), throwable);
+            }
+        }
+    }
+
+}
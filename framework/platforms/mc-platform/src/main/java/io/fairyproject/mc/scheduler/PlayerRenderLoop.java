@@ -0,0 +1,91 @@
+package io.fairyproject.mc.scheduler;
+
+import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.container.PreDestroy;
+import io.fairyproject.log.Log;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.loop.RenderLoop;
+import io.fairyproject.util.terminable.Terminable;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * The shared per-player {@link RenderLoop} of sidebars, tablists, actionbars and maps.
+ * <p>
+ * The loop is ticked by the async scheduler once a renderer is registered, players are sharded across
+ * {@code fairy.render-loop.workers} workers and every worker spends at most {@code fairy.render-loop.budget-millis}
+ * per tick, so a slow provider delays the renders of the next tick instead of piling up.
+ */
+@InjectableComponent
+@RequiredArgsConstructor
+public class PlayerRenderLoop {
+
+    public static final int WORKERS = Integer.getInteger("fairy.render-loop.workers", Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+    public static final Duration BUDGET = Duration.ofMillis(Long.getLong("fairy.render-loop.budget-millis", 25L));
+
+    private final MCPlayerRegistry mcPlayerRegistry;
+    private final MCSchedulerProvider mcSchedulerProvider;
+    private RenderLoop<MCPlayer> loop;
+    private ScheduledTask<?> scheduledTask;
+
+    /**
+     * Register a renderer to be called for every online player.
+     *
+     * @param intervalTicks the interval in ticks between two renders of the same player
+     * @param renderer      the renderer
+     * @return the terminable to unregister the renderer
+     */
+    public synchronized Terminable register(int intervalTicks, @NotNull Consumer<MCPlayer> renderer) {
+        if (this.loop == null) {
+            this.loop = new RenderLoop<>("Fairy Render Loop", this.mcPlayerRegistry::getAllPlayers, WORKERS, BUDGET);
+            this.scheduledTask = this.mcSchedulerProvider.getAsyncScheduler().scheduleAtFixedRate(this.loop::tick, 1L, 1L);
+        }
+
+        return this.loop.register(intervalTicks, renderer);
+    }
+
+    /**
+     * Call a renderer once for every online player on the async scheduler,
+     * used for the clearing pass of a renderer that was just unregistered.
+     *
+     * @param renderer the renderer
+     */
+    public void renderOnce(@NotNull Consumer<MCPlayer> renderer) {
+        this.mcSchedulerProvider.getAsyncScheduler().schedule(() -> {
+            for (MCPlayer player : this.mcPlayerRegistry.getAllPlayers()) {
+                try {
+                    renderer.accept(player);
+                } catch (Throwable throwable) {
+                    Log.error("An error occurred while rendering " + player, throwable);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the amount of renders carried over to the next tick.
+     *
+     * @return the amount
+     */
+    public synchronized int getBacklog() {
+        return this.loop != null ? this.loop.getBacklog() : 0;
+    }
+
+    @PreDestroy
+    public synchronized void onPreDestroy() {
+        if (this.scheduledTask != null) {
+            this.scheduledTask.closeAndReportException();
+            this.scheduledTask = null;
+        }
+        if (this.loop != null) {
+            this.loop.shutdown();
+            this.loop = null;
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package io.fairyproject.mc.scheduler;
+
+import io.fairyproject.scheduler.ScheduledTask;
+import io.fairyproject.scheduler.repeat.RepeatPredicate;
+import io.fairyproject.scheduler.response.TaskResponse;
+import io.fairyproject.scheduler.wheel.TimingWheelScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * An async {@link MCScheduler} backed by a {@link TimingWheelScheduler} ticking once per game tick,
+ * used by the platforms when {@link TimingWheelScheduler#ENABLED_PROPERTY} is set.
+ */
+public class TimingWheelMCScheduler extends TimingWheelScheduler implements MCMillisBasedScheduler {
+
+    public TimingWheelMCScheduler(String name) {
+        super(name, Duration.ofMillis(MILLISECONDS_PER_TICK));
+    }
+
+    @Override
+    public ScheduledTask<?> scheduleAtFixedRate(Runnable runnable, long delayTicks, long intervalTicks, RepeatPredicate<?> predicate) {
+        return scheduleAtFixedRate(runnable, Duration.ofMillis(delayTicks * MILLISECONDS_PER_TICK), Duration.ofMillis(intervalTicks * MILLISECONDS_PER_TICK), predicate);
+    }
+
+    @Override
+    public <R> ScheduledTask<R> scheduleAtFixedRate(Callable<TaskResponse<R>> callback, long delayTicks, long intervalTicks, RepeatPredicate<R> predicate) {
+        return scheduleAtFixedRate(callback, Duration.ofMillis(delayTicks * MILLISECONDS_PER_TICK), Duration.ofMillis(intervalTicks * MILLISECONDS_PER_TICK), predicate);
+    }
+
+}
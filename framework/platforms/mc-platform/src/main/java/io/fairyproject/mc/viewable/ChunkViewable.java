@@ -0,0 +1,27 @@
+package io.fairyproject.mc.viewable;
+
+import io.fairyproject.mc.Viewable;
+import io.fairyproject.mc.util.Position;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Viewable} that is viewed by the players within a chunk distance of its position.
+ * Once added to the {@link ChunkViewableIndex} of its world, viewers are added and removed as players move between chunks.
+ */
+public interface ChunkViewable extends Viewable {
+
+    /**
+     * Gets the position of this viewable element.
+     *
+     * @return the position
+     */
+    @NotNull Position getPosition();
+
+    /**
+     * Gets the view distance in chunks.
+     *
+     * @return the view distance
+     */
+    int getViewDistance();
+
+}
@@ -0,0 +1,146 @@
+package io.fairyproject.mc.viewable;
+
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.MCWorld;
+import io.fairyproject.mc.util.Position;
+import io.fairyproject.util.collection.GridIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * The {@link ChunkViewable}s of a world bucketed by chunk.
+ * <p>
+ * When a player crosses a chunk border only the viewables around the previous and the current chunk are visited,
+ * so the cost scales with the amount of viewables nearby rather than the amount of viewables in the world.
+ * The index is driven by {@link ChunkViewableListener}.
+ * <p>
+ * The index remembers the viewables each player views through it, so a player leaving the world only visits those.
+ * Viewers added to a viewable while it's in the index but outside of the index are removed by whoever added them.
+ */
+public class ChunkViewableIndex {
+
+    private static final Map<String, ChunkViewableIndex> INDEXES = new ConcurrentHashMap<>();
+
+    /**
+     * Get the index of the world, creating it if absent.
+     *
+     * @param world the world
+     * @return the index
+     */
+    public static @NotNull ChunkViewableIndex of(@NotNull MCWorld world) {
+        return INDEXES.computeIfAbsent(world.getName(), ignored -> new ChunkViewableIndex());
+    }
+
+    static @Nullable ChunkViewableIndex get(@Nullable String worldName) {
+        if (worldName == null)
+            return null;
+        return INDEXES.get(worldName);
+    }
+
+    static void remove(@NotNull String worldName) {
+        INDEXES.remove(worldName);
+    }
+
+    private final GridIndex<ChunkViewable> index = new GridIndex<>(ChunkViewable::getViewDistance);
+    private final Map<UUID, Set<ChunkViewable>> viewing = new ConcurrentHashMap<>();
+
+    /**
+     * Add the viewable to the index, or update its chunk and view distance if it's already in the index.
+     * Existing viewers aren't changed.
+     *
+     * @param viewable the viewable
+     */
+    public void add(@NotNull ChunkViewable viewable) {
+        final Position position = viewable.getPosition();
+        this.index.put(viewable, position.getChunkX(), position.getChunkZ());
+        for (MCPlayer viewer : viewable.getViewers()) {
+            this.viewing(viewer).add(viewable);
+        }
+    }
+
+    /**
+     * Remove the viewable from the index.
+     * Existing viewers aren't changed.
+     *
+     * @param viewable the viewable
+     * @return true if the viewable was in the index
+     */
+    public boolean remove(@NotNull ChunkViewable viewable) {
+        if (!this.index.remove(viewable))
+            return false;
+
+        for (MCPlayer viewer : viewable.getViewers()) {
+            final Set<ChunkViewable> viewables = this.viewing.get(viewer.getUUID());
+            if (viewables != null)
+                viewables.remove(viewable);
+        }
+        return true;
+    }
+
+    public boolean contains(@NotNull ChunkViewable viewable) {
+        return this.index.contains(viewable);
+    }
+
+    public int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Iterate the viewables that can be viewed from the position.
+     *
+     * @param position the position
+     * @param consumer the consumer
+     */
+    public void forEachInRange(@NotNull Position position, @NotNull Consumer<ChunkViewable> consumer) {
+        this.index.forEachInRange(position.getChunkX(), position.getChunkZ(), consumer);
+    }
+
+    void enter(@NotNull MCPlayer player, @NotNull Position position) {
+        final Set<ChunkViewable> viewing = this.viewing(player);
+        this.forEachInRange(position, viewable -> {
+            if (!viewable.isViewer(player))
+                viewable.addViewer(player);
+            viewing.add(viewable);
+        });
+    }
+
+    void move(@NotNull MCPlayer player, @NotNull Position from, @NotNull Position to) {
+        final Set<ChunkViewable> viewing = this.viewing(player);
+        this.index.forEachTransition(
+                from.getChunkX(), from.getChunkZ(),
+                to.getChunkX(), to.getChunkZ(),
+                viewable -> {
+                    if (!viewable.isViewer(player))
+                        viewable.addViewer(player);
+                    viewing.add(viewable);
+                },
+                viewable -> {
+                    if (viewable.isViewer(player))
+                        viewable.removeViewer(player);
+                    viewing.remove(viewable);
+                }
+        );
+    }
+
+    void leave(@NotNull MCPlayer player) {
+        final Set<ChunkViewable> viewing = this.viewing.remove(player.getUUID());
+        if (viewing == null)
+            return;
+
+        for (ChunkViewable viewable : viewing) {
+            if (viewable.isViewer(player))
+                viewable.removeViewer(player);
+        }
+    }
+
+    private Set<ChunkViewable> viewing(MCPlayer player) {
+        return this.viewing.computeIfAbsent(player.getUUID(), ignored -> ConcurrentHashMap.newKeySet());
+    }
+
+}
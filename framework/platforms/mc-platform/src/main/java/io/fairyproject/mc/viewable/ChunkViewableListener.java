@@ -0,0 +1,80 @@
+package io.fairyproject.mc.viewable;
+
+import io.fairyproject.container.InjectableComponent;
+import io.fairyproject.container.PostInitialize;
+import io.fairyproject.event.EventListener;
+import io.fairyproject.event.GlobalEventNode;
+import io.fairyproject.mc.MCEventFilter;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.event.MCPlayerChangedWorldEvent;
+import io.fairyproject.mc.event.MCPlayerJoinEvent;
+import io.fairyproject.mc.event.MCPlayerMoveEvent;
+import io.fairyproject.mc.event.MCPlayerQuitEvent;
+import io.fairyproject.mc.event.world.MCWorldUnloadEvent;
+import io.fairyproject.mc.util.Position;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Objects;
+
+/**
+ * Feed the player joins, quits, world changes and chunk crossings to the {@link ChunkViewableIndex} of their world.
+ * A single listener is registered for all the viewables instead of one per viewable and per viewer.
+ */
+@InjectableComponent
+@RequiredArgsConstructor
+public class ChunkViewableListener {
+
+    private final GlobalEventNode eventNode;
+
+    @PostInitialize
+    public void onPostInitialize() {
+        this.eventNode.addListener(MCPlayerJoinEvent.class, this::onJoin);
+        this.eventNode.addListener(EventListener.builder(MCPlayerMoveEvent.class)
+                .ignoreCancelled(true)
+                .filter(MCEventFilter.DIFFERENT_CHUNK)
+                .handler(this::onMove)
+                .build());
+        this.eventNode.addListener(MCPlayerChangedWorldEvent.class, this::onChangedWorld);
+        this.eventNode.addListener(MCPlayerQuitEvent.class, this::onQuit);
+        this.eventNode.addListener(MCWorldUnloadEvent.class, event -> ChunkViewableIndex.remove(event.getWorld().getName()));
+    }
+
+    private void onJoin(MCPlayerJoinEvent event) {
+        final MCPlayer player = event.getPlayer();
+        final Position position = player.getPosition();
+        final ChunkViewableIndex index = ChunkViewableIndex.get(position.getWorld());
+        if (index != null)
+            index.enter(player, position);
+    }
+
+    private void onMove(MCPlayerMoveEvent event) {
+        final Position from = event.getFromPos();
+        final Position to = event.getToPos();
+        // moving across worlds is handled by MCPlayerChangedWorldEvent
+        if (!Objects.equals(from.getWorld(), to.getWorld()))
+            return;
+
+        final ChunkViewableIndex index = ChunkViewableIndex.get(to.getWorld());
+        if (index != null)
+            index.move(event.getPlayer(), from, to);
+    }
+
+    private void onChangedWorld(MCPlayerChangedWorldEvent event) {
+        final MCPlayer player = event.getPlayer();
+        final ChunkViewableIndex from = ChunkViewableIndex.get(event.getWorldFrom().getName());
+        if (from != null)
+            from.leave(player);
+
+        final ChunkViewableIndex to = ChunkViewableIndex.get(event.getWorldTo().getName());
+        if (to != null)
+            to.enter(player, player.getPosition());
+    }
+
+    private void onQuit(MCPlayerQuitEvent event) {
+        final MCPlayer player = event.getPlayer();
+        final ChunkViewableIndex index = ChunkViewableIndex.get(player.getWorld().getName());
+        if (index != null)
+            index.leave(player);
+    }
+
+}
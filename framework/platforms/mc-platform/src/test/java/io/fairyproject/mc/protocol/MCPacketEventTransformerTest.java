@@ -0,0 +1,91 @@
+package io.fairyproject.mc.protocol;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import io.fairyproject.event.Event;
+import io.fairyproject.event.EventListener;
+import io.fairyproject.event.EventNode;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.mc.protocol.event.MCPlayerPacketReceiveEvent;
+import io.fairyproject.mc.protocol.event.PacketTypeListeners;
+import io.fairyproject.mc.registry.player.MCPlayerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MCPacketEventTransformerTest {
+
+    private final PacketTypeCommon interact = Mockito.mock(PacketTypeCommon.class);
+    private final PacketTypeCommon chat = Mockito.mock(PacketTypeCommon.class);
+    private final Object platformPlayer = new Object();
+
+    private MCPlayer player;
+    private MCPlayerRegistry playerRegistry;
+    private PacketTypeListeners<MCPlayerPacketReceiveEvent> receiveListeners;
+    private EventNode<Event> eventNode;
+    private MCPacketEventTransformer transformer;
+
+    @BeforeEach
+    void setUp() {
+        player = Mockito.mock(MCPlayer.class);
+        playerRegistry = Mockito.mock(MCPlayerRegistry.class);
+        when(playerRegistry.findByPlatform(platformPlayer)).thenReturn(player);
+        receiveListeners = new PacketTypeListeners<>();
+        eventNode = EventNode.all("packets");
+        transformer = new MCPacketEventTransformer(playerRegistry, receiveListeners, new PacketTypeListeners<>(), () -> eventNode);
+    }
+
+    @Test
+    void packetsNobodyListensToAreSkipped() {
+        receiveListeners.register(interact, event -> fail("listener of another packet type was called"));
+        PacketReceiveEvent receiveEvent = receiveEvent(chat);
+        PacketSendEvent sendEvent = Mockito.mock(PacketSendEvent.class);
+        when(sendEvent.getPacketType()).thenReturn(chat);
+
+        transformer.onPacketReceive(receiveEvent);
+        transformer.onPacketSend(sendEvent);
+
+        verify(receiveEvent, never()).getPlayer();
+        verify(sendEvent, never()).getPlayer();
+        verifyNoInteractions(playerRegistry);
+    }
+
+    @Test
+    void typedListenersReceiveTheirPacketType() {
+        List<MCPlayerPacketReceiveEvent> received = new ArrayList<>();
+        receiveListeners.register(interact, received::add);
+        PacketReceiveEvent receiveEvent = receiveEvent(interact);
+
+        transformer.onPacketReceive(receiveEvent);
+
+        assertEquals(1, received.size());
+        assertSame(player, received.get(0).getPlayer());
+        assertSame(receiveEvent, received.get(0).getEvent());
+    }
+
+    @Test
+    void globalListenersReceiveEveryPacketType() {
+        List<MCPlayerPacketReceiveEvent> received = new ArrayList<>();
+        eventNode.addListener(EventListener.of(MCPlayerPacketReceiveEvent.class, received::add));
+
+        transformer.onPacketReceive(receiveEvent(interact));
+        transformer.onPacketReceive(receiveEvent(chat));
+
+        assertEquals(2, received.size());
+    }
+
+    private PacketReceiveEvent receiveEvent(PacketTypeCommon packetType) {
+        PacketReceiveEvent event = Mockito.mock(PacketReceiveEvent.class);
+        when(event.getPacketType()).thenReturn(packetType);
+        when(event.getPlayer()).thenReturn(platformPlayer);
+        return event;
+    }
+
+}
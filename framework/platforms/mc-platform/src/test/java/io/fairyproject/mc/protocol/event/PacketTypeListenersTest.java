@@ -0,0 +1,62 @@
+package io.fairyproject.mc.protocol.event;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import io.fairyproject.mc.MCPlayer;
+import io.fairyproject.util.terminable.Terminable;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PacketTypeListenersTest {
+
+    private final PacketTypeCommon interact = Mockito.mock(PacketTypeCommon.class);
+    private final PacketTypeCommon chat = Mockito.mock(PacketTypeCommon.class);
+
+    @Test
+    void listenersAreIndexedByPacketType() {
+        PacketTypeListeners<MCPlayerPacketReceiveEvent> listeners = new PacketTypeListeners<>();
+        Consumer<MCPlayerPacketReceiveEvent> first = event -> {};
+        Consumer<MCPlayerPacketReceiveEvent> second = event -> {};
+        listeners.register(interact, first);
+        listeners.register(interact, second);
+
+        assertArrayEquals(new Consumer[]{first, second}, listeners.get(interact));
+        assertNull(listeners.get(chat));
+        assertNull(listeners.get(null));
+    }
+
+    @Test
+    void packetTypeIsRemovedWithItsLastListener() throws Exception {
+        PacketTypeListeners<MCPlayerPacketReceiveEvent> listeners = new PacketTypeListeners<>();
+        Consumer<MCPlayerPacketReceiveEvent> first = event -> {};
+        Terminable firstTerminable = listeners.register(interact, first);
+        Terminable secondTerminable = listeners.register(interact, event -> {});
+
+        secondTerminable.close();
+        assertArrayEquals(new Consumer[]{first}, listeners.get(interact));
+
+        firstTerminable.close();
+        assertNull(listeners.get(interact));
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        PacketTypeListeners<MCPlayerPacketReceiveEvent> listeners = new PacketTypeListeners<>();
+        AtomicInteger calls = new AtomicInteger();
+        listeners.register(interact, event -> {
+            throw new IllegalStateException("expected");
+        });
+        listeners.register(interact, event -> calls.incrementAndGet());
+
+        MCPlayerPacketReceiveEvent event = new MCPlayerPacketReceiveEvent(Mockito.mock(MCPlayer.class), Mockito.mock(PacketReceiveEvent.class));
+        PacketTypeListeners.call(listeners.get(interact), event);
+
+        assertEquals(1, calls.get());
+    }
+
+}